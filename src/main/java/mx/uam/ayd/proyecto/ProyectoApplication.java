@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 import javafx.application.Application;
@@ -27,6 +28,7 @@ import mx.uam.ayd.proyecto.presentacion.principal.ControlPrincipal;
  * @author Humberto Cervantes (c) 21 Nov 2022
  */
 @SpringBootApplication
+@EnableScheduling
 public class ProyectoApplication {
 
 	private final ControlPrincipal controlPrincipal;
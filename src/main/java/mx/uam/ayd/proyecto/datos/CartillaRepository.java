@@ -1,15 +1,16 @@
 package mx.uam.ayd.proyecto.datos;
 
 import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.CartillaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.SerieVacunaResumen;
 import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
-
-
-import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface CartillaRepository extends CrudRepository<Cartilla, Long> {
 
@@ -20,6 +21,28 @@ public interface CartillaRepository extends CrudRepository<Cartilla, Long> {
      */
     List<Cartilla> findByMascotaId(Long mascotaId);
 
+    /**
+     * Busca las cartillas que todavía no tienen evento en la línea de tiempo clínica,
+     * junto con su veterinario.
+     * @return Lista de cartillas sin evento de historial
+     */
+    @Query("SELECT c FROM Cartilla c LEFT JOIN FETCH c.veterinario WHERE NOT EXISTS (SELECT e.idEvento FROM EventoHistorial e "
+            + "WHERE e.tipo = mx.uam.ayd.proyecto.negocio.modelo.TipoEventoHistorial.VACUNA AND e.idOrigen = c.id)")
+    List<Cartilla> findSinEventoHistorial();
+
+    // Proyecciones con solo las columnas de la tabla de vacunas y el nombre del veterinario
+    @Query("SELECT c.id AS id, c.vacuna AS vacuna, c.fechaAplicacion AS fechaAplicacion, "
+            + "c.proximaDosis AS proximaDosis, v.nombreCompleto AS nombreVeterinario, c.lote AS lote, "
+            + "c.observaciones AS observaciones "
+            + "FROM Cartilla c LEFT JOIN c.veterinario v WHERE c.mascotaId = :mascotaId ORDER BY c.fechaAplicacion")
+    List<CartillaResumen> findResumenByMascotaIdOrderByFechaAplicacion(@Param("mascotaId") Long mascotaId);
+
+    @Query("SELECT c.id AS id, c.vacuna AS vacuna, c.fechaAplicacion AS fechaAplicacion, "
+            + "c.proximaDosis AS proximaDosis, v.nombreCompleto AS nombreVeterinario, c.lote AS lote, "
+            + "c.observaciones AS observaciones "
+            + "FROM Cartilla c LEFT JOIN c.veterinario v ORDER BY c.fechaAplicacion")
+    List<CartillaResumen> findResumenByOrderByFechaAplicacion();
+
     /**
      * Busca cartillas por tipo de vacuna
      * @param vacuna Tipo de vacuna
@@ -28,11 +51,18 @@ public interface CartillaRepository extends CrudRepository<Cartilla, Long> {
     List<Cartilla> findByVacuna(String vacuna);
 
     /**
-     * Busca cartillas por veterinario
-     * @param veterinario Nombre del veterinario
-     * @return Lista de cartillas aplicadas por ese veterinario
+     * Busca cartillas por veterinario, por igualdad sobre el índice de veterinario_id
+     * @param idVeterinario ID del veterinario
+     * @return Lista de cartillas aplicadas por ese veterinario, de la más antigua a la más reciente
+     */
+    List<Cartilla> findByVeterinarioIdVeterinarioOrderByFechaAplicacion(Long idVeterinario);
+
+    /**
+     * Cuenta las vacunas aplicadas por un veterinario
+     * @param idVeterinario ID del veterinario
+     * @return Número de cartillas
      */
-    List<Cartilla> findByVeterinarioContainingIgnoreCase(String veterinario);
+    long countByVeterinarioIdVeterinario(Long idVeterinario);
 
     /**
      * Busca cartillas por rango de fechas
@@ -49,5 +79,40 @@ public interface CartillaRepository extends CrudRepository<Cartilla, Long> {
      */
     List<Cartilla> findByProximaDosisBefore(java.time.LocalDate fechaLimite);
 
+    /**
+     * Busca las dosis pendientes en un rango de fechas, usando el índice de próxima dosis.
+     * Solo la última dosis de cada serie tiene próxima dosis.
+     * @param desde Fecha inicial (inclusiva)
+     * @param hasta Fecha final (inclusiva)
+     * @return Cartillas ordenadas por fecha de la próxima dosis
+     */
+    List<Cartilla> findByProximaDosisBetweenOrderByProximaDosis(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Serie de dosis de una vacuna para una mascota, en orden de aplicación
+     * @param mascotaId ID de la mascota
+     * @param vacuna Vacuna
+     * @return Dosis de la serie
+     */
+    List<Cartilla> findByMascotaIdAndVacunaOrderByFechaAplicacionAscIdAsc(Long mascotaId, VacunaEnum vacuna);
+
+    /**
+     * Última dosis de la serie de una vacuna para una mascota, sobre el índice de series
+     * @param mascotaId ID de la mascota
+     * @param vacuna Vacuna
+     * @return La dosis aplicada más reciente, si hay
+     */
+    Optional<Cartilla> findFirstByMascotaIdAndVacunaOrderByFechaAplicacionDescIdDesc(Long mascotaId, VacunaEnum vacuna);
+
+    /**
+     * Una fila por mascota registrada y vacuna, con la especie de la mascota. Como solo la
+     * última dosis de cada serie tiene próxima dosis, el MAX es la de la última.
+     * @return Series de vacunación de todas las mascotas
+     */
+    @Query("SELECT m.especie AS especie, c.vacuna AS vacuna, MAX(c.proximaDosis) AS vigenteHasta "
+            + "FROM Cartilla c, Mascota m WHERE m.idMascota = c.mascotaId "
+            + "GROUP BY c.mascotaId, m.especie, c.vacuna")
+    List<SerieVacunaResumen> findSeriesVacunacion();
+
     boolean existsByVacunaAndMascotaIdAndFechaAplicacion(VacunaEnum vacuna, Long mascotaId, LocalDate fechaAplicacion);
 }
\ No newline at end of file
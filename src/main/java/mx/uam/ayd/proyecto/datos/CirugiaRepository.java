@@ -1,5 +1,6 @@
 package mx.uam.ayd.proyecto.datos;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Cirugia;
 import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
@@ -29,4 +30,13 @@ public interface CirugiaRepository extends CrudRepository<Cirugia, Long> {
 	 * @return Una lista conteniendo todas las cirugías registradas para esa mascota.
 	 */
 	List<Cirugia> findByMascota(Mascota mascota);
+
+	/**
+	 * Busca las cirugías que todavía no tienen evento en la línea de tiempo clínica.
+	 *
+	 * @return Lista de cirugías sin evento de historial.
+	 */
+	@Query("SELECT c FROM Cirugia c WHERE NOT EXISTS (SELECT e.idEvento FROM EventoHistorial e "
+			+ "WHERE e.tipo = mx.uam.ayd.proyecto.negocio.modelo.TipoEventoHistorial.CIRUGIA AND e.idOrigen = c.idCirugia)")
+	List<Cirugia> findSinEventoHistorial();
 }
\ No newline at end of file
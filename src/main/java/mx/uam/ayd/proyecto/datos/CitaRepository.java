@@ -1,9 +1,15 @@
 package mx.uam.ayd.proyecto.datos;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.CitaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCita;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCitaVeterinario;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,13 +27,130 @@ public interface CitaRepository extends CrudRepository<Cita, Long> {
      * @return Una lista de citas existentes que se cruzan con el periodo dado para ese veterinario.
      */
 
-    @Query("SELECT c FROM Cita c WHERE c.fechaHora < :fin AND c.fechaHora > :inicio AND c.atendida = false AND c.veterinario.idVeterinario = :idVeterinario")
+    @Query("SELECT c FROM Cita c WHERE c.fechaHora < :fin AND c.fechaHoraFin > :inicio AND c.atendida = false AND c.veterinario.idVeterinario = :idVeterinario")
     List<Cita> findCitasOverlap(
             @Param("inicio") LocalDateTime inicio,
             @Param("fin") LocalDateTime fin,
             @Param("idVeterinario") Long idVeterinario);
 
+    /**
+     * Recupera los intervalos ocupados de la agenda de un veterinario entre dos fechas,
+     * sin cargar las citas. Como una cita no pasa de un día al otro, basta con que empiece
+     * dentro del rango.
+     * @param idVeterinario El ID del veterinario
+     * @param desde Inicio del rango (inclusive)
+     * @param hasta Fin del rango (exclusive)
+     * @return intervalos de las citas pendientes ordenados por inicio
+     */
+    @Query("SELECT c.idCita AS idCita, c.fechaHora AS inicio, c.fechaHoraFin AS fin FROM Cita c "
+            + "WHERE c.veterinario.idVeterinario = :idVeterinario AND c.atendida = false "
+            + "AND c.fechaHora >= :desde AND c.fechaHora < :hasta ORDER BY c.fechaHora")
+    List<IntervaloCita> findIntervalosOcupados(
+            @Param("idVeterinario") Long idVeterinario,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Recupera los intervalos ocupados de todos los veterinarios entre dos fechas.
+     * @param desde Inicio del rango (inclusive)
+     * @param hasta Fin del rango (exclusive)
+     * @return intervalos de las citas pendientes ordenados por inicio
+     */
+    @Query("SELECT c.idCita AS idCita, c.fechaHora AS inicio, c.fechaHoraFin AS fin, "
+            + "c.veterinario.idVeterinario AS idVeterinario FROM Cita c "
+            + "WHERE c.veterinario IS NOT NULL AND c.atendida = false "
+            + "AND c.fechaHora >= :desde AND c.fechaHora < :hasta ORDER BY c.fechaHora")
+    List<IntervaloCitaVeterinario> findIntervalosOcupadosDeTodos(
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Recupera, en orden cronológico, las citas pendientes que aún no tienen recordatorio,
+     * empiezan entre dos fechas y tienen a dónde enviarlo: el correo del cliente ligado o,
+     * si no hay cliente, un contacto de correo. Recorre solo ese tramo del índice de citas
+     * pendientes y trae al cliente y al veterinario en la misma consulta.
+     * @param desde Inicio del rango (inclusive)
+     * @param hasta Fin del rango (inclusive)
+     * @param lote Máximo de citas a recuperar
+     * @return citas ordenadas por fecha y hora
+     */
+    @Query("SELECT c FROM Cita c LEFT JOIN FETCH c.cliente cl LEFT JOIN FETCH c.veterinario "
+            + "WHERE c.atendida = false AND c.fechaHora >= :desde AND c.fechaHora <= :hasta "
+            + "AND c.recordatorioEnviado IS NULL AND COALESCE(cl.correoElectronico, c.contacto) LIKE '%@%' "
+            + "ORDER BY c.fechaHora, c.idCita")
+    List<Cita> findRecordatoriosPendientes(
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta,
+            Pageable lote);
+
+    /**
+     * Marca en una sola sentencia las citas cuyo recordatorio ya salió, sin volver a
+     * escribir el resto de la fila.
+     * @param ids IDs de las citas
+     * @param enviado Momento del envío
+     * @return número de citas marcadas
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Cita c SET c.recordatorioEnviado = :enviado WHERE c.idCita IN :ids")
+    int marcarRecordatorioEnviado(@Param("ids") List<Long> ids, @Param("enviado") LocalDateTime enviado);
+
+    /**
+     * Recupera las citas pendientes de un veterinario entre dos fechas.
+     * @param idVeterinario El ID del veterinario
+     * @param desde Inicio del rango (inclusive)
+     * @param hasta Fin del rango (exclusive)
+     * @return citas no atendidas ordenadas por fecha y hora, con su cliente cargado
+     */
+    @Query("SELECT c FROM Cita c LEFT JOIN FETCH c.cliente WHERE c.veterinario.idVeterinario = :idVeterinario AND c.atendida = false "
+            + "AND c.fechaHora >= :desde AND c.fechaHora < :hasta ORDER BY c.fechaHora")
+    List<Cita> findPendientesDeVeterinario(
+            @Param("idVeterinario") Long idVeterinario,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Recupera las citas de una serie.
+     * @param idSerie identificador de la serie
+     * @return citas de la serie ordenadas por fecha y hora
+     */
+    List<Cita> findByIdSerieOrderByFechaHoraAsc(String idSerie);
+
     // Metodo para recuperar todas las citas
 
     List<Cita> findAllByOrderByFechaHoraAsc();
+
+    /**
+     * Recupera solo las columnas que muestra la tabla de citas, con el nombre del veterinario.
+     * @return proyecciones de todas las citas ordenadas por fecha y hora
+     */
+    @Query("SELECT c.idCita AS idCita, c.fechaHora AS fechaHora, c.tipo AS tipo, "
+            + "c.nombreSolicitante AS nombreSolicitante, c.contacto AS contacto, c.atendida AS atendida, "
+            + "v.nombreCompleto AS nombreVeterinario "
+            + "FROM Cita c LEFT JOIN c.veterinario v ORDER BY c.fechaHora ASC")
+    List<CitaResumen> findResumenes();
+
+    /**
+     * Recupera las citas de un cliente usando el índice (cliente_id, fecha_hora).
+     * @param idCliente ID del cliente
+     * @return citas del cliente ordenadas por fecha y hora
+     */
+    List<Cita> findByClienteIdClienteOrderByFechaHoraAsc(Long idCliente);
+
+    /**
+     * Recupera las citas de una mascota usando el índice (mascota_id, fecha_hora).
+     * @param idMascota ID de la mascota
+     * @return citas de la mascota ordenadas por fecha y hora
+     */
+    List<Cita> findByMascotaIdMascotaOrderByFechaHoraAsc(Long idMascota);
+
+    /**
+     * Recupera las citas ligadas a una mascota que todavía no tienen evento en la línea de
+     * tiempo clínica, junto con su veterinario.
+     * @return citas sin evento de historial
+     */
+    @Query("SELECT c FROM Cita c LEFT JOIN FETCH c.veterinario WHERE c.mascota IS NOT NULL AND NOT EXISTS "
+            + "(SELECT e.idEvento FROM EventoHistorial e WHERE e.tipo = "
+            + "mx.uam.ayd.proyecto.negocio.modelo.TipoEventoHistorial.CITA AND e.idOrigen = c.idCita)")
+    List<Cita> findSinEventoHistorial();
 }
\ No newline at end of file
@@ -1,17 +1,56 @@
 package mx.uam.ayd.proyecto.datos;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.ClienteResumen;
 
 /**
  * Repositorio para Clientes
  */
 public interface ClienteRepository extends CrudRepository<Cliente, Long>{
+
+    /**
+     * Recupera todos los clientes junto con su membresía, que se muestra
+     * en la tabla de clientes y se usa en la venta para el descuento.
+     *
+     * @return todos los clientes
+     */
+    @Override
+    @EntityGraph("Cliente.conMembresia")
+    Iterable<Cliente> findAll();
+
+    /**
+     * Recupera un cliente junto con su membresía
+     * * @param idCliente
+     * @return el cliente si existe
+     */
+    @Override
+    @EntityGraph("Cliente.conMembresia")
+    Optional<Cliente> findById(Long idCliente);
+
+    /**
+     * Recupera solo las columnas que muestra la tabla de clientes
+     * * @return proyecciones de todos los clientes, ordenadas por ID
+     */
+    @Query("SELECT c.idCliente AS idCliente, c.nombreCompleto AS nombreCompleto, c.telefono AS telefono, "
+            + "c.correoElectronico AS correoElectronico, c.direccion AS direccion, "
+            + "c.montoAcumulado AS montoAcumulado, m.tipo AS tipoMembresia "
+            + "FROM Cliente c LEFT JOIN c.membresia m ORDER BY c.idCliente")
+    List<ClienteResumen> findResumenes();
+
     /**
      * Encuentra un cliente a partir de su teléfono
      * * @param telefono
      * @return el cliente si existe, o null si no
      */
+    @EntityGraph("Cliente.conMembresia")
     public Cliente findByTelefono(String telefono);
 
     /**
@@ -21,5 +60,44 @@ public interface ClienteRepository extends CrudRepository<Cliente, Long>{
      */
 
     public Cliente findByCorreoElectronico(String correoElectronico);
-    
+
+    /**
+     * Encuentra al cliente cuyo teléfono o correo electrónico es el contacto
+     * capturado en una cita. Del teléfono solo se toman los dígitos.
+     * * @param contacto teléfono o correo electrónico
+     * @return el cliente si existe, o null si no
+     */
+    default Cliente findByContacto(String contacto) {
+        if (contacto == null || contacto.isBlank()) {
+            return null;
+        }
+        String valor = contacto.trim();
+        if (valor.contains("@")) {
+            return findByCorreoElectronico(valor);
+        }
+        String digitos = valor.replaceAll("\\D", "");
+        return digitos.length() == 10 ? findByTelefono(digitos) : null;
+    }
+
+    /**
+     * Suma un monto al gasto acumulado del cliente en una sola sentencia,
+     * sin leer la fila, para que dos ventas simultáneas no pierdan un incremento.
+     *
+     * @param idCliente ID del cliente
+     * @param centavos monto a sumar, en centavos
+     * @return número de filas actualizadas (0 si el cliente no existe)
+     */
+    @Modifying
+    @Query(value = "UPDATE cliente SET monto_acumulado = COALESCE(monto_acumulado, 0) + :centavos "
+            + "WHERE id_cliente = :idCliente", nativeQuery = true)
+    int incrementarMontoAcumulado(@Param("idCliente") Long idCliente, @Param("centavos") long centavos);
+
+    /**
+     * Lee solo el gasto acumulado del cliente, sin cargar la entidad ni su membresía.
+     *
+     * @param idCliente ID del cliente
+     * @return el gasto acumulado, vacío si el cliente no existe o no tiene monto
+     */
+    @Query("SELECT c.montoAcumulado FROM Cliente c WHERE c.idCliente = :idCliente")
+    Optional<Double> findMontoAcumuladoByIdCliente(@Param("idCliente") Long idCliente);
 }
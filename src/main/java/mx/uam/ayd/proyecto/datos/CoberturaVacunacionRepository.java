@@ -0,0 +1,43 @@
+package mx.uam.ayd.proyecto.datos;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import mx.uam.ayd.proyecto.negocio.modelo.CoberturaVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repositorio de la cobertura de vacunación por especie y vacuna.
+ */
+public interface CoberturaVacunacionRepository extends CrudRepository<CoberturaVacunacion, CoberturaVacunacion.Llave> {
+
+    /**
+     * Cobertura de todas las vacunas de una especie.
+     */
+    List<CoberturaVacunacion> findByEspecieOrderByVacuna(Especie especie);
+
+    /**
+     * Fecha de corte más antigua de la tabla, para saber si hay que conciliar.
+     *
+     * @return la fecha, vacía si la tabla está vacía
+     */
+    @Query("SELECT MIN(c.fechaCorte) FROM CoberturaVacunacion c")
+    Optional<LocalDate> findFechaCorteMasAntigua();
+
+    /**
+     * Suma los cambios a los conteos en una sola sentencia, sin leer la fila.
+     *
+     * @return número de filas actualizadas (0 si la pareja aún no tiene fila)
+     */
+    @Modifying
+    @Query("UPDATE CoberturaVacunacion c SET c.vacunadas = c.vacunadas + :vacunadas, "
+            + "c.alCorriente = c.alCorriente + :alCorriente WHERE c.especie = :especie AND c.vacuna = :vacuna")
+    int incrementar(@Param("especie") Especie especie, @Param("vacuna") VacunaEnum vacuna,
+                    @Param("vacunadas") int vacunadas, @Param("alCorriente") int alCorriente);
+}
@@ -1,9 +1,44 @@
 package mx.uam.ayd.proyecto.datos;
 
 import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.HechoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.TotalVentaProducto;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface DetalleVentaRepository extends CrudRepository<DetalleVenta, Long> {
     Optional<DetalleVenta> findByProducto_IdProductoAndVenta_IdVenta(Long idProducto, Long idVenta);
+
+    /**
+     * Todos los detalles de venta como filas planas para cargar el cubo de ventas,
+     * en una sola consulta y ordenados por fecha.
+     */
+    @Query("SELECT new mx.uam.ayd.proyecto.negocio.modelo.HechoVenta(" +
+            "d.idDetalleVenta, v.fecha, p.idProducto, p.nombre, p.tipoProducto, p.marcaProducto, " +
+            "c.idCliente, c.nombreCompleto, m.tipo, m.estado, d.cantidadVendida, d.subtotal) " +
+            "FROM DetalleVenta d JOIN d.venta v JOIN d.producto p " +
+            "LEFT JOIN v.cliente c LEFT JOIN c.membresia m " +
+            "ORDER BY v.fecha, d.idDetalleVenta")
+    List<HechoVenta> findHechosVenta();
+
+    /**
+     * Unidades y total vendidos por día y producto, usando el precio, descuento y fecha
+     * guardados en cada detalle. Lee solo la tabla detalle_venta por el índice (fecha, producto).
+     * El total se suma en la base de datos sobre la columna de centavos.
+     *
+     * @param desde fecha inicial inclusiva, null para no limitar
+     * @param hasta fecha final inclusiva, null para no limitar
+     * @return totales ordenados por fecha
+     */
+    @Query("SELECT d.fecha AS fecha, d.producto.idProducto AS idProducto, " +
+            "SUM(d.cantidadVendida) AS cantidad, SUM(d.subtotal) AS totalCentavos " +
+            "FROM DetalleVenta d " +
+            "WHERE (:desde IS NULL OR d.fecha >= :desde) AND (:hasta IS NULL OR d.fecha <= :hasta) " +
+            "GROUP BY d.fecha, d.producto.idProducto " +
+            "ORDER BY d.fecha")
+    List<TotalVentaProducto> sumarPorFechaYProducto(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package mx.uam.ayd.proyecto.datos;
+
+import java.util.List;
+
+import org.springframework.data.repository.CrudRepository;
+
+import mx.uam.ayd.proyecto.negocio.modelo.DuracionCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+
+/**
+ * Repositorio de las duraciones de cita propias de cada veterinario.
+ */
+public interface DuracionCitaVeterinarioRepository extends CrudRepository<DuracionCitaVeterinario, DuracionCitaVeterinario.Llave> {
+
+    /**
+     * Duraciones propias de un veterinario.
+     */
+    List<DuracionCitaVeterinario> findByIdVeterinarioOrderByTipo(Long idVeterinario);
+
+    /**
+     * Duraciones propias de todos los veterinarios para un tipo de cita.
+     */
+    List<DuracionCitaVeterinario> findByTipo(TipoCita tipo);
+}
@@ -0,0 +1,23 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.EventoHistorial;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+
+/**
+ * Repositorio de la línea de tiempo clínica por mascota.
+ */
+public interface EventoHistorialRepository extends CrudRepository<EventoHistorial, Long> {
+
+    /**
+     * Recupera una página del historial de una mascota, del evento más reciente al más antiguo.
+     * Se resuelve con una sola consulta sobre el índice (id_mascota, fecha).
+     *
+     * @param idMascota ID de la mascota
+     * @param pageable página a recuperar
+     * @return eventos de la página solicitada
+     */
+    List<EventoHistorial> findByIdMascotaOrderByFechaDescIdEventoDesc(Long idMascota, Pageable pageable);
+}
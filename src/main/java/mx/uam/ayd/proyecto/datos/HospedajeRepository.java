@@ -1,8 +1,13 @@
 package mx.uam.ayd.proyecto.datos;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
 
+import java.time.LocalDate;
+import java.util.List;
+
 /**
  * @file HospedajeRepository.java
  * @brief Interfaz para la persistencia de la entidad {@link Hospedaje}.
@@ -35,4 +40,28 @@ public interface HospedajeRepository extends CrudRepository<Hospedaje, Long> {
 
     // Método para el Criterio de Aceptación 5: Editar/Eliminar
     Hospedaje findByIdHospedaje(Long idHospedaje);
+
+    /**
+     * Recupera en una sola consulta todos los hospedajes activos en una fecha,
+     * es decir, aquellos cuyo periodo [fechaEntrada, fechaSalida] contiene la fecha.
+     *
+     * <p>La mascota y el cliente se traen en la misma consulta para que la
+     * ronda diaria pueda mostrarlos sin consultas adicionales por fila.</p>
+     *
+     * @param fecha Fecha a consultar.
+     * @return Lista de hospedajes activos ordenada por identificador.
+     */
+    @Query("SELECT h FROM Hospedaje h LEFT JOIN FETCH h.mascota LEFT JOIN FETCH h.cliente " +
+            "WHERE h.fechaEntrada <= :fecha AND h.fechaSalida >= :fecha " +
+            "ORDER BY h.idHospedaje")
+    List<Hospedaje> findActivosEnFecha(@Param("fecha") LocalDate fecha);
+
+    /**
+     * Busca los hospedajes que todavía no tienen evento en la línea de tiempo clínica.
+     *
+     * @return Lista de hospedajes sin evento de historial.
+     */
+    @Query("SELECT h FROM Hospedaje h WHERE h.mascota IS NOT NULL AND NOT EXISTS (SELECT e.idEvento FROM EventoHistorial e " +
+            "WHERE e.tipo = mx.uam.ayd.proyecto.negocio.modelo.TipoEventoHistorial.HOSPEDAJE AND e.idOrigen = h.idHospedaje)")
+    List<Hospedaje> findSinEventoHistorial();
 }
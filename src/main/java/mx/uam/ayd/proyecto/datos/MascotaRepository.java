@@ -1,7 +1,10 @@
 package mx.uam.ayd.proyecto.datos;
 
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
 import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
 
@@ -37,8 +40,28 @@ public interface MascotaRepository extends CrudRepository<Mascota, Long> {
     /**
      * Encuentra todas las mascotas asociadas a un cliente específico
      * @param cliente el cliente dueño de las mascotas
+     * Trae al dueño en la misma consulta (grafo "Mascota.paciente") porque
+     * la selección de paciente y las notificaciones lo usan.
+     *
      * @return una lista de mascotas
      */
+    @EntityGraph("Mascota.paciente")
     public List<Mascota> findByCliente(Cliente cliente);
-}
 
+    /**
+     * Cuenta las mascotas por la especie tal como se capturó
+     *
+     * @return pares [especie, número de mascotas]
+     */
+    @Query("SELECT m.especie, COUNT(m) FROM Mascota m GROUP BY m.especie")
+    List<Object[]> contarPorEspecie();
+
+    /**
+     * Especie de cada mascota de un cliente, sin cargar las mascotas
+     *
+     * @param idCliente ID del cliente
+     * @return una especie por mascota
+     */
+    @Query("SELECT m.especie FROM Mascota m WHERE m.cliente.idCliente = :idCliente")
+    List<String> findEspeciesByIdCliente(@Param("idCliente") Long idCliente);
+}
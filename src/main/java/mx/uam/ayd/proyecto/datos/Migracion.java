@@ -0,0 +1,53 @@
+package mx.uam.ayd.proyecto.datos;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Base de las migraciones de datos que corren al arrancar la aplicación.
+ *
+ * <p>Cada migración declara qué pasa si falla. Una obligatoria detiene el arranque, porque
+ * la aplicación leería los datos en su forma anterior y los corrompería o rompería sus
+ * reglas. Una opcional solo avisa: la aplicación funciona sin ella y se reintenta en el
+ * siguiente arranque.</p>
+ */
+public abstract class Migracion {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final String descripcion;
+    private final boolean obligatoria;
+
+    /**
+     * @param descripcion lo que hace la migración, en infinitivo, para los mensajes de error
+     * @param obligatoria true si la aplicación no puede arrancar sin ella
+     */
+    protected Migracion(String descripcion, boolean obligatoria) {
+        this.descripcion = descripcion;
+        this.obligatoria = obligatoria;
+    }
+
+    /**
+     * Corre la migración.
+     *
+     * @throws IllegalStateException si una migración obligatoria falla
+     */
+    @PostConstruct
+    public void migrar() {
+        try {
+            aplicar();
+        } catch (DataAccessException e) {
+            if (obligatoria) {
+                throw new IllegalStateException("No se pudo " + descripcion + "; la aplicación no puede arrancar", e);
+            }
+            log.warn("No se pudo " + descripcion + "; se reintentará en el siguiente arranque: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hace el trabajo de la migración. Debe poder correr en cada arranque.
+     */
+    protected abstract void aplicar();
+}
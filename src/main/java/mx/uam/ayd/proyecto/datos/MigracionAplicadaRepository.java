@@ -0,0 +1,10 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.MigracionAplicada;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repositorio de las tareas de arranque que ya terminaron.
+ */
+public interface MigracionAplicadaRepository extends CrudRepository<MigracionAplicada, String> {
+}
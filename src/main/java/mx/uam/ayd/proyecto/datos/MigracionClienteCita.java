@@ -0,0 +1,84 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liga las citas anteriores al cliente que las solicitó, a partir del teléfono o correo
+ * capturado como texto libre en la columna {@code contacto}.
+ *
+ * <p>Cada contacto distinto se busca una sola vez con {@link ClienteRepository#findByContacto};
+ * si el cliente tiene una sola mascota, la cita queda también ligada a ella. Las citas cuyo
+ * contacto no es de ningún cliente se quedan sin ligar y se vuelven a intentar en el siguiente
+ * arranque, por si el cliente se registró después.</p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MigracionClienteCita extends Migracion {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionClienteCita.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClienteRepository clienteRepository;
+    private final MascotaRepository mascotaRepository;
+
+    @Autowired
+    public MigracionClienteCita(JdbcTemplate jdbcTemplate, ClienteRepository clienteRepository,
+                                MascotaRepository mascotaRepository) {
+        super("ligar las citas anteriores a su cliente", false);
+        this.jdbcTemplate = jdbcTemplate;
+        this.clienteRepository = clienteRepository;
+        this.mascotaRepository = mascotaRepository;
+    }
+
+    @Override
+    protected void aplicar() {
+        int ligadas = ligar();
+        if (ligadas > 0) {
+            log.info("Cliente ligado en " + ligadas + " citas");
+        }
+    }
+
+    /**
+     * @return número de citas ligadas
+     */
+    int ligar() {
+        List<String> contactos = jdbcTemplate.queryForList(
+                "SELECT DISTINCT contacto FROM cita WHERE cliente_id IS NULL AND contacto IS NOT NULL", String.class);
+
+        List<Object[]> cambios = new ArrayList<>();
+        int sinCliente = 0;
+        for (String contacto : contactos) {
+            Cliente cliente = clienteRepository.findByContacto(contacto);
+            if (cliente == null) {
+                sinCliente++;
+                continue;
+            }
+            List<Mascota> mascotas = mascotaRepository.findByCliente(cliente);
+            Long idMascota = mascotas.size() == 1 ? mascotas.get(0).getIdMascota() : null;
+            cambios.add(new Object[] { cliente.getIdCliente(), idMascota, contacto });
+        }
+
+        int ligadas = 0;
+        if (!cambios.isEmpty()) {
+            for (int filas : jdbcTemplate.batchUpdate(
+                    "UPDATE cita SET cliente_id = ?, mascota_id = COALESCE(mascota_id, ?) "
+                            + "WHERE cliente_id IS NULL AND contacto = ?", cambios)) {
+                ligadas += Math.max(filas, 0);
+            }
+        }
+        if (sinCliente > 0) {
+            log.info(sinCliente + " contactos de citas no corresponden a un cliente registrado");
+        }
+        return ligadas;
+    }
+}
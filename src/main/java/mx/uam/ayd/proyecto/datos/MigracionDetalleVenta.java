@@ -0,0 +1,112 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.Dinero;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Completa el precio unitario, el descuento y la fecha de los detalles de venta
+ * guardados antes de que la entidad los tuviera.
+ *
+ * <p>La fecha se copia de la venta. El precio y el descuento se deducen del subtotal:
+ * si el precio actual del producto con alguno de los descuentos de membresía
+ * (o sin descuento) da el subtotal guardado, se usan esos valores; si no (el precio
+ * cambió desde la venta), se toma el precio efectivo subtotal / cantidad sin descuento.
+ * En ambos casos el subtotal no cambia.</p>
+ *
+ * <p>Corre después de {@link MigracionDinero}, así que los importes ya están en centavos.
+ * Solo toca filas con datos faltantes y solo llena las columnas vacías, así que los valores
+ * ya guardados no se vuelven a deducir y puede correr en cada arranque.</p>
+ */
+@Component
+@DependsOn({"entityManagerFactory", "migracionDinero"})
+public class MigracionDetalleVenta extends Migracion {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionDetalleVenta.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MigracionDetalleVenta(JdbcTemplate jdbcTemplate) {
+        super("completar el precio y la fecha de los detalles de venta", false);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected void aplicar() {
+        int completados = completar();
+        if (completados > 0) {
+            log.info("Precio y fecha completados en " + completados + " detalles de venta");
+        }
+    }
+
+    /**
+     * @return número de detalles actualizados
+     */
+    int completar() {
+        List<Map<String, Object>> filas = jdbcTemplate.queryForList(
+                "SELECT d.id_detalle_venta, d.cantidad_vendida, d.subtotal, p.precio, v.fecha "
+                        + "FROM detalle_venta d "
+                        + "LEFT JOIN producto p ON p.id_producto = d.producto_id "
+                        + "LEFT JOIN venta v ON v.id_venta = d.venta_id "
+                        + "WHERE d.precio_unitario IS NULL OR d.descuento IS NULL OR d.fecha IS NULL");
+
+        List<Object[]> cambios = new ArrayList<>(filas.size());
+        for (Map<String, Object> fila : filas) {
+            int cantidad = ((Number) fila.get("CANTIDAD_VENDIDA")).intValue();
+            long subtotal = ((Number) fila.get("SUBTOTAL")).longValue();
+            Number precioActual = (Number) fila.get("PRECIO");
+            long precio = precioActual != null ? precioActual.longValue() : -1L;
+            double descuento = deducirDescuento(cantidad, subtotal, precio);
+            if (descuento < 0) {
+                precio = cantidad != 0 ? Math.round((double) subtotal / cantidad) : Math.max(precio, 0L);
+                descuento = 0.0;
+            }
+            cambios.add(new Object[] {
+                    (Date) fila.get("FECHA"), precio, descuento, fila.get("ID_DETALLE_VENTA")
+            });
+        }
+
+        if (!cambios.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE detalle_venta SET fecha = COALESCE(fecha, ?), precio_unitario = COALESCE(precio_unitario, ?), "
+                            + "descuento = COALESCE(descuento, ?) "
+                            + "WHERE id_detalle_venta = ?", cambios);
+        }
+        return cambios.size();
+    }
+
+    /**
+     * Busca el descuento con el que el precio actual produce el subtotal guardado.
+     *
+     * @param cantidad unidades vendidas
+     * @param subtotal subtotal guardado, en centavos
+     * @param precioActual precio actual del producto en centavos, negativo si no existe
+     * @return el descuento (0 si no hubo), o -1 si el precio actual no explica el subtotal
+     */
+    static double deducirDescuento(int cantidad, long subtotal, long precioActual) {
+        if (precioActual < 0) {
+            return -1;
+        }
+        long importe = Dinero.importe(precioActual, cantidad);
+        if (importe == subtotal) {
+            return 0.0;
+        }
+        for (TipoMembresia tipo : TipoMembresia.values()) {
+            if (Dinero.conDescuento(importe, tipo.getDescuento()) == subtotal) {
+                return tipo.getDescuento();
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,116 @@
+package mx.uam.ayd.proyecto.datos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Convierte las columnas de importes de pesos (DOUBLE) a centavos (BIGINT) al arrancar la aplicación.
+ *
+ * <p>Las entidades guardan los importes en centavos con {@code ConvertidorDinero}. Hibernate
+ * crea así las columnas nuevas, pero no cambia el tipo de una columna existente, por lo que
+ * una base de datos anterior todavía tiene los importes en pesos. Cada columna que siga siendo
+ * de punto flotante se copia multiplicada por 100 y redondeada a una columna BIGINT nueva,
+ * que después toma el lugar de la original.</p>
+ *
+ * <p>La columna en pesos nunca se modifica: mientras exista, la copia se vuelve a calcular a
+ * partir de ella. Si la aplicación se detiene a la mitad, el siguiente arranque retoma el paso
+ * pendiente sin volver a multiplicar, y las columnas ya convertidas no se tocan, por lo que
+ * puede correr en cada arranque.</p>
+ *
+ * <p>Es obligatoria: si una columna no se puede convertir, el arranque se detiene, porque
+ * {@code ConvertidorDinero} leería y escribiría los pesos anteriores como centavos.</p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MigracionDinero extends Migracion {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionDinero.class);
+
+    /** Tabla y columna de cada importe. */
+    static final List<String[]> COLUMNAS = List.of(
+            new String[] {"producto", "precio"},
+            new String[] {"detalle_venta", "subtotal"},
+            new String[] {"detalle_venta", "precio_unitario"},
+            new String[] {"venta", "monto_total"},
+            new String[] {"cliente", "monto_acumulado"});
+
+    /** Sufijo de la columna BIGINT mientras se hace la conversión. */
+    static final String SUFIJO_CENTAVOS = "_centavos";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MigracionDinero(JdbcTemplate jdbcTemplate) {
+        super("convertir los importes a centavos", true);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected void aplicar() {
+        for (String[] columna : COLUMNAS) {
+            convertir(columna[0], columna[1]);
+        }
+    }
+
+    /**
+     * Convierte la columna a centavos si todavía es de punto flotante.
+     *
+     * @return true si la columna se convirtió
+     */
+    public boolean convertir(String tabla, String columna) {
+        String centavos = columna + SUFIJO_CENTAVOS;
+        Map<String, Object> original = describir(tabla, columna);
+        boolean hayCopia = describir(tabla, centavos) != null;
+        if (original == null) {
+            if (!hayCopia) {
+                return false;
+            }
+            // Se detuvo después de borrar la columna en pesos: solo falta el cambio de nombre
+            renombrar(tabla, centavos, columna);
+            return true;
+        }
+        if (!esFlotante((String) original.get("DATA_TYPE"))) {
+            return false;
+        }
+
+        if (!hayCopia) {
+            jdbcTemplate.execute("ALTER TABLE " + tabla + " ADD COLUMN " + centavos + " BIGINT");
+        }
+        int filas = jdbcTemplate.update("UPDATE " + tabla + " SET " + centavos
+                + " = CAST(ROUND(" + columna + " * 100, 0) AS BIGINT)");
+        if ("NO".equals(original.get("IS_NULLABLE"))) {
+            jdbcTemplate.execute("ALTER TABLE " + tabla + " ALTER COLUMN " + centavos + " SET NOT NULL");
+        }
+        jdbcTemplate.execute("ALTER TABLE " + tabla + " DROP COLUMN " + columna);
+        renombrar(tabla, centavos, columna);
+        log.info("Columna " + tabla + "." + columna + " convertida a centavos (" + filas + " filas)");
+        return true;
+    }
+
+    /**
+     * @return tipo y nulabilidad de la columna, o null si no existe
+     */
+    private Map<String, Object> describir(String tabla, String columna) {
+        List<Map<String, Object>> filas = jdbcTemplate.queryForList(
+                "SELECT DATA_TYPE, IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = ? AND COLUMN_NAME = ?",
+                tabla.toUpperCase(), columna.toUpperCase());
+        return filas.isEmpty() ? null : filas.get(0);
+    }
+
+    private void renombrar(String tabla, String columna, String nombre) {
+        jdbcTemplate.execute("ALTER TABLE " + tabla + " ALTER COLUMN " + columna + " RENAME TO " + nombre);
+    }
+
+    private static boolean esFlotante(String tipo) {
+        String t = tipo.toUpperCase();
+        return t.startsWith("DOUBLE") || t.equals("REAL") || t.equals("FLOAT")
+                || t.startsWith("DECIMAL") || t.startsWith("NUMERIC");
+    }
+}
@@ -0,0 +1,64 @@
+package mx.uam.ayd.proyecto.datos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Llena el fin de las citas agendadas cuando todas duraban {@value #DURACION_ANTERIOR_MINUTOS}
+ * minutos, para que la búsqueda de solapamientos y de horarios libres las tome en cuenta.
+ *
+ * <p>Solo toca las citas sin fin, así que puede correr en cada arranque.</p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MigracionDuracionCita extends Migracion {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionDuracionCita.class);
+
+    static final int DURACION_ANTERIOR_MINUTOS = 30;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MigracionDuracionCita(JdbcTemplate jdbcTemplate) {
+        super("calcular el fin de las citas", true);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected void aplicar() {
+        int completadas = completar();
+        if (completadas > 0) {
+            log.info("Fin calculado en " + completadas + " citas");
+        }
+    }
+
+    /**
+     * @return número de citas completadas
+     */
+    int completar() {
+        List<Object[]> cambios = new ArrayList<>();
+        jdbcTemplate.query("SELECT id_cita, fecha_hora FROM cita WHERE fecha_hora_fin IS NULL AND fecha_hora IS NOT NULL", rs -> {
+            Timestamp inicio = rs.getTimestamp("fecha_hora");
+            cambios.add(new Object[] {
+                    Timestamp.valueOf(inicio.toLocalDateTime().plusMinutes(DURACION_ANTERIOR_MINUTOS)),
+                    rs.getLong("id_cita") });
+        });
+
+        int completadas = 0;
+        if (!cambios.isEmpty()) {
+            for (int filas : jdbcTemplate.batchUpdate("UPDATE cita SET fecha_hora_fin = ? WHERE id_cita = ?", cambios)) {
+                completadas += Math.max(filas, 0);
+            }
+        }
+        return completadas;
+    }
+}
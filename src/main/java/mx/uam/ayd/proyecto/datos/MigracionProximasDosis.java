@@ -0,0 +1,164 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.CalendarioVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Recalcula el número de dosis y la próxima dosis de todas las cartillas con un calendario
+ * de vacunación.
+ *
+ * <p>Recorre la tabla una sola vez en el orden del índice de series (mascota, vacuna,
+ * fecha): al cerrar cada serie numera sus dosis y solo la última conserva próxima dosis.
+ * Las filas que cambian se escriben en lotes JDBC de {@value #LOTE}.</p>
+ *
+ * <p>Al arrancar corre con el calendario predeterminado si hay cartillas sin número de
+ * dosis, que son las guardadas cuando la próxima dosis siempre era a los 12 meses.</p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MigracionProximasDosis extends Migracion {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionProximasDosis.class);
+
+    static final int LOTE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MigracionProximasDosis(JdbcTemplate jdbcTemplate) {
+        super("recalcular las próximas dosis", false);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected void aplicar() {
+        Integer pendientes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cartillas WHERE numero_dosis IS NULL", Integer.class);
+        if (pendientes != null && pendientes > 0) {
+            int actualizadas = recalcular(CalendarioVacunacion.predeterminado());
+            log.info("Próxima dosis recalculada en " + actualizadas + " cartillas");
+        }
+    }
+
+    /**
+     * Recalcula todas las cartillas con el calendario dado.
+     *
+     * @param calendario reglas de vacunación
+     * @return número de cartillas actualizadas
+     */
+    public int recalcular(CalendarioVacunacion calendario) {
+        Barrido barrido = new Barrido(calendario);
+        jdbcTemplate.query(
+                "SELECT c.id, c.mascota_id, c.vacuna, c.fecha_aplicacion, c.numero_dosis, c.proxima_dosis, m.especie "
+                        + "FROM cartillas c LEFT JOIN mascota m ON m.id_mascota = c.mascota_id "
+                        + "ORDER BY c.mascota_id, c.vacuna, c.fecha_aplicacion, c.id",
+                rs -> {
+                    Date proxima = rs.getDate("proxima_dosis");
+                    int numero = rs.getInt("numero_dosis");
+                    Integer numeroDosis = rs.wasNull() ? null : numero;
+                    barrido.agregar(new Fila(
+                            rs.getLong("id"),
+                            rs.getLong("mascota_id"),
+                            VacunaEnum.valueOf(rs.getString("vacuna")),
+                            rs.getDate("fecha_aplicacion").toLocalDate(),
+                            numeroDosis,
+                            proxima != null ? proxima.toLocalDate() : null,
+                            Especie.de(rs.getString("especie"))));
+                });
+        barrido.terminar();
+        return barrido.actualizadas;
+    }
+
+    /**
+     * Fila leída de una cartilla.
+     */
+    private static final class Fila {
+        final long id;
+        final long mascotaId;
+        final VacunaEnum vacuna;
+        final LocalDate fechaAplicacion;
+        final Integer numeroDosis;
+        final LocalDate proximaDosis;
+        final Especie especie;
+
+        Fila(long id, long mascotaId, VacunaEnum vacuna, LocalDate fechaAplicacion,
+             Integer numeroDosis, LocalDate proximaDosis, Especie especie) {
+            this.id = id;
+            this.mascotaId = mascotaId;
+            this.vacuna = vacuna;
+            this.fechaAplicacion = fechaAplicacion;
+            this.numeroDosis = numeroDosis;
+            this.proximaDosis = proximaDosis;
+            this.especie = especie;
+        }
+
+        boolean mismaSerie(Fila otra) {
+            return otra != null && mascotaId == otra.mascotaId && vacuna == otra.vacuna;
+        }
+    }
+
+    /**
+     * Acumula la serie en curso y los cambios pendientes de escribir.
+     */
+    private final class Barrido {
+        private final CalendarioVacunacion calendario;
+        private final List<Fila> serie = new ArrayList<>();
+        private final List<Object[]> cambios = new ArrayList<>(LOTE);
+        private int actualizadas;
+
+        Barrido(CalendarioVacunacion calendario) {
+            this.calendario = calendario;
+        }
+
+        void agregar(Fila fila) {
+            if (!serie.isEmpty() && !fila.mismaSerie(serie.get(0))) {
+                cerrarSerie();
+            }
+            serie.add(fila);
+        }
+
+        void terminar() {
+            cerrarSerie();
+            escribir();
+        }
+
+        private void cerrarSerie() {
+            for (int i = 0; i < serie.size(); i++) {
+                Fila fila = serie.get(i);
+                int numero = i + 1;
+                LocalDate proxima = i == serie.size() - 1
+                        ? calendario.proximaDosis(fila.vacuna, fila.especie, numero, fila.fechaAplicacion)
+                        : null;
+                if (!Objects.equals(fila.numeroDosis, numero) || !Objects.equals(fila.proximaDosis, proxima)) {
+                    cambios.add(new Object[] { numero, proxima != null ? Date.valueOf(proxima) : null, fila.id });
+                    if (cambios.size() == LOTE) {
+                        escribir();
+                    }
+                }
+            }
+            serie.clear();
+        }
+
+        private void escribir() {
+            if (cambios.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate("UPDATE cartillas SET numero_dosis = ?, proxima_dosis = ? WHERE id = ?", cambios);
+            actualizadas += cambios.size();
+            cambios.clear();
+        }
+    }
+}
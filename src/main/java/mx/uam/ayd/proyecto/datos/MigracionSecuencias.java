@@ -0,0 +1,98 @@
+package mx.uam.ayd.proyecto.datos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ajusta las secuencias de identificadores al arrancar la aplicación.
+ *
+ * <p>Las entidades antes usaban columnas IDENTITY; ahora usan secuencias con
+ * bloques de {@value #TAMANO_BLOQUE} valores para que Hibernate pueda agrupar
+ * los INSERT en lotes JDBC. Una base de datos existente ya tiene registros,
+ * así que cada secuencia se reinicia por encima del mayor ID de su tabla.
+ * Los IDs existentes no cambian.</p>
+ *
+ * <p>Se ejecuta después de que Hibernate actualiza el esquema (que crea las
+ * secuencias) y antes de cualquier inserción. Si la secuencia ya está por
+ * encima del mayor ID no hace nada, por lo que puede correr en cada arranque.</p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MigracionSecuencias extends Migracion {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionSecuencias.class);
+
+    /** Debe coincidir con el allocationSize de los @SequenceGenerator. */
+    public static final int TAMANO_BLOQUE = 50;
+
+    /** Tabla, columna de ID y secuencia de cada entidad. */
+    static final List<String[]> SECUENCIAS = List.of(
+            new String[] {"alerta", "id_alerta", "alerta_seq"},
+            new String[] {"cartillas", "id", "cartillas_seq"},
+            new String[] {"cirugia", "id_cirugia", "cirugia_seq"},
+            new String[] {"cita", "id_cita", "cita_seq"},
+            new String[] {"cliente", "id_cliente", "cliente_seq"},
+            new String[] {"detalle_venta", "id_detalle_venta", "detalle_venta_seq"},
+            new String[] {"eventos_historial", "id_evento", "eventos_historial_seq"},
+            new String[] {"grupo", "id_grupo", "grupo_seq"},
+            new String[] {"hospedaje", "id_hospedaje", "hospedaje_seq"},
+            new String[] {"mascota", "id_mascota", "mascota_seq"},
+            new String[] {"membresia", "id_membresia", "membresia_seq"},
+            new String[] {"movimientos_gasto", "id_movimiento", "movimientos_gasto_seq"},
+            new String[] {"movimientos_stock", "id_movimiento", "movimientos_stock_seq"},
+            new String[] {"notificacion", "id_notificacion", "notificacion_seq"},
+            new String[] {"producto", "id_producto", "producto_seq"},
+            new String[] {"registro_hospedaje", "id_registro", "registro_hospedaje_seq"},
+            new String[] {"saldos_gasto", "id_saldo", "saldos_gasto_seq"},
+            new String[] {"saldos_stock", "id_saldo", "saldos_stock_seq"},
+            new String[] {"umbral", "id_umbral", "umbral_seq"},
+            new String[] {"usuario", "id_usuario", "usuario_seq"},
+            new String[] {"venta", "id_venta", "venta_seq"},
+            new String[] {"veterinario", "id_veterinario", "veterinario_seq"});
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MigracionSecuencias(JdbcTemplate jdbcTemplate) {
+        super("ajustar las secuencias de identificadores", true);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected void aplicar() {
+        for (String[] secuencia : SECUENCIAS) {
+            ajustar(secuencia[0], secuencia[1], secuencia[2]);
+        }
+    }
+
+    /**
+     * Reinicia la secuencia si su siguiente valor podría repetir un ID existente.
+     *
+     * <p>Con el optimizador pooled, un valor v de la secuencia reserva los IDs
+     * (v - bloque, v], así que se deja un bloque completo de margen.</p>
+     *
+     * @return true si la secuencia se reinició
+     */
+    boolean ajustar(String tabla, String columna, String secuencia) {
+        Long mayorId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(" + columna + "), 0) FROM " + tabla, Long.class);
+        Long siguiente = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, secuencia.toUpperCase());
+
+        long minimo = mayorId + TAMANO_BLOQUE + 1;
+        if (mayorId == 0 || (siguiente != null && siguiente >= minimo)) {
+            return false;
+        }
+
+        jdbcTemplate.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + minimo);
+        log.info("Secuencia " + secuencia + " reiniciada en " + minimo + " (mayor ID en " + tabla + ": " + mayorId + ")");
+        return true;
+    }
+}
@@ -0,0 +1,219 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Liga cada cartilla al veterinario que la aplicó, a partir del nombre que se capturaba
+ * como texto libre en la columna {@code veterinario}.
+ *
+ * <p>Cada nombre distinto se compara con los veterinarios registrados sin acentos,
+ * mayúsculas, títulos ("Dr.", "Dra.", "MVZ"...) ni especialidades entre paréntesis, y
+ * tolerando iniciales y errores de una letra. Se toma el veterinario con mayor parecido si
+ * supera {@value #PARECIDO_MINIMO} y no empata con otro; si no, se registra un veterinario
+ * con ese nombre para no perder el dato. Al final se borra la columna de texto.</p>
+ *
+ * <p>Solo hace algo mientras la columna de texto exista, así que puede correr en cada arranque.</p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class MigracionVeterinarioCartilla extends Migracion {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionVeterinarioCartilla.class);
+
+    static final double PARECIDO_MINIMO = 0.66;
+
+    private static final Set<String> TITULOS = Set.of("dr", "dra", "doctor", "doctora", "mvz", "mv", "vet", "lic");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VeterinarioRepository veterinarioRepository;
+
+    @Autowired
+    public MigracionVeterinarioCartilla(JdbcTemplate jdbcTemplate, VeterinarioRepository veterinarioRepository) {
+        super("ligar las cartillas a su veterinario", true);
+        this.jdbcTemplate = jdbcTemplate;
+        this.veterinarioRepository = veterinarioRepository;
+    }
+
+    @Override
+    protected void aplicar() {
+        int ligadas = ligar();
+        if (ligadas > 0) {
+            log.info("Veterinario ligado en " + ligadas + " cartillas");
+        }
+    }
+
+    /**
+     * @return número de cartillas ligadas
+     */
+    int ligar() {
+        List<String> columna = jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'CARTILLAS' AND COLUMN_NAME = 'VETERINARIO'",
+                String.class);
+        if (columna.isEmpty()) {
+            return 0;
+        }
+
+        List<Veterinario> registrados = new ArrayList<>();
+        veterinarioRepository.findAll().forEach(registrados::add);
+        List<String[]> tokensRegistrados = new ArrayList<>(registrados.size());
+        for (Veterinario veterinario : registrados) {
+            tokensRegistrados.add(tokens(veterinario.getNombreCompleto()));
+        }
+
+        // Un nombre normalizado se resuelve una sola vez aunque aparezca en muchas cartillas
+        Map<String, Long> resueltos = new HashMap<>();
+        List<Object[]> cambios = new ArrayList<>();
+        List<String> nombres = jdbcTemplate.queryForList(
+                "SELECT DISTINCT veterinario FROM cartillas WHERE veterinario_id IS NULL", String.class);
+        for (String nombre : nombres) {
+            String[] tokens = tokens(nombre);
+            String llave = String.join(" ", tokens);
+            Long idVeterinario = resueltos.get(llave);
+            if (idVeterinario == null) {
+                int indice = masParecido(tokens, tokensRegistrados);
+                if (indice >= 0) {
+                    idVeterinario = registrados.get(indice).getIdVeterinario();
+                } else {
+                    Veterinario nuevo = new Veterinario();
+                    nuevo.setNombreCompleto(nombre == null || nombre.isBlank() ? "Veterinario no registrado" : nombre.trim());
+                    idVeterinario = veterinarioRepository.save(nuevo).getIdVeterinario();
+                    registrados.add(nuevo);
+                    tokensRegistrados.add(tokens);
+                    log.info("Veterinario registrado desde la cartilla: " + nuevo.getNombreCompleto());
+                }
+                resueltos.put(llave, idVeterinario);
+            }
+            cambios.add(new Object[] { idVeterinario, nombre });
+        }
+
+        int ligadas = 0;
+        if (!cambios.isEmpty()) {
+            for (int filas : jdbcTemplate.batchUpdate(
+                    "UPDATE cartillas SET veterinario_id = ? WHERE veterinario_id IS NULL AND veterinario = ?", cambios)) {
+                ligadas += Math.max(filas, 0);
+            }
+            if (nombres.contains(null)) {
+                ligadas += jdbcTemplate.update(
+                        "UPDATE cartillas SET veterinario_id = ? WHERE veterinario_id IS NULL AND veterinario IS NULL",
+                        resueltos.get(""));
+            }
+        }
+
+        Integer pendientes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cartillas WHERE veterinario_id IS NULL", Integer.class);
+        if (pendientes != null && pendientes == 0) {
+            jdbcTemplate.execute("ALTER TABLE cartillas DROP COLUMN veterinario");
+        }
+        return ligadas;
+    }
+
+    /**
+     * Busca el veterinario con mayor parecido.
+     *
+     * @return su posición, o -1 si ninguno alcanza el mínimo o hay empate
+     */
+    static int masParecido(String[] nombre, List<String[]> registrados) {
+        int mejor = -1;
+        double mejorParecido = 0;
+        boolean empate = false;
+        for (int i = 0; i < registrados.size(); i++) {
+            double parecido = parecido(nombre, registrados.get(i));
+            if (parecido > mejorParecido) {
+                mejor = i;
+                mejorParecido = parecido;
+                empate = false;
+            } else if (parecido == mejorParecido && parecido > 0) {
+                empate = true;
+            }
+        }
+        return mejorParecido >= PARECIDO_MINIMO && !empate ? mejor : -1;
+    }
+
+    /**
+     * Coeficiente de Dice sobre las palabras: 2 * coincidencias / (palabras de a + palabras de b).
+     */
+    static double parecido(String[] a, String[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        boolean[] usadas = new boolean[b.length];
+        int coincidencias = 0;
+        for (String palabra : a) {
+            for (int j = 0; j < b.length; j++) {
+                if (!usadas[j] && coinciden(palabra, b[j])) {
+                    usadas[j] = true;
+                    coincidencias++;
+                    break;
+                }
+            }
+        }
+        return 2.0 * coincidencias / (a.length + b.length);
+    }
+
+    /**
+     * Dos palabras coinciden si son iguales, si una es la inicial de la otra o si difieren
+     * en una letra (palabras de 4 letras o más).
+     */
+    static boolean coinciden(String a, String b) {
+        if (a.equals(b)) {
+            return true;
+        }
+        if (a.length() == 1 || b.length() == 1) {
+            return a.charAt(0) == b.charAt(0);
+        }
+        return Math.min(a.length(), b.length()) >= 4 && distancia(a, b) <= 1;
+    }
+
+    /**
+     * Palabras del nombre sin acentos, mayúsculas, títulos ni texto entre paréntesis.
+     */
+    static String[] tokens(String nombre) {
+        if (nombre == null) {
+            return new String[0];
+        }
+        String texto = Normalizer.normalize(nombre, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\(.*?\\)", " ")
+                .replaceAll("[^a-zñ]+", " ")
+                .trim();
+        if (texto.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(texto.split(" ")).filter(p -> !TITULOS.contains(p)).toArray(String[]::new);
+    }
+
+    private static int distancia(String a, String b) {
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                actual[j] = Math.min(Math.min(actual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + costo);
+            }
+            int[] temp = anterior;
+            anterior = actual;
+            actual = temp;
+        }
+        return anterior[b.length()];
+    }
+}
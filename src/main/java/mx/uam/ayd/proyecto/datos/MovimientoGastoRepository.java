@@ -0,0 +1,35 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.MovimientoGasto;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repositorio del libro de gasto acumulado por cliente.
+ * Las consultas usan el índice (id_cliente, id_movimiento).
+ */
+public interface MovimientoGastoRepository extends CrudRepository<MovimientoGasto, Long> {
+
+    /**
+     * Cuenta los movimientos de un cliente posteriores a un corte.
+     *
+     * @param idCliente ID del cliente
+     * @param idMovimiento último movimiento incluido en el corte
+     * @return número de movimientos posteriores
+     */
+    long countByIdClienteAndIdMovimientoGreaterThan(Long idCliente, Long idMovimiento);
+
+    /**
+     * Suma en centavos los movimientos de un cliente en el rango (desde, hasta].
+     *
+     * @param idCliente ID del cliente
+     * @param desde último movimiento ya incluido (exclusivo)
+     * @param hasta último movimiento a incluir (inclusivo)
+     * @return suma en centavos, 0 si no hay movimientos
+     */
+    @Query(value = "SELECT COALESCE(SUM(monto), 0) FROM movimientos_gasto "
+            + "WHERE id_cliente = :idCliente AND id_movimiento > :desde AND id_movimiento <= :hasta",
+            nativeQuery = true)
+    long sumarCentavos(@Param("idCliente") Long idCliente, @Param("desde") Long desde, @Param("hasta") Long hasta);
+}
@@ -0,0 +1,44 @@
+package mx.uam.ayd.proyecto.datos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import mx.uam.ayd.proyecto.negocio.modelo.MovimientoStock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repositorio del kardex de productos.
+ * Las consultas usan el índice (id_producto, id_movimiento).
+ */
+public interface MovimientoStockRepository extends CrudRepository<MovimientoStock, Long> {
+
+    /**
+     * Cuenta los movimientos de un producto posteriores a un corte.
+     *
+     * @param idProducto ID del producto
+     * @param idMovimiento último movimiento incluido en el corte
+     * @return número de movimientos posteriores
+     */
+    long countByIdProductoAndIdMovimientoGreaterThan(Long idProducto, Long idMovimiento);
+
+    /**
+     * Suma los movimientos de un producto posteriores a un corte y registrados hasta un momento.
+     *
+     * @param idProducto ID del producto
+     * @param desde último movimiento ya incluido en el corte (exclusivo)
+     * @param hasta momento límite (inclusivo)
+     * @return suma de las cantidades, 0 si no hay movimientos
+     */
+    @Query(value = "SELECT COALESCE(SUM(cantidad), 0) FROM movimientos_stock "
+            + "WHERE id_producto = :idProducto AND id_movimiento > :desde AND fecha <= :hasta",
+            nativeQuery = true)
+    int sumarCantidades(@Param("idProducto") Long idProducto, @Param("desde") Long desde,
+                        @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Movimientos de un producto en orden de registro, para mostrar su kardex.
+     */
+    List<MovimientoStock> findByIdProductoOrderByIdMovimiento(Long idProducto);
+}
@@ -0,0 +1,23 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.PoblacionEspecie;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repositorio del número de mascotas por especie.
+ */
+public interface PoblacionEspecieRepository extends CrudRepository<PoblacionEspecie, Especie> {
+
+    /**
+     * Suma el cambio al número de mascotas en una sola sentencia.
+     *
+     * @return número de filas actualizadas (0 si la especie aún no tiene fila)
+     */
+    @Modifying
+    @Query("UPDATE PoblacionEspecie p SET p.mascotas = p.mascotas + :cambio WHERE p.especie = :especie")
+    int incrementar(@Param("especie") Especie especie, @Param("cambio") int cambio);
+}
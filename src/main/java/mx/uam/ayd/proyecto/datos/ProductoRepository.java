@@ -2,27 +2,91 @@ package mx.uam.ayd.proyecto.datos;
 
 import mx.uam.ayd.proyecto.negocio.modelo.*;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductoRepository extends CrudRepository <Producto, Long> {
 
+    // Las consultas que regresan productos traen su umbral en el mismo JOIN
+    // (grafo "Producto.conUmbral") para evitar un SELECT extra por producto
+
+    @Override
+    @EntityGraph("Producto.conUmbral")
+    Iterable<Producto> findAll();
+
+    @Override
+    @EntityGraph("Producto.conUmbral")
+    Optional<Producto> findById(Long idProducto);
+
+    @EntityGraph("Producto.conUmbral")
     public Producto findByNombre(String nombre);
 
+    @EntityGraph("Producto.conUmbral")
     Optional<Producto> findByNombreAndTipoProductoAndMarcaProducto(String nombre, TipoProducto tipoProducto, MarcaProducto marcaProducto);
 
+    @EntityGraph("Producto.conUmbral")
     List<Producto> findByTipoProducto(TipoProducto tipoProducto);
 
+    /**
+     * Recupera solo las columnas que muestra la tabla de inventario.
+     *
+     * @param tipoProducto tipo de producto a listar
+     * @return proyecciones de los productos del tipo, ordenadas por ID
+     */
+    List<ProductoResumen> findResumenByTipoProductoOrderByIdProducto(TipoProducto tipoProducto);
+
+    /**
+     * Nombre y tipo de varios productos en una sola consulta, para etiquetar reportes.
+     */
+    List<ProductoResumen> findResumenByIdProductoIn(Collection<Long> idsProducto);
+
+    @EntityGraph("Producto.conUmbral")
     public Producto findByIdProducto(Long idProducto);
 
+    /**
+     * Suma (o resta, con cantidad negativa) stock con un UPDATE condicional, sin leer el producto:
+     * dos movimientos del mismo producto no pueden pisarse ni dejar el stock negativo.
+     *
+     * @return 1 si se aplicó, 0 si el producto no existe o no tiene stock suficiente
+     */
+    @Modifying
+    @Query("UPDATE Producto p SET p.cantidadStock = p.cantidadStock + :cantidad "
+            + "WHERE p.idProducto = :idProducto AND p.cantidadStock + :cantidad >= 0")
+    int sumarStock(@Param("idProducto") Long idProducto, @Param("cantidad") int cantidad);
+
+    /**
+     * Lee el stock mantenido de un producto sin cargar la entidad.
+     */
+    @Query("SELECT p.cantidadStock FROM Producto p WHERE p.idProducto = :idProducto")
+    Optional<Integer> findCantidadStockByIdProducto(@Param("idProducto") Long idProducto);
+
+    /**
+     * Busca un producto por su código de barras (columna con índice único).
+     */
+    @EntityGraph("Producto.conUmbral")
+    Optional<Producto> findByCodigoBarras(String codigoBarras);
+
+    /**
+     * Códigos de barras asignados, para cargar el índice en memoria en una sola consulta.
+     */
+    List<CodigoBarrasProducto> findCodigoByCodigoBarrasIsNotNull();
+
     //Se agrega esta parte para la implementacion con el umbral
+    @EntityGraph("Producto.conUmbral")
     List<Producto> findByCantidadStockGreaterThan(int cantidad);
 
     //Nos permitira filtrar los productos que nos interesan cou un usoVeterinario y unidad especifico.
+    @EntityGraph("Producto.conUmbral")
     List<Producto> findByUsoVeterinarioAndUnidadProducto(UsoVeterinario usoVeterinario, UnidadProducto unidadProducto);
 
     //Nos permitira filtrar los productos que nos interesan cou un usoVeterinario
+    @EntityGraph("Producto.conUmbral")
     List<Producto> findByUsoVeterinario(UsoVeterinario usoVeterinario);
 }
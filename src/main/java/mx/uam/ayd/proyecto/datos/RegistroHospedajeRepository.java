@@ -5,8 +5,11 @@ package mx.uam.ayd.proyecto.datos;
 
 import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
 import mx.uam.ayd.proyecto.negocio.modelo.RegistroHospedaje;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +30,17 @@ public interface RegistroHospedajeRepository extends CrudRepository<RegistroHosp
      */
     List <RegistroHospedaje> findByHospedajeOrderByFechaRegistroDesc(Hospedaje hospedaje);
 
+    /**
+     * Obtiene los registros diarios que todavía no tienen evento en la línea de tiempo
+     * clínica, junto con su hospedaje.
+     *
+     * @return Lista de registros diarios sin evento de historial.
+     */
+    @Query("SELECT r FROM RegistroHospedaje r JOIN FETCH r.hospedaje h WHERE h.mascota IS NOT NULL "
+            + "AND NOT EXISTS (SELECT e.idEvento FROM EventoHistorial e WHERE e.tipo = "
+            + "mx.uam.ayd.proyecto.negocio.modelo.TipoEventoHistorial.REGISTRO_HOSPEDAJE AND e.idOrigen = r.idRegistro)")
+    List<RegistroHospedaje> findSinEventoHistorial();
+
     /**
      * Verifica si existe un registro diario dentro de un rango de fecha/hora
      * para evitar duplicados en el mismo día.
@@ -42,4 +56,22 @@ public interface RegistroHospedajeRepository extends CrudRepository<RegistroHosp
             LocalDateTime hasta
     );
 
+    /**
+     * Obtiene, en una sola consulta, los identificadores de los hospedajes
+     * que ya tienen un registro dentro del rango de fecha/hora indicado.
+     *
+     * @param idsHospedaje Identificadores de los hospedajes a verificar.
+     * @param desde        Fecha/hora inicial del rango.
+     * @param hasta        Fecha/hora final del rango.
+     * @return Identificadores de los hospedajes que ya cuentan con registro.
+     */
+    @Query("SELECT DISTINCT r.hospedaje.idHospedaje FROM RegistroHospedaje r " +
+            "WHERE r.hospedaje.idHospedaje IN :idsHospedaje " +
+            "AND r.fechaRegistro BETWEEN :desde AND :hasta")
+    List<Long> findIdsHospedajeConRegistroEntre(
+            @Param("idsHospedaje") Collection<Long> idsHospedaje,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta
+    );
+
 }
@@ -0,0 +1,36 @@
+package mx.uam.ayd.proyecto.datos;
+
+import java.time.LocalDateTime;
+
+import mx.uam.ayd.proyecto.negocio.modelo.ReservaStock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositorio de las reservas de stock de los carritos abiertos.
+ */
+public interface ReservaStockRepository extends CrudRepository<ReservaStock, ReservaStock.Llave> {
+
+    /**
+     * Borra en una sola sentencia las reservas de una sesión.
+     *
+     * @return número de reservas borradas
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReservaStock r WHERE r.idSesion = :idSesion")
+    int borrarPorSesion(@Param("idSesion") String idSesion);
+
+    /**
+     * Borra en una sola sentencia las reservas vencidas (usa el índice de expira).
+     *
+     * @return número de reservas borradas
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReservaStock r WHERE r.expira <= :ahora")
+    int borrarVencidas(@Param("ahora") LocalDateTime ahora);
+}
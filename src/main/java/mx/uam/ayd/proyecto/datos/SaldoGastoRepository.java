@@ -0,0 +1,20 @@
+package mx.uam.ayd.proyecto.datos;
+
+import mx.uam.ayd.proyecto.negocio.modelo.SaldoGasto;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio de los cortes del gasto acumulado por cliente.
+ */
+public interface SaldoGastoRepository extends CrudRepository<SaldoGasto, Long> {
+
+    /**
+     * Recupera el corte más reciente de un cliente.
+     *
+     * @param idCliente ID del cliente
+     * @return el último corte, si existe
+     */
+    Optional<SaldoGasto> findFirstByIdClienteOrderByIdMovimientoHastaDesc(Long idCliente);
+}
@@ -0,0 +1,29 @@
+package mx.uam.ayd.proyecto.datos;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import mx.uam.ayd.proyecto.negocio.modelo.SaldoStock;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repositorio de los cortes del kardex de productos.
+ */
+public interface SaldoStockRepository extends CrudRepository<SaldoStock, Long> {
+
+    /**
+     * Recupera el corte más reciente de un producto.
+     */
+    Optional<SaldoStock> findFirstByIdProductoOrderByIdMovimientoHastaDesc(Long idProducto);
+
+    /**
+     * Recupera el último corte de un producto tomado hasta un momento (usa el índice por producto y fecha).
+     */
+    Optional<SaldoStock> findFirstByIdProductoAndFechaLessThanEqualOrderByFechaDescIdMovimientoHastaDesc(
+            Long idProducto, LocalDateTime momento);
+
+    /**
+     * Recupera el corte de apertura de un producto.
+     */
+    Optional<SaldoStock> findFirstByIdProductoOrderByIdMovimientoHastaAsc(Long idProducto);
+}
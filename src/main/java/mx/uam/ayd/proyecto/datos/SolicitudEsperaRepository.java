@@ -0,0 +1,21 @@
+package mx.uam.ayd.proyecto.datos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.repository.CrudRepository;
+
+import mx.uam.ayd.proyecto.negocio.modelo.SolicitudEspera;
+
+/**
+ * Repositorio de las solicitudes de la lista de espera de citas.
+ */
+public interface SolicitudEsperaRepository extends CrudRepository<SolicitudEspera, Long> {
+
+    /**
+     * Solicitudes que siguen esperando lugar y cuya ventana no ha terminado.
+     * @param ahora momento actual
+     * @return solicitudes pendientes, de la que vence primero a la última
+     */
+    List<SolicitudEspera> findByIdCitaOfrecidaIsNullAndHastaAfterOrderByHastaAsc(LocalDateTime ahora);
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import org.springframework.data.repository.CrudRepository;
 
 import mx.uam.ayd.proyecto.negocio.modelo.Usuario;
+import mx.uam.ayd.proyecto.negocio.modelo.UsuarioResumen;
 
 /**
  * 
@@ -19,5 +20,12 @@ public interface UsuarioRepository extends CrudRepository <Usuario, Long> {
 	
 	public List <Usuario> findByEdadBetween(int edad1, int edad2);
 	
+	/**
+	 * Recupera solo las columnas que muestra la lista de usuarios
+	 * 
+	 * @return proyecciones de todos los usuarios ordenadas por ID
+	 */
+	public List <UsuarioResumen> findResumenByOrderByIdUsuario();
+	
 
 }
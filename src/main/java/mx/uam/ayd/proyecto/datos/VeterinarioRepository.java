@@ -1,12 +1,21 @@
 package mx.uam.ayd.proyecto.datos;
 
 import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.List;
+
 /**
  * Repositorio para la entidad Veterinario
  */
 
 public interface VeterinarioRepository extends CrudRepository<Veterinario, Long> {
 
+    /**
+     * Recupera las especialidades de todos los veterinarios en una sola consulta.
+     * @return pares [ID del veterinario, TipoCita]
+     */
+    @Query("SELECT v.idVeterinario, e FROM Veterinario v JOIN v.especialidades e")
+    List<Object[]> findEspecialidades();
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCita;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agenda de un veterinario armada con los intervalos ocupados de un rango de días, leídos
+ * en una sola consulta.
+ *
+ * <p>Los huecos libres de cada día se obtienen con un barrido de los intervalos del día en
+ * orden de inicio: el cursor avanza desde la apertura hasta el fin de cada cita y cada
+ * espacio entre el cursor y la siguiente cita es un hueco. Los intervalos pueden
+ * traslaparse (citas de duraciones distintas) sin afectar el resultado.</p>
+ */
+public final class AgendaVeterinario {
+
+    /** Duración de las citas sin fin registrado (anteriores a las duraciones por tipo). */
+    static final int DURACION_SIN_FIN_MINUTOS = 30;
+
+    /**
+     * Espacio libre de la agenda.
+     */
+    public static final class Hueco {
+        private final LocalDateTime inicio;
+        private final LocalDateTime fin;
+
+        Hueco(LocalDateTime inicio, LocalDateTime fin) {
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        public LocalDateTime getInicio() {
+            return inicio;
+        }
+
+        public LocalDateTime getFin() {
+            return fin;
+        }
+
+        /** @return true si en el hueco cabe una cita de la duración dada */
+        public boolean cabe(int minutos) {
+            return !inicio.plusMinutes(minutos).isAfter(fin);
+        }
+
+        @Override
+        public String toString() {
+            return inicio + " - " + fin;
+        }
+    }
+
+    private final LocalTime apertura;
+    private final LocalTime cierre;
+    private final List<IntervaloCita> ocupados;
+    private final Long ignorar;
+
+    /**
+     * @param apertura hora de apertura de cada día
+     * @param cierre hora de cierre de cada día
+     * @param ocupados intervalos ocupados ordenados por inicio
+     * @param ignorar ID de una cita que no cuenta como ocupada (la que se está moviendo), o null
+     */
+    public AgendaVeterinario(LocalTime apertura, LocalTime cierre, List<IntervaloCita> ocupados, Long ignorar) {
+        this.apertura = apertura;
+        this.cierre = cierre;
+        this.ocupados = ocupados;
+        this.ignorar = ignorar;
+    }
+
+    /**
+     * Huecos libres de un día, desde la apertura o desde la hora dada si es posterior.
+     *
+     * @param dia día a revisar
+     * @param desde no se ofrece nada antes de este momento (null para todo el día)
+     * @return huecos en orden cronológico
+     */
+    public List<Hueco> huecos(LocalDate dia, LocalDateTime desde) {
+        LocalDateTime cursor = dia.atTime(apertura);
+        LocalDateTime finDia = dia.atTime(cierre);
+        if (desde != null && desde.isAfter(cursor)) {
+            cursor = desde;
+        }
+        List<Hueco> huecos = new ArrayList<>();
+        LocalDateTime siguienteDia = dia.plusDays(1).atStartOfDay();
+        for (int i = primerIndice(dia.atStartOfDay()); i < ocupados.size() && cursor.isBefore(finDia); i++) {
+            IntervaloCita ocupado = ocupados.get(i);
+            if (!ocupado.getInicio().isBefore(siguienteDia)) {
+                break;
+            }
+            if (ocupado.getIdCita() != null && ocupado.getIdCita().equals(ignorar)) {
+                continue;
+            }
+            LocalDateTime fin = ocupado.getFin() != null ? ocupado.getFin()
+                    : ocupado.getInicio().plusMinutes(DURACION_SIN_FIN_MINUTOS);
+            if (ocupado.getInicio().isAfter(cursor)) {
+                huecos.add(new Hueco(cursor, ocupado.getInicio().isBefore(finDia) ? ocupado.getInicio() : finDia));
+            }
+            if (fin.isAfter(cursor)) {
+                cursor = fin;
+            }
+        }
+        if (cursor.isBefore(finDia)) {
+            huecos.add(new Hueco(cursor, finDia));
+        }
+        return huecos;
+    }
+
+    /**
+     * @return índice del primer intervalo que empieza en o después del momento dado
+     */
+    private int primerIndice(LocalDateTime momento) {
+        int bajo = 0;
+        int alto = ocupados.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (ocupados.get(medio).getInicio().isBefore(momento)) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
@@ -0,0 +1,388 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import mx.uam.ayd.proyecto.negocio.modelo.DimensionVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.Dinero;
+import mx.uam.ayd.proyecto.negocio.modelo.FiltroVentas;
+import mx.uam.ayd.proyecto.negocio.modelo.HechoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.ReporteVentaDTO;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+
+/**
+ * Cubo de ventas en memoria, almacenado por columnas.
+ *
+ * <p>Cada detalle de venta ocupa una posición en arreglos primitivos, uno por dimensión
+ * (día, producto, tipo, marca, membresía, cliente) y uno por medida (cantidad y total en centavos,
+ * para que las sumas sean exactas).
+ * Productos y clientes se guardan como códigos enteros de un diccionario. Una consulta
+ * recorre solo el rango de fechas pedido y agrupa por hasta tres dimensiones
+ * con una clave numérica, sin tocar la base de datos.</p>
+ *
+ * <p>Es seguro usarlo desde varios hilos: las consultas comparten un candado de lectura
+ * y las inserciones usan el de escritura.</p>
+ */
+public class CuboVentas {
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final int MAX_DIMENSIONES = 3;
+    private static final int BITS_POR_DIMENSION = 21;
+    private static final long MASCARA = (1L << BITS_POR_DIMENSION) - 1;
+
+    /** Código 0 del diccionario de clientes: ventas al público general. */
+    static final String SIN_CLIENTE = "Público general";
+    static final String SIN_MEMBRESIA = "Sin membresía";
+
+    // Columnas
+    private int[] dia = new int[CAPACIDAD_INICIAL];
+    private int[] producto = new int[CAPACIDAD_INICIAL];
+    private byte[] tipoProducto = new byte[CAPACIDAD_INICIAL];
+    private byte[] marca = new byte[CAPACIDAD_INICIAL];
+    private byte[] membresia = new byte[CAPACIDAD_INICIAL];
+    private int[] cliente = new int[CAPACIDAD_INICIAL];
+    private long[] cantidad = new long[CAPACIDAD_INICIAL];
+    private long[] total = new long[CAPACIDAD_INICIAL];
+    private int tamano;
+
+    /** Las ventas se registran con la fecha del día, así que normalmente llegan en orden. */
+    private boolean ordenadoPorFecha = true;
+
+    /** Detalles con ID menor o igual ya vienen en la carga inicial. */
+    private final long ultimoIdCargado;
+
+    // Diccionarios
+    private final Map<Long, Integer> codigoProducto = new HashMap<>();
+    private final List<String> nombreProducto = new ArrayList<>();
+    private final List<TipoProducto> tipoDeProducto = new ArrayList<>();
+    private final Map<Long, Integer> codigoCliente = new HashMap<>();
+    private final List<String> nombreCliente = new ArrayList<>(List.of(SIN_CLIENTE));
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    /**
+     * Crea el cubo con los hechos existentes.
+     *
+     * @param hechos detalles de venta ordenados por fecha
+     */
+    public CuboVentas(List<HechoVenta> hechos) {
+        long maximo = 0;
+        for (HechoVenta hecho : hechos) {
+            insertar(hecho);
+            maximo = Math.max(maximo, hecho.getIdDetalleVenta());
+        }
+        this.ultimoIdCargado = maximo;
+    }
+
+    /**
+     * Agrega un detalle de venta recién guardado.
+     *
+     * @param hecho detalle a agregar
+     * @return false si el detalle ya estaba incluido en la carga inicial
+     */
+    public boolean agregar(HechoVenta hecho) {
+        if (hecho.getIdDetalleVenta() > 0 && hecho.getIdDetalleVenta() <= ultimoIdCargado) {
+            return false;
+        }
+        candado.writeLock().lock();
+        try {
+            insertar(hecho);
+            return true;
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return número de detalles de venta en el cubo
+     */
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return tamano;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Agrupa las ventas que cumplen el filtro por las dimensiones indicadas.
+     *
+     * @param filtro filtros a aplicar (puede ser null)
+     * @param dimensiones de una a tres dimensiones, con a lo más una de tiempo
+     * @return una fila por combinación de dimensiones, ordenadas por fecha y etiqueta
+     * @throws IllegalArgumentException si las dimensiones son inválidas
+     */
+    public List<ReporteVentaDTO> consultar(FiltroVentas filtro, DimensionVenta... dimensiones) {
+        validarDimensiones(dimensiones);
+        FiltroVentas f = filtro != null ? filtro : new FiltroVentas();
+
+        candado.readLock().lock();
+        try {
+            int clienteBuscado = 0;
+            if (f.getIdCliente() != null) {
+                Integer codigo = codigoCliente.get(f.getIdCliente());
+                if (codigo == null) {
+                    return new ArrayList<>();
+                }
+                clienteBuscado = codigo;
+            }
+            int tipoBuscado = f.getTipoProducto() != null ? f.getTipoProducto().ordinal() : -1;
+            int marcaBuscada = f.getMarcaProducto() != null ? f.getMarcaProducto().ordinal() : -1;
+            int membresiaBuscada = f.getTipoMembresia() != null ? f.getTipoMembresia().ordinal() + 1
+                    : (f.isSoloSinMembresia() ? 0 : -1);
+
+            int desde = f.getDesde() != null ? (int) f.getDesde().toEpochDay() : Integer.MIN_VALUE;
+            int hasta = f.getHasta() != null ? (int) f.getHasta().toEpochDay() : Integer.MAX_VALUE;
+            int inicio = 0;
+            int fin = tamano;
+            if (ordenadoPorFecha) {
+                inicio = primeraPosicion(desde);
+                fin = primeraPosicion(hasta == Integer.MAX_VALUE ? hasta : hasta + 1);
+            }
+
+            Map<Long, Integer> grupos = new HashMap<>();
+            long[] cantidades = new long[16];
+            long[] totales = new long[16];
+
+            for (int i = inicio; i < fin; i++) {
+                if (dia[i] < desde || dia[i] > hasta
+                        || (tipoBuscado >= 0 && tipoProducto[i] != tipoBuscado)
+                        || (marcaBuscada >= 0 && marca[i] != marcaBuscada)
+                        || (membresiaBuscada >= 0 && membresia[i] != membresiaBuscada)
+                        || (clienteBuscado > 0 && cliente[i] != clienteBuscado)) {
+                    continue;
+                }
+
+                long clave = 0;
+                for (DimensionVenta dimension : dimensiones) {
+                    clave = (clave << BITS_POR_DIMENSION) | codigo(dimension, i);
+                }
+
+                Integer grupo = grupos.get(clave);
+                if (grupo == null) {
+                    grupo = grupos.size();
+                    grupos.put(clave, grupo);
+                    if (grupo == cantidades.length) {
+                        cantidades = Arrays.copyOf(cantidades, grupo * 2);
+                        totales = Arrays.copyOf(totales, grupo * 2);
+                    }
+                }
+                cantidades[grupo] += cantidad[i];
+                totales[grupo] += total[i];
+            }
+
+            List<ReporteVentaDTO> filas = new ArrayList<>(grupos.size());
+            for (Map.Entry<Long, Integer> grupo : grupos.entrySet()) {
+                filas.add(crearFila(grupo.getKey(), dimensiones,
+                        cantidades[grupo.getValue()], totales[grupo.getValue()]));
+            }
+            filas.sort(Comparator.comparing(ReporteVentaDTO::getFecha, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(ReporteVentaDTO::getEtiqueta, Comparator.nullsFirst(Comparator.naturalOrder())));
+            return filas;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private void validarDimensiones(DimensionVenta[] dimensiones) {
+        if (dimensiones == null || dimensiones.length == 0 || dimensiones.length > MAX_DIMENSIONES) {
+            throw new IllegalArgumentException("Se debe agrupar por una a " + MAX_DIMENSIONES + " dimensiones");
+        }
+        int temporales = 0;
+        for (int i = 0; i < dimensiones.length; i++) {
+            if (dimensiones[i] == null) {
+                throw new IllegalArgumentException("Las dimensiones no pueden ser nulas");
+            }
+            if (dimensiones[i].isTemporal()) {
+                temporales++;
+            }
+            for (int j = 0; j < i; j++) {
+                if (dimensiones[i] == dimensiones[j]) {
+                    throw new IllegalArgumentException("La dimensión " + dimensiones[i] + " está repetida");
+                }
+            }
+        }
+        if (temporales > 1) {
+            throw new IllegalArgumentException("Solo se puede agrupar por un periodo de tiempo");
+        }
+    }
+
+    /**
+     * Código numérico (no negativo, menor a 2^21) de la dimensión para la fila i.
+     */
+    private long codigo(DimensionVenta dimension, int i) {
+        switch (dimension) {
+            case DIA:
+                return dia[i];
+            case SEMANA:
+                return LocalDate.ofEpochDay(dia[i]).with(DayOfWeek.MONDAY).toEpochDay();
+            case MES: {
+                LocalDate fecha = LocalDate.ofEpochDay(dia[i]);
+                return fecha.getYear() * 12L + fecha.getMonthValue() - 1;
+            }
+            case TRIMESTRE: {
+                LocalDate fecha = LocalDate.ofEpochDay(dia[i]);
+                return fecha.getYear() * 4L + (fecha.getMonthValue() - 1) / 3;
+            }
+            case PRODUCTO:
+                return producto[i];
+            case TIPO_PRODUCTO:
+                return tipoProducto[i];
+            case MARCA:
+                return marca[i];
+            case MEMBRESIA:
+                return membresia[i];
+            case CLIENTE:
+                return cliente[i];
+            default:
+                throw new IllegalArgumentException("Dimensión no soportada: " + dimension);
+        }
+    }
+
+    /**
+     * Convierte la clave de un grupo en una fila de reporte.
+     */
+    private ReporteVentaDTO crearFila(long clave, DimensionVenta[] dimensiones, long cantidadGrupo, long totalGrupo) {
+        LocalDate fecha = null;
+        String nombre = null;
+        TipoProducto tipo = null;
+        StringBuilder agrupacion = new StringBuilder();
+
+        for (int d = dimensiones.length - 1; d >= 0; d--) {
+            int codigo = (int) (clave & MASCARA);
+            clave >>>= BITS_POR_DIMENSION;
+
+            switch (dimensiones[d]) {
+                case DIA:
+                case SEMANA:
+                    fecha = LocalDate.ofEpochDay(codigo);
+                    break;
+                case MES:
+                    fecha = LocalDate.of(codigo / 12, codigo % 12 + 1, 1);
+                    break;
+                case TRIMESTRE:
+                    fecha = LocalDate.of(codigo / 4, (codigo % 4) * 3 + 1, 1);
+                    break;
+                case PRODUCTO:
+                    nombre = nombreProducto.get(codigo);
+                    tipo = tipoDeProducto.get(codigo);
+                    break;
+                case TIPO_PRODUCTO:
+                    tipo = TipoProducto.values()[codigo];
+                    antepone(agrupacion, tipo.toString());
+                    break;
+                case MARCA:
+                    antepone(agrupacion, MarcaProducto.values()[codigo].toString());
+                    break;
+                case MEMBRESIA:
+                    antepone(agrupacion, codigo == 0 ? SIN_MEMBRESIA : TipoMembresia.values()[codigo - 1].toString());
+                    break;
+                case CLIENTE:
+                    antepone(agrupacion, nombreCliente.get(codigo));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        ReporteVentaDTO fila = new ReporteVentaDTO(fecha, nombre, tipo, cantidadGrupo, Dinero.pesos(totalGrupo));
+        if (agrupacion.length() > 0) {
+            fila.setAgrupacion(agrupacion.toString());
+        }
+        return fila;
+    }
+
+    private static void antepone(StringBuilder agrupacion, String texto) {
+        if (agrupacion.length() > 0) {
+            agrupacion.insert(0, " / ");
+        }
+        agrupacion.insert(0, texto);
+    }
+
+    /**
+     * Primera posición cuyo día es mayor o igual al indicado (búsqueda binaria).
+     */
+    private int primeraPosicion(int diaBuscado) {
+        int bajo = 0;
+        int alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (dia[medio] < diaBuscado) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private void insertar(HechoVenta hecho) {
+        if (hecho.getFecha() == null || hecho.getIdProducto() == null) {
+            return;
+        }
+        if (tamano == dia.length) {
+            crecer();
+        }
+
+        int diaHecho = (int) hecho.getFecha().toEpochDay();
+        if (tamano > 0 && diaHecho < dia[tamano - 1]) {
+            ordenadoPorFecha = false;
+        }
+
+        dia[tamano] = diaHecho;
+        producto[tamano] = codigoDeProducto(hecho);
+        tipoProducto[tamano] = (byte) (hecho.getTipoProducto() != null ? hecho.getTipoProducto().ordinal() : 0);
+        marca[tamano] = (byte) (hecho.getMarcaProducto() != null ? hecho.getMarcaProducto().ordinal() : 0);
+        membresia[tamano] = (byte) (hecho.getTipoMembresia() != null ? hecho.getTipoMembresia().ordinal() + 1 : 0);
+        cliente[tamano] = codigoDeCliente(hecho);
+        cantidad[tamano] = hecho.getCantidad();
+        total[tamano] = Dinero.centavos(hecho.getTotal());
+        tamano++;
+    }
+
+    private int codigoDeProducto(HechoVenta hecho) {
+        Integer codigo = codigoProducto.get(hecho.getIdProducto());
+        if (codigo == null) {
+            codigo = nombreProducto.size();
+            codigoProducto.put(hecho.getIdProducto(), codigo);
+            nombreProducto.add(hecho.getNombreProducto());
+            tipoDeProducto.add(hecho.getTipoProducto());
+        }
+        return codigo;
+    }
+
+    private int codigoDeCliente(HechoVenta hecho) {
+        if (hecho.getIdCliente() == null) {
+            return 0;
+        }
+        Integer codigo = codigoCliente.get(hecho.getIdCliente());
+        if (codigo == null) {
+            codigo = nombreCliente.size();
+            codigoCliente.put(hecho.getIdCliente(), codigo);
+            nombreCliente.add(hecho.getNombreCliente());
+        }
+        return codigo;
+    }
+
+    private void crecer() {
+        int capacidad = dia.length * 2;
+        dia = Arrays.copyOf(dia, capacidad);
+        producto = Arrays.copyOf(producto, capacidad);
+        tipoProducto = Arrays.copyOf(tipoProducto, capacidad);
+        marca = Arrays.copyOf(marca, capacidad);
+        membresia = Arrays.copyOf(membresia, capacidad);
+        cliente = Arrays.copyOf(cliente, capacidad);
+        cantidad = Arrays.copyOf(cantidad, capacidad);
+        total = Arrays.copyOf(total, capacidad);
+    }
+}
@@ -0,0 +1,145 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.negocio.modelo.SolicitudEspera;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToIntFunction;
+
+/**
+ * Índice en memoria de las solicitudes que esperan lugar, ordenadas por el fin de su
+ * ventana: primero se atiende a quien se le acaba antes el tiempo y, a igual fin, a quien
+ * se registró primero.
+ *
+ * <p>Hay un árbol por veterinario preferido y otro para quien acepta a cualquiera. Al
+ * liberarse un hueco, cada árbol salta en O(log n) a la primera solicitud cuya ventana
+ * sigue abierta al inicio del hueco y avanza solo mientras las solicitudes no quepan.</p>
+ *
+ * <p>No es seguro para hilos; quien lo usa debe sincronizar el acceso.</p>
+ */
+public final class ListaEspera {
+
+    private static final Comparator<SolicitudEspera> PRIORIDAD = Comparator
+            .comparing(SolicitudEspera::getHasta)
+            .thenComparing(SolicitudEspera::getFechaRegistro, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SolicitudEspera::getIdSolicitud, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<Long, NavigableSet<SolicitudEspera>> porVeterinario = new HashMap<>();
+    private final NavigableSet<SolicitudEspera> cualquiera = new TreeSet<>(PRIORIDAD);
+    private int tamano;
+
+    /**
+     * Agrega una solicitud pendiente. Su ventana y fecha de registro no deben cambiar
+     * mientras esté en la lista.
+     */
+    public void agregar(SolicitudEspera solicitud) {
+        if (arbolDe(solicitud, true).add(solicitud)) {
+            tamano++;
+        }
+    }
+
+    public void quitar(SolicitudEspera solicitud) {
+        NavigableSet<SolicitudEspera> arbol = arbolDe(solicitud, false);
+        if (arbol != null && arbol.remove(solicitud)) {
+            tamano--;
+        }
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Busca la solicitud con más prioridad que cabe en un hueco de la agenda.
+     *
+     * @param idVeterinario veterinario del hueco
+     * @param inicio inicio del hueco
+     * @param fin fin del hueco
+     * @param duracion minutos que dura la cita de cada solicitud con este veterinario
+     * @return la solicitud, que sigue en la lista, o vacío si ninguna cabe
+     */
+    public Optional<SolicitudEspera> buscar(Long idVeterinario, LocalDateTime inicio, LocalDateTime fin,
+                                            ToIntFunction<SolicitudEspera> duracion) {
+        return buscar(idVeterinario, inicio, fin, duracion, Set.of());
+    }
+
+    /**
+     * Igual que {@link #buscar(Long, LocalDateTime, LocalDateTime, ToIntFunction)}, pero
+     * salta las solicitudes indicadas, que siguen en la lista.
+     *
+     * @param omitidas IDs de las solicitudes que no se deben elegir
+     */
+    public Optional<SolicitudEspera> buscar(Long idVeterinario, LocalDateTime inicio, LocalDateTime fin,
+                                            ToIntFunction<SolicitudEspera> duracion, Set<Long> omitidas) {
+        SolicitudEspera propia = primeraQueCabe(porVeterinario.get(idVeterinario), inicio, fin, duracion, omitidas);
+        SolicitudEspera otra = primeraQueCabe(cualquiera, inicio, fin, duracion, omitidas);
+        if (propia == null || (otra != null && PRIORIDAD.compare(otra, propia) < 0)) {
+            return Optional.ofNullable(otra);
+        }
+        return Optional.of(propia);
+    }
+
+    /**
+     * Quita las solicitudes cuya ventana terminó antes del momento dado.
+     */
+    public void purgar(LocalDateTime ahora) {
+        purgar(cualquiera, ahora);
+        porVeterinario.values().forEach(arbol -> purgar(arbol, ahora));
+    }
+
+    /**
+     * @return la hora de inicio de la cita de la solicitud dentro del hueco
+     */
+    public static LocalDateTime inicioEnHueco(SolicitudEspera solicitud, LocalDateTime inicio) {
+        return solicitud.getDesde().isAfter(inicio) ? solicitud.getDesde() : inicio;
+    }
+
+    private static SolicitudEspera primeraQueCabe(NavigableSet<SolicitudEspera> arbol, LocalDateTime inicio,
+                                                  LocalDateTime fin, ToIntFunction<SolicitudEspera> duracion,
+                                                  Set<Long> omitidas) {
+        if (arbol == null) {
+            return null;
+        }
+        for (SolicitudEspera solicitud : arbol.tailSet(sonda(inicio), false)) {
+            if (omitidas.contains(solicitud.getIdSolicitud())) {
+                continue;
+            }
+            LocalDateTime horario = inicioEnHueco(solicitud, inicio);
+            LocalDateTime termina = horario.plusMinutes(duracion.applyAsInt(solicitud));
+            if (!termina.isAfter(fin) && !termina.isAfter(solicitud.getHasta())) {
+                return solicitud;
+            }
+        }
+        return null;
+    }
+
+    private void purgar(NavigableSet<SolicitudEspera> arbol, LocalDateTime ahora) {
+        while (!arbol.isEmpty() && arbol.first().getHasta().isBefore(ahora)) {
+            arbol.pollFirst();
+            tamano--;
+        }
+    }
+
+    private NavigableSet<SolicitudEspera> arbolDe(SolicitudEspera solicitud, boolean crear) {
+        if (solicitud.getVeterinario() == null) {
+            return cualquiera;
+        }
+        Long id = solicitud.getVeterinario().getIdVeterinario();
+        return crear ? porVeterinario.computeIfAbsent(id, k -> new TreeSet<>(PRIORIDAD)) : porVeterinario.get(id);
+    }
+
+    /** Solicitud ficticia que se ordena justo antes de las que terminan después del momento dado. */
+    private static SolicitudEspera sonda(LocalDateTime momento) {
+        SolicitudEspera sonda = new SolicitudEspera();
+        sonda.setHasta(momento);
+        sonda.setFechaRegistro(LocalDateTime.MAX);
+        sonda.setIdSolicitud(Long.MAX_VALUE);
+        return sonda;
+    }
+}
@@ -0,0 +1,284 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.negocio.modelo.DimensionVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.ReporteVentaDTO;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Reduce las filas de un reporte de ventas a un número acotado de puntos para graficarlas.
+ *
+ * <p>La reducción se hace en tres etapas:</p>
+ * <ol>
+ *   <li>Solo se conservan las etiquetas con más unidades vendidas; el resto se suma en "Otros".</li>
+ *   <li>Si hay demasiados periodos, se ensancha el periodo (día, semana, mes, trimestre).</li>
+ *   <li>Si aún sobran puntos, cada serie se submuestrea con LTTB
+ *       (Largest-Triangle-Three-Buckets), que conserva la forma de la curva.</li>
+ * </ol>
+ *
+ * <p>Las filas originales no se modifican; la tabla y el PDF siguen usando el reporte completo.</p>
+ */
+public final class MuestreoReporte {
+
+    /** Etiqueta de la serie que agrupa a las etiquetas fuera del top. */
+    public static final String OTROS = "Otros";
+
+    private static final DimensionVenta[] PERIODOS = {
+            DimensionVenta.DIA, DimensionVenta.SEMANA, DimensionVenta.MES, DimensionVenta.TRIMESTRE
+    };
+
+    private MuestreoReporte() {
+    }
+
+    /**
+     * Resultado de la reducción: series por etiqueta y el periodo con el que quedaron agrupadas.
+     */
+    public static final class Resultado {
+        private final Map<String, List<ReporteVentaDTO>> series;
+        private final DimensionVenta periodo;
+        private final boolean reducido;
+
+        private Resultado(Map<String, List<ReporteVentaDTO>> series, DimensionVenta periodo, boolean reducido) {
+            this.series = series;
+            this.periodo = periodo;
+            this.reducido = reducido;
+        }
+
+        /** Series ordenadas de mayor a menor venta; cada una ordenada por fecha. */
+        public Map<String, List<ReporteVentaDTO>> getSeries() {
+            return series;
+        }
+
+        public DimensionVenta getPeriodo() {
+            return periodo;
+        }
+
+        /** true si se agruparon etiquetas, se ensanchó el periodo o se submuestreó alguna serie. */
+        public boolean isReducido() {
+            return reducido;
+        }
+
+        /** Fechas de todas las series, ordenadas y sin repetir. */
+        public List<LocalDate> getFechas() {
+            TreeSet<LocalDate> fechas = new TreeSet<>();
+            for (List<ReporteVentaDTO> serie : series.values()) {
+                for (ReporteVentaDTO fila : serie) {
+                    fechas.add(fila.getFecha());
+                }
+            }
+            return new ArrayList<>(fechas);
+        }
+
+        /** Número total de puntos a dibujar. */
+        public int getPuntos() {
+            int puntos = 0;
+            for (List<ReporteVentaDTO> serie : series.values()) {
+                puntos += serie.size();
+            }
+            return puntos;
+        }
+    }
+
+    /**
+     * Reduce las filas del reporte para graficarlas.
+     *
+     * @param filas filas del reporte, con la fecha al inicio de su periodo
+     * @param periodo periodo con el que se generó el reporte
+     * @param maxSeries número máximo de series (incluida "Otros"), al menos 1
+     * @param maxPuntos número máximo aproximado de puntos entre todas las series, al menos 3 por serie
+     * @return las series reducidas
+     * @throws IllegalArgumentException si los límites son inválidos
+     */
+    public static Resultado reducir(List<ReporteVentaDTO> filas, DimensionVenta periodo, int maxSeries, int maxPuntos) {
+        if (maxSeries < 1 || maxPuntos < 3 * maxSeries) {
+            throw new IllegalArgumentException("Se requiere al menos una serie y tres puntos por serie");
+        }
+        if (periodo == null || !periodo.isTemporal()) {
+            periodo = DimensionVenta.DIA;
+        }
+
+        Map<String, String> serieDeEtiqueta = elegirSeries(filas, maxSeries);
+        boolean reducido = serieDeEtiqueta.containsValue(OTROS);
+        int numSeries = (int) serieDeEtiqueta.values().stream().distinct().count();
+        int puntosPorSerie = Math.max(3, maxPuntos / Math.max(1, numSeries));
+
+        int nivel = indice(periodo);
+        while (nivel < PERIODOS.length - 1 && periodosDistintos(filas, PERIODOS[nivel]) > puntosPorSerie) {
+            nivel++;
+            reducido = true;
+        }
+        DimensionVenta periodoFinal = PERIODOS[nivel];
+
+        Map<String, TreeMap<LocalDate, ReporteVentaDTO>> agrupadas = new LinkedHashMap<>();
+        for (String serie : serieDeEtiqueta.values()) {
+            agrupadas.putIfAbsent(serie, new TreeMap<>());
+        }
+        for (ReporteVentaDTO fila : filas) {
+            String serie = serieDeEtiqueta.get(fila.getEtiqueta());
+            LocalDate fecha = inicioPeriodo(fila.getFecha(), periodoFinal);
+            ReporteVentaDTO punto = agrupadas.get(serie).computeIfAbsent(fecha,
+                    f -> new ReporteVentaDTO(f, serie, OTROS.equals(serie) ? null : fila.getTipoProducto(), 0L, 0.0));
+            punto.setCantidadVendida(punto.getCantidadVendida() + valor(fila.getCantidadVendida()));
+            punto.setTotalVenta(punto.getTotalVenta() + (fila.getTotalVenta() == null ? 0.0 : fila.getTotalVenta()));
+        }
+
+        Map<String, List<ReporteVentaDTO>> series = new LinkedHashMap<>();
+        for (Map.Entry<String, TreeMap<LocalDate, ReporteVentaDTO>> entrada : agrupadas.entrySet()) {
+            List<ReporteVentaDTO> serie = new ArrayList<>(entrada.getValue().values());
+            if (serie.size() > puntosPorSerie) {
+                serie = lttb(serie, puntosPorSerie);
+                reducido = true;
+            }
+            series.put(entrada.getKey(), serie);
+        }
+        return new Resultado(series, periodoFinal, reducido);
+    }
+
+    /**
+     * Submuestrea una serie de tiempo con el algoritmo Largest-Triangle-Three-Buckets.
+     * Conserva el primer y el último punto y, de cada cubeta intermedia, el punto que
+     * forma el triángulo de mayor área con el punto elegido antes y el promedio de la cubeta siguiente.
+     *
+     * @param serie puntos ordenados por fecha
+     * @param umbral número de puntos a conservar, al menos 3
+     * @return los puntos elegidos, en el mismo orden
+     */
+    public static List<ReporteVentaDTO> lttb(List<ReporteVentaDTO> serie, int umbral) {
+        int n = serie.size();
+        if (umbral >= n || umbral < 3) {
+            return serie;
+        }
+
+        List<ReporteVentaDTO> muestreo = new ArrayList<>(umbral);
+        double tamanoCubeta = (double) (n - 2) / (umbral - 2);
+        int elegido = 0;
+        muestreo.add(serie.get(0));
+
+        for (int c = 0; c < umbral - 2; c++) {
+            int inicio = (int) Math.floor(c * tamanoCubeta) + 1;
+            int fin = (int) Math.floor((c + 1) * tamanoCubeta) + 1;
+
+            // Promedio de la cubeta siguiente (o el último punto para la última cubeta)
+            int inicioSiguiente = fin;
+            int finSiguiente = Math.min((int) Math.floor((c + 2) * tamanoCubeta) + 1, n);
+            double promedioX = 0;
+            double promedioY = 0;
+            for (int j = inicioSiguiente; j < finSiguiente; j++) {
+                promedioX += x(serie.get(j));
+                promedioY += y(serie.get(j));
+            }
+            int cuantos = finSiguiente - inicioSiguiente;
+            promedioX /= cuantos;
+            promedioY /= cuantos;
+
+            double ax = x(serie.get(elegido));
+            double ay = y(serie.get(elegido));
+            double mayorArea = -1;
+            int candidato = inicio;
+            for (int j = inicio; j < fin; j++) {
+                double area = Math.abs((ax - promedioX) * (y(serie.get(j)) - ay)
+                        - (ax - x(serie.get(j))) * (promedioY - ay));
+                if (area > mayorArea) {
+                    mayorArea = area;
+                    candidato = j;
+                }
+            }
+            muestreo.add(serie.get(candidato));
+            elegido = candidato;
+        }
+
+        muestreo.add(serie.get(n - 1));
+        return muestreo;
+    }
+
+    /**
+     * Fecha de inicio del periodo que contiene a la fecha.
+     */
+    public static LocalDate inicioPeriodo(LocalDate fecha, DimensionVenta periodo) {
+        switch (periodo) {
+            case SEMANA:
+                return fecha.with(DayOfWeek.MONDAY);
+            case MES:
+                return fecha.withDayOfMonth(1);
+            case TRIMESTRE:
+                return LocalDate.of(fecha.getYear(), ((fecha.getMonthValue() - 1) / 3) * 3 + 1, 1);
+            default:
+                return fecha;
+        }
+    }
+
+    /**
+     * Texto corto de un periodo para el eje de la gráfica.
+     */
+    public static String etiquetaPeriodo(LocalDate fecha, DimensionVenta periodo) {
+        switch (periodo) {
+            case MES:
+                return String.format("%d-%02d", fecha.getYear(), fecha.getMonthValue());
+            case TRIMESTRE:
+                return fecha.getYear() + " T" + ((fecha.getMonthValue() - 1) / 3 + 1);
+            case SEMANA:
+                return "Sem " + fecha;
+            default:
+                return fecha.toString();
+        }
+    }
+
+    /**
+     * Asigna a cada etiqueta la serie donde se dibuja: ella misma si está en el top, u "Otros".
+     */
+    private static Map<String, String> elegirSeries(List<ReporteVentaDTO> filas, int maxSeries) {
+        Map<String, Long> unidades = new HashMap<>();
+        for (ReporteVentaDTO fila : filas) {
+            unidades.merge(fila.getEtiqueta(), valor(fila.getCantidadVendida()), Long::sum);
+        }
+
+        List<Map.Entry<String, Long>> orden = new ArrayList<>(unidades.entrySet());
+        orden.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+
+        int conservadas = orden.size() <= maxSeries ? orden.size() : maxSeries - 1;
+        Map<String, String> serieDeEtiqueta = new LinkedHashMap<>();
+        for (int i = 0; i < orden.size(); i++) {
+            String etiqueta = orden.get(i).getKey();
+            serieDeEtiqueta.put(etiqueta, i < conservadas ? etiqueta : OTROS);
+        }
+        return serieDeEtiqueta;
+    }
+
+    private static int periodosDistintos(List<ReporteVentaDTO> filas, DimensionVenta periodo) {
+        TreeSet<LocalDate> periodos = new TreeSet<>();
+        for (ReporteVentaDTO fila : filas) {
+            periodos.add(inicioPeriodo(fila.getFecha(), periodo));
+        }
+        return periodos.size();
+    }
+
+    private static int indice(DimensionVenta periodo) {
+        for (int i = 0; i < PERIODOS.length; i++) {
+            if (PERIODOS[i] == periodo) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static long valor(Long cantidad) {
+        return cantidad == null ? 0L : cantidad;
+    }
+
+    private static double x(ReporteVentaDTO fila) {
+        return fila.getFecha().toEpochDay();
+    }
+
+    private static double y(ReporteVentaDTO fila) {
+        return valor(fila.getCantidadVendida());
+    }
+}
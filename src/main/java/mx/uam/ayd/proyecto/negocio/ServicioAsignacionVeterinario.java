@@ -0,0 +1,187 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.DuracionCitaVeterinarioRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CandidatoVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.DuracionCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCita;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Servicio que propone qué veterinario debe atender una cita nueva.
+ *
+ * <p>Con cuatro consultas (veterinarios, especialidades, duraciones propias e intervalos
+ * ocupados de todos en la ventana) arma en memoria la agenda de cada veterinario y busca
+ * su primer horario libre en la ventana. Cada veterinario con lugar recibe un puntaje que
+ * combina:</p>
+ * <ul>
+ *   <li>qué tan pronto puede atender dentro de la ventana ({@value #PESO_ESPERA}),</li>
+ *   <li>qué tan libre tiene la jornada de esos días, para repartir el trabajo ({@value #PESO_CARGA}),</li>
+ *   <li>si se especializa en el tipo de cita ({@value #PESO_ESPECIALIDAD}).</li>
+ * </ul>
+ */
+@Service
+public class ServicioAsignacionVeterinario {
+
+    static final double PESO_ESPERA = 0.4;
+    static final double PESO_CARGA = 0.3;
+    static final double PESO_ESPECIALIDAD = 0.3;
+
+    /** Orden de los candidatos: mejor puntaje, luego el horario más temprano. */
+    static final Comparator<CandidatoVeterinario> MEJOR_PRIMERO = Comparator
+            .comparingDouble(CandidatoVeterinario::getPuntaje).reversed()
+            .thenComparing(CandidatoVeterinario::getHorario)
+            .thenComparing(c -> c.getVeterinario().getIdVeterinario());
+
+    private final VeterinarioRepository veterinarioRepository;
+    private final CitaRepository citaRepository;
+    private final DuracionCitaVeterinarioRepository duracionRepository;
+
+    @Autowired
+    public ServicioAsignacionVeterinario(VeterinarioRepository veterinarioRepository, CitaRepository citaRepository,
+                                         DuracionCitaVeterinarioRepository duracionRepository) {
+        this.veterinarioRepository = veterinarioRepository;
+        this.citaRepository = citaRepository;
+        this.duracionRepository = duracionRepository;
+    }
+
+    /**
+     * Ordena a los veterinarios que pueden atender una cita del tipo dado dentro de la ventana.
+     *
+     * @param tipo tipo de cita, que fija la duración y la especialidad buscada
+     * @param desde inicio de la ventana (si ya pasó, se toma el momento actual)
+     * @param hasta fin de la ventana: la cita debe terminar antes
+     * @return candidatos del mejor al peor; vacío si nadie tiene lugar
+     * @throws IllegalArgumentException si faltan datos o la ventana está invertida
+     */
+    @Transactional(readOnly = true)
+    public List<CandidatoVeterinario> proponer(TipoCita tipo, LocalDateTime desde, LocalDateTime hasta) {
+        if (tipo == null || desde == null || hasta == null) {
+            throw new IllegalArgumentException("El tipo de cita y la ventana de tiempo son obligatorios.");
+        }
+        LocalDateTime ahora = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        LocalDateTime inicio = desde.isBefore(ahora) ? ahora : desde;
+        if (!inicio.isBefore(hasta)) {
+            throw new IllegalArgumentException("La ventana de tiempo debe terminar después de su inicio y no estar en el pasado.");
+        }
+
+        Map<Long, Boolean> especialistas = new HashMap<>();
+        for (Object[] fila : veterinarioRepository.findEspecialidades()) {
+            if (fila[1] == tipo) {
+                especialistas.put((Long) fila[0], true);
+            }
+        }
+        Map<Long, Integer> duraciones = new HashMap<>();
+        for (DuracionCitaVeterinario duracion : duracionRepository.findByTipo(tipo)) {
+            duraciones.put(duracion.getIdVeterinario(), duracion.getMinutos());
+        }
+        Map<Long, List<IntervaloCita>> ocupados = new HashMap<>();
+        for (IntervaloCitaVeterinario intervalo : citaRepository.findIntervalosOcupadosDeTodos(
+                inicio.toLocalDate().atStartOfDay(), hasta.toLocalDate().plusDays(1).atStartOfDay())) {
+            ocupados.computeIfAbsent(intervalo.getIdVeterinario(), id -> new ArrayList<>()).add(intervalo);
+        }
+
+        List<CandidatoVeterinario> candidatos = new ArrayList<>();
+        for (Veterinario veterinario : veterinarioRepository.findAll()) {
+            Long id = veterinario.getIdVeterinario();
+            calificar(veterinario, especialistas.containsKey(id), duraciones.getOrDefault(id, tipo.getDuracionMinutos()),
+                    ocupados.getOrDefault(id, List.of()), inicio, hasta).ifPresent(candidatos::add);
+        }
+        candidatos.sort(MEJOR_PRIMERO);
+        return candidatos;
+    }
+
+    /**
+     * Busca el primer horario libre de un veterinario en la ventana y le da su puntaje.
+     *
+     * @param ocupados intervalos ocupados del veterinario, ordenados por inicio; los de días fuera de
+     *                 la ventana no cuentan
+     * @param duracion minutos que dura la cita con este veterinario
+     * @return el candidato, o vacío si no tiene lugar en la ventana
+     */
+    static Optional<CandidatoVeterinario> calificar(Veterinario veterinario, boolean especialista, int duracion,
+                                                    List<IntervaloCita> ocupados, LocalDateTime inicio, LocalDateTime hasta) {
+        LocalDate primerDia = inicio.toLocalDate();
+        LocalDate ultimoDia = hasta.toLocalDate();
+        AgendaVeterinario agenda = new AgendaVeterinario(ServicioCita.HORA_INICIO, ServicioCita.HORA_FIN, ocupados, null);
+        Optional<LocalDateTime> horario = primerHueco(agenda, primerDia, ultimoDia, inicio, hasta, duracion);
+        if (horario.isEmpty()) {
+            return Optional.empty();
+        }
+        long minutosVentana = Math.max(1, ChronoUnit.MINUTES.between(inicio, hasta));
+        long jornada = minutosHabiles(primerDia, ultimoDia);
+        double espera = ChronoUnit.MINUTES.between(inicio, horario.get()) / (double) minutosVentana;
+        double carga = jornada == 0 ? 1 : Math.min(1, minutosOcupados(ocupados, primerDia, ultimoDia) / (double) jornada);
+        double puntaje = PESO_ESPERA * (1 - espera) + PESO_CARGA * (1 - carga) + (especialista ? PESO_ESPECIALIDAD : 0);
+        return Optional.of(new CandidatoVeterinario(veterinario, horario.get(), especialista, carga, puntaje));
+    }
+
+    /**
+     * @return el candidato con mejor puntaje, si alguien tiene lugar en la ventana
+     */
+    @Transactional(readOnly = true)
+    public Optional<CandidatoVeterinario> mejorCandidato(TipoCita tipo, LocalDateTime desde, LocalDateTime hasta) {
+        List<CandidatoVeterinario> candidatos = proponer(tipo, desde, hasta);
+        return candidatos.isEmpty() ? Optional.empty() : Optional.of(candidatos.get(0));
+    }
+
+    private static Optional<LocalDateTime> primerHueco(AgendaVeterinario agenda, LocalDate primerDia, LocalDate ultimoDia,
+                                                       LocalDateTime inicio, LocalDateTime hasta, int duracion) {
+        for (LocalDate dia = primerDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+            if (dia.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            for (AgendaVeterinario.Hueco hueco : agenda.huecos(dia, inicio)) {
+                LocalDateTime fin = hueco.getInicio().plusMinutes(duracion);
+                if (fin.isAfter(hasta)) {
+                    return Optional.empty();
+                }
+                if (hueco.cabe(duracion)) {
+                    return Optional.of(hueco.getInicio());
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static long minutosOcupados(List<IntervaloCita> intervalos, LocalDate primerDia, LocalDate ultimoDia) {
+        long minutos = 0;
+        for (IntervaloCita intervalo : intervalos) {
+            LocalDate dia = intervalo.getInicio().toLocalDate();
+            if (dia.isBefore(primerDia) || dia.isAfter(ultimoDia)) {
+                continue;
+            }
+            LocalDateTime fin = intervalo.getFin() != null ? intervalo.getFin()
+                    : intervalo.getInicio().plusMinutes(AgendaVeterinario.DURACION_SIN_FIN_MINUTOS);
+            minutos += ChronoUnit.MINUTES.between(intervalo.getInicio(), fin);
+        }
+        return minutos;
+    }
+
+    private static long minutosHabiles(LocalDate primerDia, LocalDate ultimoDia) {
+        long dias = 0;
+        for (LocalDate dia = primerDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+            if (dia.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                dias++;
+            }
+        }
+        return dias * ChronoUnit.MINUTES.between(ServicioCita.HORA_INICIO, ServicioCita.HORA_FIN);
+    }
+}
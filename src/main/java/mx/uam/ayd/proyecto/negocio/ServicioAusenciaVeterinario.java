@@ -0,0 +1,217 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.DuracionCitaVeterinarioRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CandidatoVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.DuracionCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCita;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.ReasignacionCita;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import mx.uam.ayd.proyecto.negocio.validacion.Patrones;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Servicio que reprograma de una vez la jornada de un veterinario que no se presenta.
+ *
+ * <p>Carga las citas afectadas y la agenda de todos los veterinarios con una consulta
+ * cada una, arma el plan en memoria y lo guarda en una sola transacción. Cada cita se
+ * pasa, en este orden de preferencia:</p>
+ * <ul>
+ *   <li>a otro veterinario el mismo día, lo más cerca posible de su horario;</li>
+ *   <li>al primer lugar libre de cualquier veterinario en los siguientes
+ *       {@value #DIAS_REPROGRAMACION} días.</li>
+ * </ul>
+ * <p>Los lugares que toma una cita se apartan en memoria para las siguientes, así que el
+ * plan no choca consigo mismo.</p>
+ */
+@Service
+public class ServicioAusenciaVeterinario {
+
+    static final int DIAS_REPROGRAMACION = 7;
+
+    private final CitaRepository citaRepository;
+    private final VeterinarioRepository veterinarioRepository;
+    private final DuracionCitaVeterinarioRepository duracionRepository;
+    private final ServicioCorreo servicioCorreo;
+    private final ServicioRecordatorioCita recordatorios;
+
+    @Autowired
+    public ServicioAusenciaVeterinario(CitaRepository citaRepository, VeterinarioRepository veterinarioRepository,
+                                       DuracionCitaVeterinarioRepository duracionRepository, ServicioCorreo servicioCorreo,
+                                       ServicioRecordatorioCita recordatorios) {
+        this.citaRepository = citaRepository;
+        this.veterinarioRepository = veterinarioRepository;
+        this.duracionRepository = duracionRepository;
+        this.servicioCorreo = servicioCorreo;
+        this.recordatorios = recordatorios;
+    }
+
+    /**
+     * Arma el plan de reprogramación sin guardar nada.
+     *
+     * @param ausente veterinario que no atenderá
+     * @param dia día de la ausencia
+     * @return un destino por cita pendiente del día, en orden de horario
+     * @throws IllegalArgumentException si faltan datos
+     */
+    @Transactional(readOnly = true)
+    public List<ReasignacionCita> planear(Veterinario ausente, LocalDate dia) {
+        if (ausente == null || ausente.getIdVeterinario() == null || dia == null) {
+            throw new IllegalArgumentException("El veterinario y el día de la ausencia son obligatorios.");
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime desde = dia.atStartOfDay().isBefore(ahora) ? ahora : dia.atStartOfDay();
+        List<Cita> citas = citaRepository.findPendientesDeVeterinario(ausente.getIdVeterinario(), desde,
+                dia.plusDays(1).atStartOfDay());
+        if (citas.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Set<TipoCita>> especialidades = new HashMap<>();
+        for (Object[] fila : veterinarioRepository.findEspecialidades()) {
+            especialidades.computeIfAbsent((Long) fila[0], id -> new HashSet<>()).add((TipoCita) fila[1]);
+        }
+        Map<TipoCita, Map<Long, Integer>> duraciones = new EnumMap<>(TipoCita.class);
+        for (DuracionCitaVeterinario duracion : duracionRepository.findAll()) {
+            duraciones.computeIfAbsent(duracion.getTipo(), tipo -> new HashMap<>())
+                    .put(duracion.getIdVeterinario(), duracion.getMinutos());
+        }
+        Map<Long, List<IntervaloCita>> ocupados = new HashMap<>();
+        for (IntervaloCitaVeterinario intervalo : citaRepository.findIntervalosOcupadosDeTodos(
+                dia.atStartOfDay(), dia.plusDays(DIAS_REPROGRAMACION + 1).atStartOfDay())) {
+            ocupados.computeIfAbsent(intervalo.getIdVeterinario(), id -> new ArrayList<>()).add(intervalo);
+        }
+        List<Veterinario> veterinarios = new ArrayList<>();
+        veterinarioRepository.findAll().forEach(veterinarios::add);
+
+        LocalDateTime finDelDia = dia.atTime(ServicioCita.HORA_FIN);
+        LocalDateTime otroDia = dia.plusDays(1).atTime(ServicioCita.HORA_INICIO);
+        LocalDateTime finReprogramacion = dia.plusDays(DIAS_REPROGRAMACION).atTime(ServicioCita.HORA_FIN);
+        List<ReasignacionCita> plan = new ArrayList<>(citas.size());
+        for (Cita cita : citas) {
+            Map<Long, Integer> propias = duraciones.getOrDefault(cita.getTipo(), Map.of());
+            Optional<CandidatoVeterinario> destino = mejor(cita.getTipo(), veterinarios, ausente.getIdVeterinario(),
+                    especialidades, propias, ocupados, cita.getFechaHora(), finDelDia);
+            if (destino.isEmpty()) {
+                destino = mejor(cita.getTipo(), veterinarios, null, especialidades, propias, ocupados,
+                        otroDia, finReprogramacion);
+            }
+            if (destino.isEmpty()) {
+                plan.add(new ReasignacionCita(cita, null, null, null));
+                continue;
+            }
+            Veterinario veterinario = destino.get().getVeterinario();
+            LocalDateTime inicio = destino.get().getHorario();
+            LocalDateTime fin = inicio.plusMinutes(propias.getOrDefault(veterinario.getIdVeterinario(),
+                    cita.getTipo().getDuracionMinutos()));
+            apartar(ocupados.computeIfAbsent(veterinario.getIdVeterinario(), id -> new ArrayList<>()),
+                    cita.getIdCita(), inicio, fin);
+            plan.add(new ReasignacionCita(cita, veterinario, inicio, fin));
+        }
+        return plan;
+    }
+
+    /**
+     * Reprograma las citas pendientes del día de la ausencia en una sola transacción.
+     * Las citas sin lugar se quedan como estaban y vienen en el plan sin veterinario.
+     *
+     * @param notificar true para avisar por correo a los clientes con email (el del cliente
+     *                  ligado a la cita o, si no hay, el contacto)
+     * @return el plan aplicado
+     */
+    @Transactional
+    public List<ReasignacionCita> reprogramar(Veterinario ausente, LocalDate dia, boolean notificar) {
+        List<ReasignacionCita> plan = planear(ausente, dia);
+        List<Cita> modificadas = new ArrayList<>();
+        List<SimpleMailMessage> avisos = new ArrayList<>();
+        for (ReasignacionCita reasignacion : plan) {
+            if (!reasignacion.tieneLugar()) {
+                continue;
+            }
+            Cita cita = reasignacion.getCita();
+            if (notificar && Patrones.CORREO.coincide(ServicioRecordatorioCita.destinatario(cita))) {
+                avisos.add(aviso(reasignacion));
+            }
+            cita.setVeterinario(reasignacion.getVeterinario());
+            cita.setFechaHora(reasignacion.getFechaHora());
+            cita.setFechaHoraFin(reasignacion.getFechaHoraFin());
+            // El recordatorio se vuelve a enviar con el nuevo veterinario u horario
+            cita.setRecordatorioEnviado(null);
+            recordatorios.reabrir(cita.getFechaHora());
+            modificadas.add(cita);
+        }
+        if (!modificadas.isEmpty()) {
+            citaRepository.saveAll(modificadas);
+        }
+        servicioCorreo.enviarCorreos(avisos);
+        return plan;
+    }
+
+    private static Optional<CandidatoVeterinario> mejor(TipoCita tipo, List<Veterinario> veterinarios, Long excluido,
+                                                        Map<Long, Set<TipoCita>> especialidades, Map<Long, Integer> duraciones,
+                                                        Map<Long, List<IntervaloCita>> ocupados,
+                                                        LocalDateTime inicio, LocalDateTime hasta) {
+        CandidatoVeterinario mejor = null;
+        for (Veterinario veterinario : veterinarios) {
+            Long id = veterinario.getIdVeterinario();
+            if (id.equals(excluido)) {
+                continue;
+            }
+            Optional<CandidatoVeterinario> candidato = ServicioAsignacionVeterinario.calificar(veterinario,
+                    especialidades.getOrDefault(id, Set.of()).contains(tipo),
+                    duraciones.getOrDefault(id, tipo.getDuracionMinutos()),
+                    ocupados.getOrDefault(id, List.of()), inicio, hasta);
+            if (candidato.isPresent()
+                    && (mejor == null || ServicioAsignacionVeterinario.MEJOR_PRIMERO.compare(candidato.get(), mejor) < 0)) {
+                mejor = candidato.get();
+            }
+        }
+        return Optional.ofNullable(mejor);
+    }
+
+    /** Inserta el intervalo en su lugar, para que la agenda siga ordenada por inicio. */
+    private static void apartar(List<IntervaloCita> agenda, Long idCita, LocalDateTime inicio, LocalDateTime fin) {
+        int posicion = agenda.size();
+        while (posicion > 0 && agenda.get(posicion - 1).getInicio().isAfter(inicio)) {
+            posicion--;
+        }
+        agenda.add(posicion, new IntervaloCita() {
+            public Long getIdCita() { return idCita; }
+            public LocalDateTime getInicio() { return inicio; }
+            public LocalDateTime getFin() { return fin; }
+        });
+    }
+
+    private static SimpleMailMessage aviso(ReasignacionCita reasignacion) {
+        Cita cita = reasignacion.getCita();
+        SimpleMailMessage mensaje = new SimpleMailMessage();
+        mensaje.setTo(ServicioRecordatorioCita.destinatario(cita));
+        mensaje.setSubject("Cambio en su Cita - Veterinaria UAM");
+        mensaje.setText(String.format(
+                "Estimado(a) %s,\n\nSu cita de %s del %s no podrá ser atendida por %s.\n"
+                        + "La hemos reprogramado para el %s a las %s con %s.\n\n"
+                        + "Si el nuevo horario no le acomoda, comuníquese con nosotros.",
+                cita.getNombreSolicitante(), cita.getTipo(), cita.getFechaHora().toLocalDate(),
+                cita.getVeterinario().getNombreCompleto(), reasignacion.getFechaHora().toLocalDate(),
+                reasignacion.getFechaHora().toLocalTime(), reasignacion.getVeterinario().getNombreCompleto()));
+        return mensaje;
+    }
+}
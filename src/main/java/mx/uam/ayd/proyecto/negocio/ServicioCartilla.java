@@ -1,22 +1,64 @@
 package mx.uam.ayd.proyecto.negocio;
 
 import mx.uam.ayd.proyecto.datos.CartillaRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
+import mx.uam.ayd.proyecto.datos.MigracionProximasDosis;
+import mx.uam.ayd.proyecto.negocio.modelo.CalendarioVacunacion;
 import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.CartillaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.EstadoVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
 import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import mx.uam.ayd.proyecto.negocio.validacion.ReglasValidacion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class ServicioCartilla {
 
     @Autowired
     private CartillaRepository repositorioCartilla;
-    // Constantes regex (agregar junto con las otras)
-    private static final String REGEX_VETERINARIO = "^[a-zA-ZáéíóúÁÉÍÓÚñÑ\\s]{1,100}$";
+
+    @Autowired
+    private ServicioHistorialMascota servicioHistorialMascota;
+
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private MigracionProximasDosis migracionProximasDosis;
+
+    @Autowired
+    private ServicioCoberturaVacunacion servicioCobertura;
+
+    // Reglas con las que se calcula la próxima dosis; se reemplazan completas con cambiarCalendario
+    private volatile CalendarioVacunacion calendario = CalendarioVacunacion.predeterminado();
+
+    // Reglas de validacion de un registro de vacuna
+    private static final ReglasValidacion<Cartilla> REGLAS_CARTILLA = ReglasValidacion.<Cartilla>nuevas()
+            .obligatorio(Cartilla::getVacuna, "El tipo de vacuna es obligatorio")
+            .obligatorio(Cartilla::getFechaAplicacion, "La fecha de aplicación es obligatoria")
+            .obligatorio(Cartilla::getVeterinario, "El veterinario es obligatorio")
+            .cumple(c -> c.getVeterinario() == null || c.getVeterinario().getIdVeterinario() != null,
+                    "El veterinario no está registrado")
+            .obligatorio(Cartilla::getLote, "El número de lote es obligatorio")
+            .obligatorio(Cartilla::getMascotaId, "El ID de la mascota es obligatorio")
+            .cumple(c -> c.getLote() == null || c.getLote() > 0, "El número de lote debe ser un valor positivo")
+            .cumple(c -> c.getFechaAplicacion() == null || !c.getFechaAplicacion().isAfter(LocalDate.now()),
+                    "La fecha de aplicación no puede ser futura")
+            .cumple(c -> c.getFechaAplicacion() == null || !c.getFechaAplicacion().isBefore(LocalDate.now().minusYears(50)),
+                    "La fecha de aplicación no puede ser tan antigua")
+            .longitudMaxima(Cartilla::getObservaciones, 500, "Las observaciones no pueden exceder los 500 caracteres")
+            .construir();
 
     public List<Cartilla> obtenerCartillaPorMascota(Long mascotaId) {
         return repositorioCartilla.findByMascotaId(mascotaId);
@@ -26,8 +68,10 @@ public class ServicioCartilla {
         return repositorioCartilla.findByVacuna(vacuna.name());
     }
 
-    public List<Cartilla> obtenerCartillaPorVeterinario(String veterinario) {
-        return repositorioCartilla.findByVeterinarioContainingIgnoreCase(veterinario);
+    // Búsqueda por igualdad sobre el índice de veterinario
+    @Transactional(readOnly = true)
+    public List<Cartilla> obtenerCartillaPorVeterinario(Long idVeterinario) {
+        return repositorioCartilla.findByVeterinarioIdVeterinarioOrderByFechaAplicacion(idVeterinario);
     }
 
     public List<Cartilla> obtenerCartillaPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
@@ -38,71 +82,92 @@ public class ServicioCartilla {
         return repositorioCartilla.findByProximaDosisBefore(fechaLimite);
     }
 
-    public Cartilla registrarVacuna(VacunaEnum vacuna, LocalDate fechaAplicacion,
-                                    String veterinario, Long lote, String observaciones, Long mascotaId) {
+    // Dosis que tocan en el rango, para recordatorios
+    public List<Cartilla> obtenerRecordatorios(LocalDate desde, LocalDate hasta) {
+        return repositorioCartilla.findByProximaDosisBetweenOrderByProximaDosis(desde, hasta);
+    }
 
-        // Validamos campos obligatorios
-        if (vacuna == null) {
-            throw new IllegalArgumentException("El tipo de vacuna es obligatorio");
-        }
-        if (fechaAplicacion == null) {
-            throw new IllegalArgumentException("La fecha de aplicación es obligatoria");
-        }
-        if (veterinario == null || veterinario.trim().isEmpty()) {
-            throw new IllegalArgumentException("El nombre del veterinario es obligatorio");
-        }
-        if (lote == null) {
-            throw new IllegalArgumentException("El número de lote es obligatorio");
-        }
-        if (mascotaId == null) {
-            throw new IllegalArgumentException("El ID de la mascota es obligatorio");
-        }
+    // Dosis cuya fecha ya pasó sin que se aplicara la siguiente
+    public List<Cartilla> obtenerVacunasVencidas(LocalDate hoy) {
+        return repositorioCartilla.findByProximaDosisBefore(hoy);
+    }
 
-        // Validamos formatos específicos
-        if (!Pattern.matches(REGEX_VETERINARIO, veterinario)) {
-            throw new IllegalArgumentException("El nombre del veterinario solo debe contener letras y espacios (max 100 caracteres)");
-        }
-        if (lote <= 0) {
-            throw new IllegalArgumentException("El número de lote debe ser un valor positivo");
-        }
-        if (fechaAplicacion.isAfter(LocalDate.now())) {
-            throw new IllegalArgumentException("La fecha de aplicación no puede ser futura");
-        }
-        if (fechaAplicacion.isBefore(LocalDate.now().minusYears(50))) {
-            throw new IllegalArgumentException("La fecha de aplicación no puede ser tan antigua");
+    public CalendarioVacunacion getCalendario() {
+        return calendario;
+    }
+
+    /**
+     * Reemplaza las reglas de vacunación y recalcula la próxima dosis de todas las cartillas
+     * en lotes.
+     *
+     * @param nuevo calendario nuevo
+     * @return número de cartillas que cambiaron
+     */
+    public int cambiarCalendario(CalendarioVacunacion nuevo) {
+        if (nuevo == null) {
+            throw new IllegalArgumentException("El calendario de vacunación no puede ser nulo");
         }
+        this.calendario = nuevo;
+        return migracionProximasDosis.recalcular(nuevo);
+    }
+
+    @Transactional
+    public Cartilla registrarVacuna(VacunaEnum vacuna, LocalDate fechaAplicacion,
+                                    Veterinario veterinario, Long lote, String observaciones, Long mascotaId) {
+
+        Cartilla nuevaCartilla = new Cartilla(vacuna, fechaAplicacion, veterinario, lote, observaciones, mascotaId);
+
+        // Validamos campos obligatorios y formatos especificos
+        REGLAS_CARTILLA.verificar(nuevaCartilla);
 
         // Validamos que no exista una vacuna duplicada (misma vacuna, misma mascota, misma fecha)
         if (repositorioCartilla.existsByVacunaAndMascotaIdAndFechaAplicacion(vacuna, mascotaId, fechaAplicacion)) {
             throw new IllegalArgumentException("Ya existe un registro de esta vacuna para la mascota en la fecha indicada");
         }
 
-        // Validamos observaciones si se proporcionan
-        if (observaciones != null && !observaciones.trim().isEmpty()) {
-            if (observaciones.length() > 500) {
-                throw new IllegalArgumentException("Las observaciones no pueden exceder los 500 caracteres");
-            }
-        }
-
-        // Creamos la cartilla
-        Cartilla nuevaCartilla = new Cartilla(vacuna, fechaAplicacion, veterinario, lote, observaciones, mascotaId);
-        return repositorioCartilla.save(nuevaCartilla);
+        EstadoVacunacion antes = estadoSerie(mascotaId, vacuna);
+        Cartilla guardada = repositorioCartilla.save(nuevaCartilla);
+        programarSerie(mascotaId, vacuna, antes);
+        servicioHistorialMascota.registrarVacuna(guardada, null);
+        return guardada;
     }
 
+    @Transactional
     public void eliminarRegistroVacuna(Long idVacuna) {
+        Cartilla eliminada = repositorioCartilla.findById(idVacuna).orElse(null);
+        EstadoVacunacion antes = null;
+        if (eliminada != null) {
+            antes = estadoSerie(eliminada.getMascotaId(), eliminada.getVacuna());
+            servicioHistorialMascota.registrarVacuna(eliminada, "eliminado");
+        }
         repositorioCartilla.deleteById(idVacuna);
+        if (eliminada != null) {
+            programarSerie(eliminada.getMascotaId(), eliminada.getVacuna(), antes);
+        }
     }
 
+    @Transactional
     public Cartilla actualizarRegistroVacuna(Long idVacuna, VacunaEnum vacuna, LocalDate fechaAplicacion,
-                                             String veterinario, Long lote, String observaciones) {
+                                             Veterinario veterinario, Long lote, String observaciones) {
         return repositorioCartilla.findById(idVacuna)
                 .map(cartilla -> {
+                    VacunaEnum vacunaAnterior = cartilla.getVacuna();
+                    // La situación de ambas series se toma antes de modificar la dosis
+                    EstadoVacunacion antesAnterior = estadoSerie(cartilla.getMascotaId(), vacunaAnterior);
+                    EstadoVacunacion antes = vacunaAnterior == vacuna
+                            ? antesAnterior : estadoSerie(cartilla.getMascotaId(), vacuna);
                     cartilla.setVacuna(vacuna);
                     cartilla.setFechaAplicacion(fechaAplicacion);
                     cartilla.setVeterinario(veterinario);
                     cartilla.setLote(lote);
                     cartilla.setObservaciones(observaciones);
-                    return repositorioCartilla.save(cartilla);
+                    Cartilla guardada = repositorioCartilla.save(cartilla);
+                    if (vacunaAnterior != null && vacunaAnterior != vacuna) {
+                        programarSerie(guardada.getMascotaId(), vacunaAnterior, antesAnterior);
+                    }
+                    programarSerie(guardada.getMascotaId(), vacuna, antes);
+                    servicioHistorialMascota.registrarVacuna(guardada, "actualizado");
+                    return guardada;
                 })
                 .orElseThrow(() -> new RuntimeException("Vacuna no encontrada con ID: " + idVacuna));
     }
@@ -114,4 +179,58 @@ public class ServicioCartilla {
     public List<Cartilla> obtenerTodasLasCartillas() {
         return (List<Cartilla>) repositorioCartilla.findAll();
     }
-}
\ No newline at end of file
+
+    // Consultas de solo lectura para la tabla de vacunas: solo traen las columnas que se muestran
+
+    @Transactional(readOnly = true)
+    public List<CartillaResumen> obtenerResumenPorMascota(Long mascotaId) {
+        return repositorioCartilla.findResumenByMascotaIdOrderByFechaAplicacion(mascotaId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CartillaResumen> obtenerResumenCartillas() {
+        return repositorioCartilla.findResumenByOrderByFechaAplicacion();
+    }
+
+    /**
+     * Situación de la mascota respecto a la vacuna según la última dosis guardada.
+     */
+    private EstadoVacunacion estadoSerie(Long mascotaId, VacunaEnum vacuna) {
+        if (mascotaId == null || vacuna == null) {
+            return EstadoVacunacion.SIN_DOSIS;
+        }
+        return EstadoVacunacion.de(repositorioCartilla
+                .findFirstByMascotaIdAndVacunaOrderByFechaAplicacionDescIdDesc(mascotaId, vacuna).orElse(null), LocalDate.now());
+    }
+
+    /**
+     * Vuelve a numerar la serie de una vacuna de la mascota y calcula la próxima dosis de la
+     * última aplicada; las anteriores quedan sin próxima dosis. Solo guarda las que cambian.
+     * Después pasa a la cobertura el cambio de situación de la mascota, si está registrada.
+     */
+    private void programarSerie(Long mascotaId, VacunaEnum vacuna, EstadoVacunacion antes) {
+        List<Cartilla> serie = repositorioCartilla.findByMascotaIdAndVacunaOrderByFechaAplicacionAscIdAsc(mascotaId, vacuna);
+        Optional<Mascota> mascota = mascotaRepository.findById(mascotaId);
+        Especie especie = Especie.de(mascota.map(Mascota::getEspecie).orElse(null));
+
+        List<Cartilla> cambiadas = new ArrayList<>();
+        for (int i = 0; i < serie.size(); i++) {
+            Cartilla dosis = serie.get(i);
+            Integer numeroAnterior = dosis.getNumeroDosis();
+            LocalDate proximaAnterior = dosis.getProximaDosis();
+            dosis.programar(calendario, especie, i + 1, i == serie.size() - 1);
+            if (!Objects.equals(numeroAnterior, dosis.getNumeroDosis())
+                    || !Objects.equals(proximaAnterior, dosis.getProximaDosis())) {
+                cambiadas.add(dosis);
+            }
+        }
+        if (!cambiadas.isEmpty()) {
+            repositorioCartilla.saveAll(cambiadas);
+        }
+
+        if (mascota.isPresent()) {
+            Cartilla ultima = serie.isEmpty() ? null : serie.get(serie.size() - 1);
+            servicioCobertura.registrarCambio(especie, vacuna, antes, EstadoVacunacion.de(ultima, LocalDate.now()));
+        }
+    }
+}
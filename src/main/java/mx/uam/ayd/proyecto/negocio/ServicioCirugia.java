@@ -5,9 +5,11 @@ import org.springframework.stereotype.Service;
 import mx.uam.ayd.proyecto.datos.CirugiaRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Cirugia;
 import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.validacion.Patrones;
+import mx.uam.ayd.proyecto.negocio.validacion.ReglasValidacion;
 
 import java.time.LocalDate;
-import java.util.regex.Pattern;
+import java.util.function.Function;
 
 /**
  * Proporciona la lógica de negocio para el registro de cirugías e historial clínico.
@@ -27,11 +29,16 @@ public class ServicioCirugia {
 	@Autowired
 	private CirugiaRepository cirugiaRepository;
 
+	/** Servicio que mantiene la línea de tiempo clínica de la mascota. */
+	@Autowired
+	private ServicioHistorialMascota servicioHistorialMascota;
+
 	/**
-	 * Expresión regular para validar el texto.
-	 * Solo permite letras, números, espacios, puntos y comas.
+	 * Reglas de validación de una cirugía.
+	 * Los textos solo permiten letras, números, espacios, puntos y comas
+	 * ({@link Patrones#TEXTO_CLINICO}) y tienen una longitud máxima por campo.
 	 */
-	private static final String TEXTO_VALIDO_REGEX = "^[a-zA-Z0-9áéíóúÁÉÍÓÚñÑ .,]+$";
+	private static final ReglasValidacion<Cirugia> REGLAS_CIRUGIA = reglasCirugia();
 
 	/**
 	 * Registra una nueva cirugía aplicando validaciones de negocio.
@@ -58,30 +65,7 @@ public class ServicioCirugia {
 	public Cirugia registrarCirugia(Mascota mascota, LocalDate fecha, String tipo, String descripcion,
 									String consultas, String tratamientos, String observaciones) {
 
-		// Validaciones de campos obligatorios (No nulos)
-		if (mascota == null) throw new IllegalArgumentException("La mascota es obligatoria.");
-		if (fecha == null) throw new IllegalArgumentException("La fecha es obligatoria.");
-		if (tipo == null || tipo.trim().isEmpty()) throw new IllegalArgumentException("El tipo de cirugía es obligatorio.");
-		if (consultas == null || consultas.trim().isEmpty()) throw new IllegalArgumentException("El campo consultas es obligatorio.");
-		if (tratamientos == null || tratamientos.trim().isEmpty()) throw new IllegalArgumentException("El campo tratamientos es obligatorio.");
-
-		// Validación de fecha (No pasado)
-		if (fecha.isBefore(LocalDate.now())) {
-			throw new IllegalArgumentException("La fecha no puede ser anterior al día de hoy.");
-		}
-
-		// Validación de formato y longitud de textos
-		validarTexto(tipo, 100, "Tipo de cirugía");
-		validarTexto(descripcion, 300, "Descripción");
-		validarTexto(consultas, 300, "Consultas");
-		validarTexto(tratamientos, 300, "Tratamientos");
-
-		// Observaciones es opcional, solo se valida si contiene texto
-		if (observaciones != null && !observaciones.isEmpty()) {
-			validarTexto(observaciones, 500, "Observaciones");
-		}
-
-		// Creación y persistencia del objeto
+		// Creación del objeto
 		Cirugia cirugia = new Cirugia();
 		cirugia.setMascota(mascota);
 		cirugia.setFecha(fecha);
@@ -91,32 +75,57 @@ public class ServicioCirugia {
 		cirugia.setTratamientos(tratamientos);
 		cirugia.setObservacionesGenerales(observaciones);
 
-		return cirugiaRepository.save(cirugia);
+		// Validaciones de campos obligatorios, fecha, formato y longitud de textos
+		REGLAS_CIRUGIA.verificar(cirugia);
+
+		Cirugia guardada = cirugiaRepository.save(cirugia);
+		servicioHistorialMascota.registrarCirugia(guardada);
+		return guardada;
 	}
 
 	/**
-	 * Método auxiliar para validar cadenas de texto.
+	 * Declara las reglas de validación de una cirugía.
 	 *
-	 * <p>Verifica dos condiciones:
+	 * <p>Verifica que:
 	 * <ol>
-	 * <li>Que la longitud del texto no exceda el máximo permitido.</li>
-	 * <li>Que el contenido del texto coincida con la expresión regular (sin caracteres especiales raros).</li>
+	 * <li>La mascota, la fecha, el tipo, las consultas y los tratamientos estén presentes.</li>
+	 * <li>La fecha no sea anterior al día actual.</li>
+	 * <li>Cada texto no exceda su longitud máxima ni contenga caracteres inválidos.</li>
 	 * </ol></p>
 	 *
-	 * @param texto El string a validar.
-	 * @param maxLength La longitud máxima permitida.
-	 * @param nombreCampo El nombre del campo para usar en el mensaje de error.
-	 * @throws IllegalArgumentException Si el texto excede la longitud o contiene caracteres inválidos.
+	 * @return El conjunto de reglas.
 	 */
-	private void validarTexto(String texto, int maxLength, String nombreCampo) {
-		if (texto == null) return;
+	private static ReglasValidacion<Cirugia> reglasCirugia() {
+		ReglasValidacion.Constructor<Cirugia> reglas = ReglasValidacion.<Cirugia>nuevas()
+				.obligatorio(Cirugia::getMascota, "La mascota es obligatoria.")
+				.obligatorio(Cirugia::getFecha, "La fecha es obligatoria.")
+				.obligatorio(Cirugia::getTipoCirugia, "El tipo de cirugía es obligatorio.")
+				.obligatorio(Cirugia::getConsultas, "El campo consultas es obligatorio.")
+				.obligatorio(Cirugia::getTratamientos, "El campo tratamientos es obligatorio.")
+				.cumple(c -> c.getFecha() == null || !c.getFecha().isBefore(LocalDate.now()),
+						"La fecha no puede ser anterior al día de hoy.");
+
+		texto(reglas, Cirugia::getTipoCirugia, 100, "Tipo de cirugía");
+		texto(reglas, Cirugia::getDescripcion, 300, "Descripción");
+		texto(reglas, Cirugia::getConsultas, 300, "Consultas");
+		texto(reglas, Cirugia::getTratamientos, 300, "Tratamientos");
+		texto(reglas, Cirugia::getObservacionesGenerales, 500, "Observaciones");
 
-		if (texto.length() > maxLength) {
-			throw new IllegalArgumentException(nombreCampo + " excede el máximo de " + maxLength + " caracteres.");
-		}
+		return reglas.construir();
+	}
 
-		if (!Pattern.matches(TEXTO_VALIDO_REGEX, texto)) {
-			throw new IllegalArgumentException(nombreCampo + " contiene caracteres inválidos (solo letras, números, puntos y comas).");
-		}
+	/**
+	 * Agrega las reglas de longitud y formato de un campo de texto.
+	 *
+	 * @param reglas Reglas en construcción.
+	 * @param campo Campo de texto a validar.
+	 * @param maxLength La longitud máxima permitida.
+	 * @param nombreCampo El nombre del campo para usar en el mensaje de error.
+	 */
+	private static void texto(ReglasValidacion.Constructor<Cirugia> reglas, Function<Cirugia, String> campo,
+							  int maxLength, String nombreCampo) {
+		reglas.longitudMaxima(campo, maxLength, nombreCampo + " excede el máximo de " + maxLength + " caracteres.")
+				.formato(campo, Patrones.TEXTO_CLINICO,
+						nombreCampo + " contiene caracteres inválidos (solo letras, números, puntos y comas).");
 	}
-}
\ No newline at end of file
+}
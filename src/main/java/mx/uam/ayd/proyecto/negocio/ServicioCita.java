@@ -3,18 +3,40 @@ package mx.uam.ayd.proyecto.negocio;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.DuracionCitaVeterinarioRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.CitaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.DuracionCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.modelo.OcurrenciaSerie;
+import mx.uam.ayd.proyecto.negocio.modelo.Recurrencia;
+import mx.uam.ayd.proyecto.negocio.modelo.SolicitudEspera;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
 import mx.uam.ayd.proyecto.negocio.modelo.Veterinario; // NUEVA IMPORTACIÓN
 import mx.uam.ayd.proyecto.datos.VeterinarioRepository; // NUEVA IMPORTACIÓN
+import mx.uam.ayd.proyecto.negocio.validacion.Patrones;
+import mx.uam.ayd.proyecto.negocio.validacion.ReglasValidacion;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
 
 @Service
 @Data
@@ -24,54 +46,248 @@ public class ServicioCita {
     private final CitaRepository citaRepository;
     private final ServicioCorreo servicioCorreo;
     private final VeterinarioRepository veterinarioRepository; // NUEVO REPOSITORIO INYECTADO
+    private final ClienteRepository clienteRepository;
+    private final MascotaRepository mascotaRepository;
+    private final ServicioHistorialMascota servicioHistorial;
+    private final DuracionCitaVeterinarioRepository duracionRepository;
+    private final ServicioListaEspera listaEspera;
+    private final ServicioRecordatorioCita recordatorios;
 
     // Horario laboral configurable
 
-    private static final LocalTime HORA_INICIO = LocalTime.of(9, 0); // 9:00 AM
-    private static final LocalTime HORA_FIN = LocalTime.of(18, 0);   // 6:00 PM
-    private static final int DURACION_CITA_MINUTOS = 30; // Duración estándar de 30 minutos
-
-    // Patrones de validación
-
-    private static final String REGEX_CORREO = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$";
-    private static final String REGEX_TELEFONO = "^\\d{10}$";
+    static final LocalTime HORA_INICIO = LocalTime.of(9, 0); // 9:00 AM
+    static final LocalTime HORA_FIN = LocalTime.of(18, 0);   // 6:00 PM
+    // La duración de cada cita la da su tipo (TipoCita) o el veterinario (DuracionCitaVeterinario)
+
+    private static final int DIAS_BUSQUEDA = 30; // Días que revisa la búsqueda del primer horario libre
+    private static final int INTERVALO_SUGERENCIAS_MINUTOS = 15; // Separación de los horarios sugeridos
+
+    // Reglas de validación
+
+    private static final String MENSAJE_OBLIGATORIOS = "Todos los campos (Fecha/Hora, Tipo, Nombre, Contacto, Veterinario) son obligatorios.";
+
+    private static final ReglasValidacion<Cita> REGLAS_CITA = ReglasValidacion.<Cita>nuevas()
+            .obligatorio(Cita::getFechaHora, MENSAJE_OBLIGATORIOS)
+            .obligatorio(Cita::getTipo, MENSAJE_OBLIGATORIOS)
+            .obligatorio(Cita::getNombreSolicitante, MENSAJE_OBLIGATORIOS)
+            .obligatorio(Cita::getContacto, MENSAJE_OBLIGATORIOS)
+            .obligatorio(Cita::getVeterinario, MENSAJE_OBLIGATORIOS)
+            // 1. No permitir fechas pasadas
+            .cumple(c -> c.getFechaHora() == null || !c.getFechaHora().isBefore(LocalDateTime.now()),
+                    "La cita no puede agendarse para una fecha y hora pasada.")
+            // 2. Horario hábil
+            .cumple(c -> c.getFechaHora() == null || enHorarioHabil(c.getFechaHora(), c.getFechaHoraFin()),
+                    "La cita debe estar dentro del horario hábil (Lunes a Sábado, 9:00 AM - 6:00 PM) y terminar antes del cierre.")
+            // 3. Formato del contacto
+            .cumple(c -> c.getContacto() == null || c.getContacto().isBlank()
+                            || Patrones.CORREO.coincide(c.getContacto()) || Patrones.TELEFONO.coincide(c.getContacto()),
+                    "El contacto debe ser un correo electrónico válido o un número de teléfono de 10 dígitos.")
+            .construir();
 
     @Autowired
 
-    public ServicioCita(CitaRepository citaRepository, ServicioCorreo servicioCorreo, VeterinarioRepository veterinarioRepository) {
+    public ServicioCita(CitaRepository citaRepository, ServicioCorreo servicioCorreo, VeterinarioRepository veterinarioRepository,
+                        ClienteRepository clienteRepository, MascotaRepository mascotaRepository,
+                        ServicioHistorialMascota servicioHistorial, DuracionCitaVeterinarioRepository duracionRepository,
+                        ServicioListaEspera listaEspera, ServicioRecordatorioCita recordatorios) {
         this.citaRepository = citaRepository;
         this.servicioCorreo = servicioCorreo;
         this.veterinarioRepository = veterinarioRepository;
+        this.clienteRepository = clienteRepository;
+        this.mascotaRepository = mascotaRepository;
+        this.servicioHistorial = servicioHistorial;
+        this.duracionRepository = duracionRepository;
+        this.listaEspera = listaEspera;
+        this.recordatorios = recordatorios;
+    }
+
+    /**
+     * Indica si la cita cabe completa dentro del horario hábil.
+     */
+
+    private static boolean enHorarioHabil(LocalDateTime fechaHora, LocalDateTime fin) {
+        return diaHabil(fechaHora.toLocalDate())
+                && !fechaHora.toLocalTime().isBefore(HORA_INICIO)
+                && (fin == null || !fin.isAfter(fechaHora.toLocalDate().atTime(HORA_FIN)));
+    }
+
+    private static boolean diaHabil(LocalDate dia) {
+        return dia.getDayOfWeek() != DayOfWeek.SUNDAY;
     }
 
     /**
-     * Validar los campos obligatorios y las reglas de negocio.
+     * Duración de una cita del tipo dado con el veterinario dado: la propia del veterinario
+     * si la tiene, o la predeterminada del tipo.
      */
 
-    private void validarCamposYReglas(LocalDateTime fechaHora, TipoCita tipo, String nombre, String contacto, Veterinario veterinario) {
+    public int duracionDe(TipoCita tipo, Veterinario veterinario) {
+        if (veterinario != null && veterinario.getIdVeterinario() != null) {
+            Optional<DuracionCitaVeterinario> propia = duracionRepository.findById(
+                    new DuracionCitaVeterinario.Llave(veterinario.getIdVeterinario(), tipo));
+            if (propia.isPresent()) {
+                return propia.get().getMinutos();
+            }
+        }
+        return tipo.getDuracionMinutos();
+    }
+
+    /**
+     * Fija la duración de un tipo de cita para un veterinario. Las citas ya agendadas
+     * conservan su duración.
+     *
+     * @param minutos duración en minutos, o null para volver a la del tipo
+     */
+
+    public void configurarDuracion(Veterinario veterinario, TipoCita tipo, Integer minutos) {
+        if (veterinario == null || veterinario.getIdVeterinario() == null || tipo == null) {
+            throw new IllegalArgumentException("El veterinario y el tipo de cita son obligatorios.");
+        }
+        DuracionCitaVeterinario.Llave llave = new DuracionCitaVeterinario.Llave(veterinario.getIdVeterinario(), tipo);
+        if (minutos == null) {
+            duracionRepository.deleteById(llave);
+            return;
+        }
+        if (minutos <= 0 || minutos > ChronoUnit.MINUTES.between(HORA_INICIO, HORA_FIN)) {
+            throw new IllegalArgumentException("La duración debe ser mayor a cero y caber en la jornada.");
+        }
+        DuracionCitaVeterinario duracion = new DuracionCitaVeterinario();
+        duracion.setIdVeterinario(veterinario.getIdVeterinario());
+        duracion.setTipo(tipo);
+        duracion.setMinutos(minutos);
+        duracionRepository.save(duracion);
+    }
+
+    /**
+     * Busca el primer horario en que el veterinario puede atender una cita del tipo dado,
+     * a partir de un momento y dentro de los siguientes días. Lee la agenda de todo el
+     * rango en una sola consulta y la recorre día por día.
+     *
+     * @param desde primer momento aceptable (si ya pasó, se toma el actual)
+     * @return el inicio del primer hueco donde cabe la cita, o vacío si no hay lugar
+     */
 
-        if (fechaHora == null || tipo == null || nombre == null || nombre.trim().isEmpty() || contacto == null || contacto.trim().isEmpty() || veterinario == null) {
-            throw new IllegalArgumentException("Todos los campos (Fecha/Hora, Tipo, Nombre, Contacto, Veterinario) son obligatorios.");
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> primerHorarioDisponible(Veterinario veterinario, TipoCita tipo, LocalDateTime desde) {
+        if (veterinario == null || tipo == null) {
+            throw new IllegalArgumentException("El veterinario y el tipo de cita son obligatorios.");
+        }
+        LocalDateTime inicio = alMinutoSiguiente(desde == null || desde.isBefore(LocalDateTime.now()) ? LocalDateTime.now() : desde);
+        int duracion = duracionDe(tipo, veterinario);
+        LocalDate primerDia = inicio.toLocalDate();
+        AgendaVeterinario agenda = agenda(veterinario, primerDia, primerDia.plusDays(DIAS_BUSQUEDA), null);
+
+        for (LocalDate dia = primerDia; dia.isBefore(primerDia.plusDays(DIAS_BUSQUEDA)); dia = dia.plusDays(1)) {
+            if (!diaHabil(dia)) {
+                continue;
+            }
+            for (AgendaVeterinario.Hueco hueco : agenda.huecos(dia, inicio)) {
+                if (hueco.cabe(duracion)) {
+                    return Optional.of(hueco.getInicio());
+                }
+            }
         }
+        return Optional.empty();
+    }
 
-        // 1. Validación: No permitir fechas pasadas
+    /**
+     * Sugiere horarios de un día para una cita del tipo dado con el veterinario. En cada
+     * hueco se ofrece primero el inicio pegado a la cita anterior, para no dejar huecos
+     * pequeños, y después cada cuarto de hora en que la cita todavía cabe.
+     *
+     * @param idCitaIgnorada cita que se está moviendo y no cuenta como ocupada, o null
+     * @param maximo número máximo de sugerencias
+     * @return horarios en orden cronológico
+     */
 
-        if (fechaHora.isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("La cita no puede agendarse para una fecha y hora pasada.");
+    @Transactional(readOnly = true)
+    public List<LocalDateTime> sugerirHorarios(Veterinario veterinario, TipoCita tipo, LocalDate dia, Long idCitaIgnorada, int maximo) {
+        if (veterinario == null || tipo == null || dia == null) {
+            throw new IllegalArgumentException("El veterinario, el tipo de cita y el día son obligatorios.");
+        }
+        List<LocalDateTime> sugerencias = new ArrayList<>();
+        if (!diaHabil(dia) || maximo <= 0) {
+            return sugerencias;
         }
+        int duracion = duracionDe(tipo, veterinario);
+        AgendaVeterinario agenda = agenda(veterinario, dia, dia.plusDays(1), idCitaIgnorada);
+
+        for (AgendaVeterinario.Hueco hueco : agenda.huecos(dia, alMinutoSiguiente(LocalDateTime.now()))) {
+            LocalDateTime inicio = hueco.getInicio();
+            while (!inicio.plusMinutes(duracion).isAfter(hueco.getFin())) {
+                sugerencias.add(inicio);
+                if (sugerencias.size() == maximo) {
+                    return sugerencias;
+                }
+                inicio = siguienteCuarto(inicio);
+            }
+        }
+        return sugerencias;
+    }
+
+    private AgendaVeterinario agenda(Veterinario veterinario, LocalDate desde, LocalDate hasta, Long ignorar) {
+        return new AgendaVeterinario(HORA_INICIO, HORA_FIN, citaRepository.findIntervalosOcupados(
+                veterinario.getIdVeterinario(), desde.atStartOfDay(), hasta.atStartOfDay()), ignorar);
+    }
 
-        // 2. Validación de horario hábil
+    private static LocalDateTime alMinutoSiguiente(LocalDateTime momento) {
+        LocalDateTime minuto = momento.truncatedTo(ChronoUnit.MINUTES);
+        return minuto.isBefore(momento) ? minuto.plusMinutes(1) : minuto;
+    }
 
-        LocalTime horaCita = fechaHora.toLocalTime();
-        if (fechaHora.getDayOfWeek() == DayOfWeek.SUNDAY || horaCita.isBefore(HORA_INICIO) || horaCita.isAfter(HORA_FIN.minusMinutes(DURACION_CITA_MINUTOS))) {
-            throw new IllegalArgumentException("La cita debe estar dentro del horario hábil (Lunes a Sábado, 9:00 AM - 6:00 PM) y tener al menos " + DURACION_CITA_MINUTOS + " minutos de duración.");
+    private static LocalDateTime siguienteCuarto(LocalDateTime momento) {
+        LocalDateTime hora = momento.truncatedTo(ChronoUnit.HOURS);
+        long minutos = ChronoUnit.MINUTES.between(hora, momento);
+        return hora.plusMinutes((minutos / INTERVALO_SUGERENCIAS_MINUTOS + 1) * INTERVALO_SUGERENCIAS_MINUTOS);
+    }
+
+    /**
+     * Construye una cita con los datos capturados, sin guardarla.
+     */
+
+    private Cita nuevaCita(LocalDateTime fechaHora, TipoCita tipo, String nombre, String contacto,
+                           Veterinario veterinario, String motivo, String notas) {
+        Cita cita = new Cita();
+        cita.setFechaHora(fechaHora);
+        cita.setTipo(tipo);
+        if (fechaHora != null && tipo != null) {
+            cita.setFechaHoraFin(fechaHora.plusMinutes(duracionDe(tipo, veterinario)));
         }
+        cita.setNombreSolicitante(nombre);
+        cita.setContacto(contacto);
+        cita.setAtendida(false);
+        cita.setVeterinario(veterinario); // NUEVO
+        cita.setMotivo(motivo != null ? motivo : ""); // NUEVO
+        cita.setNotas(notas != null ? notas : ""); // NUEVO
+        return cita;
+    }
 
-        // 3. Validación de formato del contacto
+    /**
+     * Liga la cita al cliente dueño del contacto y a su paciente.
+     *
+     * La mascota indicada debe ser del cliente del contacto; si no se indica, se conserva
+     * la que ya tenía la cita o, si el cliente tiene una sola mascota, se toma esa.
+     */
 
-        if (!Pattern.matches(REGEX_CORREO, contacto) && !Pattern.matches(REGEX_TELEFONO, contacto)) {
-            throw new IllegalArgumentException("El contacto debe ser un correo electrónico válido o un número de teléfono de 10 dígitos.");
+    private void ligarPaciente(Cita cita, String contacto, Mascota mascota) {
+        Cliente cliente = clienteRepository.findByContacto(contacto);
+        if (mascota != null) {
+            if (cliente == null) {
+                cliente = mascota.getCliente();
+            } else if (mascota.getCliente() != null
+                    && !cliente.getIdCliente().equals(mascota.getCliente().getIdCliente())) {
+                throw new IllegalArgumentException("La mascota no pertenece al cliente del contacto.");
+            }
+        } else if (cliente != null) {
+            if (cita.getMascota() != null && cita.getCliente() != null
+                    && cliente.getIdCliente().equals(cita.getCliente().getIdCliente())) {
+                mascota = cita.getMascota();
+            } else {
+                List<Mascota> mascotas = mascotaRepository.findByCliente(cliente);
+                mascota = mascotas.size() == 1 ? mascotas.get(0) : null;
+            }
         }
+        cita.setCliente(cliente);
+        cita.setMascota(mascota);
     }
 
     /**
@@ -80,18 +296,25 @@ public class ServicioCita {
 
     public Cita agendarCita(LocalDateTime fechaHora, TipoCita tipo, String nombre, String contacto, boolean enviarCorreo,
                             Veterinario veterinario, String motivo, String notas) { // NUEVOS PARÁMETROS
+        return agendarCita(fechaHora, tipo, nombre, contacto, enviarCorreo, veterinario, motivo, notas, null);
+    }
 
-        validarCamposYReglas(fechaHora, tipo, nombre, contacto, veterinario); // VALIDACIÓN CON VETERINARIO
+    /**
+     * Agrega una nueva cita al sistema para una mascota en particular
+     */
 
-        // Validacion
+    public Cita agendarCita(LocalDateTime fechaHora, TipoCita tipo, String nombre, String contacto, boolean enviarCorreo,
+                            Veterinario veterinario, String motivo, String notas, Mascota mascota) {
 
-        LocalDateTime finCita = fechaHora.plusMinutes(DURACION_CITA_MINUTOS);
+        Cita nuevaCita = nuevaCita(fechaHora, tipo, nombre, contacto, veterinario, motivo, notas);
+        REGLAS_CITA.verificar(nuevaCita); // VALIDACIÓN CON VETERINARIO
+        ligarPaciente(nuevaCita, contacto, mascota);
 
-        // Uso de la nueva consulta que filtra por ID de Veterinario
+        // Validacion: la cita ocupa de su inicio a su fin según la duración de su tipo
 
         List<Cita> citasSolapadas = citaRepository.findCitasOverlap(
-                fechaHora.minusMinutes(DURACION_CITA_MINUTOS - 1),
-                finCita.minusMinutes(1),
+                fechaHora,
+                nuevaCita.getFechaHoraFin(),
                 veterinario.getIdVeterinario() // Filtro por veterinario
         );
 
@@ -99,22 +322,14 @@ public class ServicioCita {
             throw new IllegalArgumentException("El veterinario seleccionado ya tiene una cita agendada en esa fecha y hora.");
         }
 
-        // Crear y guardar la cita con los nuevos campos
-
-        Cita nuevaCita = new Cita();
-        nuevaCita.setFechaHora(fechaHora);
-        nuevaCita.setTipo(tipo);
-        nuevaCita.setNombreSolicitante(nombre);
-        nuevaCita.setContacto(contacto);
-        nuevaCita.setAtendida(false);
-        nuevaCita.setVeterinario(veterinario); // NUEVO
-        nuevaCita.setMotivo(motivo != null ? motivo : ""); // NUEVO
-        nuevaCita.setNotas(notas != null ? notas : ""); // NUEVO
+        // Guardar la cita con los nuevos campos
 
         Cita citaGuardada = citaRepository.save(nuevaCita);
+        servicioHistorial.registrarCita(citaGuardada);
+        recordatorios.reabrir(nuevaCita.getFechaHora());
 
         // Envío de correo)
-        if (enviarCorreo && Pattern.matches(REGEX_CORREO, contacto)) {
+        if (enviarCorreo && Patrones.CORREO.coincide(contacto)) {
             String asunto = "Confirmación de Cita - Veterinaria UAM";
             String mensaje = String.format(
                     "Estimado(a) %s,\n\nSu cita para %s con %s ha sido agendada.\nDetalles:\n- Fecha y Hora: %s\n- ID: %d\n\nMotivo: %s",
@@ -130,11 +345,164 @@ public class ServicioCita {
         return citaGuardada;
     }
 
+    /**
+     * Revisa cada cita de una serie contra la agenda del veterinario, sin guardar nada.
+     *
+     * @param fechaHora fecha y hora de la primera cita
+     * @return una ocurrencia por cita de la serie, con su conflicto si lo tiene
+     */
+
+    @Transactional(readOnly = true)
+    public List<OcurrenciaSerie> verificarSerie(LocalDateTime fechaHora, TipoCita tipo, Veterinario veterinario,
+                                                Recurrencia recurrencia) {
+        if (fechaHora == null || tipo == null || veterinario == null || recurrencia == null) {
+            throw new IllegalArgumentException(MENSAJE_OBLIGATORIOS);
+        }
+        return revisarSerie(recurrencia.expandir(fechaHora), duracionDe(tipo, veterinario), veterinario);
+    }
+
+    /**
+     * Agenda una serie de citas (revisiones semanales, tratamientos mensuales...) con los
+     * mismos datos. Todas se revisan con una sola consulta de la agenda del veterinario y
+     * las libres se guardan en un solo lote.
+     *
+     * @param fechaHora fecha y hora de la primera cita, que debe ser válida
+     * @param recurrencia regla de repetición
+     * @param omitirConflictos true para agendar las citas libres aunque otras choquen;
+     *                         false para no agendar nada si alguna choca
+     * @return una ocurrencia por cita de la serie; las agendadas traen su cita
+     */
+
+    @Transactional
+    public List<OcurrenciaSerie> agendarSerie(LocalDateTime fechaHora, TipoCita tipo, String nombre, String contacto,
+                                              boolean enviarCorreo, Veterinario veterinario, String motivo, String notas,
+                                              Mascota mascota, Recurrencia recurrencia, boolean omitirConflictos) {
+        if (recurrencia == null) {
+            throw new IllegalArgumentException("La regla de repetición de la serie es obligatoria.");
+        }
+        Cita primera = nuevaCita(fechaHora, tipo, nombre, contacto, veterinario, motivo, notas);
+        REGLAS_CITA.verificar(primera);
+        ligarPaciente(primera, contacto, mascota);
+
+        int duracion = (int) ChronoUnit.MINUTES.between(primera.getFechaHora(), primera.getFechaHoraFin());
+        List<OcurrenciaSerie> ocurrencias = revisarSerie(recurrencia.expandir(fechaHora), duracion, veterinario);
+        boolean hayConflictos = ocurrencias.stream().anyMatch(OcurrenciaSerie::tieneConflicto);
+        if (hayConflictos && !omitirConflictos) {
+            return ocurrencias;
+        }
+
+        String idSerie = UUID.randomUUID().toString();
+        List<Cita> citas = new ArrayList<>();
+        for (OcurrenciaSerie ocurrencia : ocurrencias) {
+            if (ocurrencia.tieneConflicto()) {
+                continue;
+            }
+            Cita cita = new Cita();
+            cita.setFechaHora(ocurrencia.getFechaHora());
+            cita.setFechaHoraFin(ocurrencia.getFechaHora().plusMinutes(duracion));
+            cita.setTipo(primera.getTipo());
+            cita.setNombreSolicitante(primera.getNombreSolicitante());
+            cita.setContacto(primera.getContacto());
+            cita.setVeterinario(primera.getVeterinario());
+            cita.setMotivo(primera.getMotivo());
+            cita.setNotas(primera.getNotas());
+            cita.setCliente(primera.getCliente());
+            cita.setMascota(primera.getMascota());
+            cita.setIdSerie(idSerie);
+            ocurrencia.setCita(cita);
+            citas.add(cita);
+        }
+        if (citas.isEmpty()) {
+            return ocurrencias;
+        }
+        citaRepository.saveAll(citas);
+        servicioHistorial.registrarCitas(citas);
+        recordatorios.reabrir(citas.get(0).getFechaHora());
+
+        if (enviarCorreo && Patrones.CORREO.coincide(contacto)) {
+            StringBuilder fechas = new StringBuilder();
+            for (Cita cita : citas) {
+                fechas.append("\n- ").append(cita.getFechaHora());
+            }
+            String mensaje = String.format(
+                    "Estimado(a) %s,\n\nSus citas para %s con %s han sido agendadas:%s\n\nMotivo: %s",
+                    nombre, tipo.toString(), veterinario.getNombreCompleto(), fechas, motivo);
+            try {
+                servicioCorreo.enviarCorreo(contacto, "Confirmación de Citas - Veterinaria UAM", mensaje);
+            } catch (Exception e) {
+                System.err.println("Error al enviar correo de confirmación: " + e.getMessage());
+            }
+        }
+        return ocurrencias;
+    }
+
+    /**
+     * Revisa las citas de una serie con una sola consulta de la agenda del veterinario.
+     * Fechas e intervalos vienen ordenados, así que un solo índice avanza por la agenda
+     * y cada cita solo mira los intervalos de su día.
+     */
+
+    private List<OcurrenciaSerie> revisarSerie(List<LocalDateTime> fechas, int duracion, Veterinario veterinario) {
+        LocalDate primerDia = fechas.get(0).toLocalDate();
+        LocalDate ultimoDia = fechas.get(fechas.size() - 1).toLocalDate();
+        List<IntervaloCita> ocupados = citaRepository.findIntervalosOcupados(veterinario.getIdVeterinario(),
+                primerDia.atStartOfDay(), ultimoDia.plusDays(1).atStartOfDay());
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<OcurrenciaSerie> ocurrencias = new ArrayList<>(fechas.size());
+        int indice = 0;
+        for (LocalDateTime fecha : fechas) {
+            LocalDateTime fin = fecha.plusMinutes(duracion);
+            LocalDateTime inicioDia = fecha.toLocalDate().atStartOfDay();
+            while (indice < ocupados.size() && ocupados.get(indice).getInicio().isBefore(inicioDia)) {
+                indice++;
+            }
+            String conflicto = null;
+            if (fecha.isBefore(ahora)) {
+                conflicto = "La fecha y hora ya pasó.";
+            } else if (!enHorarioHabil(fecha, fin)) {
+                conflicto = "Queda fuera del horario hábil.";
+            } else {
+                for (int j = indice; j < ocupados.size() && ocupados.get(j).getInicio().isBefore(fin); j++) {
+                    IntervaloCita ocupado = ocupados.get(j);
+                    LocalDateTime finOcupado = ocupado.getFin() != null ? ocupado.getFin()
+                            : ocupado.getInicio().plusMinutes(AgendaVeterinario.DURACION_SIN_FIN_MINUTOS);
+                    if (finOcupado.isAfter(fecha)) {
+                        conflicto = "El veterinario ya tiene una cita de " + ocupado.getInicio().toLocalTime()
+                                + " a " + finOcupado.toLocalTime() + ".";
+                        break;
+                    }
+                }
+            }
+            ocurrencias.add(new OcurrenciaSerie(fecha, conflicto));
+        }
+        return ocurrencias;
+    }
+
+    /**
+     * Recupera las citas que se agendaron juntas en una serie.
+     */
+    @Transactional(readOnly = true)
+    public List<Cita> recuperarSerie(String idSerie) {
+        return citaRepository.findByIdSerieOrderByFechaHoraAsc(idSerie);
+    }
+
     /**
      * Modifica una cita existente.
      */
 
+    @Transactional
     public Cita modificarCita(Long idCita, LocalDateTime fechaHora, TipoCita tipo, String nombre, String contacto, Veterinario veterinario, String motivo, String notas) {
+        return modificarCita(idCita, fechaHora, tipo, nombre, contacto, veterinario, motivo, notas, null);
+    }
+
+    /**
+     * Modifica una cita existente; si se indica una mascota, la cita pasa a ser suya.
+     * El cambio y las citas que ocupan el lugar liberado se guardan en una sola transacción.
+     */
+
+    @Transactional
+    public Cita modificarCita(Long idCita, LocalDateTime fechaHora, TipoCita tipo, String nombre, String contacto, Veterinario veterinario, String motivo, String notas, Mascota mascota) {
         if (idCita == null) {
             throw new IllegalArgumentException("El ID de la cita no puede ser nulo.");
         }
@@ -148,16 +516,14 @@ public class ServicioCita {
 
         // Realizar las validaciones de campos y reglas (con Veterinario)
 
-        validarCamposYReglas(fechaHora, tipo, nombre, contacto, veterinario);
+        Cita datos = nuevaCita(fechaHora, tipo, nombre, contacto, veterinario, motivo, notas);
+        REGLAS_CITA.verificar(datos);
 
         // Validacion de conflicto CA2
-        LocalDateTime finCita = fechaHora.plusMinutes(DURACION_CITA_MINUTOS);
-
-        // Uso de la nueva consulta que filtra por ID de Veterinario
 
         List<Cita> citasSolapadas = citaRepository.findCitasOverlap(
-                fechaHora.minusMinutes(DURACION_CITA_MINUTOS - 1),
-                finCita.minusMinutes(1),
+                fechaHora,
+                datos.getFechaHoraFin(),
                 veterinario.getIdVeterinario() // Filtrar por veterinario
         );
 
@@ -171,22 +537,55 @@ public class ServicioCita {
 
         // Actualizar datos
 
+        Veterinario veterinarioAnterior = citaExistente.getVeterinario();
+        LocalDateTime inicioAnterior = citaExistente.getFechaHora();
+        LocalDateTime finAnterior = finDe(citaExistente);
+        if (!fechaHora.equals(inicioAnterior)) {
+            // El recordatorio enviado era del horario anterior
+            citaExistente.setRecordatorioEnviado(null);
+            recordatorios.reabrir(fechaHora);
+        }
         citaExistente.setFechaHora(fechaHora);
+        citaExistente.setFechaHoraFin(datos.getFechaHoraFin());
         citaExistente.setTipo(tipo);
         citaExistente.setNombreSolicitante(nombre);
         citaExistente.setContacto(contacto);
         citaExistente.setVeterinario(veterinario); // NUEVO
         citaExistente.setMotivo(motivo != null ? motivo : ""); // NUEVO
         citaExistente.setNotas(notas != null ? notas : ""); // NUEVO
+        Long mascotaAnterior = citaExistente.getMascota() != null ? citaExistente.getMascota().getIdMascota() : null;
+        ligarPaciente(citaExistente, contacto, mascota);
 
+        Cita citaGuardada = citaRepository.save(citaExistente);
+        if (citaGuardada.getMascota() != null && !citaGuardada.getMascota().getIdMascota().equals(mascotaAnterior)) {
+            servicioHistorial.registrarCita(citaGuardada);
+        }
 
-        return citaRepository.save(citaExistente);
+        // Lo que la cita ocupaba y ya no ocupa queda para la lista de espera
+        boolean mismoVeterinario = veterinarioAnterior != null
+                && veterinarioAnterior.getIdVeterinario().equals(veterinario.getIdVeterinario());
+        if (inicioAnterior == null) {
+            return citaGuardada;
+        }
+        if (!mismoVeterinario || !fechaHora.isBefore(finAnterior) || !citaExistente.getFechaHoraFin().isAfter(inicioAnterior)) {
+            ofrecerHueco(veterinarioAnterior, inicioAnterior, finAnterior);
+        } else {
+            if (inicioAnterior.isBefore(fechaHora)) {
+                ofrecerHueco(veterinarioAnterior, inicioAnterior, fechaHora);
+            }
+            if (citaExistente.getFechaHoraFin().isBefore(finAnterior)) {
+                ofrecerHueco(veterinarioAnterior, citaExistente.getFechaHoraFin(), finAnterior);
+            }
+        }
+        return citaGuardada;
     }
 
     /**
-     * Elimina una cita existente.
+     * Elimina una cita existente. La eliminación y las citas que ocupan el lugar liberado
+     * se guardan en una sola transacción.
      */
 
+    @Transactional
     public void eliminarCita(Long idCita) {
         Cita cita = citaRepository.findById(idCita)
                 .orElseThrow(() -> new IllegalArgumentException("Cita no encontrada."));
@@ -196,9 +595,117 @@ public class ServicioCita {
         }
 
         citaRepository.delete(cita);
+        ofrecerHueco(cita.getVeterinario(), cita.getFechaHora(), finDe(cita));
+    }
+
+    /**
+     * Ofrece un lugar libre de la agenda a la lista de espera: agenda la cita de la
+     * solicitud con más prioridad que quepa y sigue con lo que sobre del lugar.
+     *
+     * Cada cita pasa por las mismas validaciones que {@link #agendarCita}; si el lugar ya se
+     * volvió a ocupar, se sigue después de la cita que lo ocupa.
+     */
+
+    private void ofrecerHueco(Veterinario veterinario, LocalDateTime inicio, LocalDateTime fin) {
+        if (veterinario == null || inicio == null) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        if (inicio.isBefore(ahora)) {
+            inicio = ahora;
+        }
+        if (!inicio.isBefore(fin)) {
+            return;
+        }
+        Map<TipoCita, Integer> propias = new EnumMap<>(TipoCita.class);
+        for (DuracionCitaVeterinario duracion : duracionRepository.findByIdVeterinarioOrderByTipo(veterinario.getIdVeterinario())) {
+            propias.put(duracion.getTipo(), duracion.getMinutos());
+        }
+        ToIntFunction<TipoCita> duracion = tipo -> propias.getOrDefault(tipo, tipo.getDuracionMinutos());
+
+        Set<Long> omitidas = new HashSet<>();
+        while (inicio.isBefore(fin)) {
+            Optional<SolicitudEspera> candidato = listaEspera.candidato(veterinario.getIdVeterinario(), inicio, fin,
+                    duracion, omitidas);
+            if (candidato.isEmpty()) {
+                return;
+            }
+            SolicitudEspera solicitud = candidato.get();
+            LocalDateTime horario = ListaEspera.inicioEnHueco(solicitud, inicio);
+            Cita cita = nuevaCita(horario, solicitud.getTipo(), solicitud.getNombreSolicitante(), solicitud.getContacto(),
+                    veterinario, "Lugar liberado (lista de espera)", "");
+            cita.setFechaHoraFin(horario.plusMinutes(duracion.applyAsInt(solicitud.getTipo())));
+            if (!REGLAS_CITA.validar(cita).isEmpty()) {
+                omitidas.add(solicitud.getIdSolicitud());
+                continue;
+            }
+            List<Cita> solapadas = citaRepository.findCitasOverlap(horario, cita.getFechaHoraFin(),
+                    veterinario.getIdVeterinario());
+            if (!solapadas.isEmpty()) {
+                for (Cita solapada : solapadas) {
+                    if (finDe(solapada).isAfter(inicio)) {
+                        inicio = finDe(solapada);
+                    }
+                }
+                continue;
+            }
+            ligarPaciente(cita, solicitud.getContacto(), null);
+            Cita guardada = citaRepository.save(cita);
+            servicioHistorial.registrarCita(guardada);
+            recordatorios.reabrir(horario);
+            listaEspera.ofrecida(solicitud, guardada);
+            omitidas.add(solicitud.getIdSolicitud());
+            inicio = cita.getFechaHoraFin();
+        }
+    }
+
+    private static LocalDateTime finDe(Cita cita) {
+        if (cita.getFechaHora() == null || cita.getFechaHoraFin() != null) {
+            return cita.getFechaHoraFin();
+        }
+        return cita.getFechaHora().plusMinutes(AgendaVeterinario.DURACION_SIN_FIN_MINUTOS);
     }
 
     public List<Cita> recuperarCitas() {
         return citaRepository.findAllByOrderByFechaHoraAsc();
     }
+
+    /**
+     * Recupera las filas de la tabla de citas en una sola consulta de solo lectura,
+     * con el nombre del veterinario y sin cargar las entidades.
+     */
+    @Transactional(readOnly = true)
+    public List<CitaResumen> recuperarResumenCitas() {
+        return citaRepository.findResumenes();
+    }
+
+    /**
+     * Recupera las citas de un cliente, de la más antigua a la más reciente.
+     */
+    @Transactional(readOnly = true)
+    public List<Cita> recuperarCitasPorCliente(Long idCliente) {
+        if (idCliente == null) {
+            throw new IllegalArgumentException("El ID del cliente no puede ser nulo.");
+        }
+        return citaRepository.findByClienteIdClienteOrderByFechaHoraAsc(idCliente);
+    }
+
+    /**
+     * Recupera las citas de una mascota, de la más antigua a la más reciente.
+     */
+    @Transactional(readOnly = true)
+    public List<Cita> recuperarCitasPorMascota(Long idMascota) {
+        if (idMascota == null) {
+            throw new IllegalArgumentException("El ID de la mascota no puede ser nulo.");
+        }
+        return citaRepository.findByMascotaIdMascotaOrderByFechaHoraAsc(idMascota);
+    }
+
+    /**
+     * Recupera una cita completa para modificarla o generar su comprobante.
+     */
+    public Cita recuperarCita(Long idCita) {
+        return citaRepository.findById(idCita)
+                .orElseThrow(() -> new IllegalArgumentException("Cita no encontrada."));
+    }
 }
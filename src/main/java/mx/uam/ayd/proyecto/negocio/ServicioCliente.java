@@ -2,15 +2,19 @@ package mx.uam.ayd.proyecto.negocio;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
+
 import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.ClienteResumen;
 import mx.uam.ayd.proyecto.negocio.modelo.Membresia;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
+import mx.uam.ayd.proyecto.negocio.validacion.Patrones;
+import mx.uam.ayd.proyecto.negocio.validacion.ReglasValidacion;
 
 @Service
 public class ServicioCliente {
@@ -18,9 +22,25 @@ public class ServicioCliente {
     @Autowired
     private ClienteRepository clienteRepository;
 
-    private static final String REGEX_NOMBRE = "^[a-zA-ZáéíóúÁÉÍÓÚñÑ\\s]{1,100}$";
-    private static final String REGEX_TELEFONO = "^\\d{10}$";
-    private static final String REGEX_CORREO = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$";
+    @Autowired
+    private MascotaRepository mascotaRepository;
+
+    @Autowired
+    private ServicioCoberturaVacunacion servicioCobertura;
+
+    @Autowired
+    private ServicioCuboVentas servicioCuboVentas;
+
+    // Reglas de validacion del cliente, se evaluan todas en una sola pasada
+    private static final ReglasValidacion<Cliente> REGLAS_CLIENTE = ReglasValidacion.<Cliente>nuevas()
+            .obligatorio(Cliente::getNombreCompleto, "Todos los campos son obligatorios")
+            .obligatorio(Cliente::getTelefono, "Todos los campos son obligatorios")
+            .obligatorio(Cliente::getCorreoElectronico, "Todos los campos son obligatorios")
+            .obligatorio(Cliente::getDireccion, "Todos los campos son obligatorios")
+            .formato(Cliente::getNombreCompleto, Patrones.NOMBRE_PERSONA, "El nombre solo debe contener letras y espacios (max 100 caracteres)")
+            .formato(Cliente::getTelefono, Patrones.TELEFONO, "El telefono debe contener exactamente 10 digitos numericos")
+            .formato(Cliente::getCorreoElectronico, Patrones.CORREO, "El formato del correo electronico no es valido")
+            .construir();
 
     /**
      * Recupera todos los clientes
@@ -34,6 +54,27 @@ public class ServicioCliente {
         return clientes;
     }
 
+    /**
+     * Recupera las filas de la tabla de clientes en una sola consulta de solo lectura.
+     * Solo trae las columnas que se muestran, sin cargar las entidades.
+     * * @return proyecciones de todos los clientes
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteResumen> recuperaResumenClientes() {
+        return clienteRepository.findResumenes();
+    }
+
+    /**
+     * Recupera un cliente completo, con su membresía, a partir de su ID
+     * * @param idCliente el ID del cliente
+     * @return el cliente
+     * @throws IllegalArgumentException si el cliente no existe
+     */
+    public Cliente recuperaCliente(Long idCliente) {
+        return clienteRepository.findById(idCliente)
+                .orElseThrow(() -> new IllegalArgumentException("El cliente con ID " + idCliente + " no existe"));
+    }
+
     /**
      * Registra un nuevo cliente con validaciones
      * @param nombreCompleto
@@ -45,24 +86,15 @@ public class ServicioCliente {
      */
     public Cliente registraCliente(String nombreCompleto, String telefono, String correoElectronico, String direccion) {
         
-        // Validamos campos obligatorios a todos 
-        if (nombreCompleto == null || nombreCompleto.trim().isEmpty() ||
-            telefono == null || telefono.trim().isEmpty() ||
-            correoElectronico == null || correoElectronico.trim().isEmpty() ||
-            direccion == null || direccion.trim().isEmpty()) {
-            throw new IllegalArgumentException("Todos los campos son obligatorios");
-        }
-        
-        // Validamos los formatos segun las reglas designadas
-        if (!Pattern.matches(REGEX_NOMBRE, nombreCompleto)) {
-            throw new IllegalArgumentException("El nombre solo debe contener letras y espacios (max 100 caracteres)");
-        }
-        if (!Pattern.matches(REGEX_TELEFONO, telefono)) {
-            throw new IllegalArgumentException("El telefono debe contener exactamente 10 digitos numericos");
-        }
-        if (!Pattern.matches(REGEX_CORREO, correoElectronico)) {
-            throw new IllegalArgumentException("El formato del correo electronico no es valido");
-        }
+        Cliente cliente = new Cliente();
+        cliente.setNombreCompleto(nombreCompleto);
+        cliente.setTelefono(telefono);
+        cliente.setCorreoElectronico(correoElectronico);
+        cliente.setDireccion(direccion);
+        cliente.setMontoAcumulado(0.0);
+
+        // Validamos campos obligatorios y formatos segun las reglas designadas
+        REGLAS_CLIENTE.verificar(cliente);
 
         // Evitamos la existencia de duplicados
         if (clienteRepository.findByTelefono(telefono) != null) {
@@ -72,27 +104,23 @@ public class ServicioCliente {
             throw new IllegalArgumentException("Ya existe un cliente registrado con ese correo electronico");
         }
 
-        // Creamos al cliente 
-        Cliente cliente = new Cliente();
-        cliente.setNombreCompleto(nombreCompleto);
-        cliente.setTelefono(telefono);
-        cliente.setCorreoElectronico(correoElectronico);
-        cliente.setDireccion(direccion);
-        cliente.setMontoAcumulado(0.0);
-
         return clienteRepository.save(cliente);
     }
 
     /**
-     * Elimina un cliente por su ID
+     * Elimina un cliente por su ID, junto con sus mascotas, que se descuentan de la población
      * * @param idCliente el ID del cliente a eliminar
      * @throws IllegalArgumentException si el cliente no existe
      */
+    @Transactional
     public void eliminaCliente(Long idCliente) {
         if (!clienteRepository.existsById(idCliente)) {
             throw new IllegalArgumentException("El cliente con ID " + idCliente + " no existe");
         }
+        // Las mascotas se borran en cascada sin pasar por ServicioMascota
+        List<String> especies = mascotaRepository.findEspeciesByIdCliente(idCliente);
         clienteRepository.deleteById(idCliente);
+        servicioCobertura.mascotasEliminadas(especies);
     }
 
     /**
@@ -104,7 +132,12 @@ public class ServicioCliente {
      */
     @Transactional
     public void asignarMembresia(TipoMembresia tipo, Cliente cliente) {
-        if (cliente.getMontoAcumulado() < 500) {
+        // El saldo se lee de la columna mantenida por las ventas; la copia del cliente puede estar atrasada
+        double montoAcumulado = cliente.getIdCliente() != null
+                ? clienteRepository.findMontoAcumuladoByIdCliente(cliente.getIdCliente())
+                        .orElse(valor(cliente.getMontoAcumulado()))
+                : valor(cliente.getMontoAcumulado());
+        if (montoAcumulado < 500) {
             throw new IllegalArgumentException("El cliente no cumple con el monto mínimo para obtener una membresía.");
         }
 
@@ -116,7 +149,13 @@ public class ServicioCliente {
 
         cliente.setMembresia(membresia);
         clienteRepository.save(cliente); // Cascade.ALL asegura que se guarde también la membresía
+        // Las ventas del cliente cambian de membresía en los reportes
+        servicioCuboVentas.membresiaCambiada();
     }
+    private static double valor(Double monto) {
+        return monto != null ? monto : 0.0;
+    }
+
     /**
      * Permite buscar un cliente por su número de teléfono.
      * Es necesario para el flujo de registro de hospedaje (HU-01).
@@ -0,0 +1,261 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import mx.uam.ayd.proyecto.datos.CartillaRepository;
+import mx.uam.ayd.proyecto.datos.CoberturaVacunacionRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
+import mx.uam.ayd.proyecto.datos.PoblacionEspecieRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CoberturaVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.EstadoVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.PoblacionEspecie;
+import mx.uam.ayd.proyecto.negocio.modelo.SerieVacunaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+
+/**
+ * Servicio que mantiene la cobertura de vacunación por especie y vacuna.
+ *
+ * La tabla {@code cobertura_vacunacion} guarda cuántas mascotas de cada especie tienen
+ * alguna dosis de cada vacuna y cuántas están al corriente, y {@code poblacion_especie}
+ * cuántas mascotas hay de cada especie. Los registros de la cartilla y de mascotas las
+ * ajustan con un UPDATE atómico, así que el porcentaje de cobertura se lee de dos filas sin
+ * importar cuántas cartillas haya.
+ *
+ * Una dosis puede vencer sin que nadie escriba, por eso ambas tablas se recuentan desde
+ * las cartillas y las mascotas al arrancar, si el último recuento es de un día anterior, y
+ * cada noche si la aplicación sigue abierta; la misma pasada corrige las cartillas o
+ * mascotas que se hayan modificado sin pasar por los servicios.
+ */
+@Service
+public class ServicioCoberturaVacunacion {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioCoberturaVacunacion.class);
+
+    /** Hora de la conciliación nocturna (2:30 a.m.). */
+    public static final String HORARIO_CONCILIACION = "0 30 2 * * *";
+
+    private final CoberturaVacunacionRepository coberturaRepository;
+    private final PoblacionEspecieRepository poblacionRepository;
+    private final CartillaRepository cartillaRepository;
+    private final MascotaRepository mascotaRepository;
+
+    /**
+     * Constructor con inyección de dependencias.
+     *
+     * @param coberturaRepository conteos por especie y vacuna
+     * @param poblacionRepository mascotas por especie
+     * @param cartillaRepository cartillas, para la conciliación
+     * @param mascotaRepository mascotas, para la conciliación
+     */
+    @Autowired
+    public ServicioCoberturaVacunacion(CoberturaVacunacionRepository coberturaRepository,
+                                       PoblacionEspecieRepository poblacionRepository,
+                                       CartillaRepository cartillaRepository,
+                                       MascotaRepository mascotaRepository) {
+        this.coberturaRepository = coberturaRepository;
+        this.poblacionRepository = poblacionRepository;
+        this.cartillaRepository = cartillaRepository;
+        this.mascotaRepository = mascotaRepository;
+    }
+
+    /**
+     * Recuenta las tablas si están vacías o si el último recuento no es de hoy, porque la
+     * conciliación nocturna no corre mientras la aplicación está cerrada.
+     */
+    @PostConstruct
+    public void iniciar() {
+        try {
+            Optional<LocalDate> corte = coberturaRepository.findFechaCorteMasAntigua();
+            if (corte.isEmpty() || corte.get().isBefore(LocalDate.now())) {
+                conciliar();
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudo calcular la cobertura de vacunación: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica el cambio de situación de una mascota respecto a una vacuna.
+     *
+     * @param especie especie de la mascota
+     * @param vacuna vacuna de la serie que cambió
+     * @param antes situación antes del registro
+     * @param despues situación después del registro
+     */
+    @Transactional
+    public void registrarCambio(Especie especie, VacunaEnum vacuna, EstadoVacunacion antes, EstadoVacunacion despues) {
+        int vacunadas = despues.vacunada() - antes.vacunada();
+        int alCorriente = despues.alCorriente() - antes.alCorriente();
+        if (vacunadas == 0 && alCorriente == 0) {
+            return;
+        }
+        if (coberturaRepository.incrementar(especie, vacuna, vacunadas, alCorriente) == 0) {
+            // La pareja no tenía fila: arranca con el cambio y la conciliación la completa
+            CoberturaVacunacion fila = new CoberturaVacunacion();
+            fila.setEspecie(especie);
+            fila.setVacuna(vacuna);
+            fila.setVacunadas(Math.max(0, vacunadas));
+            fila.setAlCorriente(Math.max(0, alCorriente));
+            coberturaRepository.save(fila);
+        }
+    }
+
+    /**
+     * Cuenta una mascota nueva en la población de su especie.
+     *
+     * @param especie especie capturada en la mascota
+     */
+    @Transactional
+    public void mascotaRegistrada(String especie) {
+        cambiarPoblacion(Especie.de(especie), 1);
+    }
+
+    /**
+     * Descuenta una mascota eliminada de la población de su especie. Sus cartillas se
+     * dejan de contar en la siguiente conciliación.
+     *
+     * @param especie especie capturada en la mascota
+     */
+    @Transactional
+    public void mascotaEliminada(String especie) {
+        cambiarPoblacion(Especie.de(especie), -1);
+    }
+
+    /**
+     * Descuenta varias mascotas eliminadas juntas, por ejemplo las de un cliente, con un
+     * UPDATE por especie.
+     *
+     * @param especies especie capturada en cada mascota
+     */
+    @Transactional
+    public void mascotasEliminadas(List<String> especies) {
+        Map<Especie, Integer> porEspecie = new EnumMap<>(Especie.class);
+        for (String especie : especies) {
+            porEspecie.merge(Especie.de(especie), 1, Integer::sum);
+        }
+        porEspecie.forEach((especie, cuantas) -> cambiarPoblacion(especie, -cuantas));
+    }
+
+    /**
+     * Recuenta la cobertura y la población desde las cartillas y las mascotas, con la fecha
+     * de hoy para decidir qué dosis ya vencieron. Corre cada noche.
+     *
+     * @return número de filas de cobertura cuyo conteo cambió
+     */
+    @Scheduled(cron = HORARIO_CONCILIACION)
+    @Transactional
+    public int conciliar() {
+        LocalDate hoy = LocalDate.now();
+
+        // [vacunadas, al corriente] por especie y vacuna
+        Map<Especie, Map<VacunaEnum, int[]>> conteos = new EnumMap<>(Especie.class);
+        for (SerieVacunaResumen serie : cartillaRepository.findSeriesVacunacion()) {
+            EstadoVacunacion estado = EstadoVacunacion.deVacunada(serie.getVigenteHasta(), hoy);
+            int[] conteo = conteos.computeIfAbsent(Especie.de(serie.getEspecie()), e -> new EnumMap<>(VacunaEnum.class))
+                    .computeIfAbsent(serie.getVacuna(), v -> new int[2]);
+            conteo[0] += estado.vacunada();
+            conteo[1] += estado.alCorriente();
+        }
+
+        Map<CoberturaVacunacion.Llave, CoberturaVacunacion> existentes = new HashMap<>();
+        for (CoberturaVacunacion fila : coberturaRepository.findAll()) {
+            existentes.put(new CoberturaVacunacion.Llave(fila.getEspecie(), fila.getVacuna()), fila);
+        }
+        List<CoberturaVacunacion> filas = new ArrayList<>();
+        int corregidas = 0;
+        for (Especie especie : Especie.values()) {
+            for (VacunaEnum vacuna : VacunaEnum.values()) {
+                int[] conteo = conteos.getOrDefault(especie, Map.of()).getOrDefault(vacuna, new int[2]);
+                CoberturaVacunacion fila = existentes.get(new CoberturaVacunacion.Llave(especie, vacuna));
+                if (fila == null) {
+                    fila = new CoberturaVacunacion();
+                    fila.setEspecie(especie);
+                    fila.setVacuna(vacuna);
+                } else if (fila.getVacunadas() != conteo[0] || fila.getAlCorriente() != conteo[1]) {
+                    corregidas++;
+                }
+                fila.setVacunadas(conteo[0]);
+                fila.setAlCorriente(conteo[1]);
+                fila.setFechaCorte(hoy);
+                filas.add(fila);
+            }
+        }
+        coberturaRepository.saveAll(filas);
+
+        Map<Especie, Integer> mascotas = new EnumMap<>(Especie.class);
+        for (Object[] fila : mascotaRepository.contarPorEspecie()) {
+            mascotas.merge(Especie.de((String) fila[0]), ((Number) fila[1]).intValue(), Integer::sum);
+        }
+        List<PoblacionEspecie> poblaciones = new ArrayList<>();
+        for (Especie especie : Especie.values()) {
+            PoblacionEspecie poblacion = new PoblacionEspecie();
+            poblacion.setEspecie(especie);
+            poblacion.setMascotas(mascotas.getOrDefault(especie, 0));
+            poblaciones.add(poblacion);
+        }
+        poblacionRepository.saveAll(poblaciones);
+
+        log.info("Cobertura de vacunación conciliada; filas corregidas: " + corregidas);
+        return corregidas;
+    }
+
+    /**
+     * @return la cobertura de la vacuna en la especie, si ya tiene fila
+     */
+    @Transactional(readOnly = true)
+    public Optional<CoberturaVacunacion> consultarCobertura(Especie especie, VacunaEnum vacuna) {
+        return coberturaRepository.findById(new CoberturaVacunacion.Llave(especie, vacuna));
+    }
+
+    /**
+     * @return la cobertura de todas las vacunas de la especie
+     */
+    @Transactional(readOnly = true)
+    public List<CoberturaVacunacion> consultarCobertura(Especie especie) {
+        return coberturaRepository.findByEspecieOrderByVacuna(especie);
+    }
+
+    /**
+     * @return mascotas registradas de la especie
+     */
+    @Transactional(readOnly = true)
+    public int consultarPoblacion(Especie especie) {
+        return poblacionRepository.findById(especie).map(PoblacionEspecie::getMascotas).orElse(0);
+    }
+
+    /**
+     * Porcentaje de las mascotas de la especie que están al corriente con la vacuna.
+     *
+     * @return porcentaje entre 0 y 100
+     */
+    @Transactional(readOnly = true)
+    public double porcentajeAlCorriente(Especie especie, VacunaEnum vacuna) {
+        int poblacion = consultarPoblacion(especie);
+        return consultarCobertura(especie, vacuna).map(c -> c.porcentajeAlCorriente(poblacion)).orElse(0.0);
+    }
+
+    private void cambiarPoblacion(Especie especie, int cambio) {
+        if (poblacionRepository.incrementar(especie, cambio) == 0) {
+            PoblacionEspecie poblacion = new PoblacionEspecie();
+            poblacion.setEspecie(especie);
+            poblacion.setMascotas(Math.max(0, cambio));
+            poblacionRepository.save(poblacion);
+        }
+    }
+}
@@ -2,16 +2,21 @@ package mx.uam.ayd.proyecto.negocio;
 
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
 import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
 import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
 
 import java.io.File;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @file ServicioCorreo.java
@@ -53,6 +58,56 @@ public class ServicioCorreo {
         }
     }
 
+    /**
+     * @brief Envia varios correos simples en un solo lote, por la misma conexion.
+     * Si hay una transaccion en curso, el lote sale hasta que se confirma, para no
+     * avisar de cambios que al final no se guardaron.
+     * @param mensajes correos a enviar
+     */
+
+    public void enviarCorreos(List<SimpleMailMessage> mensajes) {
+        if (mensajes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<SimpleMailMessage> lote = List.copyOf(mensajes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enviarAhora(lote);
+                }
+            });
+        } else {
+            enviarAhora(mensajes);
+        }
+    }
+
+    /**
+     * @brief Envia varios correos simples en un solo lote, de inmediato aunque haya una
+     * transaccion en curso, y dice cuales no salieron.
+     * @param mensajes correos a enviar
+     * @return los correos que no se pudieron enviar; vacia si salieron todos
+     */
+
+    public List<SimpleMailMessage> enviarAhora(List<SimpleMailMessage> mensajes) {
+        if (mensajes.isEmpty()) {
+            return List.of();
+        }
+        try {
+            mailSender.send(mensajes.toArray(new SimpleMailMessage[0]));
+            System.out.println("Lote de " + mensajes.size() + " correos enviado correctamente");
+            return List.of();
+        } catch (MailSendException e) {
+            System.err.println("Error al enviar lote de correos: " + e.getMessage());
+            Map<Object, Exception> fallidos = e.getFailedMessages();
+            // Sin detalle por mensaje (p. ej. no hubo conexion) se da por perdido todo el lote
+            return fallidos.isEmpty() ? mensajes : mensajes.stream().filter(fallidos::containsKey).toList();
+        } catch (Exception e) {
+            System.err.println("Error al enviar lote de correos: " + e.getMessage());
+            return mensajes;
+        }
+    }
+
     /**
      * Envia confirmacion personalizada de hospedaje
      */
@@ -0,0 +1,229 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.Persistence;
+import mx.uam.ayd.proyecto.datos.DetalleVentaRepository;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.DimensionVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.Dinero;
+import mx.uam.ayd.proyecto.negocio.modelo.FiltroVentas;
+import mx.uam.ayd.proyecto.negocio.modelo.HechoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.ProductoResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.ReporteVentaDTO;
+import mx.uam.ayd.proyecto.negocio.modelo.TotalVentaProducto;
+
+/**
+ * Servicio que mantiene el cubo de ventas en memoria para los reportes.
+ *
+ * El cubo se carga de la base de datos con una sola consulta la primera vez que se usa,
+ * y después cada venta registrada se le agrega al momento, de modo que los reportes
+ * no vuelven a consultar la base de datos.
+ *
+ * La membresía de cada venta es la que el cliente tiene vigente ahora, tanto en la carga
+ * como en las ventas que se agregan después. Cuando un cliente cambia de membresía el cubo
+ * se descarta y la siguiente consulta lo vuelve a cargar, así que el desglose por membresía
+ * no cambia al reiniciar la aplicación.
+ *
+ * Mientras el cubo no se ha cargado, el reporte por periodo y producto (el de la pantalla
+ * de reportes) se responde con una agregación sobre la tabla de detalles, que ya guarda
+ * la fecha y el precio de cada venta; así no se carga el cubo solo para ese reporte.
+ */
+@Service
+public class ServicioCuboVentas {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioCuboVentas.class);
+
+    private final DetalleVentaRepository detalleVentaRepository;
+    private final ProductoRepository productoRepository;
+    private volatile CuboVentas cubo;
+
+    /**
+     * Constructor con inyección de dependencias.
+     *
+     * @param detalleVentaRepository repositorio de detalles de venta
+     * @param productoRepository repositorio de productos, para etiquetar los totales por producto
+     */
+    @Autowired
+    public ServicioCuboVentas(DetalleVentaRepository detalleVentaRepository, ProductoRepository productoRepository) {
+        this.detalleVentaRepository = detalleVentaRepository;
+        this.productoRepository = productoRepository;
+    }
+
+    /**
+     * Consulta el cubo agrupando por las dimensiones indicadas.
+     *
+     * @param filtro filtros de fechas, tipo, marca, membresía y cliente
+     * @param dimensiones de una a tres dimensiones, con a lo más una de tiempo
+     * @return filas agregadas, ordenadas por fecha y etiqueta
+     * @throws IllegalArgumentException si las dimensiones son inválidas
+     */
+    public List<ReporteVentaDTO> consultar(FiltroVentas filtro, DimensionVenta... dimensiones) {
+        if (cubo == null && resueltoPorDetalles(filtro, dimensiones)) {
+            return consultarDetalles(filtro, dimensiones[0]);
+        }
+        return obtenerCubo().consultar(filtro, dimensiones);
+    }
+
+    /**
+     * Indica si la consulta es periodo + producto y solo filtra por fechas y tipo de producto,
+     * que es lo que puede responder la agregación sobre detalle_venta.
+     */
+    private static boolean resueltoPorDetalles(FiltroVentas filtro, DimensionVenta[] dimensiones) {
+        if (dimensiones == null || dimensiones.length != 2 || dimensiones[0] == null
+                || !dimensiones[0].isTemporal() || dimensiones[1] != DimensionVenta.PRODUCTO) {
+            return false;
+        }
+        return filtro == null || (filtro.getMarcaProducto() == null && filtro.getTipoMembresia() == null
+                && filtro.getIdCliente() == null && !filtro.isSoloSinMembresia());
+    }
+
+    /**
+     * Suma los totales diarios por producto de la base de datos y los agrupa por periodo.
+     * Las filas salen en el mismo formato y orden que las del cubo.
+     */
+    private List<ReporteVentaDTO> consultarDetalles(FiltroVentas filtro, DimensionVenta periodo) {
+        FiltroVentas f = filtro != null ? filtro : new FiltroVentas();
+        List<TotalVentaProducto> totales = detalleVentaRepository.sumarPorFechaYProducto(f.getDesde(), f.getHasta());
+
+        Map<Long, ProductoResumen> productos = new HashMap<>();
+        if (!totales.isEmpty()) {
+            List<Long> ids = totales.stream().map(TotalVentaProducto::getIdProducto).distinct().toList();
+            for (ProductoResumen producto : productoRepository.findResumenByIdProductoIn(ids)) {
+                productos.put(producto.getIdProducto(), producto);
+            }
+        }
+
+        Map<List<Object>, ReporteVentaDTO> grupos = new LinkedHashMap<>();
+        Map<List<Object>, long[]> centavos = new HashMap<>();
+        for (TotalVentaProducto total : totales) {
+            ProductoResumen producto = productos.get(total.getIdProducto());
+            if (f.getTipoProducto() != null
+                    && (producto == null || producto.getTipoProducto() != f.getTipoProducto())) {
+                continue;
+            }
+            LocalDate fecha = MuestreoReporte.inicioPeriodo(total.getFecha(), periodo);
+            List<Object> clave = List.of(fecha, total.getIdProducto());
+            ReporteVentaDTO fila = grupos.computeIfAbsent(clave,
+                    k -> new ReporteVentaDTO(fecha, producto != null ? producto.getNombre() : null,
+                            producto != null ? producto.getTipoProducto() : null, 0L, 0.0));
+            long[] suma = centavos.computeIfAbsent(clave, k -> new long[1]);
+            suma[0] += Objects.requireNonNullElse(total.getTotalCentavos(), 0L);
+            fila.setCantidadVendida(fila.getCantidadVendida() + Objects.requireNonNullElse(total.getCantidad(), 0L));
+            fila.setTotalVenta(Dinero.pesos(suma[0]));
+        }
+
+        List<ReporteVentaDTO> filas = new ArrayList<>(grupos.values());
+        filas.sort(Comparator.comparing(ReporteVentaDTO::getFecha, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ReporteVentaDTO::getEtiqueta, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return filas;
+    }
+
+    /**
+     * Agrega al cubo los detalles de una venta recién guardada.
+     * Si el cubo aún no se ha cargado no hace nada: la carga los leerá de la base de datos.
+     *
+     * Dentro de una transacción los detalles se agregan hasta que se confirma, para que una
+     * venta revertida no quede en los reportes. Si el cubo se recargó mientras tanto no se sabe
+     * si la carga ya los leyó, así que se descarta y se vuelve a cargar en la siguiente consulta.
+     *
+     * @param detallesVenta detalles guardados
+     */
+    public void registrarDetalles(List<DetalleVenta> detallesVenta) {
+        CuboVentas actual = cubo;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            agregar(actual, detallesVenta);
+            return;
+        }
+        List<DetalleVenta> guardados = List.copyOf(detallesVenta);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (cubo != actual) {
+                    cubo = null;
+                    return;
+                }
+                agregar(actual, guardados);
+            }
+        });
+    }
+
+    /**
+     * Descarta el cubo porque la membresía de un cliente cambió y con ella la de todas sus
+     * ventas; la siguiente consulta lo vuelve a cargar. Dentro de una transacción se
+     * descarta hasta que se confirma.
+     */
+    public void membresiaCambiada() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cubo = null;
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cubo = null;
+            }
+        });
+    }
+
+    private void agregar(CuboVentas actual, List<DetalleVenta> detallesVenta) {
+        if (actual == null) {
+            return;
+        }
+        for (DetalleVenta detalle : detallesVenta) {
+            if (!membresiaCargada(detalle)) {
+                // No se puede saber la membresía sin la sesión: se recarga en la siguiente consulta
+                log.info("Membresía del cliente sin cargar, el cubo de ventas se recargará");
+                cubo = null;
+                return;
+            }
+        }
+        for (DetalleVenta detalle : detallesVenta) {
+            actual.agregar(HechoVenta.de(detalle));
+        }
+    }
+
+    /**
+     * Vuelve a cargar el cubo desde la base de datos.
+     */
+    public synchronized void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        cubo = new CuboVentas(detalleVentaRepository.findHechosVenta());
+        log.info("Cubo de ventas cargado con " + cubo.tamano() + " detalles en "
+                + (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    private static boolean membresiaCargada(DetalleVenta detalle) {
+        Cliente cliente = detalle.getVenta() != null ? detalle.getVenta().getCliente() : null;
+        return cliente == null || Persistence.getPersistenceUtil().isLoaded(cliente, "membresia");
+    }
+
+    private CuboVentas obtenerCubo() {
+        CuboVentas actual = cubo;
+        if (actual == null) {
+            synchronized (this) {
+                if (cubo == null) {
+                    reconstruir();
+                }
+                actual = cubo;
+            }
+        }
+        return actual;
+    }
+}
@@ -10,12 +10,13 @@ import org.slf4j.LoggerFactory;
 import mx.uam.ayd.proyecto.datos.VentaRepository;
 import mx.uam.ayd.proyecto.datos.DetalleVentaRepository;
 import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CarritoVenta;
 import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
 import mx.uam.ayd.proyecto.negocio.modelo.Venta;
 import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.Dinero;
 import mx.uam.ayd.proyecto.negocio.modelo.Producto;
 import mx.uam.ayd.proyecto.negocio.modelo.Membresia;
-import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
 /**
  * Servicio para gestionar la creacion de los detalle de venta.
  */
@@ -26,7 +27,7 @@ public class ServicioDetalleVenta {
     private final VentaRepository ventaRepository;
     private final DetalleVentaRepository detalleVentaRepository;
     private final ProductoRepository productoRepository;
-    private double subtotal;
+    private final ServicioReservaStock servicioReservaStock;
 
     /**
      * Constructor con inyección de dependencias para los repositorios usados.
@@ -34,37 +35,110 @@ public class ServicioDetalleVenta {
      * @param ventaRepository repositorio para gestionar ventas
      * @param detalleVentaRepository repositorio para gestionar detalles de venta
      * @param productoRepository repositorio para gestionar productos
+     * @param servicioReservaStock reservas de stock de los carritos abiertos
      */
     @Autowired
     public ServicioDetalleVenta(VentaRepository ventaRepository,
                                 DetalleVentaRepository detalleVentaRepository,
-                                ProductoRepository productoRepository) {
+                                ProductoRepository productoRepository,
+                                ServicioReservaStock servicioReservaStock) {
         this.ventaRepository = ventaRepository;
         this.detalleVentaRepository = detalleVentaRepository;
         this.productoRepository = productoRepository;
+        this.servicioReservaStock = servicioReservaStock;
     }
 
     /**
-     * Crea un nuevo objeto DetalleVenta validando que el producto, cantidad y venta sean correctos,
-     * y que no exista ya el producto en la lista de detalles.
+     * Agrega un producto al carrito de una venta en captura y reserva sus unidades.
+     * La búsqueda de duplicados es por ID de producto en el índice del carrito.
+     *
+     * @param carrito carrito de la sesión de venta
+     * @param producto producto que se va a vender
+     * @param cantidadVendida cantidad del producto que se vende
+     * @return el detalle agregado
+     * @throws IllegalArgumentException si el carrito o el producto son nulos, o cantidad es <= 0
+     * @throws IllegalStateException si el producto ya está en el carrito o la cantidad supera el stock
+     *         no reservado por otros carritos
+     */
+    public DetalleVenta agregarProducto(CarritoVenta carrito, Producto producto, int cantidadVendida) {
+        if (carrito == null) {
+            throw new IllegalArgumentException("El carrito no puede ser nulo");
+        }
+        if (producto == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+        if (carrito.contiene(producto.getIdProducto())) {
+            throw new IllegalStateException("El producto ya esta en la tabla");
+        }
+        DetalleVenta detalleVenta = newDetalleVenta(producto, cantidadVendida, carrito.getVenta(), carrito.getCliente());
+        servicioReservaStock.reservar(carrito.getIdSesion(), producto, cantidadVendida);
+        carrito.agregar(detalleVenta);
+        return detalleVenta;
+    }
+
+    /**
+     * Cambia la cantidad de un producto del carrito y ajusta su reserva; con 0 lo quita.
+     *
+     * @param carrito carrito de la sesión de venta
+     * @param producto producto a modificar
+     * @param cantidad nueva cantidad
+     * @return el detalle modificado, o null si se quitó
+     * @throws IllegalArgumentException si el producto no está en el carrito o la cantidad es negativa
+     * @throws IllegalStateException si la cantidad supera el stock no reservado por otros carritos
+     */
+    public DetalleVenta modificarCantidad(CarritoVenta carrito, Producto producto, int cantidad) {
+        if (carrito == null || producto == null) {
+            throw new IllegalArgumentException("El carrito y el producto no pueden ser nulos");
+        }
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa");
+        }
+        if (cantidad > producto.getCantidadStock()) {
+            throw new IllegalStateException("La cantidad vendida no puede ser mayor al stock");
+        }
+        if (!carrito.contiene(producto.getIdProducto())) {
+            throw new IllegalArgumentException("El producto no esta en la venta");
+        }
+        servicioReservaStock.reservar(carrito.getIdSesion(), producto, cantidad);
+        return carrito.cambiarCantidad(producto.getIdProducto(), cantidad);
+    }
+
+    /**
+     * Suma una unidad de un producto leído con el escáner: lo agrega si no está en el
+     * carrito y, si ya está, incrementa su cantidad.
+     *
+     * @param carrito carrito de la sesión de venta
+     * @param producto producto leído
+     * @return el detalle del producto
+     * @throws IllegalArgumentException si el carrito o el producto son nulos
+     * @throws IllegalStateException si la nueva cantidad supera el stock disponible
+     */
+    public DetalleVenta sumarUnidad(CarritoVenta carrito, Producto producto) {
+        if (carrito == null || producto == null) {
+            throw new IllegalArgumentException("El carrito y el producto no pueden ser nulos");
+        }
+        DetalleVenta detalle = carrito.buscar(producto.getIdProducto());
+        if (detalle == null) {
+            return agregarProducto(carrito, producto, 1);
+        }
+        return modificarCantidad(carrito, producto, detalle.getCantidadVendida() + 1);
+    }
+
+    /**
+     * Crea un nuevo objeto DetalleVenta validando que el producto, cantidad y venta sean correctos.
      *
      * @param producto producto que se va a vender
      * @param cantidadVendida cantidad del producto que se vende
      * @param venta la venta a la que pertenece este detalle
-     * @param detallesVenta lista actual de detalles de venta para evitar duplicados
-     * @return un nuevo objeto DetalleVenta con los datos proporcionados y el subtotal calculado
+     * @param cliente cliente de la venta (puede ser null); su membresía determina el descuento
+     * @return un nuevo objeto DetalleVenta con el precio y descuento vigentes y el subtotal calculado
      * @throws IllegalArgumentException si producto o venta son nulos, o cantidad es <= 0
-     * @throws IllegalStateException si el producto ya está en la lista o la cantidad supera el stock disponible
+     * @throws IllegalStateException si la cantidad supera el stock disponible
      */
-    public DetalleVenta newDetalleVenta(Producto producto, int cantidadVendida, Venta venta, List<DetalleVenta> detallesVenta, Cliente cliente){
+    public DetalleVenta newDetalleVenta(Producto producto, int cantidadVendida, Venta venta, Cliente cliente){
         if (producto == null) {
             throw new IllegalArgumentException("El producto no puede ser nulo");
         }
-        for (DetalleVenta detalleVentaL : detallesVenta){
-            if(detalleVentaL.getProducto() == producto){
-                throw new IllegalStateException("El producto ya esta en la tabla");
-            }
-        }
         if (cantidadVendida <= 0) {
             throw new IllegalArgumentException("La cantidad no puede ser menor o igual a 0");
         }
@@ -76,21 +150,28 @@ public class ServicioDetalleVenta {
         }
 
         log.info("Agregando producto " + producto.getNombre());
-        Membresia membresia = cliente.getMembresia();
+        Membresia membresia = cliente != null ? cliente.getMembresia() : null;
 
         DetalleVenta detalleVenta = new DetalleVenta();
         detalleVenta.setVenta(venta);
         detalleVenta.setProducto(producto);
-        double subtotal = producto.getPrecio() * cantidadVendida;
         detalleVenta.setCantidadVendida(cantidadVendida);
-        if (cliente == null || membresia == null){
-            detalleVenta.setSubtotal(subtotal);
-        }else if (membresia.getTipoMembresia() == TipoMembresia.Standard){
-            detalleVenta.setSubtotal(subtotal*0.9);
-        }else {
-            detalleVenta.setSubtotal(subtotal*0.85);
-        }
+        // Se guardan el precio y el descuento de hoy; el subtotal se calcula a partir de ellos
+        detalleVenta.setPrecioUnitario(producto.getPrecio());
+        detalleVenta.setDescuento(membresia == null || membresia.getTipoMembresia() == null
+                ? 0.0 : membresia.getTipoMembresia().getDescuento());
+        detalleVenta.recalcularSubtotal();
 
         return detalleVenta;
     }
+
+    /**
+     * Calcula el total de una venta sumando en centavos los subtotales de sus detalles.
+     *
+     * @param detallesVenta detalles de la venta
+     * @return total exacto en pesos
+     */
+    public double calcularTotal(List<DetalleVenta> detallesVenta) {
+        return Dinero.pesos(Dinero.totalCentavos(detallesVenta));
+    }
 }
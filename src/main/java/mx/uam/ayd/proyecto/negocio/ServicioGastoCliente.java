@@ -0,0 +1,141 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.MovimientoGastoRepository;
+import mx.uam.ayd.proyecto.datos.SaldoGastoRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Dinero;
+import mx.uam.ayd.proyecto.negocio.modelo.MovimientoGasto;
+import mx.uam.ayd.proyecto.negocio.modelo.SaldoGasto;
+
+/**
+ * Servicio que mantiene el gasto acumulado de los clientes.
+ *
+ * El saldo vive en la columna {@code monto_acumulado} del cliente y se incrementa con un
+ * UPDATE atómico, de modo que dos terminales que cobran al mismo cliente no pierden ventas.
+ * Cada incremento se anota además en un libro de movimientos que solo crece; cada
+ * {@value #MOVIMIENTOS_POR_CORTE} movimientos se guarda un corte del saldo para poder
+ * recalcularlo desde el libro sin recorrerlo completo.
+ */
+@Service
+public class ServicioGastoCliente {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioGastoCliente.class);
+
+    /** Movimientos de un cliente entre un corte y el siguiente. */
+    public static final int MOVIMIENTOS_POR_CORTE = 50;
+
+    private final ClienteRepository clienteRepository;
+    private final MovimientoGastoRepository movimientoGastoRepository;
+    private final SaldoGastoRepository saldoGastoRepository;
+
+    /**
+     * Constructor con inyección de dependencias.
+     *
+     * @param clienteRepository repositorio de clientes
+     * @param movimientoGastoRepository libro de movimientos de gasto
+     * @param saldoGastoRepository cortes del saldo
+     */
+    @Autowired
+    public ServicioGastoCliente(ClienteRepository clienteRepository,
+                                MovimientoGastoRepository movimientoGastoRepository,
+                                SaldoGastoRepository saldoGastoRepository) {
+        this.clienteRepository = clienteRepository;
+        this.movimientoGastoRepository = movimientoGastoRepository;
+        this.saldoGastoRepository = saldoGastoRepository;
+    }
+
+    /**
+     * Suma el monto de una venta al gasto acumulado del cliente y lo anota en el libro.
+     *
+     * @param idCliente ID del cliente
+     * @param idVenta ID de la venta que origina el gasto (puede ser null)
+     * @param monto monto a sumar, en pesos
+     * @throws IllegalArgumentException si falta el cliente, el monto es negativo o el cliente no existe
+     */
+    @Transactional
+    public void registrarGasto(Long idCliente, Long idVenta, double monto) {
+        if (idCliente == null) {
+            throw new IllegalArgumentException("El cliente no puede ser nulo");
+        }
+        if (monto < 0) {
+            throw new IllegalArgumentException("El monto no puede ser negativo");
+        }
+
+        // El UPDATE bloquea la fila del cliente hasta el final de la transacción, así que
+        // el resto del registro no se intercala con otra venta del mismo cliente
+        long centavos = Dinero.centavos(monto);
+        if (clienteRepository.incrementarMontoAcumulado(idCliente, centavos) == 0) {
+            throw new IllegalArgumentException("El cliente con ID " + idCliente + " no existe");
+        }
+
+        Optional<SaldoGasto> ultimoCorte = saldoGastoRepository.findFirstByIdClienteOrderByIdMovimientoHastaDesc(idCliente);
+        if (ultimoCorte.isEmpty()) {
+            // Primer movimiento del cliente: el saldo que ya traía queda como apertura del libro
+            long apertura = Dinero.centavos(consultarGasto(idCliente)) - centavos;
+            ultimoCorte = Optional.of(guardarCorte(idCliente, 0L, Dinero.pesos(apertura)));
+        }
+
+        MovimientoGasto movimiento = new MovimientoGasto();
+        movimiento.setIdCliente(idCliente);
+        movimiento.setIdVenta(idVenta);
+        movimiento.setMonto(Dinero.pesos(centavos));
+        movimiento.setFecha(LocalDateTime.now());
+        movimientoGastoRepository.save(movimiento);
+
+        SaldoGasto corte = ultimoCorte.get();
+        if (movimientoGastoRepository.countByIdClienteAndIdMovimientoGreaterThan(
+                idCliente, corte.getIdMovimientoHasta()) >= MOVIMIENTOS_POR_CORTE) {
+            long saldo = Dinero.centavos(corte.getSaldo()) + movimientoGastoRepository.sumarCentavos(
+                    idCliente, corte.getIdMovimientoHasta(), movimiento.getIdMovimiento());
+            guardarCorte(idCliente, movimiento.getIdMovimiento(), Dinero.pesos(saldo));
+            log.info("Corte de gasto del cliente " + idCliente + " hasta el movimiento " + movimiento.getIdMovimiento());
+        }
+    }
+
+    /**
+     * Lee el gasto acumulado mantenido en la tabla de clientes, sin cargar el cliente.
+     *
+     * @param idCliente ID del cliente
+     * @return el gasto acumulado en pesos, 0 si el cliente no existe o no tiene monto
+     */
+    @Transactional(readOnly = true)
+    public double consultarGasto(Long idCliente) {
+        return clienteRepository.findMontoAcumuladoByIdCliente(idCliente).orElse(0.0);
+    }
+
+    /**
+     * Recalcula el gasto acumulado desde el libro: último corte más los movimientos posteriores.
+     * Sirve para auditar la columna mantenida.
+     *
+     * @param idCliente ID del cliente
+     * @return el gasto según el libro, en pesos; el gasto mantenido si el cliente no tiene movimientos
+     */
+    @Transactional(readOnly = true)
+    public double consultarGastoSegunLibro(Long idCliente) {
+        Optional<SaldoGasto> corte = saldoGastoRepository.findFirstByIdClienteOrderByIdMovimientoHastaDesc(idCliente);
+        if (corte.isEmpty()) {
+            return consultarGasto(idCliente);
+        }
+        long saldo = Dinero.centavos(corte.get().getSaldo())
+                + movimientoGastoRepository.sumarCentavos(idCliente, corte.get().getIdMovimientoHasta(), Long.MAX_VALUE);
+        return Dinero.pesos(saldo);
+    }
+
+    private SaldoGasto guardarCorte(Long idCliente, Long idMovimientoHasta, double saldo) {
+        SaldoGasto corte = new SaldoGasto();
+        corte.setIdCliente(idCliente);
+        corte.setIdMovimientoHasta(idMovimientoHasta);
+        corte.setSaldo(saldo);
+        corte.setFecha(LocalDateTime.now());
+        return saldoGastoRepository.save(corte);
+    }
+}
@@ -0,0 +1,318 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CartillaRepository;
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.CirugiaRepository;
+import mx.uam.ayd.proyecto.datos.EventoHistorialRepository;
+import mx.uam.ayd.proyecto.datos.HospedajeRepository;
+import mx.uam.ayd.proyecto.datos.MigracionAplicadaRepository;
+import mx.uam.ayd.proyecto.datos.RegistroHospedajeRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cirugia;
+import mx.uam.ayd.proyecto.negocio.modelo.EventoHistorial;
+import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
+import mx.uam.ayd.proyecto.negocio.modelo.MigracionAplicada;
+import mx.uam.ayd.proyecto.negocio.modelo.RegistroHospedaje;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoEventoHistorial;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servicio que mantiene la línea de tiempo clínica de cada mascota.
+ *
+ * <p>Los servicios clínicos (citas, cirugías, cartillas, hospedajes y registros diarios)
+ * agregan aquí un evento cada vez que escriben, de modo que el historial completo
+ * de un paciente se lee con una sola consulta paginada en lugar de consultar y
+ * mezclar varias tablas en memoria.</p>
+ *
+ * <p>En el primer arranque agrega los eventos de los registros clínicos guardados antes de
+ * que existiera la línea de tiempo y anota que ya lo hizo. Corre después de ajustar las
+ * secuencias, de ligar las citas a sus mascotas y de ligar las cartillas a su veterinario,
+ * para que los eventos se escriban con los datos ya migrados.</p>
+ */
+@Service
+@DependsOn({"migracionSecuencias", "migracionClienteCita", "migracionVeterinarioCartilla"})
+public class ServicioHistorialMascota {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioHistorialMascota.class);
+
+    /** Longitud máxima del resumen (coincide con la columna). */
+    private static final int MAX_RESUMEN = 300;
+
+    /** Nombre con que se anota que el historial ya se completó. */
+    static final String HISTORIAL_COMPLETADO = "historial-clinico";
+
+    private final EventoHistorialRepository eventoHistorialRepository;
+    private final CirugiaRepository cirugiaRepository;
+    private final CartillaRepository cartillaRepository;
+    private final HospedajeRepository hospedajeRepository;
+    private final RegistroHospedajeRepository registroHospedajeRepository;
+    private final CitaRepository citaRepository;
+    private final MigracionAplicadaRepository migracionAplicadaRepository;
+
+    @Autowired
+    public ServicioHistorialMascota(EventoHistorialRepository eventoHistorialRepository,
+                                    CirugiaRepository cirugiaRepository,
+                                    CartillaRepository cartillaRepository,
+                                    HospedajeRepository hospedajeRepository,
+                                    RegistroHospedajeRepository registroHospedajeRepository,
+                                    CitaRepository citaRepository,
+                                    MigracionAplicadaRepository migracionAplicadaRepository) {
+        this.eventoHistorialRepository = eventoHistorialRepository;
+        this.cirugiaRepository = cirugiaRepository;
+        this.cartillaRepository = cartillaRepository;
+        this.hospedajeRepository = hospedajeRepository;
+        this.registroHospedajeRepository = registroHospedajeRepository;
+        this.citaRepository = citaRepository;
+        this.migracionAplicadaRepository = migracionAplicadaRepository;
+    }
+
+    /**
+     * Completa el historial al arrancar la aplicación, si no se ha hecho antes.
+     *
+     * @throws IllegalStateException si no se puede completar; un historial a medias no se
+     *         volvería a revisar
+     */
+    @PostConstruct
+    public void iniciar() {
+        try {
+            if (migracionAplicadaRepository.existsById(HISTORIAL_COMPLETADO)) {
+                return;
+            }
+            int agregados = reconstruir();
+            MigracionAplicada aplicada = new MigracionAplicada();
+            aplicada.setNombre(HISTORIAL_COMPLETADO);
+            aplicada.setFecha(LocalDateTime.now());
+            migracionAplicadaRepository.save(aplicada);
+            log.info("Historial clínico completado con " + agregados + " eventos");
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("No se pudo completar el historial clínico; la aplicación no puede arrancar", e);
+        }
+    }
+
+    /**
+     * Agrega un evento por cada registro clínico que todavía no lo tiene.
+     *
+     * <p>Cada registro se compara por tipo y origen con los eventos existentes, así que una
+     * mascota que ya tiene eventos recientes recibe también los de sus registros anteriores
+     * y ningún evento se duplica. Cuando no falta nada, son cinco consultas sobre el índice
+     * (tipo, id_origen) que no devuelven filas.</p>
+     *
+     * @return número de eventos agregados
+     */
+    public int reconstruir() {
+        List<EventoHistorial> eventos = new ArrayList<>();
+
+        for (Cita cita : citaRepository.findSinEventoHistorial()) {
+            eventos.add(nuevoEvento(cita.getMascota().getIdMascota(), TipoEventoHistorial.CITA, cita.getIdCita(),
+                    cita.getFechaHora(), resumenCita(cita)));
+        }
+        for (Cirugia cirugia : cirugiaRepository.findSinEventoHistorial()) {
+            eventos.add(nuevoEvento(cirugia.getMascota().getIdMascota(), TipoEventoHistorial.CIRUGIA, cirugia.getIdCirugia(),
+                    cirugia.getFecha() == null ? null : cirugia.getFecha().atStartOfDay(), resumenCirugia(cirugia)));
+        }
+        for (Cartilla cartilla : cartillaRepository.findSinEventoHistorial()) {
+            eventos.add(nuevoEvento(cartilla.getMascotaId(), TipoEventoHistorial.VACUNA, cartilla.getId(),
+                    cartilla.getFechaAplicacion() == null ? null : cartilla.getFechaAplicacion().atStartOfDay(),
+                    resumenVacuna(cartilla)));
+        }
+        for (Hospedaje hospedaje : hospedajeRepository.findSinEventoHistorial()) {
+            eventos.add(nuevoEvento(hospedaje.getMascota().getIdMascota(), TipoEventoHistorial.HOSPEDAJE,
+                    hospedaje.getIdHospedaje(),
+                    hospedaje.getFechaEntrada() == null ? null : hospedaje.getFechaEntrada().atStartOfDay(),
+                    resumenHospedaje(hospedaje)));
+        }
+        for (RegistroHospedaje registro : registroHospedajeRepository.findSinEventoHistorial()) {
+            eventos.add(nuevoEvento(registro.getHospedaje().getMascota().getIdMascota(),
+                    TipoEventoHistorial.REGISTRO_HOSPEDAJE, registro.getIdRegistro(),
+                    registro.getFechaRegistro(), resumenRegistro(registro)));
+        }
+
+        if (!eventos.isEmpty()) {
+            eventoHistorialRepository.saveAll(eventos);
+        }
+        return eventos.size();
+    }
+
+    /**
+     * Agrega un evento a la línea de tiempo de una mascota.
+     * Si la mascota no tiene identificador el evento se ignora.
+     *
+     * @param idMascota ID de la mascota
+     * @param tipo tipo de evento
+     * @param idOrigen ID del registro que originó el evento
+     * @param fecha fecha clínica del evento
+     * @param resumen texto breve para mostrar
+     * @return el evento guardado, o null si no se registró
+     */
+    public EventoHistorial registrarEvento(Long idMascota, TipoEventoHistorial tipo, Long idOrigen,
+                                           LocalDateTime fecha, String resumen) {
+        if (idMascota == null || tipo == null) {
+            return null;
+        }
+        return eventoHistorialRepository.save(nuevoEvento(idMascota, tipo, idOrigen, fecha, resumen));
+    }
+
+    /** Registra en el historial una cita recién agendada para una mascota. */
+    public void registrarCita(Cita cita) {
+        if (cita == null || cita.getMascota() == null) {
+            return;
+        }
+        registrarEvento(cita.getMascota().getIdMascota(), TipoEventoHistorial.CITA, cita.getIdCita(),
+                cita.getFechaHora(), resumenCita(cita));
+    }
+
+    /**
+     * Registra en el historial las citas de una serie, en un solo lote.
+     *
+     * @param citas citas recién agendadas
+     */
+    public void registrarCitas(Iterable<Cita> citas) {
+        List<EventoHistorial> eventos = new ArrayList<>();
+        for (Cita cita : citas) {
+            if (cita.getMascota() == null || cita.getMascota().getIdMascota() == null) {
+                continue;
+            }
+            eventos.add(nuevoEvento(cita.getMascota().getIdMascota(), TipoEventoHistorial.CITA, cita.getIdCita(),
+                    cita.getFechaHora(), resumenCita(cita)));
+        }
+        if (!eventos.isEmpty()) {
+            eventoHistorialRepository.saveAll(eventos);
+        }
+    }
+
+    /** Registra en el historial una cirugía recién guardada. */
+    public void registrarCirugia(Cirugia cirugia) {
+        if (cirugia == null || cirugia.getMascota() == null) {
+            return;
+        }
+        registrarEvento(cirugia.getMascota().getIdMascota(), TipoEventoHistorial.CIRUGIA, cirugia.getIdCirugia(),
+                cirugia.getFecha() == null ? null : cirugia.getFecha().atStartOfDay(),
+                resumenCirugia(cirugia));
+    }
+
+    /**
+     * Registra en el historial una operación sobre la cartilla de vacunación.
+     *
+     * @param cartilla registro de vacuna afectado
+     * @param accion null para una aplicación nueva, o el texto de la corrección ("actualizado", "eliminado")
+     */
+    public void registrarVacuna(Cartilla cartilla, String accion) {
+        if (cartilla == null) {
+            return;
+        }
+        if (accion == null) {
+            registrarEvento(cartilla.getMascotaId(), TipoEventoHistorial.VACUNA, cartilla.getId(),
+                    cartilla.getFechaAplicacion() == null ? null : cartilla.getFechaAplicacion().atStartOfDay(),
+                    resumenVacuna(cartilla));
+        } else {
+            registrarEvento(cartilla.getMascotaId(), TipoEventoHistorial.VACUNA, cartilla.getId(),
+                    LocalDateTime.now(),
+                    "Registro de vacuna " + cartilla.getVacuna() + " " + accion);
+        }
+    }
+
+    /** Registra en el historial el ingreso de una mascota al hospedaje. */
+    public void registrarHospedaje(Hospedaje hospedaje) {
+        if (hospedaje == null || hospedaje.getMascota() == null) {
+            return;
+        }
+        registrarEvento(hospedaje.getMascota().getIdMascota(), TipoEventoHistorial.HOSPEDAJE, hospedaje.getIdHospedaje(),
+                hospedaje.getFechaEntrada() == null ? null : hospedaje.getFechaEntrada().atStartOfDay(),
+                resumenHospedaje(hospedaje));
+    }
+
+    /**
+     * Registra en el historial los registros diarios de hospedaje, en un solo lote.
+     *
+     * @param registros registros diarios recién guardados
+     */
+    public void registrarRegistrosHospedaje(Iterable<RegistroHospedaje> registros) {
+        List<EventoHistorial> eventos = new ArrayList<>();
+        for (RegistroHospedaje registro : registros) {
+            Hospedaje hospedaje = registro.getHospedaje();
+            if (hospedaje == null || hospedaje.getMascota() == null || hospedaje.getMascota().getIdMascota() == null) {
+                continue;
+            }
+            eventos.add(nuevoEvento(hospedaje.getMascota().getIdMascota(), TipoEventoHistorial.REGISTRO_HOSPEDAJE,
+                    registro.getIdRegistro(), registro.getFechaRegistro(), resumenRegistro(registro)));
+        }
+        if (!eventos.isEmpty()) {
+            eventoHistorialRepository.saveAll(eventos);
+        }
+    }
+
+    /**
+     * Recupera una página del historial de la mascota, del evento más reciente al más antiguo.
+     *
+     * @param idMascota ID de la mascota
+     * @param pagina número de página (base 0)
+     * @param tamano número de eventos por página
+     * @return eventos de la página en orden cronológico descendente
+     * @throws IllegalArgumentException si los parámetros son inválidos
+     */
+    @Transactional(readOnly = true)
+    public List<EventoHistorial> consultarHistorial(Long idMascota, int pagina, int tamano) {
+        if (idMascota == null) {
+            throw new IllegalArgumentException("El ID de la mascota es obligatorio");
+        }
+        if (pagina < 0 || tamano <= 0) {
+            throw new IllegalArgumentException("La página debe ser positiva y el tamaño mayor a cero");
+        }
+
+        return eventoHistorialRepository.findByIdMascotaOrderByFechaDescIdEventoDesc(
+                idMascota, PageRequest.of(pagina, tamano));
+    }
+
+    private EventoHistorial nuevoEvento(Long idMascota, TipoEventoHistorial tipo, Long idOrigen,
+                                        LocalDateTime fecha, String resumen) {
+        EventoHistorial evento = new EventoHistorial();
+        evento.setIdMascota(idMascota);
+        evento.setTipo(tipo);
+        evento.setIdOrigen(idOrigen);
+        evento.setFecha(fecha != null ? fecha : LocalDateTime.now());
+        evento.setResumen(recortar(resumen));
+        return evento;
+    }
+
+    private String resumenCita(Cita cita) {
+        return "Cita de " + cita.getTipo() + " con "
+                + (cita.getVeterinario() != null ? cita.getVeterinario().getNombreCompleto() : "veterinario no asignado");
+    }
+
+    private String resumenCirugia(Cirugia cirugia) {
+        return "Cirugía: " + cirugia.getTipoCirugia();
+    }
+
+    private String resumenVacuna(Cartilla cartilla) {
+        return "Vacuna " + cartilla.getVacuna() + " aplicada por "
+                + (cartilla.getVeterinario() != null ? cartilla.getVeterinario().getNombreCompleto() : "veterinario no registrado");
+    }
+
+    private String resumenHospedaje(Hospedaje hospedaje) {
+        return "Ingreso a hospedaje hasta " + hospedaje.getFechaSalida();
+    }
+
+    private String resumenRegistro(RegistroHospedaje registro) {
+        return "Registro diario de hospedaje. Salud: " + (registro.getSalud() != null ? registro.getSalud() : "sin notas");
+    }
+
+    private String recortar(String texto) {
+        if (texto == null || texto.length() <= MAX_RESUMEN) {
+            return texto;
+        }
+        return texto.substring(0, MAX_RESUMEN);
+    }
+}
@@ -30,16 +30,21 @@ public class ServicioHospedaje {
     /** Repositorio para la persistencia de hospedajes. */
     private final HospedajeRepository hospedajeRepository;
     private final ServicioCorreo servicioCorreo;
+    private final ServicioHistorialMascota servicioHistorialMascota;
 
     /**
      * Constructor que inyecta el repositorio de hospedaje.
      *
      * @param hospedajeRepository referencia al repositorio de hospedaje.
+     * @param servicioCorreo servicio para enviar la confirmación.
+     * @param servicioHistorialMascota servicio de la línea de tiempo clínica.
      */
     @Autowired
-    public ServicioHospedaje(HospedajeRepository hospedajeRepository,ServicioCorreo servicioCorreo) {
+    public ServicioHospedaje(HospedajeRepository hospedajeRepository,ServicioCorreo servicioCorreo,
+                             ServicioHistorialMascota servicioHistorialMascota) {
         this.hospedajeRepository = hospedajeRepository;
         this.servicioCorreo = servicioCorreo;
+        this.servicioHistorialMascota = servicioHistorialMascota;
     }
 
     /**
@@ -82,6 +87,7 @@ public class ServicioHospedaje {
 
         //Guardar en BD
         Hospedaje hospedajeGuardado = hospedajeRepository.save(hospedaje);
+        servicioHistorialMascota.registrarHospedaje(hospedajeGuardado);
 
         //Enviar correo confirmando el hospedaje
          servicioCorreo.enviarCorreoConfirmacionHospedaje(
@@ -1,15 +1,20 @@
 package mx.uam.ayd.proyecto.negocio;
 
+import mx.uam.ayd.proyecto.datos.HospedajeRepository;
 import mx.uam.ayd.proyecto.datos.RegistroHospedajeRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
 import mx.uam.ayd.proyecto.negocio.modelo.RegistroHospedaje;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -25,10 +30,16 @@ import java.util.List;
 public class ServicioImplRegistroHospedaje implements ServicioRegistroHospedaje{
 
     private final RegistroHospedajeRepository registroRepo;
+    private final HospedajeRepository hospedajeRepo;
+    private final ServicioHistorialMascota servicioHistorial;
 
     @Autowired
-    public ServicioImplRegistroHospedaje(RegistroHospedajeRepository registroRepo) {
+    public ServicioImplRegistroHospedaje(RegistroHospedajeRepository registroRepo,
+                                         HospedajeRepository hospedajeRepo,
+                                         ServicioHistorialMascota servicioHistorial) {
         this.registroRepo = registroRepo;
+        this.hospedajeRepo = hospedajeRepo;
+        this.servicioHistorial = servicioHistorial;
     }
 
     /**
@@ -68,18 +79,7 @@ public class ServicioImplRegistroHospedaje implements ServicioRegistroHospedaje{
                 : fechaRegistro;
 
        final LocalDate fechaSolo = fecha.toLocalDate();
-       final LocalDate fechaEntrada = hospedaje.getFechaEntrada();
-       final LocalDate fechaSalida = hospedaje.getFechaSalida();
-
-        // Validaciones de rango (considerando solo fecha)
-        if (fechaEntrada == null || fechaSalida == null) {
-            throw new IllegalArgumentException("El hospedaje no tiene fechas válidas.");
-        }
-
-        //  Validacion del rango del hospedaje
-        if (fechaSolo.isBefore(fechaEntrada) || fechaSolo.isAfter(fechaSalida)) {
-            throw new IllegalArgumentException("La fecha del registro está fuera del periodo del hospedaje.");
-        }
+       validarPeriodo(hospedaje, fechaSolo);
 
         // Rango diario para evitar duplicados
         final LocalDateTime desde = fechaSolo.atStartOfDay();
@@ -99,7 +99,9 @@ public class ServicioImplRegistroHospedaje implements ServicioRegistroHospedaje{
         r.setComportamiento(comportamiento);
         r.setObservaciones(observaciones);
 
-        return registroRepo.save(r);
+        RegistroHospedaje guardado = registroRepo.save(r);
+        servicioHistorial.registrarRegistrosHospedaje(List.of(guardado));
+        return guardado;
     }
 
 
@@ -115,5 +117,130 @@ public class ServicioImplRegistroHospedaje implements ServicioRegistroHospedaje{
         return registroRepo.findByHospedajeOrderByFechaRegistroDesc(hospedaje);
     }
 
+    /**
+     * Obtiene los hospedajes activos en la fecha que aún no tienen registro diario.
+     *
+     * Usa una consulta para los hospedajes activos y otra, basada en conjuntos,
+     * para saber cuáles ya fueron registrados ese día.
+     *
+     * @param fecha Fecha de la ronda; si es null, se usa la fecha actual.
+     * @return Lista de hospedajes pendientes.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Hospedaje> listarPendientesRonda(LocalDate fecha) {
+        final LocalDate dia = (fecha == null) ? LocalDate.now() : fecha;
+
+        List<Hospedaje> activos = hospedajeRepo.findActivosEnFecha(dia);
+        if (activos.isEmpty()) {
+            return activos;
+        }
+
+        Set<Long> registrados = idsConRegistro(activos, dia);
+
+        List<Hospedaje> pendientes = new ArrayList<>();
+        for (Hospedaje hospedaje : activos) {
+            if (!registrados.contains(hospedaje.getIdHospedaje())) {
+                pendientes.add(hospedaje);
+            }
+        }
+        return pendientes;
+    }
+
+    /**
+     * Registra en lote las entradas de una ronda diaria.
+     *
+     * Reglas de validación (para cada registro):
+     * <ul>
+     *   <li>El hospedaje debe ser válido y aparecer una sola vez en la ronda.</li>
+     *   <li>La fecha de la ronda debe estar dentro del periodo del hospedaje.</li>
+     *   <li>No debe existir otro registro del hospedaje en la misma fecha.</li>
+     * </ul>
+     *
+     * @param fecha     Fecha de la ronda; si es null, se usa la fecha actual.
+     * @param registros Registros capturados en la ronda.
+     * @return Lista de registros guardados.
+     * @throws IllegalArgumentException si alguna validación falla.
+     */
+    @Override
+    @Transactional
+    public List<RegistroHospedaje> registrarRonda(LocalDate fecha, List<RegistroHospedaje> registros) throws IllegalArgumentException {
+
+        if (registros == null || registros.isEmpty()) {
+            throw new IllegalArgumentException("La ronda no contiene registros.");
+        }
+
+        final LocalDate dia = (fecha == null) ? LocalDate.now() : fecha;
+        final LocalDateTime ahora = LocalDateTime.now();
+        final LocalDateTime fechaRegistro = dia.equals(ahora.toLocalDate()) ? ahora : dia.atStartOfDay();
+
+        List<Hospedaje> hospedajes = new ArrayList<>();
+        Set<Long> vistos = new HashSet<>();
+        for (RegistroHospedaje registro : registros) {
+            Hospedaje hospedaje = (registro == null) ? null : registro.getHospedaje();
+            if (hospedaje == null || hospedaje.getIdHospedaje() == null) {
+                throw new IllegalArgumentException("Hospedaje inválido.");
+            }
+            if (!vistos.add(hospedaje.getIdHospedaje())) {
+                throw new IllegalArgumentException("El hospedaje " + hospedaje.getIdHospedaje() + " aparece más de una vez en la ronda.");
+            }
+            validarPeriodo(hospedaje, dia);
+            hospedajes.add(hospedaje);
+        }
+
+        Set<Long> registrados = idsConRegistro(hospedajes, dia);
+        if (!registrados.isEmpty()) {
+            throw new IllegalArgumentException("Ya existe un registro en la misma fecha para los hospedajes: " + registrados);
+        }
+
+        for (RegistroHospedaje registro : registros) {
+            registro.setFechaRegistro(fechaRegistro);
+        }
+
+        List<RegistroHospedaje> guardados = new ArrayList<>();
+        for (RegistroHospedaje guardado : registroRepo.saveAll(registros)) {
+            guardados.add(guardado);
+        }
+        servicioHistorial.registrarRegistrosHospedaje(guardados);
+        return guardados;
+    }
+
+    /**
+     * Verifica que el hospedaje tenga fechas y que la fecha esté dentro de su periodo.
+     *
+     * @param hospedaje Hospedaje a validar.
+     * @param fecha     Fecha del registro.
+     * @throws IllegalArgumentException si el hospedaje no tiene fechas o la fecha está fuera del periodo.
+     */
+    private void validarPeriodo(Hospedaje hospedaje, LocalDate fecha) {
+        final LocalDate fechaEntrada = hospedaje.getFechaEntrada();
+        final LocalDate fechaSalida = hospedaje.getFechaSalida();
+
+        // Validaciones de rango (considerando solo fecha)
+        if (fechaEntrada == null || fechaSalida == null) {
+            throw new IllegalArgumentException("El hospedaje no tiene fechas válidas.");
+        }
+
+        //  Validacion del rango del hospedaje
+        if (fecha.isBefore(fechaEntrada) || fecha.isAfter(fechaSalida)) {
+            throw new IllegalArgumentException("La fecha del registro está fuera del periodo del hospedaje.");
+        }
+    }
+
+    /**
+     * Consulta en un solo query qué hospedajes ya tienen registro en el día.
+     *
+     * @param hospedajes Hospedajes a verificar.
+     * @param fecha      Día a consultar.
+     * @return Identificadores de los hospedajes con registro en ese día.
+     */
+    private Set<Long> idsConRegistro(List<Hospedaje> hospedajes, LocalDate fecha) {
+        List<Long> ids = new ArrayList<>(hospedajes.size());
+        for (Hospedaje hospedaje : hospedajes) {
+            ids.add(hospedaje.getIdHospedaje());
+        }
+        return new HashSet<>(registroRepo.findIdsHospedajeConRegistroEntre(
+                ids, fecha.atStartOfDay(), fecha.atTime(LocalTime.MAX)));
+    }
 
 }
@@ -0,0 +1,210 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import mx.uam.ayd.proyecto.datos.MovimientoStockRepository;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.datos.SaldoStockRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.MovimientoStock;
+import mx.uam.ayd.proyecto.negocio.modelo.SaldoStock;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMovimientoStock;
+
+/**
+ * Servicio que lleva el kardex (libro de movimientos de inventario) de los productos.
+ *
+ * El stock actual vive en la columna {@code cantidad_stock} del producto, que es la que leen
+ * las pantallas de inventario; solo cambia con un UPDATE atómico desde este servicio. Cada
+ * cambio se anota además en un libro de movimientos que solo crece, con su causa, y cada
+ * {@value #MOVIMIENTOS_POR_CORTE} movimientos de un producto se guarda un corte de su stock.
+ * Así el stock de cualquier momento pasado se obtiene buscando en el índice el último corte
+ * anterior y sumando a lo más {@value #MOVIMIENTOS_POR_CORTE} movimientos.
+ */
+@Service
+public class ServicioKardex {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioKardex.class);
+
+    /** Movimientos de un producto entre un corte y el siguiente. */
+    public static final int MOVIMIENTOS_POR_CORTE = 50;
+
+    private final ProductoRepository productoRepository;
+    private final MovimientoStockRepository movimientoStockRepository;
+    private final SaldoStockRepository saldoStockRepository;
+
+    /**
+     * Constructor con inyección de dependencias.
+     *
+     * @param productoRepository repositorio de productos
+     * @param movimientoStockRepository libro de movimientos de stock
+     * @param saldoStockRepository cortes del stock
+     */
+    @Autowired
+    public ServicioKardex(ProductoRepository productoRepository,
+                          MovimientoStockRepository movimientoStockRepository,
+                          SaldoStockRepository saldoStockRepository) {
+        this.productoRepository = productoRepository;
+        this.movimientoStockRepository = movimientoStockRepository;
+        this.saldoStockRepository = saldoStockRepository;
+    }
+
+    /**
+     * Aplica un movimiento al stock del producto y lo anota en el kardex.
+     *
+     * @param idProducto ID del producto
+     * @param tipo causa del movimiento
+     * @param cantidad unidades que entran (positivas) o salen (negativas)
+     * @param idVenta venta que origina el movimiento (puede ser null)
+     * @return el movimiento registrado
+     * @throws IllegalArgumentException si falta el producto o el tipo, o la cantidad es 0
+     * @throws IllegalStateException si el producto no existe o una salida supera su stock
+     */
+    @Transactional
+    public MovimientoStock registrarMovimiento(Long idProducto, TipoMovimientoStock tipo, int cantidad, Long idVenta) {
+        if (idProducto == null || tipo == null) {
+            throw new IllegalArgumentException("El producto y el tipo de movimiento no pueden ser nulos");
+        }
+        if (cantidad == 0) {
+            throw new IllegalArgumentException("La cantidad del movimiento no puede ser 0");
+        }
+
+        // El UPDATE bloquea la fila del producto hasta el final de la transacción, así que
+        // el resto del registro no se intercala con otro movimiento del mismo producto
+        if (productoRepository.sumarStock(idProducto, cantidad) == 0) {
+            throw new IllegalStateException("La cantidad vendida no puede ser mayor al stock");
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        Optional<SaldoStock> ultimoCorte = saldoStockRepository.findFirstByIdProductoOrderByIdMovimientoHastaDesc(idProducto);
+        if (ultimoCorte.isEmpty()) {
+            // Primer movimiento del producto: el stock que ya tenía queda como apertura del kardex
+            int apertura = consultarStock(idProducto) - cantidad;
+            ultimoCorte = Optional.of(guardarCorte(idProducto, 0L, apertura, ahora));
+        }
+
+        MovimientoStock movimiento = new MovimientoStock();
+        movimiento.setIdProducto(idProducto);
+        movimiento.setTipo(tipo);
+        movimiento.setCantidad(cantidad);
+        movimiento.setIdVenta(idVenta);
+        movimiento.setFecha(ahora);
+        movimientoStockRepository.save(movimiento);
+
+        SaldoStock corte = ultimoCorte.get();
+        if (movimientoStockRepository.countByIdProductoAndIdMovimientoGreaterThan(
+                idProducto, corte.getIdMovimientoHasta()) >= MOVIMIENTOS_POR_CORTE) {
+            // Con el candado de la fila, la columna es exactamente el saldo tras este movimiento
+            guardarCorte(idProducto, movimiento.getIdMovimiento(), consultarStock(idProducto), ahora);
+            log.info("Corte de stock del producto " + idProducto + " hasta el movimiento " + movimiento.getIdMovimiento());
+        }
+        return movimiento;
+    }
+
+    /**
+     * Registra la salida de una venta.
+     */
+    @Transactional
+    public MovimientoStock registrarVenta(Long idProducto, int cantidad, Long idVenta) {
+        return registrarMovimiento(idProducto, TipoMovimientoStock.VENTA, -cantidad, idVenta);
+    }
+
+    /**
+     * Registra una entrada de mercancía.
+     */
+    @Transactional
+    public MovimientoStock registrarEntrada(Long idProducto, int cantidad) {
+        return registrarMovimiento(idProducto, TipoMovimientoStock.ENTRADA, cantidad, null);
+    }
+
+    /**
+     * Registra la devolución de unidades de una venta.
+     */
+    @Transactional
+    public MovimientoStock registrarDevolucion(Long idProducto, int cantidad, Long idVenta) {
+        return registrarMovimiento(idProducto, TipoMovimientoStock.DEVOLUCION, cantidad, idVenta);
+    }
+
+    /**
+     * Anota como ajuste el cambio que el usuario hizo al stock que tenía a la vista. Se
+     * aplica la diferencia y no el valor capturado, para no deshacer las ventas o entradas
+     * que otra terminal registró mientras tanto.
+     *
+     * @param idProducto ID del producto
+     * @param stockAnterior stock que se mostró al usuario
+     * @param stockCapturado stock que capturó el usuario
+     * @return el movimiento registrado, o vacío si el usuario no cambió el stock
+     * @throws IllegalStateException si el ajuste deja el stock en negativo
+     */
+    @Transactional
+    public Optional<MovimientoStock> ajustar(Long idProducto, int stockAnterior, int stockCapturado) {
+        if (stockCapturado < 0) {
+            throw new IllegalArgumentException("El stock no puede ser negativo");
+        }
+        int diferencia = stockCapturado - stockAnterior;
+        if (diferencia == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(registrarMovimiento(idProducto, TipoMovimientoStock.AJUSTE, diferencia, null));
+    }
+
+    /**
+     * Lee el stock mantenido en la tabla de productos, sin cargar el producto.
+     *
+     * @param idProducto ID del producto
+     * @return el stock actual, 0 si el producto no existe
+     */
+    @Transactional(readOnly = true)
+    public int consultarStock(Long idProducto) {
+        return productoRepository.findCantidadStockByIdProducto(idProducto).orElse(0);
+    }
+
+    /**
+     * Reconstruye el stock que tenía un producto en un momento: último corte tomado hasta
+     * ese momento más los movimientos posteriores registrados hasta entonces.
+     *
+     * Antes de la apertura del kardex no hay historia, así que se responde con el stock de apertura.
+     *
+     * @param idProducto ID del producto
+     * @param momento momento a consultar
+     * @return stock del producto en ese momento; el stock actual si el producto no tiene movimientos
+     */
+    @Transactional(readOnly = true)
+    public int consultarStockAl(Long idProducto, LocalDateTime momento) {
+        Optional<SaldoStock> corte = saldoStockRepository
+                .findFirstByIdProductoAndFechaLessThanEqualOrderByFechaDescIdMovimientoHastaDesc(idProducto, momento);
+        if (corte.isEmpty()) {
+            return saldoStockRepository.findFirstByIdProductoOrderByIdMovimientoHastaAsc(idProducto)
+                    .map(SaldoStock::getSaldo)
+                    .orElseGet(() -> consultarStock(idProducto));
+        }
+        return corte.get().getSaldo()
+                + movimientoStockRepository.sumarCantidades(idProducto, corte.get().getIdMovimientoHasta(), momento);
+    }
+
+    /**
+     * Movimientos de un producto en orden de registro.
+     *
+     * @param idProducto ID del producto
+     * @return el kardex del producto
+     */
+    @Transactional(readOnly = true)
+    public List<MovimientoStock> recuperaMovimientos(Long idProducto) {
+        return movimientoStockRepository.findByIdProductoOrderByIdMovimiento(idProducto);
+    }
+
+    private SaldoStock guardarCorte(Long idProducto, Long idMovimientoHasta, int saldo, LocalDateTime fecha) {
+        SaldoStock corte = new SaldoStock();
+        corte.setIdProducto(idProducto);
+        corte.setIdMovimientoHasta(idMovimientoHasta);
+        corte.setSaldo(saldo);
+        corte.setFecha(fecha);
+        return saldoStockRepository.save(corte);
+    }
+}
@@ -0,0 +1,190 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import jakarta.annotation.PostConstruct;
+import mx.uam.ayd.proyecto.datos.SolicitudEsperaRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.SolicitudEspera;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import mx.uam.ayd.proyecto.negocio.validacion.Patrones;
+import mx.uam.ayd.proyecto.negocio.validacion.ReglasValidacion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Servicio de la lista de espera de citas.
+ *
+ * Las solicitudes se guardan en la tabla {@code solicitud_espera} y se indexan en memoria
+ * en una {@link ListaEspera}, que se reconstruye al arrancar. Cuando se libera un lugar en
+ * la agenda, {@link ServicioCita} pide aquí el mejor candidato y le agenda la cita.
+ */
+@Service
+public class ServicioListaEspera {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioListaEspera.class);
+
+    private static final String MENSAJE_OBLIGATORIOS = "El nombre, contacto, tipo de cita y la ventana de tiempo son obligatorios.";
+
+    private static final ReglasValidacion<SolicitudEspera> REGLAS_SOLICITUD = ReglasValidacion.<SolicitudEspera>nuevas()
+            .obligatorio(SolicitudEspera::getNombreSolicitante, MENSAJE_OBLIGATORIOS)
+            .obligatorio(SolicitudEspera::getContacto, MENSAJE_OBLIGATORIOS)
+            .obligatorio(SolicitudEspera::getTipo, MENSAJE_OBLIGATORIOS)
+            .obligatorio(SolicitudEspera::getDesde, MENSAJE_OBLIGATORIOS)
+            .obligatorio(SolicitudEspera::getHasta, MENSAJE_OBLIGATORIOS)
+            .cumple(s -> s.getDesde() == null || s.getHasta() == null || s.getDesde().isBefore(s.getHasta()),
+                    "La ventana de tiempo debe terminar después de su inicio.")
+            .cumple(s -> s.getHasta() == null || s.getHasta().isAfter(LocalDateTime.now()),
+                    "La ventana de tiempo ya pasó.")
+            .cumple(s -> s.getContacto() == null || s.getContacto().isBlank()
+                            || Patrones.CORREO.coincide(s.getContacto()) || Patrones.TELEFONO.coincide(s.getContacto()),
+                    "El contacto debe ser un correo electrónico válido o un número de teléfono de 10 dígitos.")
+            .construir();
+
+    private final SolicitudEsperaRepository solicitudRepository;
+    private final ServicioCorreo servicioCorreo;
+
+    private final ListaEspera lista = new ListaEspera();
+
+    @Autowired
+    public ServicioListaEspera(SolicitudEsperaRepository solicitudRepository, ServicioCorreo servicioCorreo) {
+        this.solicitudRepository = solicitudRepository;
+        this.servicioCorreo = servicioCorreo;
+    }
+
+    /**
+     * Reconstruye la lista en memoria con las solicitudes pendientes de la tabla.
+     */
+    @PostConstruct
+    public void cargar() {
+        try {
+            for (SolicitudEspera solicitud : solicitudRepository.findByIdCitaOfrecidaIsNullAndHastaAfterOrderByHastaAsc(LocalDateTime.now())) {
+                lista.agregar(solicitud);
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudo cargar la lista de espera: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registra a alguien en la lista de espera.
+     *
+     * @param veterinario veterinario preferido, o null si puede ser cualquiera
+     * @param desde desde cuándo puede asistir
+     * @param hasta hasta cuándo puede asistir; la cita debe terminar antes
+     * @return la solicitud guardada
+     * @throws IllegalArgumentException si faltan datos o la ventana no es válida
+     */
+    public SolicitudEspera registrar(String nombre, String contacto, TipoCita tipo, Veterinario veterinario,
+                                     LocalDateTime desde, LocalDateTime hasta) {
+        SolicitudEspera solicitud = new SolicitudEspera();
+        solicitud.setNombreSolicitante(nombre);
+        solicitud.setContacto(contacto);
+        solicitud.setTipo(tipo);
+        solicitud.setVeterinario(veterinario);
+        solicitud.setDesde(desde);
+        solicitud.setHasta(hasta);
+        solicitud.setFechaRegistro(LocalDateTime.now());
+        REGLAS_SOLICITUD.verificar(solicitud);
+
+        SolicitudEspera guardada = solicitudRepository.save(solicitud);
+        synchronized (lista) {
+            lista.agregar(guardada);
+        }
+        return guardada;
+    }
+
+    /**
+     * Saca una solicitud de la lista de espera.
+     */
+    public void cancelar(Long idSolicitud) {
+        SolicitudEspera solicitud = solicitudRepository.findById(idSolicitud)
+                .orElseThrow(() -> new IllegalArgumentException("Solicitud no encontrada."));
+        quitar(solicitud);
+        solicitudRepository.delete(solicitud);
+    }
+
+    /**
+     * @return solicitudes que siguen esperando, de la que vence primero a la última
+     */
+    public List<SolicitudEspera> recuperarPendientes() {
+        return solicitudRepository.findByIdCitaOfrecidaIsNullAndHastaAfterOrderByHastaAsc(LocalDateTime.now());
+    }
+
+    /**
+     * Busca quién debe recibir un lugar que se liberó en la agenda.
+     *
+     * @param idVeterinario veterinario del lugar
+     * @param inicio inicio del lugar libre
+     * @param fin fin del lugar libre
+     * @param duracion minutos que dura cada tipo de cita con ese veterinario
+     * @param omitidas IDs de las solicitudes que no se deben elegir, como las que ya recibieron
+     *                 lugar en la transacción en curso
+     * @return la solicitud con más prioridad que cabe, o vacío
+     */
+    public Optional<SolicitudEspera> candidato(Long idVeterinario, LocalDateTime inicio, LocalDateTime fin,
+                                               ToIntFunction<TipoCita> duracion, Set<Long> omitidas) {
+        synchronized (lista) {
+            lista.purgar(LocalDateTime.now());
+            return lista.buscar(idVeterinario, inicio, fin, solicitud -> duracion.applyAsInt(solicitud.getTipo()),
+                    omitidas);
+        }
+    }
+
+    /**
+     * Marca la solicitud a la que se le agendó una cita y le avisa por correo si su contacto
+     * es un email.
+     *
+     * Dentro de una transacción, la solicitud sale de la lista en memoria y el correo se envía
+     * hasta que se confirma; si se revierte, la solicitud sigue esperando como antes.
+     */
+    public void ofrecida(SolicitudEspera solicitud, Cita cita) {
+        solicitud.setIdCitaOfrecida(cita.getIdCita());
+        solicitudRepository.save(solicitud);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        quitar(solicitud);
+                    } else {
+                        solicitud.setIdCitaOfrecida(null);
+                    }
+                }
+            });
+        } else {
+            quitar(solicitud);
+        }
+
+        if (Patrones.CORREO.coincide(solicitud.getContacto())) {
+            SimpleMailMessage aviso = new SimpleMailMessage();
+            aviso.setTo(solicitud.getContacto());
+            aviso.setSubject("Lugar disponible - Veterinaria UAM");
+            aviso.setText(String.format(
+                    "Estimado(a) %s,\n\nSe liberó un lugar y le agendamos su cita de %s el %s a las %s con %s.\n\n"
+                            + "Si ya no le interesa, comuníquese con nosotros para cancelarla.",
+                    solicitud.getNombreSolicitante(), cita.getTipo(), cita.getFechaHora().toLocalDate(),
+                    cita.getFechaHora().toLocalTime(), cita.getVeterinario().getNombreCompleto()));
+            // Se envía después de confirmar la transacción, si la hay
+            servicioCorreo.enviarCorreos(List.of(aviso));
+        }
+    }
+
+    private void quitar(SolicitudEspera solicitud) {
+        synchronized (lista) {
+            lista.quitar(solicitud);
+        }
+    }
+}
@@ -28,6 +28,10 @@ public class ServicioMascota {
     @Autowired
     private MascotaRepository mascotaRepository;
 
+    /** Lleva la población de cada especie para la cobertura de vacunación. */
+    @Autowired
+    private ServicioCoberturaVacunacion servicioCobertura;
+
 
     /**
      * @brief Registra una nueva mascota con validaciones de negocio.
@@ -79,7 +83,9 @@ public class ServicioMascota {
         mascota.setVacunasVigentes(vacunasVigentes);
 
         // --- Persistencia ---
-        return mascotaRepository.save(mascota); // Se guarda implícitamente a través del Hospedaje
+        Mascota guardada = mascotaRepository.save(mascota); // Se guarda implícitamente a través del Hospedaje
+        servicioCobertura.mascotaRegistrada(especie);
+        return guardada;
     }
 
     /**
@@ -114,7 +120,9 @@ public class ServicioMascota {
         mascota.setSexo(sexo);
         mascota.setVacunasVigentes(vacunasVigentes);
 
-        return mascotaRepository.save(mascota);
+        Mascota guardada = mascotaRepository.save(mascota);
+        servicioCobertura.mascotaRegistrada(especie);
+        return guardada;
     }
 
     
@@ -129,9 +137,9 @@ public class ServicioMascota {
      * @brief Elimina una mascota por su ID.
      */
     public void eliminaMascota(Long idMascota) {
-        if (!mascotaRepository.existsById(idMascota)) {
-            throw new IllegalArgumentException("La mascota con ID " + idMascota + " no existe");
-        }
+        Mascota mascota = mascotaRepository.findById(idMascota)
+                .orElseThrow(() -> new IllegalArgumentException("La mascota con ID " + idMascota + " no existe"));
         mascotaRepository.deleteById(idMascota);
+        servicioCobertura.mascotaEliminada(mascota.getEspecie());
     }
 }
@@ -6,17 +6,23 @@ import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.UsoVeterinario;
 
 import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CodigoBarrasProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.ProductoResumen;
+import mx.uam.ayd.proyecto.negocio.validacion.ReglasValidacion;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @brief Servicio para la gestión de productos.
@@ -24,12 +30,42 @@ import java.util.Optional;
  * Esta clase proporciona métodos para crear, modificar, recuperar y eliminar productos.
  * Realiza validaciones sobre los datos y utiliza el repositorio de productos
  * para interactuar con la base de datos.
+ *
+ * También mantiene un índice en memoria de código de barras a ID de producto para que la
+ * caja resuelva cada lectura del escáner sin consultar la base de datos. El índice se carga
+ * la primera vez que se usa y después se actualiza con las altas, cambios y bajas de este servicio.
+ *
+ * El stock no se escribe junto con los demás datos: el inicial entra como una entrada del
+ * kardex y los cambios desde la pantalla de modificación quedan como ajustes.
  */
 @Service
 public class ServicioProducto {
 
     private static final Logger log = LoggerFactory.getLogger(ServicioProducto.class);
     private final ProductoRepository productoRepository;
+    private final ServicioKardex servicioKardex;
+
+    /** @brief Índice código de barras → ID de producto. */
+    private final Map<String, Long> indiceCodigos = new ConcurrentHashMap<>();
+    private volatile boolean indiceCargado;
+
+    /**
+     * @brief Reglas de validación compartidas por el alta y la modificación de productos.
+     */
+    private static final ReglasValidacion<Producto> REGLAS_PRODUCTO = ReglasValidacion.<Producto>nuevas()
+            .obligatorio(Producto::getNombre, "El nombre del producto no puede ser nulo o vacío")
+            .obligatorio(Producto::getTipoProducto, "El tipo de producto no puede ser nulo")
+            .obligatorio(Producto::getMarcaProducto, "La marca del producto no puede ser nula")
+            .cumple(p -> p.getPrecio() > 0, "El precio debe ser mayor a cero")
+            .obligatorio(Producto::getUnidadProducto, "La unidad del producto no puede ser nula")
+            .cumple(p -> p.getTipoProducto() != TipoProducto.Medicamento || p.getUsoVeterinario() != null,
+                    "El uso veterinario no puede ser nulo para medicamentos")
+            .cumple(p -> (p.getTipoProducto() != TipoProducto.Comida && p.getTipoProducto() != TipoProducto.Medicamento)
+                            || p.getFechaCaducidad() != null,
+                    "La fecha de caducidad no puede ser nula en medicamentos o comida")
+            .cumple(p -> p.getFechaCaducidad() == null || !p.getFechaCaducidad().isBefore(LocalDate.now().plusWeeks(1)),
+                    "La fecha no puede ser anterior a una semana a partir de hoy")
+            .construir();
 
     /**
      * @brief Constructor con inyección de dependencias.
@@ -37,10 +73,12 @@ public class ServicioProducto {
      * Inicializa el servicio con una instancia del repositorio de productos.
      *
      * @param productoRepository Repositorio que maneja las operaciones de persistencia de productos.
+     * @param servicioKardex Kardex por el que pasan los cambios de stock.
      */
     @Autowired
-    public ServicioProducto(ProductoRepository productoRepository) {
+    public ServicioProducto(ProductoRepository productoRepository, ServicioKardex servicioKardex) {
         this.productoRepository = productoRepository;
+        this.servicioKardex = servicioKardex;
     }
 
     /**
@@ -66,6 +104,21 @@ public class ServicioProducto {
     public Producto agregarProducto(String nombre, TipoProducto tipoProducto, MarcaProducto marcaProducto,
                                     double precio, int cantidad, UnidadProducto unidadProducto,
                                     LocalDate fechaCaducidad, UsoVeterinario usoVeterinario) {
+        return agregarProducto(nombre, tipoProducto, marcaProducto, precio, cantidad, unidadProducto,
+                fechaCaducidad, usoVeterinario, null);
+    }
+
+    /**
+     * @brief Agrega un nuevo producto con su código de barras.
+     *
+     * @param codigoBarras Código de barras o SKU (opcional; si se proporciona, no debe estar asignado a otro producto).
+     * @see #agregarProducto(String, TipoProducto, MarcaProducto, double, int, UnidadProducto, LocalDate, UsoVeterinario)
+     * @throws IllegalStateException Si el producto ya existe o el código de barras ya está asignado.
+     */
+    @Transactional
+    public Producto agregarProducto(String nombre, TipoProducto tipoProducto, MarcaProducto marcaProducto,
+                                    double precio, int cantidad, UnidadProducto unidadProducto,
+                                    LocalDate fechaCaducidad, UsoVeterinario usoVeterinario, String codigoBarras) {
 
         Optional<Producto> productoExistente =
                 productoRepository.findByNombreAndTipoProductoAndMarcaProducto(nombre, tipoProducto, marcaProducto);
@@ -73,42 +126,25 @@ public class ServicioProducto {
         if (productoExistente.isPresent()) {
             throw new IllegalStateException("El producto ya existe en la base de datos.");
         }
-        if (nombre == null || nombre.trim().isEmpty()) {
-            throw new IllegalArgumentException("El nombre del producto no puede ser nulo o vacío");
-        }
-        if (tipoProducto == null) {
-            throw new IllegalArgumentException("El tipo de producto no puede ser nulo");
-        }
-        if (marcaProducto == null) {
-            throw new IllegalArgumentException("La marca del producto no puede ser nula");
-        }
-        if (precio <= 0) {
-            throw new IllegalArgumentException("El precio debe ser mayor a cero");
-        }
-        if (unidadProducto == null) {
-            throw new IllegalArgumentException("La unidad del producto no puede ser nula");
-        }
-        if (tipoProducto.equals(TipoProducto.Medicamento) && usoVeterinario == null) {
-            throw new IllegalArgumentException("El uso veterinario no puede ser nulo para medicamentos");
-        }
-        if ((tipoProducto.equals(TipoProducto.Comida) || tipoProducto.equals(TipoProducto.Medicamento)) && fechaCaducidad == null) {
-            throw new IllegalArgumentException("La fecha de caducidad no puede ser nula en medicamentos o comida");
-        }
-        if (fechaCaducidad != null && fechaCaducidad.isBefore(LocalDate.now().plusWeeks(1))) {
-            throw new IllegalArgumentException("La fecha no puede ser anterior a una semana a partir de hoy");
-        }
 
         Producto producto = new Producto();
-        producto.setNombre(nombre);
-        producto.setTipoProducto(tipoProducto);
-        producto.setMarcaProducto(marcaProducto);
-        producto.setPrecio(precio);
-        producto.setCantidadStock(cantidad);
-        producto.setUnidadProducto(unidadProducto);
-        producto.setFechaCaducidad(fechaCaducidad);
-        producto.setUsoVeterinario(usoVeterinario);
+        asignarDatos(producto, nombre, tipoProducto, marcaProducto, precio, cantidad,
+                unidadProducto, fechaCaducidad, usoVeterinario);
+        REGLAS_PRODUCTO.verificar(producto);
+
+        String codigo = normalizarCodigo(codigoBarras);
+        verificarCodigoLibre(codigo, null);
+        producto.setCodigoBarras(codigo);
 
-        return productoRepository.save(producto);
+        // Se da de alta sin stock y el inicial entra por el kardex
+        producto.setCantidadStock(0);
+        Producto guardado = productoRepository.save(producto);
+        if (cantidad > 0) {
+            servicioKardex.registrarEntrada(guardado.getIdProducto(), cantidad);
+            guardado.setCantidadStock(cantidad);
+        }
+        indexar(null, guardado);
+        return guardado;
     }
 
     /**
@@ -122,7 +158,7 @@ public class ServicioProducto {
      * @param tipoProducto Nuevo tipo de producto.
      * @param marcaProducto Nueva marca del producto.
      * @param precio Nuevo precio (mayor que cero).
-     * @param cantidad Nueva cantidad en stock.
+     * @param cantidad Nueva cantidad en stock; se aplica como diferencia contra la que tenía el producto.
      * @param unidadProducto Nueva unidad de medida.
      * @param fechaCaducidad Nueva fecha de caducidad.
      * @param usoVeterinario Nuevo uso veterinario (si aplica).
@@ -133,36 +169,52 @@ public class ServicioProducto {
     public Producto modificarProducto(Producto producto, String nombre, TipoProducto tipoProducto, MarcaProducto marcaProducto,
                                       double precio, int cantidad, UnidadProducto unidadProducto,
                                       LocalDate fechaCaducidad, UsoVeterinario usoVeterinario) {
+        return modificarProducto(producto, nombre, tipoProducto, marcaProducto, precio, cantidad, unidadProducto,
+                fechaCaducidad, usoVeterinario, producto.getCodigoBarras());
+    }
 
-        if (nombre == null || nombre.trim().isEmpty()) {
-            throw new IllegalArgumentException("El nombre del producto no puede ser nulo o vacío");
-        }
-        if (tipoProducto == null) {
-            throw new IllegalArgumentException("El tipo de producto no puede ser nulo");
-        }
-        if (marcaProducto == null) {
-            throw new IllegalArgumentException("La marca del producto no puede ser nula");
-        }
-        if (precio <= 0) {
-            throw new IllegalArgumentException("El precio debe ser mayor a cero");
-        }
-        if (unidadProducto == null) {
-            throw new IllegalArgumentException("La unidad del producto no puede ser nula");
-        }
-        if (tipoProducto.equals(TipoProducto.Medicamento) && usoVeterinario == null) {
-            throw new IllegalArgumentException("El uso veterinario no puede ser nulo para medicamentos");
-        }
-        if ((tipoProducto.equals(TipoProducto.Comida) || tipoProducto.equals(TipoProducto.Medicamento)) && fechaCaducidad == null) {
-            throw new IllegalArgumentException("La fecha de caducidad no puede ser nula en medicamentos o comida");
-        }
-        if (fechaCaducidad != null && fechaCaducidad.isBefore(LocalDate.now().plusWeeks(1))) {
-            throw new IllegalArgumentException("La fecha no puede ser anterior a una semana a partir de hoy");
-        }
+    /**
+     * @brief Modifica un producto existente, incluido su código de barras.
+     *
+     * @param codigoBarras Nuevo código de barras o SKU (vacío o null para quitarlo).
+     * @see #modificarProducto(Producto, String, TipoProducto, MarcaProducto, double, int, UnidadProducto, LocalDate, UsoVeterinario)
+     * @throws IllegalStateException Si el código de barras ya está asignado a otro producto.
+     */
+    @Transactional
+    public Producto modificarProducto(Producto producto, String nombre, TipoProducto tipoProducto, MarcaProducto marcaProducto,
+                                      double precio, int cantidad, UnidadProducto unidadProducto,
+                                      LocalDate fechaCaducidad, UsoVeterinario usoVeterinario, String codigoBarras) {
 
-        if (!tipoProducto.equals(TipoProducto.Medicamento)) {
-            producto.setUsoVeterinario(null);
-        }
+        // Se valida una copia para no alterar el producto si los datos son inválidos
+        Producto datos = new Producto();
+        asignarDatos(datos, nombre, tipoProducto, marcaProducto, precio, cantidad,
+                unidadProducto, fechaCaducidad, usoVeterinario);
+        REGLAS_PRODUCTO.verificar(datos);
+
+        String codigo = normalizarCodigo(codigoBarras);
+        verificarCodigoLibre(codigo, producto.getIdProducto());
+
+        String codigoAnterior = producto.getCodigoBarras();
+        int stockAnterior = producto.getCantidadStock();
+        asignarDatos(producto, nombre, tipoProducto, marcaProducto, precio, cantidad,
+                unidadProducto, fechaCaducidad, usoVeterinario);
+        producto.setCodigoBarras(codigo);
 
+        Producto guardado = productoRepository.save(producto);
+        // La columna de stock no se actualiza con el producto; solo el cambio que hizo el
+        // usuario se anota como ajuste, sobre el stock que tenga la base en este momento
+        servicioKardex.ajustar(guardado.getIdProducto(), stockAnterior, cantidad);
+        guardado.setCantidadStock(servicioKardex.consultarStock(guardado.getIdProducto()));
+        indexar(codigoAnterior, guardado);
+        return guardado;
+    }
+
+    /**
+     * @brief Copia los datos capturados al producto.
+     */
+    private void asignarDatos(Producto producto, String nombre, TipoProducto tipoProducto, MarcaProducto marcaProducto,
+                              double precio, int cantidad, UnidadProducto unidadProducto,
+                              LocalDate fechaCaducidad, UsoVeterinario usoVeterinario) {
         producto.setNombre(nombre);
         producto.setTipoProducto(tipoProducto);
         producto.setMarcaProducto(marcaProducto);
@@ -171,8 +223,6 @@ public class ServicioProducto {
         producto.setUnidadProducto(unidadProducto);
         producto.setFechaCaducidad(fechaCaducidad);
         producto.setUsoVeterinario(usoVeterinario);
-
-        return productoRepository.save(producto);
     }
 
     /**
@@ -204,6 +254,87 @@ public class ServicioProducto {
      */
     public void eliminarProducto(Long idProducto) {
         productoRepository.deleteById(idProducto);
+        synchronized (indiceCodigos) {
+            indiceCodigos.values().remove(idProducto);
+        }
+    }
+
+    /**
+     * @brief Resuelve un código de barras leído en la caja.
+     *
+     * La búsqueda es en el índice en memoria, sin consultar la base de datos.
+     *
+     * @param codigoBarras Código leído por el escáner.
+     * @return ID del producto, o vacío si ningún producto tiene ese código.
+     */
+    public Optional<Long> buscarIdPorCodigoBarras(String codigoBarras) {
+        String codigo = normalizarCodigo(codigoBarras);
+        if (codigo == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(indice().get(codigo));
+    }
+
+    /**
+     * @brief Devuelve el índice de códigos, cargándolo con una sola consulta la primera vez.
+     */
+    private Map<String, Long> indice() {
+        if (!indiceCargado) {
+            synchronized (indiceCodigos) {
+                if (!indiceCargado) {
+                    for (CodigoBarrasProducto codigo : productoRepository.findCodigoByCodigoBarrasIsNotNull()) {
+                        indiceCodigos.put(codigo.getCodigoBarras(), codigo.getIdProducto());
+                    }
+                    indiceCargado = true;
+                    log.info("Índice de códigos de barras cargado con " + indiceCodigos.size() + " productos");
+                }
+            }
+        }
+        return indiceCodigos;
+    }
+
+    /**
+     * @brief Refleja en el índice el código de un producto recién guardado.
+     *
+     * Si el índice aún no se ha cargado no hay nada que actualizar: la carga leerá el cambio.
+     * Se sincroniza con la carga para no perder un cambio guardado mientras se consulta.
+     */
+    private void indexar(String codigoAnterior, Producto producto) {
+        synchronized (indiceCodigos) {
+            if (!indiceCargado) {
+                return;
+            }
+            if (codigoAnterior != null && !codigoAnterior.equals(producto.getCodigoBarras())) {
+                indiceCodigos.remove(codigoAnterior, producto.getIdProducto());
+            }
+            if (producto.getCodigoBarras() != null) {
+                indiceCodigos.put(producto.getCodigoBarras(), producto.getIdProducto());
+            }
+        }
+    }
+
+    /**
+     * @brief Verifica que el código no esté asignado a otro producto.
+     * La restricción única de la columna respalda esta verificación.
+     */
+    private void verificarCodigoLibre(String codigo, Long idProducto) {
+        if (codigo == null) {
+            return;
+        }
+        Long dueno = indice().get(codigo);
+        if (dueno != null && !dueno.equals(idProducto)) {
+            throw new IllegalStateException("El código de barras " + codigo + " ya está asignado a otro producto");
+        }
+    }
+
+    /**
+     * @brief Quita los espacios que agregan algunos lectores; un código vacío se trata como null.
+     */
+    private static String normalizarCodigo(String codigoBarras) {
+        if (codigoBarras == null || codigoBarras.isBlank()) {
+            return null;
+        }
+        return codigoBarras.strip();
     }
 
     /**
@@ -215,6 +346,34 @@ public class ServicioProducto {
     public List<Producto> buscarPorTipo(TipoProducto tipoProducto) {
         return productoRepository.findByTipoProducto(tipoProducto);
     }
+
+    /**
+     * @brief Recupera las filas de la tabla de inventario para un tipo de producto.
+     *
+     * Solo se seleccionan las columnas que se muestran; los productos no se cargan
+     * como entidades, por lo que no se hidratan ni se revisan al hacer flush.
+     *
+     * @param tipoProducto Tipo de producto a listar.
+     * @return Proyecciones de los productos del tipo especificado.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductoResumen> recuperaResumenPorTipo(TipoProducto tipoProducto) {
+        return productoRepository.findResumenByTipoProductoOrderByIdProducto(tipoProducto);
+    }
+
+    /**
+     * @brief Recupera un producto completo por su identificador.
+     *
+     * Se usa cuando una fila de la tabla de inventario se va a modificar.
+     *
+     * @param idProducto Identificador del producto.
+     * @return El producto con su umbral.
+     * @throws IllegalArgumentException Si el producto no existe.
+     */
+    public Producto recuperaProducto(Long idProducto) {
+        return productoRepository.findById(idProducto)
+                .orElseThrow(() -> new IllegalArgumentException("El producto con ID " + idProducto + " no existe"));
+    }
     /**
      * @brief Busca productos por tipo.
      *
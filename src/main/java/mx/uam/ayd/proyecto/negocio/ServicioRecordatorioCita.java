@@ -0,0 +1,168 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio que envía por correo un recordatorio antes de cada cita.
+ *
+ * Cada {@value #INTERVALO_MS} ms barre las citas que entraron a la ventana de
+ * recordatorio ({@link #ANTICIPACION} antes de su inicio) con una sola consulta por
+ * rango sobre el índice de citas pendientes. Una marca guarda hasta dónde llegó el
+ * barrido anterior, así que cada pasada solo lee el tramo nuevo sin importar cuántas
+ * citas haya en total. Se envían a lo más {@value #LOTE_MAXIMO} correos por pasada, en
+ * un solo lote; si hay más, la marca se queda en la última cita enviada y el resto sale
+ * en la siguiente pasada.
+ *
+ * Los correos salen de inmediato y solo las citas cuyo recordatorio sí salió se marcan en
+ * la columna {@code recordatorio_enviado}, que evita duplicados. Si un envío falla, la cita
+ * queda sin marcar y la marca regresa a ella para reintentarla en la siguiente pasada; la
+ * marca solo avanza después de que las citas enviadas quedaron guardadas. Después de
+ * {@value #INTENTOS_MAXIMOS} envíos fallidos el recordatorio se da por perdido: la cita se
+ * marca igual que una enviada y se registra en el log, para que una dirección que nunca
+ * acepta correo no detenga la marca ni se reintente para siempre.
+ *
+ * Al arrancar, la marca empieza
+ * en el momento actual, así que la primera pasada recupera lo que no se envió mientras la
+ * aplicación estaba apagada. Si se agenda o mueve una cita dentro del tramo ya barrido,
+ * {@link #reabrir(LocalDateTime)} regresa la marca para que la siguiente pasada la tome.
+ */
+@Service
+public class ServicioRecordatorioCita {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioRecordatorioCita.class);
+
+    /** Tiempo antes de la cita en que se envía el recordatorio. */
+    public static final Duration ANTICIPACION = Duration.ofHours(24);
+
+    /** Tiempo entre barridos (5 minutos). */
+    public static final long INTERVALO_MS = 300_000;
+
+    /** Máximo de recordatorios por barrido. */
+    static final int LOTE_MAXIMO = 20;
+
+    /** Envíos fallidos de un recordatorio antes de darlo por perdido. */
+    static final int INTENTOS_MAXIMOS = 3;
+
+    private final CitaRepository citaRepository;
+    private final ServicioCorreo servicioCorreo;
+
+    /** Inicio (inclusive) del tramo que falta barrer. */
+    private LocalDateTime marca = LocalDateTime.now();
+
+    /** Envíos fallidos de cada cita cuyo recordatorio sigue pendiente. */
+    private final Map<Long, Integer> intentosFallidos = new HashMap<>();
+
+    @Autowired
+    public ServicioRecordatorioCita(CitaRepository citaRepository, ServicioCorreo servicioCorreo) {
+        this.citaRepository = citaRepository;
+        this.servicioCorreo = servicioCorreo;
+    }
+
+    /**
+     * Envía los recordatorios de las citas que entraron a la ventana desde el barrido anterior.
+     *
+     * @return número de recordatorios enviados
+     */
+    @Scheduled(fixedDelay = INTERVALO_MS, initialDelay = INTERVALO_MS)
+    public synchronized int barrer() {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime desde = marca.isAfter(ahora) ? marca : ahora;
+        LocalDateTime hasta = ahora.plus(ANTICIPACION);
+        if (desde.isAfter(hasta)) {
+            return 0;
+        }
+        List<Cita> citas = citaRepository.findRecordatoriosPendientes(desde, hasta, PageRequest.of(0, LOTE_MAXIMO));
+        if (citas.isEmpty()) {
+            marca = hasta;
+            return 0;
+        }
+
+        List<SimpleMailMessage> recordatorios = new ArrayList<>(citas.size());
+        for (Cita cita : citas) {
+            recordatorios.add(recordatorio(cita));
+        }
+        List<SimpleMailMessage> fallidos = servicioCorreo.enviarAhora(recordatorios);
+
+        List<Long> enviadas = new ArrayList<>(citas.size());
+        List<Long> perdidas = new ArrayList<>();
+        LocalDateTime primeraFallida = null;
+        for (int i = 0; i < citas.size(); i++) {
+            Long idCita = citas.get(i).getIdCita();
+            if (!fallidos.contains(recordatorios.get(i))) {
+                enviadas.add(idCita);
+                intentosFallidos.remove(idCita);
+            } else if (intentosFallidos.merge(idCita, 1, Integer::sum) >= INTENTOS_MAXIMOS) {
+                perdidas.add(idCita);
+                intentosFallidos.remove(idCita);
+            } else if (primeraFallida == null) {
+                primeraFallida = citas.get(i).getFechaHora();
+            }
+        }
+        if (!enviadas.isEmpty() || !perdidas.isEmpty()) {
+            List<Long> marcadas = new ArrayList<>(enviadas);
+            marcadas.addAll(perdidas);
+            citaRepository.marcarRecordatorioEnviado(marcadas, ahora);
+        }
+        // Con el lote lleno puede haber más citas a la misma hora que la última; la columna evita repetirlas
+        LocalDateTime siguiente = citas.size() == LOTE_MAXIMO ? citas.get(citas.size() - 1).getFechaHora() : hasta;
+        marca = primeraFallida != null && primeraFallida.isBefore(siguiente) ? primeraFallida : siguiente;
+        if (!enviadas.isEmpty()) {
+            log.info("Recordatorios de cita enviados: " + enviadas.size());
+        }
+        if (!perdidas.isEmpty()) {
+            log.warn("Recordatorios de cita perdidos tras " + INTENTOS_MAXIMOS + " intentos: citas " + perdidas);
+        }
+        if (fallidos.size() > perdidas.size()) {
+            log.warn("Recordatorios de cita por reintentar: " + (fallidos.size() - perdidas.size()));
+        }
+        return enviadas.size();
+    }
+
+    /**
+     * Avisa que una cita se agendó o cambió de horario, para que reciba recordatorio aunque
+     * caiga en el tramo ya barrido.
+     *
+     * @param fechaHora inicio de la cita
+     */
+    public synchronized void reabrir(LocalDateTime fechaHora) {
+        if (fechaHora != null && fechaHora.isBefore(marca)) {
+            marca = fechaHora;
+        }
+    }
+
+    /** El correo del cliente ligado a la cita o, si no hay cliente, su contacto. */
+    static String destinatario(Cita cita) {
+        Cliente cliente = cita.getCliente();
+        return cliente != null && cliente.getCorreoElectronico() != null
+                ? cliente.getCorreoElectronico() : cita.getContacto();
+    }
+
+    private static SimpleMailMessage recordatorio(Cita cita) {
+        SimpleMailMessage mensaje = new SimpleMailMessage();
+        mensaje.setTo(destinatario(cita));
+        mensaje.setSubject("Recordatorio de Cita - Veterinaria UAM");
+        mensaje.setText(String.format(
+                "Estimado(a) %s,\n\nLe recordamos su cita de %s el %s a las %s%s.\n\n"
+                        + "Si no puede asistir, comuníquese con nosotros para cancelarla y dar el lugar a alguien más.",
+                cita.getNombreSolicitante(), cita.getTipo(), cita.getFechaHora().toLocalDate(),
+                cita.getFechaHora().toLocalTime(),
+                cita.getVeterinario() != null ? " con " + cita.getVeterinario().getNombreCompleto() : ""));
+        return mensaje;
+    }
+}
@@ -2,6 +2,7 @@ package mx.uam.ayd.proyecto.negocio;
 
 import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
 import mx.uam.ayd.proyecto.negocio.modelo.RegistroHospedaje;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -46,6 +47,29 @@ public interface ServicioRegistroHospedaje {
      */
     List<RegistroHospedaje> listarPorHospedaje(Hospedaje hospedaje);
 
+    /**
+     * Obtiene los hospedajes activos en una fecha que todavía no tienen
+     * registro diario, para capturarlos todos en una sola ronda.
+     *
+     * @param fecha Fecha de la ronda; si es null, se usa la fecha actual.
+     * @return Lista de hospedajes pendientes de registro en esa fecha.
+     */
+    List<Hospedaje> listarPendientesRonda(LocalDate fecha);
 
+    /**
+     * Registra en lote las entradas diarias de una ronda.
+     *
+     * <p>Cada registro debe traer asignado su hospedaje y los textos capturados;
+     * la fecha de registro se asigna con la fecha de la ronda. La operación
+     * es atómica: si algún registro es inválido no se guarda ninguno.</p>
+     *
+     * @param fecha     Fecha de la ronda; si es null, se usa la fecha actual.
+     * @param registros Registros a guardar, uno por hospedaje.
+     * @return Lista de registros guardados.
+     * @throws IllegalArgumentException si algún hospedaje es inválido, está fuera
+     *                                  de periodo, se repite en la ronda o ya tiene
+     *                                  registro en esa fecha.
+     */
+    List<RegistroHospedaje> registrarRonda(LocalDate fecha, List<RegistroHospedaje> registros) throws IllegalArgumentException;
 
 }
@@ -0,0 +1,236 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.datos.ReservaStockRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CarritoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.ReservaStock;
+
+/**
+ * Servicio que aparta el stock de los carritos abiertos.
+ *
+ * Cada vez que un carrito agrega o cambia un producto, sus unidades quedan reservadas por
+ * {@link #VIGENCIA}; así otra terminal no puede vender el mismo stock y la venta no falla
+ * al finalizarla. Las reservas viven en un registro en memoria por producto; lo disponible
+ * es el stock de la tabla de productos menos esas reservas vigentes. El stock se lee de la
+ * base de datos y no de la copia del producto que trae el carrito, que pudo quedar atrasada
+ * por una venta de otra terminal. La tabla {@code reservas_stock} refleja el registro; como
+ * las sesiones de venta no sobreviven a un reinicio, al arrancar se vacía.
+ *
+ * Una reserva se libera al cerrar la sesión de venta o deja de contar al vencer; las
+ * vencidas se quitan de memoria cuando se vuelve a tocar su producto y de la tabla al abrir
+ * una nueva sesión.
+ */
+@Service
+public class ServicioReservaStock {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioReservaStock.class);
+
+    /** Tiempo que dura una reserva sin actividad en el carrito. */
+    public static final Duration VIGENCIA = Duration.ofMinutes(15);
+
+    private final ReservaStockRepository reservaStockRepository;
+    private final ProductoRepository productoRepository;
+
+    /** Reservas por ID de producto y, dentro de cada producto, por sesión. */
+    private final Map<Long, Map<String, ReservaStock>> reservas = new ConcurrentHashMap<>();
+
+    private Duration vigencia = VIGENCIA;
+
+    /**
+     * Constructor con inyección de dependencias.
+     *
+     * @param reservaStockRepository tabla de reservas
+     * @param productoRepository tabla de productos, de donde se lee el stock
+     */
+    @Autowired
+    public ServicioReservaStock(ReservaStockRepository reservaStockRepository, ProductoRepository productoRepository) {
+        this.reservaStockRepository = reservaStockRepository;
+        this.productoRepository = productoRepository;
+    }
+
+    /**
+     * Borra las reservas que quedaron en la tabla al apagar la aplicación: sus sesiones ya
+     * no existen, así que solo bloquearían stock hasta vencer.
+     */
+    @PostConstruct
+    public void limpiar() {
+        long huerfanas = reservaStockRepository.count();
+        if (huerfanas > 0) {
+            reservaStockRepository.deleteAll();
+            log.info(huerfanas + " reservas de stock de sesiones anteriores borradas");
+        }
+    }
+
+    /**
+     * Unidades que se pueden vender: stock menos todas las reservas vigentes.
+     *
+     * @param producto producto a consultar
+     * @return unidades disponibles (nunca negativas)
+     */
+    public int disponible(Producto producto) {
+        return disponiblePara(null, producto);
+    }
+
+    /**
+     * Unidades que puede tomar una sesión: stock guardado menos las reservas vigentes de las
+     * demás sesiones.
+     *
+     * @param idSesion sesión que consulta (sus propias reservas no se descuentan)
+     * @param producto producto a consultar
+     * @return unidades disponibles para la sesión (nunca negativas)
+     */
+    public int disponiblePara(String idSesion, Producto producto) {
+        Map<String, ReservaStock> delProducto = delProducto(producto.getIdProducto());
+        synchronized (delProducto) {
+            return Math.max(0, stockDe(producto.getIdProducto())
+                    - reservadoPorOtras(delProducto, idSesion, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Deja reservadas para la sesión exactamente {@code cantidad} unidades del producto y
+     * renueva su vencimiento. Con cantidad 0 se libera la reserva del producto.
+     *
+     * @param idSesion sesión de venta
+     * @param producto producto a reservar
+     * @param cantidad unidades que lleva el carrito
+     * @throws IllegalArgumentException si la cantidad es negativa
+     * @throws IllegalStateException si no hay suficientes unidades sin reservar
+     */
+    public void reservar(String idSesion, Producto producto, int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa");
+        }
+        Long idProducto = producto.getIdProducto();
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<String, ReservaStock> delProducto = delProducto(idProducto);
+
+        ReservaStock reserva;
+        synchronized (delProducto) {
+            if (cantidad == 0) {
+                reserva = delProducto.remove(idSesion);
+            } else {
+                // Con el candado, una venta que ya descontó su stock no puede soltar sus
+                // reservas a media cuenta; a lo más se descuenta dos veces por un momento
+                int disponible = stockDe(idProducto) - reservadoPorOtras(delProducto, idSesion, ahora);
+                if (cantidad > disponible) {
+                    throw new IllegalStateException("Solo hay " + Math.max(0, disponible)
+                            + " unidades disponibles de " + producto.getNombre());
+                }
+                reserva = delProducto.get(idSesion);
+                if (reserva == null) {
+                    reserva = new ReservaStock();
+                    reserva.setIdSesion(idSesion);
+                    reserva.setIdProducto(idProducto);
+                    delProducto.put(idSesion, reserva);
+                }
+                reserva.setCantidad(cantidad);
+                reserva.setExpira(ahora.plus(vigencia));
+            }
+        }
+
+        // Una sesión la usa una sola terminal, así que sus escrituras a la tabla no se cruzan;
+        // la llave (sesión, producto) hace que guardar de nuevo actualice la misma fila
+        if (cantidad == 0) {
+            if (reserva != null) {
+                reservaStockRepository.deleteById(new ReservaStock.Llave(idSesion, idProducto));
+            }
+        } else {
+            reservaStockRepository.save(reserva);
+        }
+    }
+
+    /**
+     * Vuelve a reservar todo el carrito, por ejemplo al reanudar una venta estacionada
+     * cuyas reservas pudieron vencer.
+     *
+     * @param carrito carrito de la sesión
+     * @return true si se reservaron todos los productos; false si alguno ya no alcanza
+     */
+    public boolean renovar(CarritoVenta carrito) {
+        boolean completo = true;
+        for (DetalleVenta detalle : carrito.getDetalles()) {
+            try {
+                reservar(carrito.getIdSesion(), detalle.getProducto(), detalle.getCantidadVendida());
+            } catch (IllegalStateException e) {
+                completo = false;
+            }
+        }
+        return completo;
+    }
+
+    /**
+     * Libera todas las reservas de una sesión al finalizar, cancelar o abandonar su venta.
+     *
+     * @param idSesion sesión de venta
+     */
+    public void liberar(String idSesion) {
+        if (idSesion == null) {
+            return;
+        }
+        for (Map<String, ReservaStock> delProducto : reservas.values()) {
+            synchronized (delProducto) {
+                delProducto.remove(idSesion);
+            }
+        }
+        reservaStockRepository.borrarPorSesion(idSesion);
+    }
+
+    /**
+     * Borra de la tabla las reservas vencidas con una sola sentencia.
+     */
+    public void purgarVencidas() {
+        int borradas = reservaStockRepository.borrarVencidas(LocalDateTime.now());
+        if (borradas > 0) {
+            log.info(borradas + " reservas de stock vencidas borradas");
+        }
+    }
+
+    /**
+     * Cambia la vigencia de las reservas nuevas o renovadas; se usa en pruebas.
+     */
+    void setVigencia(Duration vigencia) {
+        this.vigencia = vigencia;
+    }
+
+    private int stockDe(Long idProducto) {
+        return productoRepository.findCantidadStockByIdProducto(idProducto).orElse(0);
+    }
+
+    private Map<String, ReservaStock> delProducto(Long idProducto) {
+        return reservas.computeIfAbsent(idProducto, id -> new HashMap<>());
+    }
+
+    /**
+     * Suma las reservas vigentes de las otras sesiones y quita de memoria las vencidas.
+     * Se llama con el candado del producto.
+     */
+    private static int reservadoPorOtras(Map<String, ReservaStock> delProducto, String idSesion, LocalDateTime ahora) {
+        int reservado = 0;
+        Iterator<ReservaStock> it = delProducto.values().iterator();
+        while (it.hasNext()) {
+            ReservaStock reserva = it.next();
+            if (!reserva.vigenteEn(ahora)) {
+                it.remove();
+            } else if (!reserva.getIdSesion().equals(idSesion)) {
+                reservado += reserva.getCantidad();
+            }
+        }
+        return reservado;
+    }
+}
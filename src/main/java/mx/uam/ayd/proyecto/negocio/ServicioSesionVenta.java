@@ -0,0 +1,139 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import mx.uam.ayd.proyecto.negocio.modelo.CarritoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+
+/**
+ * Registro de las ventas en captura de la terminal.
+ *
+ * Cada sesión de venta tiene su propio carrito en memoria, identificado por un ID de sesión,
+ * de modo que el cajero puede estacionar una venta, atender a otro cliente y después
+ * reanudarla. Las sesiones no se guardan en la base de datos: la venta se persiste
+ * solo al finalizarla. El stock que lleva cada carrito queda apartado en
+ * {@link ServicioReservaStock} hasta que su sesión se cierra.
+ */
+@Service
+public class ServicioSesionVenta {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicioSesionVenta.class);
+
+    private final ServicioVenta servicioVenta;
+    private final ServicioReservaStock servicioReservaStock;
+    private final Map<String, CarritoVenta> sesiones = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor con inyección de dependencias.
+     *
+     * @param servicioVenta servicio que crea las ventas
+     * @param servicioReservaStock reservas de stock de los carritos
+     */
+    @Autowired
+    public ServicioSesionVenta(ServicioVenta servicioVenta, ServicioReservaStock servicioReservaStock) {
+        this.servicioVenta = servicioVenta;
+        this.servicioReservaStock = servicioReservaStock;
+    }
+
+    /**
+     * Abre una sesión de venta con un carrito vacío.
+     *
+     * @param cliente cliente de la venta, o null para público general
+     * @return el carrito de la nueva sesión
+     */
+    public CarritoVenta abrirSesion(Cliente cliente) {
+        servicioReservaStock.purgarVencidas();
+        CarritoVenta carrito = new CarritoVenta(UUID.randomUUID().toString(), servicioVenta.crearVenta(), cliente);
+        sesiones.put(carrito.getIdSesion(), carrito);
+        log.info("Sesión de venta " + carrito.getIdSesion() + " abierta");
+        return carrito;
+    }
+
+    /**
+     * Recupera el carrito de una sesión abierta.
+     *
+     * @param idSesion ID de la sesión
+     * @return el carrito de la sesión
+     * @throws IllegalArgumentException si la sesión no existe
+     */
+    public CarritoVenta obtenerSesion(String idSesion) {
+        CarritoVenta carrito = idSesion != null ? sesiones.get(idSesion) : null;
+        if (carrito == null) {
+            throw new IllegalArgumentException("La sesión de venta " + idSesion + " no existe");
+        }
+        return carrito;
+    }
+
+    /**
+     * Estaciona una venta para atender a otro cliente; el carrito se conserva.
+     *
+     * @param idSesion ID de la sesión
+     * @throws IllegalArgumentException si la sesión no existe
+     */
+    public void estacionar(String idSesion) {
+        obtenerSesion(idSesion).setEstacionado(true);
+    }
+
+    /**
+     * Reanuda una venta estacionada.
+     *
+     * @param idSesion ID de la sesión
+     * @return el carrito de la sesión
+     * @throws IllegalArgumentException si la sesión no existe
+     */
+    public CarritoVenta reanudar(String idSesion) {
+        CarritoVenta carrito = obtenerSesion(idSesion);
+        carrito.setEstacionado(false);
+        return carrito;
+    }
+
+    /**
+     * Vuelve a reservar el stock de una sesión, cuyas reservas pudieron vencer mientras
+     * estuvo estacionada.
+     *
+     * @param idSesion ID de la sesión
+     * @return true si todos sus productos quedaron reservados
+     * @throws IllegalArgumentException si la sesión no existe
+     */
+    public boolean renovarReservas(String idSesion) {
+        return servicioReservaStock.renovar(obtenerSesion(idSesion));
+    }
+
+    /**
+     * Ventas estacionadas, de la más antigua a la más reciente.
+     *
+     * @return carritos estacionados
+     */
+    public List<CarritoVenta> recuperarEstacionadas() {
+        List<CarritoVenta> estacionadas = new ArrayList<>();
+        for (CarritoVenta carrito : sesiones.values()) {
+            if (carrito.isEstacionado()) {
+                estacionadas.add(carrito);
+            }
+        }
+        estacionadas.sort(Comparator.comparing(CarritoVenta::getInicio));
+        return estacionadas;
+    }
+
+    /**
+     * Cierra una sesión al finalizar o cancelar su venta y libera el stock que tenía reservado.
+     *
+     * @param idSesion ID de la sesión
+     */
+    public void cerrarSesion(String idSesion) {
+        if (idSesion != null && sesiones.remove(idSesion) != null) {
+            servicioReservaStock.liberar(idSesion);
+            log.info("Sesión de venta " + idSesion + " cerrada");
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,6 +13,7 @@ import mx.uam.ayd.proyecto.datos.GrupoRepository;
 import mx.uam.ayd.proyecto.datos.UsuarioRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Grupo;
 import mx.uam.ayd.proyecto.negocio.modelo.Usuario;
+import mx.uam.ayd.proyecto.negocio.modelo.UsuarioResumen;
 
 @Service
 public class ServicioUsuario {
@@ -108,4 +110,15 @@ public class ServicioUsuario {
 		return usuarios;
 	}
 
+	/**
+	 * Recupera las filas de la lista de usuarios en una consulta de solo lectura
+	 * que trae únicamente las columnas que se muestran
+	 * 
+	 * @return Una lista con las proyecciones de los usuarios (o lista vacía)
+	 */
+	@Transactional(readOnly = true)
+	public List <UsuarioResumen> recuperaResumenUsuarios() {
+		return usuarioRepository.findResumenByOrderByIdUsuario();
+	}
+
 }
@@ -11,11 +11,11 @@ import mx.uam.ayd.proyecto.datos.UmbralRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import mx.uam.ayd.proyecto.datos.VentaRepository;
-import mx.uam.ayd.proyecto.datos.ClienteRepository;
 import mx.uam.ayd.proyecto.datos.DetalleVentaRepository;
 import mx.uam.ayd.proyecto.datos.ProductoRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.ReporteVentaDTO;
@@ -35,7 +35,9 @@ public class ServicioVenta {
     private final ProductoRepository productoRepository;
     private final UmbralRepository umbralRepository;
     private final ServicioCorreo servicioCorreo;
-    private final ClienteRepository clienteRepository;
+    private final ServicioGastoCliente servicioGastoCliente;
+    private final ServicioCuboVentas servicioCuboVentas;
+    private final ServicioKardex servicioKardex;
 
     /**
      * Constructor con inyección de dependencias.
@@ -43,18 +45,24 @@ public class ServicioVenta {
      * @param ventaRepository repositorio para operaciones de ventas
      * @param detalleVentaRepository repositorio para detalles de venta
      * @param productoRepository repositorio para productos
+     * @param servicioGastoCliente servicio que acumula el gasto de los clientes
+     * @param servicioCuboVentas cubo de ventas en memoria para los reportes
+     * @param servicioKardex kardex que descuenta el stock y anota la salida
      */
     @Autowired
     public ServicioVenta(VentaRepository ventaRepository,
                          DetalleVentaRepository detalleVentaRepository,
                          ProductoRepository productoRepository, UmbralRepository umbralRepository, ServicioCorreo servicioCorreo,
-                         ClienteRepository clienteRepository) {
+                         ServicioGastoCliente servicioGastoCliente, ServicioCuboVentas servicioCuboVentas,
+                         ServicioKardex servicioKardex) {
         this.ventaRepository = ventaRepository;
         this.detalleVentaRepository = detalleVentaRepository;
         this.productoRepository = productoRepository;
         this.umbralRepository = umbralRepository;
         this.servicioCorreo = servicioCorreo;
-        this.clienteRepository = clienteRepository;
+        this.servicioGastoCliente = servicioGastoCliente;
+        this.servicioCuboVentas = servicioCuboVentas;
+        this.servicioKardex = servicioKardex;
     }
 
     /**
@@ -76,22 +84,34 @@ public class ServicioVenta {
      * @throws IllegalStateException si la cantidad vendida es mayor al stock disponible
      */
     public void actualizarStock(Producto producto, int cantidadVendida){
-        Umbral umbral = umbralRepository.findByProductoIdProducto(producto.getIdProducto());
+        actualizarStock(producto, cantidadVendida, null);
+    }
+
+    /**
+     * Actualiza el stock de un producto restando la cantidad vendida y anota la salida
+     * en el kardex a nombre de la venta.
+     *
+     * El descuento se hace en la base de datos con un UPDATE condicional, así que no depende
+     * de la copia del producto que tenga el carrito, que pudo quedar atrasada si otra venta
+     * del mismo producto se finalizó mientras tanto.
+     *
+     * @param producto producto a actualizar
+     * @param cantidadVendida cantidad vendida que se debe descontar
+     * @param idVenta venta que origina la salida (puede ser null)
+     * @throws IllegalArgumentException si el producto es nulo o cantidad es inválida
+     * @throws IllegalStateException si la cantidad vendida es mayor al stock disponible
+     */
+    public void actualizarStock(Producto producto, int cantidadVendida, Long idVenta){
         if (producto == null){
             throw new IllegalArgumentException("Producto no puede ser nulo");
         }
         if (cantidadVendida <= 0){
             throw new IllegalArgumentException("La cantidad vendida no puede ser menor a 0");
         }
-        if (cantidadVendida > producto.getCantidadStock()){
-            throw new IllegalStateException("La cantidad vendida no puede ser mayor al stock");
-        }
-
-        int nuevaCantidad = producto.getCantidadStock() - cantidadVendida;
-        producto.setCantidadStock(nuevaCantidad);
-
-        productoRepository.save(producto);
+        servicioKardex.registrarVenta(producto.getIdProducto(), cantidadVendida, idVenta);
 
+        // La copia en memoria solo se ajusta para mostrarla
+        producto.setCantidadStock(Math.max(0, producto.getCantidadStock() - cantidadVendida));
     }
 
     /**
@@ -101,6 +121,7 @@ public class ServicioVenta {
      * @param montoTotal monto total calculado para la venta
      * @throws IllegalArgumentException si la venta es nula o el monto es inválido
      */
+    @Transactional
     public void guardarVenta(Venta venta, double montoTotal, Cliente cliente){
         if (venta == null){
             throw new IllegalArgumentException("La venta no puede ser nulo");
@@ -108,15 +129,58 @@ public class ServicioVenta {
         if (montoTotal <= 0) {
             throw new IllegalArgumentException("El monto total no puede ser menor o igual a 0");
         }
-        if (cliente != null){
-            Double montoActual = cliente.getMontoAcumulado();
-            Double total = montoActual + montoTotal;
-            cliente.setMontoAcumulado(total);
-            clienteRepository.save(cliente);
-        }
         venta.setMontoTotal(montoTotal);
         venta.setFecha(LocalDate.now());
+        venta.setCliente(cliente);
         ventaRepository.save(venta);
+        if (cliente != null){
+            // Incremento atómico en la base de datos; la copia en memoria solo se actualiza para mostrarla
+            servicioGastoCliente.registrarGasto(cliente.getIdCliente(), venta.getIdVenta(), montoTotal);
+            long montoActual = cliente.getMontoAcumulado() != null ? Dinero.centavos(cliente.getMontoAcumulado()) : 0L;
+            cliente.setMontoAcumulado(Dinero.pesos(montoActual + Dinero.centavos(montoTotal)));
+        }
+    }
+
+    /**
+     * Guarda la venta, sus detalles y la salida de stock de cada producto en una sola transacción.
+     *
+     * Si algún producto ya no tiene stock suficiente se revierte todo: la venta, el gasto del
+     * cliente, los detalles y las salidas anteriores. Las copias en memoria vuelven a quedar
+     * como antes para que la venta se pueda corregir y finalizar de nuevo.
+     *
+     * @param venta la venta a guardar
+     * @param detallesVenta detalles de la venta
+     * @param montoTotal monto total calculado para la venta
+     * @param cliente cliente de la venta (puede ser null)
+     * @throws IllegalArgumentException si la venta es nula o el monto es inválido
+     * @throws IllegalStateException si los detalles son inválidos o falta stock de algún producto
+     */
+    @Transactional
+    public void finalizarVenta(Venta venta, List<DetalleVenta> detallesVenta, double montoTotal, Cliente cliente) {
+        Double montoCliente = cliente != null ? cliente.getMontoAcumulado() : null;
+        try {
+            guardarVenta(venta, montoTotal, cliente);
+            agregarDetallesVenta(detallesVenta);
+            for (DetalleVenta detalle : detallesVenta) {
+                servicioKardex.registrarVenta(detalle.getProducto().getIdProducto(), detalle.getCantidadVendida(),
+                        venta.getIdVenta());
+            }
+        } catch (RuntimeException e) {
+            venta.descartarGuardado();
+            for (DetalleVenta detalle : detallesVenta) {
+                detalle.setIdDetalleVenta(0L);
+            }
+            if (cliente != null) {
+                cliente.setMontoAcumulado(montoCliente);
+            }
+            throw e;
+        }
+
+        // Las copias en memoria solo se ajustan para mostrarlas
+        for (DetalleVenta detalle : detallesVenta) {
+            Producto producto = detalle.getProducto();
+            producto.setCantidadStock(Math.max(0, producto.getCantidadStock() - detalle.getCantidadVendida()));
+        }
     }
 
     /**
@@ -125,6 +189,7 @@ public class ServicioVenta {
      * @param detallesVenta lista con los detalles de la venta
      * @throws IllegalStateException si la lista está vacía o contiene productos duplicados
      */
+    @Transactional
     public void agregarDetallesVenta(List<DetalleVenta> detallesVenta) {
         if (detallesVenta.isEmpty()){
             throw new IllegalStateException("La lista no puede estar vacia");
@@ -136,6 +201,7 @@ public class ServicioVenta {
             }
         }
         detalleVentaRepository.saveAll(detallesVenta);
+        servicioCuboVentas.registrarDetalles(detallesVenta);
     }
 
     /**
@@ -144,14 +210,31 @@ public class ServicioVenta {
      * @param desde fecha de inicio del rango para el reporte
      * @param hasta fecha final del rango para el reporte
      * @param tipoProducto tipo de producto para filtrar
-     * @param periodicidad "Mensual" o cualquier otro valor para diario
+     * @param periodicidad "Semanal", "Mensual", "Trimestral" o cualquier otro valor para diario
      * @return lista de objetos {@link ReporteVentaDTO} con la información del reporte
      */
     public List<ReporteVentaDTO> recuperarVenta(LocalDate desde, LocalDate hasta, TipoProducto tipoProducto, String periodicidad) {
-        if (periodicidad.equals("Mensual")){
-            return ventaRepository.obtenerReporteVentasMensual(desde, hasta, tipoProducto);
-        } else {
-            return ventaRepository.obtenerReporteVentasDiario(desde, hasta, tipoProducto);
-        }
+        return recuperarVenta(desde, hasta, tipoProducto, periodicidad, DimensionVenta.PRODUCTO);
+    }
+
+    /**
+     * Recupera un reporte de ventas por periodo desglosado por la dimensión indicada
+     * (producto, marca, membresía o cliente). Se responde desde el cubo de ventas en memoria.
+     *
+     * @param desde fecha de inicio del rango para el reporte
+     * @param hasta fecha final del rango para el reporte
+     * @param tipoProducto tipo de producto para filtrar
+     * @param periodicidad "Semanal", "Mensual", "Trimestral" o cualquier otro valor para diario
+     * @param desglose dimensión por la que se desglosa cada periodo
+     * @return lista de objetos {@link ReporteVentaDTO} con la información del reporte
+     */
+    public List<ReporteVentaDTO> recuperarVenta(LocalDate desde, LocalDate hasta, TipoProducto tipoProducto,
+                                                String periodicidad, DimensionVenta desglose) {
+        FiltroVentas filtro = new FiltroVentas();
+        filtro.setDesde(desde);
+        filtro.setHasta(hasta);
+        filtro.setTipoProducto(tipoProducto);
+        return servicioCuboVentas.consultar(filtro, DimensionVenta.dePeriodicidad(periodicidad),
+                desglose != null ? desglose : DimensionVenta.PRODUCTO);
     }
 }
\ No newline at end of file
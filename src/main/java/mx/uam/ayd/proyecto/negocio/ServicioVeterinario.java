@@ -1,12 +1,18 @@
 package mx.uam.ayd.proyecto.negocio;
 
 import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
 import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.text.Normalizer;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Set;
 import jakarta.annotation.PostConstruct;
 
 @Service
@@ -35,15 +41,70 @@ public class ServicioVeterinario {
             Veterinario v1 = new Veterinario();
             v1.setNombreCompleto("Dr. Juan Perez (Cirugía)");
             v1.setCedulaProfesional("VET12345");
+            v1.setEspecialidades(EnumSet.of(TipoCita.Cirugia));
             veterinarioRepository.save(v1);
 
             Veterinario v2 = new Veterinario();
             v2.setNombreCompleto("Dra. Ana Lopez (General)");
             v2.setCedulaProfesional("VET67890");
+            v2.setEspecialidades(EnumSet.of(TipoCita.Consulta, TipoCita.Revision));
             veterinarioRepository.save(v2);
+        } else if (veterinarioRepository.findEspecialidades().isEmpty()) {
+            // Veterinarios registrados antes de las especialidades: se toman del nombre
+            for (Veterinario veterinario : veterinarioRepository.findAll()) {
+                Set<TipoCita> especialidades = especialidadesDelNombre(veterinario.getNombreCompleto());
+                if (!especialidades.isEmpty()) {
+                    veterinario.setEspecialidades(especialidades);
+                    veterinarioRepository.save(veterinario);
+                }
+            }
         }
     }
 
+    /**
+     * Deduce las especialidades de la anotación entre paréntesis del nombre,
+     * por ejemplo "Dr. Juan Perez (Cirugía)".
+     */
+
+    static Set<TipoCita> especialidadesDelNombre(String nombre) {
+        Set<TipoCita> especialidades = EnumSet.noneOf(TipoCita.class);
+        if (nombre == null || nombre.indexOf('(') < 0) {
+            return especialidades;
+        }
+        String anotacion = Normalizer.normalize(nombre.substring(nombre.indexOf('(')), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        if (anotacion.contains("cirug")) {
+            especialidades.add(TipoCita.Cirugia);
+        }
+        if (anotacion.contains("estetic")) {
+            especialidades.add(TipoCita.Estetica);
+        }
+        if (anotacion.contains("vacun")) {
+            especialidades.add(TipoCita.Vacunacion);
+        }
+        if (anotacion.contains("general")) {
+            especialidades.add(TipoCita.Consulta);
+            especialidades.add(TipoCita.Revision);
+        }
+        return especialidades;
+    }
+
+    /**
+     * Cambia los tipos de cita en que se especializa un veterinario.
+     */
+
+    @Transactional
+    public Veterinario asignarEspecialidades(Long idVeterinario, Set<TipoCita> especialidades) {
+        Veterinario veterinario = veterinarioRepository.findById(idVeterinario)
+                .orElseThrow(() -> new IllegalArgumentException("El veterinario no está registrado"));
+        veterinario.getEspecialidades().clear();
+        if (especialidades != null) {
+            veterinario.getEspecialidades().addAll(especialidades);
+        }
+        return veterinarioRepository.save(veterinario);
+    }
+
     /**
      * Recupera todos los veterinarios disponibles.
      */
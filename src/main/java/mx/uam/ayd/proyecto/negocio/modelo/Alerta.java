@@ -2,6 +2,7 @@ package mx.uam.ayd.proyecto.negocio.modelo;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.JoinColumn;
@@ -13,7 +14,8 @@ import java.time.LocalDateTime;
 @Entity
 public class Alerta {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alerta_seq")
+    @SequenceGenerator(name = "alerta_seq", sequenceName = "alerta_seq", allocationSize = 50)
     private Long idAlerta;
     private String mensajePersonalizado;
     private boolean enviadoPorCorreo;
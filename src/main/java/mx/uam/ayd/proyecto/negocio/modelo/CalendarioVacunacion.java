@@ -0,0 +1,160 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tabla de reglas que da el intervalo hasta la siguiente dosis según la vacuna, la especie
+ * y el número de dosis aplicada.
+ *
+ * Cada vacuna y especie tiene una serie inicial (por ejemplo, tres dosis de cachorro cada
+ * tres semanas) y un refuerzo que se repite después. Si no hay regla para la especie se usa
+ * la de {@link Especie#OTRA}, y si la vacuna no tiene ninguna, un refuerzo anual.
+ *
+ * Es inmutable: para cambiar las reglas se construye un calendario nuevo y se recalculan
+ * las cartillas con él.
+ */
+public final class CalendarioVacunacion {
+
+    /** Intervalo de las vacunas sin regla. */
+    public static final Period REFUERZO_ANUAL = Period.ofMonths(12);
+
+    private static final Period TRES_SEMANAS = Period.ofWeeks(3);
+
+    private static final CalendarioVacunacion PREDETERMINADO = nuevo()
+            // Perro: primovacunación de cachorro y refuerzo anual
+            .serie(VacunaEnum.PARVOVIRUS, Especie.PERRO, REFUERZO_ANUAL, TRES_SEMANAS, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.DISTEMPER, Especie.PERRO, REFUERZO_ANUAL, TRES_SEMANAS, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.MOQUILLO, Especie.PERRO, REFUERZO_ANUAL, TRES_SEMANAS, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.HEPATITIS, Especie.PERRO, REFUERZO_ANUAL, TRES_SEMANAS, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.PARAINFLUENZA, Especie.PERRO, REFUERZO_ANUAL, TRES_SEMANAS, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.CORONAVIRUS, Especie.PERRO, REFUERZO_ANUAL, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.LEPTOSPIROSIS, Especie.PERRO, REFUERZO_ANUAL, TRES_SEMANAS, REFUERZO_ANUAL)
+            // Gato: triple felina y leucemia con serie inicial, luego anual
+            .serie(VacunaEnum.PANLEUCOPENIA, Especie.GATO, REFUERZO_ANUAL, TRES_SEMANAS, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.RINOTRAQUEITIS, Especie.GATO, REFUERZO_ANUAL, TRES_SEMANAS, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.CALICIVIRUS, Especie.GATO, REFUERZO_ANUAL, TRES_SEMANAS, TRES_SEMANAS, REFUERZO_ANUAL)
+            .serie(VacunaEnum.LEUCEMIA, Especie.GATO, REFUERZO_ANUAL, TRES_SEMANAS, REFUERZO_ANUAL)
+            // Rabia: una dosis y refuerzo anual en cualquier especie
+            .serie(VacunaEnum.RABIA, Especie.OTRA, REFUERZO_ANUAL, REFUERZO_ANUAL)
+            .construir();
+
+    /**
+     * Intervalos tras cada dosis de la serie inicial y el refuerzo que sigue.
+     */
+    private static final class Serie {
+        private final List<Period> iniciales;
+        private final Period refuerzo;
+
+        private Serie(List<Period> iniciales, Period refuerzo) {
+            this.iniciales = iniciales;
+            this.refuerzo = refuerzo;
+        }
+
+        private Optional<Period> intervaloTras(int numeroDosis) {
+            if (numeroDosis <= iniciales.size()) {
+                return Optional.of(iniciales.get(numeroDosis - 1));
+            }
+            return Optional.ofNullable(refuerzo);
+        }
+    }
+
+    private final Map<VacunaEnum, Map<Especie, Serie>> reglas;
+
+    private CalendarioVacunacion(Map<VacunaEnum, Map<Especie, Serie>> reglas) {
+        this.reglas = reglas;
+    }
+
+    /**
+     * @return el calendario con las reglas de la clínica
+     */
+    public static CalendarioVacunacion predeterminado() {
+        return PREDETERMINADO;
+    }
+
+    /**
+     * @return un constructor de calendario vacío
+     */
+    public static Constructor nuevo() {
+        return new Constructor();
+    }
+
+    /**
+     * Intervalo entre una dosis y la siguiente.
+     *
+     * @param vacuna vacuna aplicada
+     * @param especie especie de la mascota
+     * @param numeroDosis número de la dosis aplicada dentro de la serie (1 es la primera)
+     * @return el intervalo, o vacío si con esa dosis la vacuna ya no se repite
+     */
+    public Optional<Period> intervaloTras(VacunaEnum vacuna, Especie especie, int numeroDosis) {
+        if (numeroDosis < 1) {
+            throw new IllegalArgumentException("El número de dosis debe ser mayor a 0");
+        }
+        Map<Especie, Serie> porEspecie = reglas.get(vacuna);
+        if (porEspecie == null) {
+            return Optional.of(REFUERZO_ANUAL);
+        }
+        Serie serie = porEspecie.get(especie);
+        if (serie == null) {
+            serie = porEspecie.get(Especie.OTRA);
+        }
+        return serie != null ? serie.intervaloTras(numeroDosis) : Optional.of(REFUERZO_ANUAL);
+    }
+
+    /**
+     * Fecha en que toca la siguiente dosis.
+     *
+     * @return la fecha, o null si la fecha de aplicación es null o la vacuna ya no se repite
+     */
+    public LocalDate proximaDosis(VacunaEnum vacuna, Especie especie, int numeroDosis, LocalDate fechaAplicacion) {
+        if (fechaAplicacion == null) {
+            return null;
+        }
+        return intervaloTras(vacuna, especie, numeroDosis).map(fechaAplicacion::plus).orElse(null);
+    }
+
+    /**
+     * Construye las reglas del calendario.
+     */
+    public static final class Constructor {
+
+        private final Map<VacunaEnum, Map<Especie, Serie>> reglas = new EnumMap<>(VacunaEnum.class);
+
+        private Constructor() {
+        }
+
+        /**
+         * Agrega la regla de una vacuna para una especie.
+         *
+         * @param vacuna vacuna
+         * @param especie especie ({@link Especie#OTRA} aplica a las que no tengan regla propia)
+         * @param refuerzo intervalo tras las dosis posteriores a la serie (null si no se repite)
+         * @param iniciales intervalo tras la 1a, 2a, ... dosis de la serie inicial
+         * @return este constructor
+         */
+        public Constructor serie(VacunaEnum vacuna, Especie especie, Period refuerzo, Period... iniciales) {
+            if (vacuna == null || especie == null) {
+                throw new IllegalArgumentException("La vacuna y la especie son obligatorias");
+            }
+            reglas.computeIfAbsent(vacuna, v -> new EnumMap<>(Especie.class))
+                    .put(especie, new Serie(List.of(iniciales), refuerzo));
+            return this;
+        }
+
+        /**
+         * @return el calendario; las reglas agregadas después no lo modifican
+         */
+        public CalendarioVacunacion construir() {
+            Map<VacunaEnum, Map<Especie, Serie>> copia = new EnumMap<>(VacunaEnum.class);
+            reglas.forEach((vacuna, porEspecie) ->
+                    copia.put(vacuna, Collections.unmodifiableMap(new EnumMap<>(porEspecie))));
+            return new CalendarioVacunacion(Collections.unmodifiableMap(copia));
+        }
+    }
+}
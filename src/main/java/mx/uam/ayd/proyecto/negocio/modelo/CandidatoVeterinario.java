@@ -0,0 +1,55 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Veterinario propuesto para una cita, con su primer horario libre y el puntaje con el
+ * que se ordenó frente a los demás.
+ */
+public class CandidatoVeterinario {
+
+    private final Veterinario veterinario;
+    private final LocalDateTime horario;
+    private final boolean especialista;
+    private final double carga;
+    private final double puntaje;
+
+    public CandidatoVeterinario(Veterinario veterinario, LocalDateTime horario, boolean especialista,
+                                double carga, double puntaje) {
+        this.veterinario = veterinario;
+        this.horario = horario;
+        this.especialista = especialista;
+        this.carga = carga;
+        this.puntaje = puntaje;
+    }
+
+    public Veterinario getVeterinario() {
+        return veterinario;
+    }
+
+    /** Primer inicio libre del veterinario dentro de la ventana pedida. */
+    public LocalDateTime getHorario() {
+        return horario;
+    }
+
+    /** Indica si el veterinario se especializa en el tipo de cita. */
+    public boolean isEspecialista() {
+        return especialista;
+    }
+
+    /** Fracción de la jornada de la ventana que ya tiene ocupada (0 a 1). */
+    public double getCarga() {
+        return carga;
+    }
+
+    /** Puntaje de la asignación; mayor es mejor. */
+    public double getPuntaje() {
+        return puntaje;
+    }
+
+    @Override
+    public String toString() {
+        return veterinario.getNombreCompleto() + " - " + horario.toLocalTime()
+                + (especialista ? " (especialista)" : "");
+    }
+}
@@ -0,0 +1,163 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrito de una venta en captura, guardado solo en memoria.
+ *
+ * <p>Los detalles se indexan por ID de producto, así que buscar, agregar, modificar
+ * o quitar un producto cuesta O(1) sin importar el tamaño del carrito; el orden de
+ * captura se conserva para mostrarlo en la tabla. El total se lleva en centavos y se
+ * ajusta con cada cambio, sin volver a sumar todos los detalles.</p>
+ *
+ * <p>Cada carrito pertenece a una sesión de venta; los métodos están sincronizados
+ * para que dos ventanas que comparten sesión no lo dejen inconsistente.</p>
+ */
+public class CarritoVenta {
+
+    private final String idSesion;
+    private final Venta venta;
+    private final Cliente cliente;
+    private final LocalDateTime inicio;
+    private final Map<Long, DetalleVenta> detalles = new LinkedHashMap<>();
+    private long totalCentavos;
+    private boolean estacionado;
+
+    /**
+     * @param idSesion identificador de la sesión de venta
+     * @param venta venta que se está capturando
+     * @param cliente cliente de la venta, o null para público general
+     */
+    public CarritoVenta(String idSesion, Venta venta, Cliente cliente) {
+        this.idSesion = idSesion;
+        this.venta = venta;
+        this.cliente = cliente;
+        this.inicio = LocalDateTime.now();
+    }
+
+    public String getIdSesion() {
+        return idSesion;
+    }
+
+    public Venta getVenta() {
+        return venta;
+    }
+
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public synchronized boolean isEstacionado() {
+        return estacionado;
+    }
+
+    public synchronized void setEstacionado(boolean estacionado) {
+        this.estacionado = estacionado;
+    }
+
+    /**
+     * Indica si el producto ya está en el carrito.
+     */
+    public synchronized boolean contiene(Long idProducto) {
+        return detalles.containsKey(idProducto);
+    }
+
+    /**
+     * @return el detalle del producto, o null si no está en el carrito
+     */
+    public synchronized DetalleVenta buscar(Long idProducto) {
+        return detalles.get(idProducto);
+    }
+
+    /**
+     * Agrega un detalle al carrito.
+     *
+     * @throws IllegalStateException si el producto ya está en el carrito
+     */
+    public synchronized void agregar(DetalleVenta detalle) {
+        Long idProducto = detalle.getProducto() != null ? detalle.getProducto().getIdProducto() : null;
+        if (detalles.putIfAbsent(idProducto, detalle) != null) {
+            throw new IllegalStateException("El producto ya esta en la tabla");
+        }
+        totalCentavos += Dinero.centavos(detalle.getSubtotal());
+    }
+
+    /**
+     * Cambia la cantidad de un producto y recalcula su subtotal con el precio y descuento guardados.
+     * Con cantidad 0 el producto se quita del carrito.
+     *
+     * @return el detalle modificado, o null si se quitó
+     * @throws IllegalArgumentException si el producto no está en el carrito o la cantidad es negativa
+     */
+    public synchronized DetalleVenta cambiarCantidad(Long idProducto, int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa");
+        }
+        DetalleVenta detalle = detalles.get(idProducto);
+        if (detalle == null) {
+            throw new IllegalArgumentException("El producto no esta en la venta");
+        }
+        if (cantidad == 0) {
+            quitar(idProducto);
+            return null;
+        }
+        totalCentavos -= Dinero.centavos(detalle.getSubtotal());
+        detalle.setCantidadVendida(cantidad);
+        detalle.recalcularSubtotal();
+        totalCentavos += Dinero.centavos(detalle.getSubtotal());
+        return detalle;
+    }
+
+    /**
+     * Quita un producto del carrito.
+     *
+     * @return el detalle quitado, o null si no estaba
+     */
+    public synchronized DetalleVenta quitar(Long idProducto) {
+        DetalleVenta detalle = detalles.remove(idProducto);
+        if (detalle != null) {
+            totalCentavos -= Dinero.centavos(detalle.getSubtotal());
+        }
+        return detalle;
+    }
+
+    /**
+     * @return copia de los detalles en el orden en que se capturaron
+     */
+    public synchronized List<DetalleVenta> getDetalles() {
+        return new ArrayList<>(detalles.values());
+    }
+
+    public synchronized int tamano() {
+        return detalles.size();
+    }
+
+    public synchronized boolean isVacio() {
+        return detalles.isEmpty();
+    }
+
+    public synchronized long getTotalCentavos() {
+        return totalCentavos;
+    }
+
+    /**
+     * @return total del carrito en pesos
+     */
+    public synchronized double getTotal() {
+        return Dinero.pesos(totalCentavos);
+    }
+
+    @Override
+    public String toString() {
+        String nombre = cliente != null && cliente.getNombreCompleto() != null ? cliente.getNombreCompleto() : "Público general";
+        return nombre + " - " + tamano() + " productos - $" + getTotal();
+    }
+}
@@ -4,10 +4,18 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "cartillas")
+@Table(name = "cartillas", indexes = {
+        // Recordatorios y vacunas vencidas filtran por la fecha de la próxima dosis
+        @Index(name = "idx_cartilla_proxima_dosis", columnList = "proxima_dosis"),
+        // Serie de dosis de una vacuna de la mascota
+        @Index(name = "idx_cartilla_serie", columnList = "mascota_id, vacuna, fecha_aplicacion"),
+        // Vacunas aplicadas por un veterinario
+        @Index(name = "idx_cartilla_veterinario", columnList = "veterinario_id, fecha_aplicacion")
+})
 public class Cartilla {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cartillas_seq")
+    @SequenceGenerator(name = "cartillas_seq", sequenceName = "cartillas_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -17,11 +25,17 @@ public class Cartilla {
     @Column(name = "fecha_aplicacion", nullable = false)
     private LocalDate fechaAplicacion;
 
+    // Solo la última dosis de cada serie tiene próxima dosis; en las anteriores ya se aplicó
     @Column(name = "proxima_dosis")
     private LocalDate proximaDosis;
 
-    @Column(nullable = false)
-    private String veterinario;
+    // Lugar de la dosis en la serie de la vacuna para la mascota (1 es la primera)
+    @Column(name = "numero_dosis")
+    private Integer numeroDosis;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "veterinario_id")
+    private Veterinario veterinario;
 
     private Long lote;
 
@@ -33,7 +47,7 @@ public class Cartilla {
     // Constructor vacío requerido por JPA
     public Cartilla() {}
 
-    public Cartilla(VacunaEnum vacuna, LocalDate fechaAplicacion, String veterinario,
+    public Cartilla(VacunaEnum vacuna, LocalDate fechaAplicacion, Veterinario veterinario,
                     Long lote, String observaciones, Long mascotaId) {
         this.vacuna = vacuna;
         this.fechaAplicacion = fechaAplicacion;
@@ -42,10 +56,23 @@ public class Cartilla {
         this.observaciones = observaciones;
         this.mascotaId = mascotaId;
 
-        // Calcular próxima dosis (simplificado - siempre 12 meses)
-        if (fechaAplicacion != null) {
-            this.proximaDosis = fechaAplicacion.plusMonths(12);
-        }
+        // Provisional como primera dosis; ServicioCartilla la recalcula con la especie y la serie
+        this.numeroDosis = 1;
+        this.proximaDosis = CalendarioVacunacion.predeterminado()
+                .proximaDosis(vacuna, Especie.OTRA, 1, fechaAplicacion);
+    }
+
+    /**
+     * Asigna el número de dosis y calcula la próxima con el calendario.
+     *
+     * @param calendario reglas de vacunación
+     * @param especie especie de la mascota
+     * @param numeroDosis lugar de la dosis en la serie
+     * @param ultima si es la última dosis aplicada de la serie
+     */
+    public void programar(CalendarioVacunacion calendario, Especie especie, int numeroDosis, boolean ultima) {
+        this.numeroDosis = numeroDosis;
+        this.proximaDosis = ultima ? calendario.proximaDosis(vacuna, especie, numeroDosis, fechaAplicacion) : null;
     }
 
     // Getters y Setters
@@ -60,16 +87,16 @@ public class Cartilla {
     public LocalDate getFechaAplicacion() { return fechaAplicacion; }
     public void setFechaAplicacion(LocalDate fechaAplicacion) {
         this.fechaAplicacion = fechaAplicacion;
-        if (fechaAplicacion != null) {
-            this.proximaDosis = fechaAplicacion.plusMonths(12);
-        }
     }
 
     public LocalDate getProximaDosis() { return proximaDosis; }
     public void setProximaDosis(LocalDate proximaDosis) { this.proximaDosis = proximaDosis; }
 
-    public String getVeterinario() { return veterinario; }
-    public void setVeterinario(String veterinario) { this.veterinario = veterinario; }
+    public Integer getNumeroDosis() { return numeroDosis; }
+    public void setNumeroDosis(Integer numeroDosis) { this.numeroDosis = numeroDosis; }
+
+    public Veterinario getVeterinario() { return veterinario; }
+    public void setVeterinario(Veterinario veterinario) { this.veterinario = veterinario; }
 
     public Long getLote() { return lote; }
     public void setLote(Long lote) { this.lote = lote; }
@@ -87,7 +114,8 @@ public class Cartilla {
                 ", vacuna=" + vacuna +
                 ", fechaAplicacion=" + fechaAplicacion +
                 ", proximaDosis=" + proximaDosis +
-                ", veterinario='" + veterinario + '\'' +
+                ", numeroDosis=" + numeroDosis +
+                ", veterinario=" + (veterinario != null ? veterinario.getIdVeterinario() : null) +
                 ", lote=" + lote +
                 ", mascotaId=" + mascotaId +
                 '}';
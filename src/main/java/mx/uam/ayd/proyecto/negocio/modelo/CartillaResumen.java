@@ -0,0 +1,25 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de solo lectura con las columnas de la tabla de vacunas de la cartilla.
+ * El nombre del veterinario se obtiene en la misma consulta con un LEFT JOIN.
+ */
+public interface CartillaResumen {
+
+    Long getId();
+
+    VacunaEnum getVacuna();
+
+    LocalDate getFechaAplicacion();
+
+    LocalDate getProximaDosis();
+
+    /** Nombre del veterinario que aplicó la vacuna. */
+    String getNombreVeterinario();
+
+    Long getLote();
+
+    String getObservaciones();
+}
@@ -24,7 +24,8 @@ public class Cirugia {
 	 * Se genera automáticamente en la base de datos.
 	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cirugia_seq")
+	@SequenceGenerator(name = "cirugia_seq", sequenceName = "cirugia_seq", allocationSize = 50)
 	private Long idCirugia;
 
 	// Datos de la Cirugía
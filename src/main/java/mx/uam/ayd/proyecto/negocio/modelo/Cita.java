@@ -1,33 +1,57 @@
 package mx.uam.ayd.proyecto.negocio.modelo;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 // Importacion clave de Lombok
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * Entidad de negocio Cita, para registrar y gestionar las agendas de citas.
  */
 
 @Entity
+@Table(indexes = {
+        // Citas de un cliente o de un paciente en orden cronológico, sin recorrer la tabla
+        @Index(name = "idx_cita_cliente", columnList = "cliente_id, fecha_hora"),
+        @Index(name = "idx_cita_mascota", columnList = "mascota_id, fecha_hora"),
+        // Agenda del día de un veterinario
+        @Index(name = "idx_cita_veterinario", columnList = "veterinario_id, fecha_hora"),
+        @Index(name = "idx_cita_serie", columnList = "id_serie"),
+        // Citas pendientes en orden cronológico, para el barrido de recordatorios
+        @Index(name = "idx_cita_pendiente", columnList = "atendida, fecha_hora")
+})
 @Data // Genera automáticamente todos los getters, setters, equals, hashCode y toString.
 public class Cita {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cita_seq")
+    @SequenceGenerator(name = "cita_seq", sequenceName = "cita_seq", allocationSize = 50)
     private Long idCita;
 
     private LocalDateTime fechaHora; // Para la validación de solapamiento
 
+    // Fin de la cita según la duración de su tipo y veterinario
+    private LocalDateTime fechaHoraFin;
+
     @Enumerated(EnumType.STRING)
     private TipoCita tipo;
 
@@ -41,9 +65,33 @@ public class Cita {
     @JoinColumn(name = "veterinario_id")
     private Veterinario veterinario; // Relación con la nueva entidad
 
+    // Cliente que solicita la cita, resuelto por su teléfono o correo. Es null si el
+    // contacto no corresponde a un cliente registrado.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Cliente cliente;
+
+    // Paciente de la cita, cuando se conoce
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mascota_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Mascota mascota;
+
     private String motivo; // Campo de texto para el motivo de la cita
     private String notas;  // Campo de texto para notas/observaciones
 
+    // Identificador común de las citas agendadas juntas como serie (null si es una cita suelta)
+    @Column(name = "id_serie", length = 36)
+    private String idSerie;
+
+    // Momento en que se envió el recordatorio; null si aún no se envía o la cita cambió de horario
+    private LocalDateTime recordatorioEnviado;
+
     // Nota: No es necesario escribir los getters y setters aquí porque @Data los genera.
 
     @Override
@@ -0,0 +1,25 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura con las columnas de la tabla de citas.
+ * El nombre del veterinario se obtiene en la misma consulta con un LEFT JOIN.
+ */
+public interface CitaResumen {
+
+    Long getIdCita();
+
+    LocalDateTime getFechaHora();
+
+    TipoCita getTipo();
+
+    String getNombreSolicitante();
+
+    String getContacto();
+
+    boolean isAtendida();
+
+    /** Nombre del veterinario asignado, o null si no tiene. */
+    String getNombreVeterinario();
+}
@@ -4,8 +4,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 
@@ -14,6 +17,7 @@ import java.util.List;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -21,10 +25,12 @@ import lombok.ToString;
 
 @Entity
 @Data
+@NamedEntityGraph(name = "Cliente.conMembresia", attributeNodes = @NamedAttributeNode("membresia"))
 public class Cliente {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+    @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50)
     private Long idCliente;
 
     @Column(nullable = false, length = 100)
@@ -39,10 +45,14 @@ public class Cliente {
     @Column(nullable = false)
     private String direccion;
 
-    @Column
+    // Solo se escribe al crear el cliente; después cambia con el incremento atómico
+    // de ClienteRepository, para que guardar la entidad no pise ventas concurrentes
+    @Column(updatable = false)
+    @Convert(converter = ConvertidorDinero.class)
     private Double montoAcumulado;
 
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // Se carga con el grafo "Cliente.conMembresia" en las listas de clientes y en la venta
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "membresia_id", nullable = true)
     @EqualsAndHashCode.Exclude  //Agregue esto para evitar recursion #Ad
     @ToString.Exclude  
@@ -0,0 +1,23 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+/**
+ * Proyección de solo lectura con las columnas de la tabla de clientes.
+ * El tipo de membresía se obtiene en la misma consulta con un LEFT JOIN.
+ */
+public interface ClienteResumen {
+
+    Long getIdCliente();
+
+    String getNombreCompleto();
+
+    String getTelefono();
+
+    String getCorreoElectronico();
+
+    String getDireccion();
+
+    Double getMontoAcumulado();
+
+    /** Tipo de la membresía del cliente, o null si no tiene. */
+    TipoMembresia getTipoMembresia();
+}
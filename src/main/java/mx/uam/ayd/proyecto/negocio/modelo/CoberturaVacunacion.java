@@ -0,0 +1,70 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * @file CoberturaVacunacion.java
+ * @brief Conteo mantenido de mascotas vacunadas por especie y vacuna.
+ *
+ * Cada fila dice cuántas mascotas de la especie tienen al menos una dosis de la
+ * vacuna y cuántas están al corriente: su última dosis no deja pendiente o la
+ * pendiente todavía no vence. Los registros de la cartilla la ajustan con un
+ * UPDATE atómico; la conciliación nocturna la recuenta desde las cartillas.
+ *
+ * La llave es la pareja (especie, vacuna).
+ */
+@Data
+@Entity
+@IdClass(CoberturaVacunacion.Llave.class)
+@Table(name = "cobertura_vacunacion")
+public class CoberturaVacunacion {
+
+    /** Especie de las mascotas contadas. */
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Especie especie;
+
+    /** Vacuna contada. */
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private VacunaEnum vacuna;
+
+    /** Mascotas con al menos una dosis de la vacuna. */
+    @Column(nullable = false)
+    private int vacunadas;
+
+    /** Mascotas cuya última dosis sigue vigente. */
+    @Column(name = "al_corriente", nullable = false)
+    private int alCorriente;
+
+    /** Día de la última conciliación; lo vencido después se descuenta en la siguiente. */
+    @Column(name = "fecha_corte")
+    private LocalDate fechaCorte;
+
+    /**
+     * @param poblacion mascotas registradas de la especie
+     * @return porcentaje de la población al corriente (0 si no hay mascotas)
+     */
+    public double porcentajeAlCorriente(int poblacion) {
+        return poblacion <= 0 ? 0 : Math.min(100.0, alCorriente * 100.0 / poblacion);
+    }
+
+    /**
+     * Llave compuesta de la cobertura.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Llave implements Serializable {
+        private Especie especie;
+        private VacunaEnum vacuna;
+    }
+}
@@ -0,0 +1,12 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+/**
+ * Proyección de solo lectura con el código de barras de un producto.
+ * Sirve para llenar el índice en memoria sin cargar los productos completos.
+ */
+public interface CodigoBarrasProducto {
+
+    Long getIdProducto();
+
+    String getCodigoBarras();
+}
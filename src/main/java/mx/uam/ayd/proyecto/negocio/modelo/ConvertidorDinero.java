@@ -0,0 +1,22 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda los importes en pesos como un entero de centavos (columna BIGINT),
+ * para que la base de datos los sume de forma exacta.
+ */
+@Converter
+public class ConvertidorDinero implements AttributeConverter<Double, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Double pesos) {
+        return pesos == null ? null : Dinero.centavos(pesos);
+    }
+
+    @Override
+    public Double convertToEntityAttribute(Long centavos) {
+        return centavos == null ? null : Dinero.pesos(centavos);
+    }
+}
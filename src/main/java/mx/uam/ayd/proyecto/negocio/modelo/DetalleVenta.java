@@ -7,20 +7,39 @@ import java.util.List;
 import jakarta.persistence.*;
 
 /**
- * Entidad de negocio Grupo
+ * Entidad de negocio DetalleVenta
+ *
+ * Guarda una copia del precio unitario y del descuento aplicados al momento de la venta,
+ * de modo que un cambio de precio posterior no altera los importes ya vendidos. También
+ * guarda la fecha de la venta para que los reportes agreguen sobre esta tabla sin JOIN,
+ * usando el índice (fecha, producto).
  *
  * @author humbertocervantes
  *
  */
 @Entity
+@Table(indexes = @Index(name = "idx_detalle_venta_fecha_producto", columnList = "fecha, producto_id"))
 public class DetalleVenta {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_venta_seq")
+    @SequenceGenerator(name = "detalle_venta_seq", sequenceName = "detalle_venta_seq", allocationSize = 50)
     private long idDetalleVenta;
 
     private int cantidadVendida;
+
+    @Convert(converter = ConvertidorDinero.class)
     private double subtotal;
 
+    /** Precio de lista del producto al momento de la venta. */
+    @Convert(converter = ConvertidorDinero.class)
+    private Double precioUnitario;
+
+    /** Fracción de descuento aplicada por membresía (0.10 = 10 %). */
+    private Double descuento;
+
+    /** Fecha de la venta, copiada para los reportes. */
+    private LocalDate fecha;
+
     @ManyToOne
     @JoinColumn(name = "venta_id")
     private Venta venta;
@@ -65,6 +84,51 @@ public class DetalleVenta {
 
     public void setSubtotal(double subtotal) {this.subtotal = subtotal;}
 
+    public Double getPrecioUnitario() {
+        return precioUnitario;
+    }
+
+    public void setPrecioUnitario(Double precioUnitario) {
+        this.precioUnitario = precioUnitario;
+    }
+
+    public Double getDescuento() {
+        return descuento;
+    }
+
+    public void setDescuento(Double descuento) {
+        this.descuento = descuento;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    /**
+     * Calcula el subtotal con el precio y el descuento guardados en el detalle.
+     * Se usa al cambiar la cantidad para que el descuento de la membresía se conserve.
+     * El cálculo se hace en centavos y el resultado queda redondeado al centavo.
+     */
+    public void recalcularSubtotal() {
+        double precio = precioUnitario != null ? precioUnitario : (producto != null ? producto.getPrecio() : 0.0);
+        double tasa = descuento != null ? descuento : 0.0;
+        this.subtotal = Dinero.pesos(Dinero.conDescuento(Dinero.importe(Dinero.centavos(precio), cantidadVendida), tasa));
+    }
+
+    /**
+     * Copia la fecha de la venta antes de guardar el detalle.
+     */
+    @PrePersist
+    void copiarFechaVenta() {
+        if (fecha == null && venta != null) {
+            fecha = venta.getFecha();
+        }
+    }
+
     public void setVenta(Venta venta){
         if(venta == null){
             throw new IllegalArgumentException("La venta no puede ser null");
@@ -89,6 +153,6 @@ public class DetalleVenta {
 
     @Override
     public String toString() {
-        return "DetalleVenta [idDetalleVenta=" + idDetalleVenta + ", cantidadVendida=" + cantidadVendida + ", subtotal=" + subtotal + "idVenta=" + (venta != null ? venta.getIdVenta() : "null") + "]";
+        return "DetalleVenta [idDetalleVenta=" + idDetalleVenta + ", cantidadVendida=" + cantidadVendida + ", subtotal=" + subtotal + ", precioUnitario=" + precioUnitario + ", descuento=" + descuento + ", idVenta=" + (venta != null ? venta.getIdVenta() : "null") + "]";
     }
 }
\ No newline at end of file
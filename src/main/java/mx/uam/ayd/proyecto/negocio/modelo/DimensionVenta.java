@@ -0,0 +1,57 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+/**
+ * Dimensiones por las que se puede agrupar el cubo de ventas.
+ * Las primeras cuatro son periodos de tiempo; a lo más se usa una por consulta.
+ */
+public enum DimensionVenta {
+    DIA("Día", true),
+    SEMANA("Semana", true),
+    MES("Mes", true),
+    TRIMESTRE("Trimestre", true),
+    PRODUCTO("Producto", false),
+    TIPO_PRODUCTO("Tipo de producto", false),
+    MARCA("Marca", false),
+    MEMBRESIA("Membresía", false),
+    CLIENTE("Cliente", false);
+
+    private final String etiqueta;
+    private final boolean temporal;
+
+    DimensionVenta(String etiqueta, boolean temporal) {
+        this.etiqueta = etiqueta;
+        this.temporal = temporal;
+    }
+
+    public String getEtiqueta() {
+        return etiqueta;
+    }
+
+    public boolean isTemporal() {
+        return temporal;
+    }
+
+    /**
+     * Traduce la periodicidad seleccionada en la ventana de reportes.
+     *
+     * @param periodicidad "Semanal", "Mensual", "Trimestral" o cualquier otro valor para diario
+     * @return la dimensión de tiempo correspondiente
+     */
+    public static DimensionVenta dePeriodicidad(String periodicidad) {
+        if ("Semanal".equals(periodicidad)) {
+            return SEMANA;
+        }
+        if ("Mensual".equals(periodicidad)) {
+            return MES;
+        }
+        if ("Trimestral".equals(periodicidad)) {
+            return TRIMESTRE;
+        }
+        return DIA;
+    }
+
+    @Override
+    public String toString() {
+        return etiqueta;
+    }
+}
@@ -0,0 +1,59 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+/**
+ * Operaciones con importes en centavos.
+ *
+ * <p>Los importes (precios, subtotales, totales y montos acumulados) se guardan en la base
+ * de datos como enteros de centavos mediante {@link ConvertidorDinero}. Las sumas y los
+ * descuentos se hacen con {@code long}, de modo que los totales son exactos y no se crean
+ * objetos; solo se convierte a pesos ({@code double}) para mostrar o guardar el resultado.</p>
+ */
+public final class Dinero {
+
+    private Dinero() {
+    }
+
+    /**
+     * Convierte pesos a centavos, redondeando al centavo más cercano.
+     */
+    public static long centavos(double pesos) {
+        return Math.round(pesos * 100);
+    }
+
+    /**
+     * Convierte centavos a pesos.
+     */
+    public static double pesos(long centavos) {
+        return centavos / 100.0;
+    }
+
+    /**
+     * Importe de varias unidades de un mismo precio.
+     *
+     * @throws ArithmeticException si el importe no cabe en un long
+     */
+    public static long importe(long precioCentavos, int cantidad) {
+        return Math.multiplyExact(precioCentavos, cantidad);
+    }
+
+    /**
+     * Aplica un descuento a un importe, redondeando al centavo más cercano.
+     *
+     * @param centavos importe sin descuento
+     * @param descuento fracción a descontar (0.10 = 10 %)
+     */
+    public static long conDescuento(long centavos, double descuento) {
+        return descuento == 0 ? centavos : Math.round(centavos * (1 - descuento));
+    }
+
+    /**
+     * Suma en centavos los subtotales de los detalles de una venta.
+     */
+    public static long totalCentavos(Iterable<DetalleVenta> detallesVenta) {
+        long total = 0;
+        for (DetalleVenta detalle : detallesVenta) {
+            total = Math.addExact(total, centavos(detalle.getSubtotal()));
+        }
+        return total;
+    }
+}
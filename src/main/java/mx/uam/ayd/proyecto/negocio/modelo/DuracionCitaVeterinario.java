@@ -0,0 +1,56 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * @file DuracionCitaVeterinario.java
+ * @brief Duración propia de un veterinario para un tipo de cita.
+ *
+ * Reemplaza la duración predeterminada de {@link TipoCita} solo para ese veterinario;
+ * por ejemplo, un cirujano que programa sus cirugías de 90 minutos.
+ *
+ * La llave es la pareja (veterinario, tipo).
+ */
+@Data
+@Entity
+@IdClass(DuracionCitaVeterinario.Llave.class)
+@Table(name = "duracion_cita_veterinario")
+public class DuracionCitaVeterinario {
+
+    /** ID del veterinario. */
+    @Id
+    @Column(name = "id_veterinario")
+    private Long idVeterinario;
+
+    /** Tipo de cita. */
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TipoCita tipo;
+
+    /** Duración de la cita, en minutos. */
+    @Column(nullable = false)
+    private int minutos;
+
+    /**
+     * Llave compuesta de la duración.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Llave implements Serializable {
+        private Long idVeterinario;
+        private TipoCita tipo;
+    }
+}
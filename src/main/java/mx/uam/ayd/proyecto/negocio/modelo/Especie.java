@@ -0,0 +1,39 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Especies que distingue el calendario de vacunación.
+ *
+ * La especie de la mascota se captura como texto libre, así que se reconoce por nombre
+ * ("Perro", "canino", "Gato", "felino"...) y lo demás cae en {@link #OTRA}.
+ */
+public enum Especie {
+
+    PERRO,
+    GATO,
+    OTRA;
+
+    /**
+     * Reconoce la especie capturada en la mascota.
+     *
+     * @param especie texto de la mascota (puede ser null)
+     * @return la especie, {@link #OTRA} si no se reconoce
+     */
+    public static Especie de(String especie) {
+        if (especie == null) {
+            return OTRA;
+        }
+        String texto = Normalizer.normalize(especie.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        if (texto.startsWith("perr") || texto.startsWith("can") || texto.startsWith("cachorr")) {
+            return PERRO;
+        }
+        if (texto.startsWith("gat") || texto.startsWith("felin")) {
+            return GATO;
+        }
+        return OTRA;
+    }
+}
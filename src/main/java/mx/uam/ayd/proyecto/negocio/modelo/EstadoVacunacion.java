@@ -0,0 +1,48 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Situación de una mascota respecto a una vacuna, según la última dosis de su serie.
+ */
+public enum EstadoVacunacion {
+
+    /** No tiene ninguna dosis de la vacuna. */
+    SIN_DOSIS,
+    /** La próxima dosis ya venció. */
+    VENCIDA,
+    /** La última dosis no deja pendiente o la pendiente aún no vence. */
+    AL_CORRIENTE;
+
+    /**
+     * @param ultimaDosis última dosis de la serie (null si no tiene)
+     * @param hoy día de referencia
+     * @return el estado de la mascota
+     */
+    public static EstadoVacunacion de(Cartilla ultimaDosis, LocalDate hoy) {
+        return ultimaDosis == null ? SIN_DOSIS : deVacunada(ultimaDosis.getProximaDosis(), hoy);
+    }
+
+    /**
+     * @param proximaDosis próxima dosis de la última aplicada (null si la serie terminó)
+     * @param hoy día de referencia
+     * @return {@link #AL_CORRIENTE} o {@link #VENCIDA}
+     */
+    public static EstadoVacunacion deVacunada(LocalDate proximaDosis, LocalDate hoy) {
+        return proximaDosis == null || !proximaDosis.isBefore(hoy) ? AL_CORRIENTE : VENCIDA;
+    }
+
+    /**
+     * @return 1 si la mascota cuenta como vacunada
+     */
+    public int vacunada() {
+        return this == SIN_DOSIS ? 0 : 1;
+    }
+
+    /**
+     * @return 1 si la mascota cuenta como al corriente
+     */
+    public int alCorriente() {
+        return this == AL_CORRIENTE ? 1 : 0;
+    }
+}
@@ -0,0 +1,49 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * @file EventoHistorial.java
+ * @brief Entrada de la línea de tiempo clínica de una mascota.
+ *
+ * Cada escritura clínica (cirugía, vacuna, hospedaje, registro diario, cita)
+ * agrega una fila a esta tabla. Las filas nunca se modifican: una corrección
+ * o eliminación se registra como un evento nuevo. El índice por
+ * (id_mascota, fecha) permite servir el historial paginado con una sola consulta;
+ * el de (tipo, id_origen) permite encontrar al arrancar los registros sin evento.
+ */
+@Data
+@Entity
+@Table(name = "eventos_historial", indexes = {
+        @Index(name = "idx_evento_mascota_fecha", columnList = "id_mascota, fecha"),
+        @Index(name = "idx_evento_origen", columnList = "tipo, id_origen")})
+public class EventoHistorial {
+
+    /** Identificador único del evento. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_historial_seq")
+    @SequenceGenerator(name = "eventos_historial_seq", sequenceName = "eventos_historial_seq", allocationSize = 50)
+    private Long idEvento;
+
+    /** Mascota a la que pertenece el evento. */
+    @Column(name = "id_mascota", nullable = false)
+    private Long idMascota;
+
+    /** Fecha clínica del evento (no la fecha de captura). */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    /** Tipo de evento. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEventoHistorial tipo;
+
+    /** Identificador del registro de origen (cirugía, cartilla, hospedaje, etc.). */
+    private Long idOrigen;
+
+    /** Texto breve que se muestra en la línea de tiempo. */
+    @Column(length = 300)
+    private String resumen;
+}
@@ -0,0 +1,25 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+
+/**
+ * Filtros para consultar el cubo de ventas. Un campo null no filtra.
+ */
+@Data
+public class FiltroVentas {
+
+    private LocalDate desde;
+    private LocalDate hasta;
+    private TipoProducto tipoProducto;
+    private MarcaProducto marcaProducto;
+    private TipoMembresia tipoMembresia;
+    private Long idCliente;
+
+    /**
+     * Indica si se filtran las ventas sin membresía cuando
+     * {@link #tipoMembresia} es null.
+     */
+    private boolean soloSinMembresia;
+}
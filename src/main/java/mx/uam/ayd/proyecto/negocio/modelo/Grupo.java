@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 
@@ -20,7 +21,8 @@ import jakarta.persistence.OneToMany;
 @Entity
 public class Grupo {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grupo_seq")
+	@SequenceGenerator(name = "grupo_seq", sequenceName = "grupo_seq", allocationSize = 50)
 	private long idGrupo;
 
 	private String nombre;
@@ -0,0 +1,112 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Fila plana de una venta (un detalle) con todas sus dimensiones,
+ * usada para cargar el cubo de ventas.
+ */
+public class HechoVenta {
+
+    private final long idDetalleVenta;
+    private final LocalDate fecha;
+    private final Long idProducto;
+    private final String nombreProducto;
+    private final TipoProducto tipoProducto;
+    private final MarcaProducto marcaProducto;
+    private final Long idCliente;
+    private final String nombreCliente;
+    private final TipoMembresia tipoMembresia;
+    private final long cantidad;
+    private final double total;
+
+    // Para la consulta de carga del cubo
+    public HechoVenta(Long idDetalleVenta, LocalDate fecha, Long idProducto, String nombreProducto,
+                      TipoProducto tipoProducto, MarcaProducto marcaProducto, Long idCliente,
+                      String nombreCliente, TipoMembresia tipoMembresia, Boolean membresiaVigente,
+                      Integer cantidad, Double total) {
+        this.idDetalleVenta = idDetalleVenta != null ? idDetalleVenta : 0L;
+        this.fecha = fecha;
+        this.idProducto = idProducto;
+        this.nombreProducto = nombreProducto;
+        this.tipoProducto = tipoProducto;
+        this.marcaProducto = marcaProducto;
+        this.idCliente = idCliente;
+        this.nombreCliente = nombreCliente;
+        this.tipoMembresia = Boolean.TRUE.equals(membresiaVigente) ? tipoMembresia : null;
+        this.cantidad = cantidad != null ? cantidad : 0;
+        this.total = total != null ? total : 0.0;
+    }
+
+    /**
+     * Construye el hecho a partir de un detalle recién guardado.
+     * La membresía es la que el cliente tiene vigente, igual que en la carga del cubo.
+     *
+     * @param detalle detalle de venta con su venta y producto
+     * @return el hecho correspondiente
+     */
+    public static HechoVenta de(DetalleVenta detalle) {
+        Venta venta = detalle.getVenta();
+        Producto producto = detalle.getProducto();
+        Cliente cliente = venta != null ? venta.getCliente() : null;
+        Membresia membresia = cliente != null ? cliente.getMembresia() : null;
+
+        return new HechoVenta(
+                detalle.getIdDetalleVenta(),
+                venta != null ? venta.getFecha() : null,
+                producto.getIdProducto(),
+                producto.getNombre(),
+                producto.getTipoProducto(),
+                producto.getMarcaProducto(),
+                cliente != null ? cliente.getIdCliente() : null,
+                cliente != null ? cliente.getNombreCompleto() : null,
+                membresia != null ? membresia.getTipo() : null,
+                membresia != null && membresia.isEstado(),
+                detalle.getCantidadVendida(),
+                detalle.getSubtotal());
+    }
+
+    public long getIdDetalleVenta() {
+        return idDetalleVenta;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public Long getIdProducto() {
+        return idProducto;
+    }
+
+    public String getNombreProducto() {
+        return nombreProducto;
+    }
+
+    public TipoProducto getTipoProducto() {
+        return tipoProducto;
+    }
+
+    public MarcaProducto getMarcaProducto() {
+        return marcaProducto;
+    }
+
+    public Long getIdCliente() {
+        return idCliente;
+    }
+
+    public String getNombreCliente() {
+        return nombreCliente;
+    }
+
+    public TipoMembresia getTipoMembresia() {
+        return tipoMembresia;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+}
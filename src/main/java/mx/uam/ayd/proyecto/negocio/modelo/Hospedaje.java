@@ -4,6 +4,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -36,7 +37,8 @@ public class Hospedaje {
      */
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hospedaje_seq")
+    @SequenceGenerator(name = "hospedaje_seq", sequenceName = "hospedaje_seq", allocationSize = 50)
     private Long idHospedaje;
 
     /** Fecha en la que la mascota ingresa al hospedaje.*/
@@ -0,0 +1,15 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura con el intervalo que ocupa una cita en la agenda de su veterinario.
+ */
+public interface IntervaloCita {
+
+    Long getIdCita();
+
+    LocalDateTime getInicio();
+
+    LocalDateTime getFin();
+}
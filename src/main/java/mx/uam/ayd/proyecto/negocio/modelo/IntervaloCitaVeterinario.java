@@ -0,0 +1,10 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+/**
+ * Intervalo ocupado de una cita junto con el veterinario que la atiende, para armar la
+ * agenda de todos los veterinarios con una sola consulta.
+ */
+public interface IntervaloCitaVeterinario extends IntervaloCita {
+
+    Long getIdVeterinario();
+}
@@ -4,9 +4,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -29,6 +32,7 @@ import lombok.ToString;
 
 @Entity
 @Data
+@NamedEntityGraph(name = "Mascota.paciente", attributeNodes = @NamedAttributeNode("cliente"))
 public class Mascota {
 
     /**
@@ -37,7 +41,8 @@ public class Mascota {
      */
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mascota_seq")
+    @SequenceGenerator(name = "mascota_seq", sequenceName = "mascota_seq", allocationSize = 50)
     private Long idMascota;
 
     //Especie de la mascota( por ejemplo, perro, gato, etc.)
@@ -60,7 +65,8 @@ public class Mascota {
     private boolean vacunasVigentes;
 
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Se carga con el grafo "Mascota.paciente" al seleccionar un paciente
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
 import lombok.Data;
@@ -15,7 +16,8 @@ import lombok.ToString;
 public class Membresia {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "membresia_seq")
+    @SequenceGenerator(name = "membresia_seq", sequenceName = "membresia_seq", allocationSize = 50)
     private Long idMembresia;
 
     @Column
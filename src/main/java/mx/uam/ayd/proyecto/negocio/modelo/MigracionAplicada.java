@@ -0,0 +1,28 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * @file MigracionAplicada.java
+ * @brief Registro de una tarea de arranque que ya terminó.
+ *
+ * Las tareas que recorren tablas completas para completar datos antiguos guardan aquí
+ * que ya corrieron, para no repetir el recorrido en cada arranque.
+ */
+@Data
+@Entity
+@Table(name = "migraciones_aplicadas")
+public class MigracionAplicada {
+
+    /** Nombre de la tarea. */
+    @Id
+    @Column(length = 60)
+    private String nombre;
+
+    /** Cuándo terminó. */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
@@ -0,0 +1,43 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * @file MovimientoGasto.java
+ * @brief Movimiento del libro de gasto acumulado de un cliente.
+ *
+ * Cada venta a un cliente agrega una fila con el monto que suma a su
+ * {@code montoAcumulado}. Las filas nunca se modifican: el libro permite
+ * reconstruir o auditar el saldo a partir del último {@link SaldoGasto}.
+ */
+@Data
+@Entity
+@Table(name = "movimientos_gasto",
+        indexes = @Index(name = "idx_movimiento_gasto_cliente", columnList = "id_cliente, id_movimiento"))
+public class MovimientoGasto {
+
+    /** Identificador único del movimiento; crece con el orden de registro. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_gasto_seq")
+    @SequenceGenerator(name = "movimientos_gasto_seq", sequenceName = "movimientos_gasto_seq", allocationSize = 50)
+    @Column(name = "id_movimiento")
+    private Long idMovimiento;
+
+    /** Cliente al que se le suma el gasto. */
+    @Column(name = "id_cliente", nullable = false)
+    private Long idCliente;
+
+    /** Venta que originó el movimiento. */
+    private Long idVenta;
+
+    /** Monto sumado al gasto acumulado; se guarda en centavos. */
+    @Convert(converter = ConvertidorDinero.class)
+    @Column(nullable = false)
+    private Double monto;
+
+    /** Momento en que se registró. */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
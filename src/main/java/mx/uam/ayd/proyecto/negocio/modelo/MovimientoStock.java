@@ -0,0 +1,48 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * @file MovimientoStock.java
+ * @brief Movimiento del kardex de un producto.
+ *
+ * Cada cambio del stock de un producto agrega una fila con la cantidad que
+ * entra (positiva) o sale (negativa) y su causa. Las filas nunca se modifican:
+ * el stock de cualquier momento se reconstruye a partir del último
+ * {@link SaldoStock} anterior a ese momento.
+ */
+@Data
+@Entity
+@Table(name = "movimientos_stock",
+        indexes = @Index(name = "idx_movimiento_stock_producto", columnList = "id_producto, id_movimiento"))
+public class MovimientoStock {
+
+    /** Identificador único del movimiento; crece con el orden de registro. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_stock_seq")
+    @SequenceGenerator(name = "movimientos_stock_seq", sequenceName = "movimientos_stock_seq", allocationSize = 50)
+    @Column(name = "id_movimiento")
+    private Long idMovimiento;
+
+    /** Producto cuyo stock cambia. */
+    @Column(name = "id_producto", nullable = false)
+    private Long idProducto;
+
+    /** Causa del movimiento. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoMovimientoStock tipo;
+
+    /** Unidades que entran (positivas) o salen (negativas). */
+    @Column(nullable = false)
+    private int cantidad;
+
+    /** Venta que originó el movimiento, si aplica. */
+    private Long idVenta;
+
+    /** Momento en que se registró. */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
@@ -21,7 +21,8 @@ public class Notificacion {
 
     /** Identificador único de la notificación. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificacion_seq")
+    @SequenceGenerator(name = "notificacion_seq", sequenceName = "notificacion_seq", allocationSize = 50)
     private Long idNotificacion;
 
     /** Contenido del mensaje enviado. */
@@ -0,0 +1,45 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Una cita de una serie: su horario, y la cita guardada o el motivo por el que no se pudo agendar.
+ */
+public class OcurrenciaSerie {
+
+    private final LocalDateTime fechaHora;
+    private final String conflicto;
+    private Cita cita;
+
+    public OcurrenciaSerie(LocalDateTime fechaHora, String conflicto) {
+        this.fechaHora = fechaHora;
+        this.conflicto = conflicto;
+    }
+
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+
+    /** Motivo por el que la cita no se puede agendar, o null si está libre. */
+    public String getConflicto() {
+        return conflicto;
+    }
+
+    public boolean tieneConflicto() {
+        return conflicto != null;
+    }
+
+    /** Cita guardada; null si no se agendó. */
+    public Cita getCita() {
+        return cita;
+    }
+
+    public void setCita(Cita cita) {
+        this.cita = cita;
+    }
+
+    @Override
+    public String toString() {
+        return fechaHora + (conflicto != null ? ": " + conflicto : "");
+    }
+}
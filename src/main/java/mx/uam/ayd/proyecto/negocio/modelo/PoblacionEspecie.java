@@ -0,0 +1,27 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * @file PoblacionEspecie.java
+ * @brief Número de mascotas registradas de cada especie.
+ *
+ * Es el denominador de la cobertura de vacunación. Se ajusta al registrar o eliminar
+ * una mascota y se recuenta en la conciliación nocturna.
+ */
+@Data
+@Entity
+@Table(name = "poblacion_especie")
+public class PoblacionEspecie {
+
+    /** Especie contada. */
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Especie especie;
+
+    /** Mascotas registradas de la especie. */
+    @Column(nullable = false)
+    private int mascotas;
+}
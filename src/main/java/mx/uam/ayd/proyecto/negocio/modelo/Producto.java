@@ -5,11 +5,18 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
@@ -26,16 +33,28 @@ import jakarta.persistence.OneToMany;
  * y estar asociado a múltiples detalles de venta.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_producto_codigo_barras", columnList = "codigo_barras", unique = true))
+@NamedEntityGraph(name = "Producto.conUmbral", attributeNodes = @NamedAttributeNode("umbral"))
 public class Producto {
 
     /** @brief Identificador único del producto. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "producto_seq")
+    @SequenceGenerator(name = "producto_seq", sequenceName = "producto_seq", allocationSize = 50)
     private Long idProducto;
 
     /** @brief Nombre del producto. */
     private String nombre;
 
+    /**
+     * @brief Código de barras o SKU del producto; es único y puede faltar.
+     *
+     * El lector de la caja lo envía como texto; se busca con el índice en memoria
+     * de {@link mx.uam.ayd.proyecto.negocio.ServicioProducto}.
+     */
+    @Column(name = "codigo_barras", length = 64)
+    private String codigoBarras;
+
     /** @brief Tipo del producto (por ejemplo: medicamento, alimento, accesorio, etc.). */
     @Enumerated(EnumType.STRING)
     private TipoProducto tipoProducto;
@@ -52,10 +71,17 @@ public class Producto {
     @Enumerated(EnumType.STRING)
     private UsoVeterinario usoVeterinario;
 
-    /** @brief Precio unitario del producto. */
+    /** @brief Precio unitario del producto; se guarda en centavos. */
+    @Convert(converter = ConvertidorDinero.class)
     private double precio;
 
-    /** @brief Cantidad disponible en el inventario. */
+    /**
+     * @brief Cantidad disponible en el inventario.
+     *
+     * Es el saldo que mantiene el kardex: guardar el producto no la cambia, solo los
+     * movimientos de {@code ServicioKardex}.
+     */
+    @Column(updatable = false)
     private int cantidadStock;
 
     /** @brief Fecha de caducidad del producto (si aplica). */
@@ -66,8 +92,12 @@ public class Producto {
      *
      * Indica el nivel mínimo de stock que debe mantenerse para este producto.
      * Se elimina automáticamente cuando se elimina el producto.
+     *
+     * Al ser el lado inverso de la relación Hibernate no puede dejarla como proxy
+     * y la consulta con un SELECT por producto; las listas de productos usan el
+     * grafo "Producto.conUmbral" para traerla en el mismo JOIN.
      */
-    @OneToOne(mappedBy = "producto", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToOne(mappedBy = "producto", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private Umbral umbral;
 
     /**
@@ -129,6 +159,22 @@ public class Producto {
         this.nombre = nombre;
     }
 
+    /**
+     * @brief Obtiene el código de barras del producto.
+     * @return Código de barras, o null si no tiene.
+     */
+    public String getCodigoBarras() {
+        return codigoBarras;
+    }
+
+    /**
+     * @brief Asigna el código de barras del producto.
+     * @param codigoBarras Código de barras o SKU.
+     */
+    public void setCodigoBarras(String codigoBarras) {
+        this.codigoBarras = codigoBarras;
+    }
+
     /**
      * @brief Obtiene el tipo de producto.
      * @return Tipo de producto.
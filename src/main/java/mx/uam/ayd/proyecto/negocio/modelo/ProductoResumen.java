@@ -0,0 +1,24 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de solo lectura con las columnas de la tabla de inventario.
+ * La consulta selecciona únicamente estos campos, sin cargar la entidad ni su umbral.
+ */
+public interface ProductoResumen {
+
+    Long getIdProducto();
+
+    String getNombre();
+
+    TipoProducto getTipoProducto();
+
+    LocalDate getFechaCaducidad();
+
+    Double getPrecio();
+
+    Integer getCantidadStock();
+
+    UsoVeterinario getUsoVeterinario();
+}
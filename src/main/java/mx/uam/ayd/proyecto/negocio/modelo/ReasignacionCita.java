@@ -0,0 +1,59 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Destino propuesto para una cita de un veterinario ausente: otro veterinario el mismo
+ * día, otro día, o ninguno si nadie tiene lugar.
+ */
+public class ReasignacionCita {
+
+    private final Cita cita;
+    private final Veterinario veterinario;
+    private final LocalDateTime fechaHora;
+    private final LocalDateTime fechaHoraFin;
+
+    public ReasignacionCita(Cita cita, Veterinario veterinario, LocalDateTime fechaHora, LocalDateTime fechaHoraFin) {
+        this.cita = cita;
+        this.veterinario = veterinario;
+        this.fechaHora = fechaHora;
+        this.fechaHoraFin = fechaHoraFin;
+    }
+
+    /** Cita afectada, con su veterinario y horario originales mientras no se aplique el plan. */
+    public Cita getCita() {
+        return cita;
+    }
+
+    /** Nuevo veterinario; null si no hay lugar. */
+    public Veterinario getVeterinario() {
+        return veterinario;
+    }
+
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+
+    public LocalDateTime getFechaHoraFin() {
+        return fechaHoraFin;
+    }
+
+    public boolean tieneLugar() {
+        return veterinario != null;
+    }
+
+    /** Indica si la cita conserva su horario y solo cambia de veterinario. */
+    public boolean conservaHorario() {
+        return tieneLugar() && fechaHora.equals(cita.getFechaHora());
+    }
+
+    @Override
+    public String toString() {
+        String original = cita.getFechaHora().toLocalTime() + " " + cita.getTipo() + " (" + cita.getNombreSolicitante() + ")";
+        if (!tieneLugar()) {
+            return original + ": sin lugar";
+        }
+        return original + " -> " + veterinario.getNombreCompleto() + ", "
+                + (conservaHorario() ? "mismo horario" : fechaHora.toLocalDate() + " " + fechaHora.toLocalTime());
+    }
+}
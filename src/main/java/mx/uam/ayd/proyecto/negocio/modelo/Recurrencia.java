@@ -0,0 +1,115 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Regla de repetición de una serie de citas, al estilo de RRULE: frecuencia, cada
+ * cuántos periodos se repite y cuántas veces o hasta cuándo.
+ *
+ * Las fechas se calculan siempre desde la primera cita (la cita k cae en
+ * {@code inicio + k * intervalo}), así que una serie mensual que empieza el 31 no se
+ * corre al 28 o 30 para siempre después de febrero.
+ */
+public final class Recurrencia {
+
+    /** Máximo de citas que puede tener una serie. */
+    public static final int MAXIMO_OCURRENCIAS = 52;
+
+    /**
+     * Periodo de la repetición.
+     */
+    public enum Frecuencia {
+        DIARIA,
+        SEMANAL,
+        MENSUAL
+    }
+
+    private final Frecuencia frecuencia;
+    private final int intervalo;
+    private final int veces;
+    private final LocalDateTime hasta;
+
+    private Recurrencia(Frecuencia frecuencia, int intervalo, int veces, LocalDateTime hasta) {
+        if (frecuencia == null) {
+            throw new IllegalArgumentException("La frecuencia de la serie es obligatoria.");
+        }
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("El intervalo de la serie debe ser mayor a cero.");
+        }
+        if (hasta == null && (veces <= 0 || veces > MAXIMO_OCURRENCIAS)) {
+            throw new IllegalArgumentException("Una serie debe tener entre 1 y " + MAXIMO_OCURRENCIAS + " citas.");
+        }
+        this.frecuencia = frecuencia;
+        this.intervalo = intervalo;
+        this.veces = veces;
+        this.hasta = hasta;
+    }
+
+    /**
+     * @param frecuencia periodo de la repetición
+     * @param intervalo cada cuántos periodos (1 = cada semana, 2 = cada dos semanas...)
+     * @param veces número de citas de la serie, incluida la primera
+     */
+    public static Recurrencia veces(Frecuencia frecuencia, int intervalo, int veces) {
+        return new Recurrencia(frecuencia, intervalo, veces, null);
+    }
+
+    /**
+     * @param frecuencia periodo de la repetición
+     * @param intervalo cada cuántos periodos
+     * @param hasta última fecha en que puede caer una cita (inclusive)
+     */
+    public static Recurrencia hasta(Frecuencia frecuencia, int intervalo, LocalDateTime hasta) {
+        if (hasta == null) {
+            throw new IllegalArgumentException("La fecha final de la serie es obligatoria.");
+        }
+        return new Recurrencia(frecuencia, intervalo, 0, hasta);
+    }
+
+    /**
+     * Expande la serie a partir de la primera cita.
+     *
+     * @param inicio fecha y hora de la primera cita
+     * @return fechas y horas de todas las citas, en orden
+     * @throws IllegalArgumentException si la fecha final es anterior a la primera cita o si
+     *         la serie pasa de {@value #MAXIMO_OCURRENCIAS} citas
+     */
+    public List<LocalDateTime> expandir(LocalDateTime inicio) {
+        if (hasta != null && inicio.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha final de la serie no puede ser anterior a la primera cita.");
+        }
+        List<LocalDateTime> fechas = new ArrayList<>();
+        for (int k = 0; hasta != null || k < veces; k++) {
+            LocalDateTime fecha = sumar(inicio, (long) k * intervalo);
+            if (hasta != null && fecha.isAfter(hasta)) {
+                break;
+            }
+            if (fechas.size() == MAXIMO_OCURRENCIAS) {
+                throw new IllegalArgumentException("Una serie debe tener entre 1 y " + MAXIMO_OCURRENCIAS + " citas.");
+            }
+            fechas.add(fecha);
+        }
+        return fechas;
+    }
+
+    private LocalDateTime sumar(LocalDateTime inicio, long periodos) {
+        switch (frecuencia) {
+            case DIARIA:
+                return inicio.plusDays(periodos);
+            case SEMANAL:
+                return inicio.plusWeeks(periodos);
+            default:
+                return inicio.plusMonths(periodos);
+        }
+    }
+
+    public Frecuencia getFrecuencia() {
+        return frecuencia;
+    }
+
+    public int getIntervalo() {
+        return intervalo;
+    }
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 public class RegistroHospedaje {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registro_hospedaje_seq")
+    @SequenceGenerator(name = "registro_hospedaje_seq", sequenceName = "registro_hospedaje_seq", allocationSize = 50)
     private Long idRegistro;
 
     /** Fecha y hora del registro(se asigna al crear).*/
@@ -10,6 +10,7 @@ public class ReporteVentaDTO {
     private Long cantidadVendida;
     private Double totalVenta;
     private String fechaFormateada;
+    private String agrupacion;
 
     // Para consulta diaria
     public ReporteVentaDTO(LocalDate fecha, String nombreProducto,
@@ -43,6 +44,25 @@ public class ReporteVentaDTO {
         this.fechaFormateada = fechaFormateada;
     }
 
+    public String getAgrupacion() {
+        return agrupacion;
+    }
+
+    public void setAgrupacion(String agrupacion) {
+        this.agrupacion = agrupacion;
+    }
+
+    /**
+     * Texto que identifica la fila en tablas y gráficas: el producto,
+     * o la agrupación (marca, membresía, cliente) cuando el reporte no es por producto.
+     */
+    public String getEtiqueta() {
+        if (nombreProducto != null && agrupacion != null) {
+            return nombreProducto + " - " + agrupacion;
+        }
+        return nombreProducto != null ? nombreProducto : agrupacion;
+    }
+
     public LocalDate getFecha() {
         return fecha;
     }
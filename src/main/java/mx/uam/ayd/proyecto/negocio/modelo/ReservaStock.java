@@ -0,0 +1,66 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * @file ReservaStock.java
+ * @brief Reserva temporal de stock hecha por un carrito abierto.
+ *
+ * Mientras una venta está en captura, las unidades de cada producto que lleva
+ * quedan apartadas para que otra terminal no las venda. La reserva vence sola
+ * en {@code expira} si el carrito se abandona; al finalizar o cancelar la venta
+ * se borra.
+ *
+ * La llave es la pareja (sesión, producto): una sesión tiene a lo más una reserva
+ * por producto y guardarla de nuevo la actualiza.
+ */
+@Data
+@Entity
+@IdClass(ReservaStock.Llave.class)
+@Table(name = "reservas_stock",
+        indexes = @Index(name = "idx_reserva_expira", columnList = "expira"))
+public class ReservaStock {
+
+    /** Sesión de venta (carrito) que hizo la reserva. */
+    @Id
+    @Column(name = "id_sesion", length = 36)
+    private String idSesion;
+
+    /** Producto reservado. */
+    @Id
+    @Column(name = "id_producto")
+    private Long idProducto;
+
+    /** Unidades apartadas. */
+    @Column(nullable = false)
+    private int cantidad;
+
+    /** Momento en que la reserva deja de contar si no se renueva. */
+    @Column(nullable = false)
+    private LocalDateTime expira;
+
+    /**
+     * @param ahora momento de referencia
+     * @return true si la reserva sigue vigente en ese momento
+     */
+    public boolean vigenteEn(LocalDateTime ahora) {
+        return expira.isAfter(ahora);
+    }
+
+    /**
+     * Llave compuesta de la reserva.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Llave implements Serializable {
+        private String idSesion;
+        private Long idProducto;
+    }
+}
@@ -0,0 +1,43 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * @file SaldoGasto.java
+ * @brief Corte del gasto acumulado de un cliente.
+ *
+ * Guarda el saldo del cliente incluyendo todos sus movimientos hasta
+ * {@code idMovimientoHasta}. Para calcular el saldo con el libro basta con
+ * sumar al último corte los movimientos posteriores, sin recorrer todo el libro.
+ */
+@Data
+@Entity
+@Table(name = "saldos_gasto",
+        indexes = @Index(name = "idx_saldo_gasto_cliente", columnList = "id_cliente, id_movimiento_hasta"))
+public class SaldoGasto {
+
+    /** Identificador único del corte. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saldos_gasto_seq")
+    @SequenceGenerator(name = "saldos_gasto_seq", sequenceName = "saldos_gasto_seq", allocationSize = 50)
+    private Long idSaldo;
+
+    /** Cliente del corte. */
+    @Column(name = "id_cliente", nullable = false)
+    private Long idCliente;
+
+    /** Último movimiento incluido en el saldo; 0 para el saldo de apertura. */
+    @Column(name = "id_movimiento_hasta", nullable = false)
+    private Long idMovimientoHasta;
+
+    /** Saldo acumulado al corte; se guarda en centavos. */
+    @Convert(converter = ConvertidorDinero.class)
+    @Column(nullable = false)
+    private Double saldo;
+
+    /** Momento en que se tomó el corte. */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
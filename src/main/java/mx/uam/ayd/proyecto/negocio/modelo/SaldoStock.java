@@ -0,0 +1,42 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * @file SaldoStock.java
+ * @brief Corte del stock de un producto en el kardex.
+ *
+ * Guarda el stock del producto incluyendo todos sus movimientos hasta
+ * {@code idMovimientoHasta}. El índice por (producto, fecha) permite encontrar
+ * el último corte anterior a un momento y sumarle solo los movimientos posteriores.
+ */
+@Data
+@Entity
+@Table(name = "saldos_stock",
+        indexes = @Index(name = "idx_saldo_stock_producto_fecha", columnList = "id_producto, fecha"))
+public class SaldoStock {
+
+    /** Identificador único del corte. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saldos_stock_seq")
+    @SequenceGenerator(name = "saldos_stock_seq", sequenceName = "saldos_stock_seq", allocationSize = 50)
+    private Long idSaldo;
+
+    /** Producto del corte. */
+    @Column(name = "id_producto", nullable = false)
+    private Long idProducto;
+
+    /** Último movimiento incluido en el saldo; 0 para el saldo de apertura. */
+    @Column(name = "id_movimiento_hasta", nullable = false)
+    private Long idMovimientoHasta;
+
+    /** Stock al corte. */
+    @Column(nullable = false)
+    private int saldo;
+
+    /** Momento del último movimiento incluido (o de la apertura del kardex). */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
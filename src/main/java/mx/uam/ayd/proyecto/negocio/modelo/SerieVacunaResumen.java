@@ -0,0 +1,17 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de solo lectura con una fila por mascota y vacuna, para recontar la cobertura.
+ */
+public interface SerieVacunaResumen {
+
+    /** Especie capturada en la mascota. */
+    String getEspecie();
+
+    VacunaEnum getVacuna();
+
+    /** Próxima dosis de la última aplicada; null si la serie ya terminó. */
+    LocalDate getVigenteHasta();
+}
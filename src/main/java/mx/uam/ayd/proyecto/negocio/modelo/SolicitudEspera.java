@@ -0,0 +1,65 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Entidad de negocio SolicitudEspera: alguien que quiere una cita en una ventana de
+ * tiempo que estaba llena y espera a que se libere un lugar.
+ */
+
+@Entity
+@Table(name = "solicitud_espera", indexes = {
+        // Solicitudes que siguen esperando, para reconstruir la lista al iniciar
+        @Index(name = "idx_solicitud_espera_pendiente", columnList = "id_cita_ofrecida, hasta")
+})
+@Data
+public class SolicitudEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "solicitud_espera_seq")
+    @SequenceGenerator(name = "solicitud_espera_seq", sequenceName = "solicitud_espera_seq", allocationSize = 50)
+    private Long idSolicitud;
+
+    private String nombreSolicitante;
+    private String contacto; // Puede ser correo o teléfono
+
+    @Enumerated(EnumType.STRING)
+    private TipoCita tipo;
+
+    // Veterinario preferido; null si puede ser cualquiera
+    @ManyToOne
+    @JoinColumn(name = "veterinario_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Veterinario veterinario;
+
+    // Ventana en la que puede asistir: la cita debe empezar y terminar dentro de ella
+    private LocalDateTime desde;
+    private LocalDateTime hasta;
+
+    private LocalDateTime fechaRegistro;
+
+    // Cita que se le agendó con un lugar liberado; null mientras sigue esperando
+    @Column(name = "id_cita_ofrecida")
+    private Long idCitaOfrecida;
+}
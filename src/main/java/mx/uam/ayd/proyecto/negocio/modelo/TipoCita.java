@@ -2,13 +2,27 @@ package mx.uam.ayd.proyecto.negocio.modelo;
 
 /**
  * Numeracion para definir los tipos de servicios (citas) ofrecidos por la veterinaria.
+ * Cada tipo trae su duración predeterminada; un veterinario puede tener la suya
+ * (ver {@link DuracionCitaVeterinario}).
  */
 public enum TipoCita {
 
-    Consulta,
-    Vacunacion,
-    Estetica,
-    Cirugia,
-    Revision
+    Consulta(30),
+    Vacunacion(20),
+    Estetica(60),
+    Cirugia(120),
+    Revision(20);
 
-}
\ No newline at end of file
+    private final int duracionMinutos;
+
+    TipoCita(int duracionMinutos) {
+        this.duracionMinutos = duracionMinutos;
+    }
+
+    /**
+     * @return duración predeterminada de la cita, en minutos
+     */
+    public int getDuracionMinutos() {
+        return duracionMinutos;
+    }
+}
@@ -0,0 +1,12 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+/**
+ * Tipos de evento que forman la línea de tiempo clínica de una mascota.
+ */
+public enum TipoEventoHistorial {
+    CITA,
+    CIRUGIA,
+    VACUNA,
+    HOSPEDAJE,
+    REGISTRO_HOSPEDAJE
+}
@@ -1,6 +1,17 @@
 package mx.uam.ayd.proyecto.negocio.modelo;
 
 public enum TipoMembresia {
-    Standard,
-    Platinum
+    Standard(0.10),
+    Platinum(0.15);
+
+    /** Fracción del precio que se descuenta en cada venta (0.10 = 10 %). */
+    private final double descuento;
+
+    TipoMembresia(double descuento) {
+        this.descuento = descuento;
+    }
+
+    public double getDescuento() {
+        return descuento;
+    }
 }
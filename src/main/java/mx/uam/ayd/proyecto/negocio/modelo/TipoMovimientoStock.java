@@ -0,0 +1,15 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+/**
+ * Causas por las que cambia el stock de un producto en el kardex.
+ */
+public enum TipoMovimientoStock {
+    /** Salida por una venta. */
+    VENTA,
+    /** Corrección manual del inventario. */
+    AJUSTE,
+    /** Entrada de mercancía (alta del producto o recepción). */
+    ENTRADA,
+    /** Devolución de un cliente. */
+    DEVOLUCION
+}
@@ -0,0 +1,19 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección con el total vendido de un producto en un día, calculada
+ * solo con la tabla de detalles de venta (precio y fecha guardados en cada detalle).
+ */
+public interface TotalVentaProducto {
+
+    LocalDate getFecha();
+
+    Long getIdProducto();
+
+    Long getCantidad();
+
+    /** Suma de los subtotales, en centavos. */
+    Long getTotalCentavos();
+}
@@ -19,7 +19,8 @@ public class Umbral {
      * Identificador único del umbral (clave primaria).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "umbral_seq")
+    @SequenceGenerator(name = "umbral_seq", sequenceName = "umbral_seq", allocationSize = 50)
     private Long idUmbral;
 
     /**
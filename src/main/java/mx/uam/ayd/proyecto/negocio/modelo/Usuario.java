@@ -3,6 +3,7 @@ package mx.uam.ayd.proyecto.negocio.modelo;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
 
 /**
@@ -14,7 +15,8 @@ import jakarta.persistence.Id;
 @Entity // Esto le dice a Spring que esta es una entidad persistente
 public class Usuario {
 	@Id // Esto le dice a Spring que este es el identificador
-	@GeneratedValue(strategy = GenerationType.IDENTITY) // Le dice a Spring que genere el id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq") // Le dice a Spring que genere el id
+	@SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_seq", allocationSize = 50)
 	private long idUsuario;
 
 	private String nombre;
@@ -0,0 +1,15 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+/**
+ * Proyección de solo lectura con las columnas de la lista de usuarios.
+ */
+public interface UsuarioResumen {
+
+	Long getIdUsuario();
+
+	String getNombre();
+
+	String getApellido();
+
+	Integer getEdad();
+}
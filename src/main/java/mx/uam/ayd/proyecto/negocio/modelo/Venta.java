@@ -5,11 +5,18 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 
 /**
@@ -19,15 +26,28 @@ import jakarta.persistence.OneToMany;
  *
  */
 @Entity
+@NamedEntityGraph(name = "Venta.reporte",
+        attributeNodes = @NamedAttributeNode(value = "detallesVenta", subgraph = "detalle"),
+        subgraphs = {
+                @NamedSubgraph(name = "detalle", attributeNodes = @NamedAttributeNode(value = "producto", subgraph = "producto")),
+                @NamedSubgraph(name = "producto", attributeNodes = @NamedAttributeNode("umbral"))
+        })
 public class Venta {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venta_seq")
+    @SequenceGenerator(name = "venta_seq", sequenceName = "venta_seq", allocationSize = 50)
     private Long idVenta;
     private LocalDate fecha;
+    @Convert(converter = ConvertidorDinero.class)
     private double montoTotal;
 
-    @OneToMany(mappedBy = "venta", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
-    private final List<DetalleVenta> detallesVenta = new ArrayList<>();
+    // Se carga con el grafo "Venta.reporte" cuando se necesitan los detalles
+    @OneToMany(mappedBy = "venta", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<DetalleVenta> detallesVenta = new ArrayList<>();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id")
+    private Cliente cliente;
 
     public Long getIdVenta() {
         return idVenta;
@@ -55,6 +75,23 @@ public class Venta {
 
     public void setFecha(LocalDate fecha) {this.fecha = fecha;}
 
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    public void setCliente(Cliente cliente) {
+        this.cliente = cliente;
+    }
+
+    /**
+     * Deja la venta como nueva después de que la transacción que la guardaba se revirtió:
+     * sin ID y con su propia lista de detalles en lugar de la colección de la sesión cerrada.
+     */
+    public void descartarGuardado() {
+        idVenta = null;
+        detallesVenta = new ArrayList<>(detallesVenta);
+    }
+
     public boolean addDetalleVenta(DetalleVenta detalleVenta) {
         if (detalleVenta == null) {
             throw new IllegalArgumentException("El detalleVenta no puede ser null");
@@ -1,14 +1,25 @@
 package mx.uam.ayd.proyecto.negocio.modelo;
 
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Entidad de negocio Veterinario.
@@ -19,7 +30,8 @@ import java.util.List;
 public class Veterinario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "veterinario_seq")
+    @SequenceGenerator(name = "veterinario_seq", sequenceName = "veterinario_seq", allocationSize = 50)
     private Long idVeterinario;
 
     private String nombreCompleto;
@@ -30,6 +42,16 @@ public class Veterinario {
     @OneToMany(mappedBy = "veterinario")
     private List<Cita> citasAsignadas = new ArrayList<>();
 
+    // Tipos de cita en que se especializa; la asignación automática los prefiere
+
+    @ElementCollection
+    @CollectionTable(name = "veterinario_especialidad", joinColumns = @JoinColumn(name = "id_veterinario"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", length = 20)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<TipoCita> especialidades = EnumSet.noneOf(TipoCita.class);
+
     @Override
     public String toString() {
         return nombreCompleto;
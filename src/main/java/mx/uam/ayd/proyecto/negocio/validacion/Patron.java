@@ -0,0 +1,52 @@
+package mx.uam.ayd.proyecto.negocio.validacion;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Expresión regular compilada una sola vez y reutilizable entre llamadas.
+ *
+ * <p>{@code Pattern.matches(regex, texto)} compila la expresión en cada invocación.
+ * Esta clase la compila al cargarse y además reutiliza un {@link Matcher} por hilo,
+ * de modo que validar un texto no crea objetos nuevos.</p>
+ */
+public final class Patron {
+
+    private final Pattern pattern;
+    private final ThreadLocal<Matcher> matcher;
+
+    private Patron(String regex) {
+        this.pattern = Pattern.compile(regex);
+        this.matcher = ThreadLocal.withInitial(() -> pattern.matcher(""));
+    }
+
+    /**
+     * Compila una expresión regular.
+     *
+     * @param regex expresión regular
+     * @return el patrón compilado
+     */
+    public static Patron de(String regex) {
+        return new Patron(regex);
+    }
+
+    /**
+     * Indica si el texto completo coincide con el patrón.
+     *
+     * @param texto texto a revisar
+     * @return true si coincide; false si no coincide o es null
+     */
+    public boolean coincide(CharSequence texto) {
+        if (texto == null) {
+            return false;
+        }
+        return matcher.get().reset(texto).matches();
+    }
+
+    /**
+     * @return la expresión regular original
+     */
+    public String regex() {
+        return pattern.pattern();
+    }
+}
@@ -0,0 +1,22 @@
+package mx.uam.ayd.proyecto.negocio.validacion;
+
+/**
+ * Patrones de validación compartidos por los servicios de negocio.
+ */
+public final class Patrones {
+
+    /** Letras (incluye acentos y ñ) y espacios, de 1 a 100 caracteres. */
+    public static final Patron NOMBRE_PERSONA = Patron.de("^[a-zA-ZáéíóúÁÉÍÓÚñÑ\\s]{1,100}$");
+
+    /** Exactamente 10 dígitos. */
+    public static final Patron TELEFONO = Patron.de("^\\d{10}$");
+
+    /** Correo electrónico con dominio de 2 a 6 letras. */
+    public static final Patron CORREO = Patron.de("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$");
+
+    /** Letras, números, espacios, puntos y comas (textos clínicos). */
+    public static final Patron TEXTO_CLINICO = Patron.de("^[a-zA-Z0-9áéíóúÁÉÍÓÚñÑ .,]+$");
+
+    private Patrones() {
+    }
+}
@@ -0,0 +1,174 @@
+package mx.uam.ayd.proyecto.negocio.validacion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Conjunto inmutable de reglas de validación para un tipo de objeto.
+ *
+ * <p>Las reglas se declaran una sola vez (normalmente como constante del servicio)
+ * y se evalúan todas en una pasada, reportando cada violación en lugar de detenerse
+ * en la primera. Si el objeto es válido no se crea ninguna lista.</p>
+ *
+ * <pre>
+ * ReglasValidacion&lt;Cliente&gt; reglas = ReglasValidacion.&lt;Cliente&gt;nuevas()
+ *         .obligatorio(Cliente::getNombreCompleto, "El nombre es obligatorio")
+ *         .formato(Cliente::getTelefono, Patrones.TELEFONO, "Teléfono inválido")
+ *         .construir();
+ * reglas.verificar(cliente);
+ * </pre>
+ *
+ * @param <T> tipo de objeto a validar
+ */
+public final class ReglasValidacion<T> {
+
+    /**
+     * Regla individual.
+     *
+     * @param <T> tipo de objeto a validar
+     */
+    @FunctionalInterface
+    public interface Regla<T> {
+
+        /**
+         * @param objeto objeto a validar
+         * @return el mensaje de la violación, o null si la regla se cumple
+         */
+        String evaluar(T objeto);
+    }
+
+    private final List<Regla<T>> reglas;
+
+    private ReglasValidacion(List<Regla<T>> reglas) {
+        this.reglas = List.copyOf(reglas);
+    }
+
+    /**
+     * Inicia la declaración de un conjunto de reglas.
+     *
+     * @param <T> tipo de objeto a validar
+     * @return constructor de reglas
+     */
+    public static <T> Constructor<T> nuevas() {
+        return new Constructor<>();
+    }
+
+    /**
+     * Evalúa todas las reglas sobre el objeto.
+     * Un mismo mensaje se reporta una sola vez aunque varias reglas lo produzcan.
+     *
+     * @param objeto objeto a validar
+     * @return mensajes de las reglas que no se cumplieron, en orden de declaración (vacía si es válido)
+     */
+    public List<String> validar(T objeto) {
+        List<String> violaciones = null;
+        for (int i = 0; i < reglas.size(); i++) {
+            String mensaje = reglas.get(i).evaluar(objeto);
+            if (mensaje == null) {
+                continue;
+            }
+            if (violaciones == null) {
+                violaciones = new ArrayList<>(4);
+            }
+            if (!violaciones.contains(mensaje)) {
+                violaciones.add(mensaje);
+            }
+        }
+        return violaciones == null ? List.of() : violaciones;
+    }
+
+    /**
+     * Evalúa todas las reglas y lanza una excepción con todas las violaciones encontradas.
+     *
+     * @param objeto objeto a validar
+     * @throws ValidacionException si alguna regla no se cumple
+     */
+    public void verificar(T objeto) {
+        List<String> violaciones = validar(objeto);
+        if (!violaciones.isEmpty()) {
+            throw new ValidacionException(violaciones);
+        }
+    }
+
+    /**
+     * @return número de reglas declaradas
+     */
+    public int tamano() {
+        return reglas.size();
+    }
+
+    /**
+     * Constructor de un conjunto de reglas. Las reglas se evalúan en el orden en que se declaran.
+     *
+     * @param <T> tipo de objeto a validar
+     */
+    public static final class Constructor<T> {
+
+        private final List<Regla<T>> reglas = new ArrayList<>();
+
+        private Constructor() {
+        }
+
+        /**
+         * El campo no puede ser null ni, si es texto, estar vacío o en blanco.
+         */
+        public Constructor<T> obligatorio(Function<T, ?> campo, String mensaje) {
+            return regla(objeto -> {
+                Object valor = campo.apply(objeto);
+                if (valor == null || (valor instanceof String texto && texto.isBlank())) {
+                    return mensaje;
+                }
+                return null;
+            });
+        }
+
+        /**
+         * El texto no puede exceder la longitud indicada. Un valor null se ignora.
+         */
+        public Constructor<T> longitudMaxima(Function<T, String> campo, int maximo, String mensaje) {
+            return regla(objeto -> {
+                String valor = campo.apply(objeto);
+                return valor != null && valor.length() > maximo ? mensaje : null;
+            });
+        }
+
+        /**
+         * El texto debe coincidir con el patrón.
+         * Un valor null o en blanco se ignora; para exigirlo se declara además {@link #obligatorio}.
+         */
+        public Constructor<T> formato(Function<T, String> campo, Patron patron, String mensaje) {
+            return regla(objeto -> {
+                String valor = campo.apply(objeto);
+                if (valor == null || valor.isBlank()) {
+                    return null;
+                }
+                return patron.coincide(valor) ? null : mensaje;
+            });
+        }
+
+        /**
+         * El objeto debe cumplir la condición. La condición debe tolerar campos null,
+         * ya que todas las reglas se evalúan aunque otras hayan fallado.
+         */
+        public Constructor<T> cumple(Predicate<T> condicion, String mensaje) {
+            return regla(objeto -> condicion.test(objeto) ? null : mensaje);
+        }
+
+        /**
+         * Agrega una regla arbitraria.
+         */
+        public Constructor<T> regla(Regla<T> regla) {
+            reglas.add(regla);
+            return this;
+        }
+
+        /**
+         * @return el conjunto inmutable de reglas declaradas
+         */
+        public ReglasValidacion<T> construir() {
+            return new ReglasValidacion<>(reglas);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package mx.uam.ayd.proyecto.negocio.validacion;
+
+import java.util.List;
+
+/**
+ * Excepción lanzada cuando un objeto no cumple una o más reglas de validación.
+ *
+ * <p>Extiende {@link IllegalArgumentException} para que quienes ya atrapan ese tipo
+ * sigan funcionando. {@link #getMessage()} conserva el mensaje de la primera violación,
+ * como cuando las validaciones se detenían en el primer error; la lista completa
+ * está en {@link #getViolaciones()}.</p>
+ */
+public class ValidacionException extends IllegalArgumentException {
+
+    private final List<String> violaciones;
+
+    /**
+     * @param violaciones mensajes de las reglas que no se cumplieron (al menos uno)
+     */
+    public ValidacionException(List<String> violaciones) {
+        super(violaciones.get(0));
+        this.violaciones = List.copyOf(violaciones);
+    }
+
+    /**
+     * @return los mensajes de todas las reglas que no se cumplieron, en orden de declaración
+     */
+    public List<String> getViolaciones() {
+        return violaciones;
+    }
+
+    /**
+     * @return todas las violaciones, una por línea
+     */
+    public String getMensajeCompleto() {
+        return String.join("\n", violaciones);
+    }
+
+    /**
+     * Texto a mostrar al usuario para una excepción: todas las violaciones si es una
+     * {@code ValidacionException}, o su mensaje en cualquier otro caso.
+     *
+     * @param ex excepción atrapada
+     * @return mensaje para el usuario
+     */
+    public static String mensajeDe(Throwable ex) {
+        if (ex instanceof ValidacionException validacion) {
+            return validacion.getMensajeCompleto();
+        }
+        return ex.getMessage();
+    }
+}
@@ -3,6 +3,7 @@ package mx.uam.ayd.proyecto.presentacion.Inventario;
 import jakarta.annotation.PostConstruct;
 import mx.uam.ayd.proyecto.negocio.ServicioProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.ProductoResumen;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,12 +72,9 @@ public class Controlinventario {
      * <Carga y muestra los productos de tipo {@link TipoProducto#Comida} por defecto.
      */
     public void inicia() {
-        List<Producto> productos = servicioProducto.buscarPorTipo(TipoProducto.Comida);
+        List<ProductoResumen> productos = servicioProducto.recuperaResumenPorTipo(TipoProducto.Comida);
 
-        // Registra en logs la información de los productos cargados
-        for (Producto producto : productos) {
-            log.info("Producto cargado: " + producto);
-        }
+        log.info("Productos cargados: " + productos.size());
 
         ventana.muestra(productos);
     }
@@ -85,10 +83,10 @@ public class Controlinventario {
      * Filtra los productos según su tipo.
      *
      * @param tipoProducto Tipo de producto a filtrar.
-     * @return Lista de productos del tipo especificado.
+     * @return Filas de la tabla con los productos del tipo especificado.
      */
-    public List<Producto> filtroTipoProducto(TipoProducto tipoProducto) {
-        return servicioProducto.buscarPorTipo(tipoProducto);
+    public List<ProductoResumen> filtroTipoProducto(TipoProducto tipoProducto) {
+        return servicioProducto.recuperaResumenPorTipo(tipoProducto);
     }
 
     /**
@@ -96,9 +94,9 @@ public class Controlinventario {
      * Si la operación es exitosa, actualiza la vista y muestra un mensaje de confirmación.
      * En caso de error, muestra el mensaje correspondiente.
      *
-     * @param producto Producto que se desea eliminar.
+     * @param producto Fila del producto que se desea eliminar.
      */
-    public void eliminaProducto(Producto producto) {
+    public void eliminaProducto(ProductoResumen producto) {
         try {
             servicioProducto.eliminarProducto(producto.getIdProducto());
             actualizarVista(producto.getTipoProducto());
@@ -118,11 +116,17 @@ public class Controlinventario {
 
     /**
      * Inicia el flujo para modificar un producto existente.
+     * La tabla solo tiene las columnas visibles, así que el producto completo se carga aquí.
      *
-     * @param producto Producto que se desea modificar.
+     * @param producto Fila del producto que se desea modificar.
      */
-    public void modificarProducto(Producto producto) {
-        controlModificarProducto.inicia(producto, this);
+    public void modificarProducto(ProductoResumen producto) {
+        try {
+            Producto completo = servicioProducto.recuperaProducto(producto.getIdProducto());
+            controlModificarProducto.inicia(completo, this);
+        } catch (IllegalArgumentException e) {
+            ventana.muestraMensaje("Error al modificar: " + e.getMessage());
+        }
     }
 
     /**
@@ -131,6 +135,6 @@ public class Controlinventario {
      * @param tipoProducto Tipo de producto que se debe recargar en la vista.
      */
     public void actualizarVista(TipoProducto tipoProducto) {
-        ventana.muestra(servicioProducto.buscarPorTipo(tipoProducto));
+        ventana.muestra(servicioProducto.recuperaResumenPorTipo(tipoProducto));
     }
 }
@@ -1,6 +1,7 @@
 package mx.uam.ayd.proyecto.presentacion.Inventario;
 
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -12,16 +13,16 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ComboBox;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.input.DataFormat;
 import javafx.stage.Stage;
-import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.ProductoResumen;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.UsoVeterinario;
 import mx.uam.ayd.proyecto.presentacion.agregarProducto.ControlAgregarProducto;
 import mx.uam.ayd.proyecto.presentacion.modificarProducto.ControlModificarProducto;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -40,7 +41,7 @@ public class VentanaInventario {
     private final ControlModificarProducto controlModificarProducto;
 
     /** Lista observable utilizada por la tabla para mostrar los productos. */
-    private ObservableList<Producto> productos = FXCollections.observableArrayList();
+    private ObservableList<ProductoResumen> productos = FXCollections.observableArrayList();
 
     /** Ventana principal (Stage) de esta vista. */
     private Stage stage;
@@ -51,31 +52,31 @@ public class VentanaInventario {
 
     /** Tabla que muestra la lista de productos. */
     @FXML
-    private TableView<Producto> tableProducto;
+    private TableView<ProductoResumen> tableProducto;
 
     /** Columna que muestra el ID del producto. */
     @FXML
-    private TableColumn<Producto, Long> idColumn;
+    private TableColumn<ProductoResumen, Long> idColumn;
 
     /** Columna que muestra el nombre del producto. */
     @FXML
-    private TableColumn<Producto, String> nombreColumn;
+    private TableColumn<ProductoResumen, String> nombreColumn;
 
     /** Columna que muestra la fecha de caducidad del producto. */
     @FXML
-    private TableColumn<Producto, DataFormat> fechaCaducidadColumn;
+    private TableColumn<ProductoResumen, LocalDate> fechaCaducidadColumn;
 
     /** Columna que muestra el precio del producto. */
     @FXML
-    private TableColumn<Producto, Double> precioColumn;
+    private TableColumn<ProductoResumen, Double> precioColumn;
 
     /** Columna que muestra la cantidad en stock del producto. */
     @FXML
-    private TableColumn<Producto, Integer> stockColumn;
+    private TableColumn<ProductoResumen, Integer> stockColumn;
 
     /** Columna que muestra el uso veterinario (solo visible en medicamentos). */
     @FXML
-    private TableColumn<Producto, String> usoVeterinarioColumn;
+    private TableColumn<ProductoResumen, UsoVeterinario> usoVeterinarioColumn;
 
     /** Controlador para agregar nuevos productos. */
     private ControlAgregarProducto controlAgregarProducto;
@@ -121,13 +122,13 @@ public class VentanaInventario {
             Scene scene = new Scene(loader.load(), 680, 400);
             stage.setScene(scene);
 
-            // Configuración de las columnas de la tabla
-            idColumn.setCellValueFactory(new PropertyValueFactory<>("idProducto"));
-            nombreColumn.setCellValueFactory(new PropertyValueFactory<>("nombre"));
-            fechaCaducidadColumn.setCellValueFactory(new PropertyValueFactory<>("fechaCaducidad"));
-            precioColumn.setCellValueFactory(new PropertyValueFactory<>("precio"));
-            stockColumn.setCellValueFactory(new PropertyValueFactory<>("cantidadStock"));
-            usoVeterinarioColumn.setCellValueFactory(new PropertyValueFactory<>("usoVeterinario"));
+            // Configuración de las columnas de la tabla (leen directamente de la proyección)
+            idColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getIdProducto()));
+            nombreColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getNombre()));
+            fechaCaducidadColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getFechaCaducidad()));
+            precioColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getPrecio()));
+            stockColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getCantidadStock()));
+            usoVeterinarioColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getUsoVeterinario()));
             usoVeterinarioColumn.setVisible(false);
 
             initialized = true;
@@ -148,9 +149,9 @@ public class VentanaInventario {
     /**
      * Muestra la ventana y carga los productos proporcionados.
      *
-     * @param productos Lista de productos a mostrar en la tabla.
+     * @param productos Filas de productos a mostrar en la tabla.
      */
-    public void muestra(List<Producto> productos) {
+    public void muestra(List<ProductoResumen> productos) {
         if (!Platform.isFxApplicationThread()) {
             Platform.runLater(() -> this.muestra(productos));
             return;
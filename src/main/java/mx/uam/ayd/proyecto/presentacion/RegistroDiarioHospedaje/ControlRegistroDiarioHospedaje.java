@@ -1,9 +1,17 @@
 package mx.uam.ayd.proyecto.presentacion.RegistroDiarioHospedaje;
 
 
+import javafx.scene.control.Alert;
+import mx.uam.ayd.proyecto.negocio.ServicioRegistroHospedaje;
+import mx.uam.ayd.proyecto.negocio.modelo.RegistroHospedaje;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import jakarta.annotation.PostConstruct;
+
+import java.time.LocalDate;
+import java.util.List;
+
 
 /**
  * Control encargado de iniciar y mostrar la ventana
@@ -15,6 +23,17 @@ public class ControlRegistroDiarioHospedaje {
     @Autowired
     private VentanaRegistroDiarioHospedaje ventanaRegistroDiarioHospedaje;
 
+    @Autowired
+    private VentanaRondaDiariaHospedaje ventanaRondaDiariaHospedaje;
+
+    @Autowired
+    private ServicioRegistroHospedaje servicioRegistroHospedaje;
+
+    @PostConstruct
+    public void init() {
+        ventanaRondaDiariaHospedaje.setControl(this);
+    }
+
     /**
      * Inicia la ventana sin un hospedaje específico.
      * (Útil solo en casos de prueba o ventanas incompletas)
@@ -24,4 +43,41 @@ public class ControlRegistroDiarioHospedaje {
         // Mostrar ventana
         ventanaRegistroDiarioHospedaje.muestra();
     }
+
+    /**
+     * Inicia la ronda diaria con todos los huéspedes pendientes del día.
+     */
+    public void iniciaRonda() {
+        LocalDate hoy = LocalDate.now();
+        ventanaRondaDiariaHospedaje.muestra(hoy, servicioRegistroHospedaje.listarPendientesRonda(hoy));
+    }
+
+    /**
+     * Recarga los huéspedes pendientes para la fecha indicada.
+     *
+     * @param fecha Fecha de la ronda.
+     */
+    public void cargaRonda(LocalDate fecha) {
+        ventanaRondaDiariaHospedaje.actualizaPendientes(servicioRegistroHospedaje.listarPendientesRonda(fecha));
+    }
+
+    /**
+     * Guarda en lote los registros capturados en la ronda.
+     *
+     * @param fecha     Fecha de la ronda.
+     * @param registros Registros capturados.
+     */
+    public void guardaRonda(LocalDate fecha, List<RegistroHospedaje> registros) {
+        try {
+            List<RegistroHospedaje> guardados = servicioRegistroHospedaje.registrarRonda(fecha, registros);
+            ventanaRondaDiariaHospedaje.muestraAlerta(Alert.AlertType.INFORMATION,
+                    "Ronda guardada",
+                    "Se guardaron " + guardados.size() + " registros diarios.");
+            cargaRonda(fecha);
+        } catch (IllegalArgumentException ex) {
+            ventanaRondaDiariaHospedaje.muestraAlerta(Alert.AlertType.ERROR,
+                    "Error al guardar",
+                    ex.getMessage());
+        }
+    }
 }
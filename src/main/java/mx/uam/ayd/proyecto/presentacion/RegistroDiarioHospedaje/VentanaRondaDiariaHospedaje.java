@@ -0,0 +1,204 @@
+package mx.uam.ayd.proyecto.presentacion.RegistroDiarioHospedaje;
+
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.stage.Stage;
+import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
+import mx.uam.ayd.proyecto.negocio.modelo.RegistroHospedaje;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Ventana de la ronda diaria de hospedaje.
+ * Muestra en una sola tabla editable a todos los huéspedes activos
+ * que aún no tienen registro en la fecha, para capturarlos de una vez.
+ */
+@Component
+public class VentanaRondaDiariaHospedaje {
+
+    @FXML private DatePicker dpFecha;
+    @FXML private Label lblPendientes;
+    @FXML private TableView<RegistroHospedaje> tableRonda;
+
+    @FXML private TableColumn<RegistroHospedaje, String> colMascota;
+    @FXML private TableColumn<RegistroHospedaje, String> colDueno;
+    @FXML private TableColumn<RegistroHospedaje, String> colAlimentacion;
+    @FXML private TableColumn<RegistroHospedaje, String> colSalud;
+    @FXML private TableColumn<RegistroHospedaje, String> colComportamiento;
+    @FXML private TableColumn<RegistroHospedaje, String> colObservaciones;
+
+    private final ObservableList<RegistroHospedaje> filas = FXCollections.observableArrayList();
+    private ControlRegistroDiarioHospedaje control;
+    private Stage stage;
+
+    /**
+     * Asigna el controlador.
+     *
+     * @param control Controlador del registro diario.
+     */
+    public void setControl(ControlRegistroDiarioHospedaje control) {
+        this.control = control;
+    }
+
+    /**
+     * Inicializa la UI y el Stage si es la primera vez que se abre la ventana.
+     */
+    private void initializeUI() {
+        if (stage != null) {
+            return; // Ya inicializado
+        }
+
+        try {
+            stage = new Stage();
+            stage.setTitle("Ronda Diaria de Hospedaje");
+
+            FXMLLoader loader = new FXMLLoader(
+                    getClass().getResource("/fxml/ventana-ronda-diaria-hospedaje.fxml")
+            );
+            loader.setController(this);
+            stage.setScene(new Scene(loader.load()));
+
+            colMascota.setCellValueFactory(cell -> {
+                Hospedaje h = cell.getValue().getHospedaje();
+                return new SimpleStringProperty(h.getMascota() == null ? "(sin mascota)" : h.getMascota().getNombre());
+            });
+            colDueno.setCellValueFactory(cell -> {
+                Hospedaje h = cell.getValue().getHospedaje();
+                return new SimpleStringProperty(h.getCliente() == null ? "(sin dueño)" : h.getCliente().getNombreCompleto());
+            });
+
+            configuraColumnaEditable(colAlimentacion, RegistroHospedaje::getAlimentacion, RegistroHospedaje::setAlimentacion);
+            configuraColumnaEditable(colSalud, RegistroHospedaje::getSalud, RegistroHospedaje::setSalud);
+            configuraColumnaEditable(colComportamiento, RegistroHospedaje::getComportamiento, RegistroHospedaje::setComportamiento);
+            configuraColumnaEditable(colObservaciones, RegistroHospedaje::getObservaciones, RegistroHospedaje::setObservaciones);
+
+            tableRonda.setItems(filas);
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Configura una columna de texto editable en línea.
+     */
+    private void configuraColumnaEditable(TableColumn<RegistroHospedaje, String> columna,
+                                          Function<RegistroHospedaje, String> getter,
+                                          BiConsumer<RegistroHospedaje, String> setter) {
+        columna.setCellValueFactory(cell -> new SimpleStringProperty(getter.apply(cell.getValue())));
+        columna.setCellFactory(TextFieldTableCell.forTableColumn());
+        columna.setOnEditCommit(evento -> setter.accept(evento.getRowValue(), evento.getNewValue()));
+    }
+
+    /**
+     * Muestra la ventana con los hospedajes pendientes de la fecha.
+     *
+     * @param fecha      Fecha de la ronda.
+     * @param pendientes Hospedajes activos sin registro en la fecha.
+     */
+    public void muestra(LocalDate fecha, List<Hospedaje> pendientes) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> this.muestra(fecha, pendientes));
+            return;
+        }
+
+        initializeUI();
+        dpFecha.setValue(fecha);
+        actualizaPendientes(pendientes);
+        stage.show();
+    }
+
+    /**
+     * Reemplaza las filas de la tabla por una fila vacía por hospedaje.
+     *
+     * @param pendientes Hospedajes activos sin registro en la fecha.
+     */
+    public void actualizaPendientes(List<Hospedaje> pendientes) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> this.actualizaPendientes(pendientes));
+            return;
+        }
+
+        List<RegistroHospedaje> nuevas = new ArrayList<>(pendientes.size());
+        for (Hospedaje hospedaje : pendientes) {
+            RegistroHospedaje registro = new RegistroHospedaje();
+            registro.setHospedaje(hospedaje);
+            nuevas.add(registro);
+        }
+        filas.setAll(nuevas);
+        lblPendientes.setText("Pendientes: " + pendientes.size());
+    }
+
+    @FXML
+    private void handleCargar() {
+        control.cargaRonda(dpFecha.getValue());
+    }
+
+    /**
+     * Envía al controlador únicamente las filas con algún dato capturado.
+     */
+    @FXML
+    private void handleGuardar() {
+        List<RegistroHospedaje> capturados = new ArrayList<>();
+        for (RegistroHospedaje registro : filas) {
+            if (tieneTexto(registro.getAlimentacion()) || tieneTexto(registro.getSalud())
+                    || tieneTexto(registro.getComportamiento()) || tieneTexto(registro.getObservaciones())) {
+                capturados.add(registro);
+            }
+        }
+
+        if (capturados.isEmpty()) {
+            muestraAlerta(Alert.AlertType.WARNING, "Ronda vacía", "No se capturó ningún registro.");
+            return;
+        }
+
+        control.guardaRonda(dpFecha.getValue(), capturados);
+    }
+
+    private boolean tieneTexto(String texto) {
+        return texto != null && !texto.trim().isEmpty();
+    }
+
+    @FXML
+    private void handleCerrar() {
+        if (stage != null) {
+            stage.close();
+        }
+    }
+
+    /**
+     * Muestra una alerta modal al usuario.
+     *
+     * @param type Tipo de alerta.
+     * @param title Título del cuadro de diálogo.
+     * @param msg Mensaje a mostrar.
+     */
+    public void muestraAlerta(Alert.AlertType type, String title, String msg) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> this.muestraAlerta(type, title, msg));
+            return;
+        }
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(msg);
+        alert.showAndWait();
+    }
+}
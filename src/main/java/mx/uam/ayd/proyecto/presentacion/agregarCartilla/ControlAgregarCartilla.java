@@ -2,8 +2,11 @@ package mx.uam.ayd.proyecto.presentacion.agregarCartilla;
 
 import javafx.scene.control.Alert;
 import mx.uam.ayd.proyecto.negocio.ServicioCartilla;
+import mx.uam.ayd.proyecto.negocio.ServicioVeterinario;
 import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.CartillaResumen;
 import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -13,12 +16,17 @@ import java.util.List;
 @Component
 public class ControlAgregarCartilla {
     private final ServicioCartilla servicioCartilla;
+    private final ServicioVeterinario servicioVeterinario;
     private final VentanaAgregarCartilla ventana;
+    private final ControlCoberturaVacunacion controlCobertura;
 
   @Autowired
-    public ControlAgregarCartilla(ServicioCartilla servicioCartilla,VentanaAgregarCartilla ventana) {
+    public ControlAgregarCartilla(ServicioCartilla servicioCartilla, ServicioVeterinario servicioVeterinario,
+                                  VentanaAgregarCartilla ventana, ControlCoberturaVacunacion controlCobertura) {
         this.servicioCartilla = servicioCartilla;
+        this.servicioVeterinario = servicioVeterinario;
       this.ventana = ventana;
+        this.controlCobertura = controlCobertura;
 
     }
 
@@ -38,8 +46,12 @@ public class ControlAgregarCartilla {
         return servicioCartilla.obtenerCartillaPorVacuna(vacuna);
     }
 
-    public List<Cartilla> obtenerCartillaPorVeterinario(String veterinario) {
-        return servicioCartilla.obtenerCartillaPorVeterinario(veterinario);
+    public List<Cartilla> obtenerCartillaPorVeterinario(Veterinario veterinario) {
+        return servicioCartilla.obtenerCartillaPorVeterinario(veterinario.getIdVeterinario());
+    }
+
+    public List<Veterinario> recuperarVeterinarios() {
+        return servicioVeterinario.recuperarVeterinarios();
     }
 
     public List<Cartilla> obtenerCartillaPorRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
@@ -51,7 +63,7 @@ public class ControlAgregarCartilla {
     }
 
     public Cartilla registrarVacuna(VacunaEnum vacuna, LocalDate fechaAplicacion,
-                                    String veterinario, Long lote, String observaciones, Long mascotaId) {
+                                    Veterinario veterinario, Long lote, String observaciones, Long mascotaId) {
         return servicioCartilla.registrarVacuna(vacuna, fechaAplicacion, veterinario, lote, observaciones, mascotaId);
     }
 
@@ -60,13 +72,17 @@ public class ControlAgregarCartilla {
     }
 
     public Cartilla actualizarRegistroVacuna(Long idVacuna, VacunaEnum vacuna, LocalDate fechaAplicacion,
-                                             String veterinario, Long lote, String observaciones) {
+                                             Veterinario veterinario, Long lote, String observaciones) {
         return servicioCartilla.actualizarRegistroVacuna(idVacuna, vacuna, fechaAplicacion, veterinario, lote, observaciones);
     }
     public void actualizaListaVacunas() {
-        List<Cartilla> vacunas = servicioCartilla.obtenerTodasLasCartillas();
+        List<CartillaResumen> vacunas = servicioCartilla.obtenerResumenCartillas();
         ventana.actualizaTabla(vacunas);
     }
+    public void solicitaCobertura() {
+        controlCobertura.inicia();
+    }
+
     public List<VacunaEnum> obtenerTodasLasVacunas() {
         return servicioCartilla.obtenerTodasLasVacunas();
     }
@@ -76,7 +92,7 @@ public class ControlAgregarCartilla {
     }
 
     public void solicitaCargarCartilla(Long mascotaId) {
-        List<Cartilla> cartillas = servicioCartilla.obtenerCartillaPorMascota(mascotaId);
+        List<CartillaResumen> cartillas = servicioCartilla.obtenerResumenPorMascota(mascotaId);
 
         if (cartillas == null || cartillas.isEmpty()) {
             ventana.muestraAlerta(Alert.AlertType.INFORMATION, "Sin resultados",
@@ -88,9 +104,9 @@ public class ControlAgregarCartilla {
 
 
 
-    public void solicitaRegistrarVacuna(VacunaEnum tipoVacuna, LocalDate fechaAplicacion, String nombre, Long lote, String laboratorio, Long mascotaId) {
+    public void solicitaRegistrarVacuna(VacunaEnum tipoVacuna, LocalDate fechaAplicacion, Veterinario veterinario, Long lote, String laboratorio, Long mascotaId) {
         try {
-            servicioCartilla.registrarVacuna(tipoVacuna, fechaAplicacion, nombre, lote, laboratorio, mascotaId);
+            servicioCartilla.registrarVacuna(tipoVacuna, fechaAplicacion, veterinario, lote, laboratorio, mascotaId);
 
             // Si tiene éxito
             ventana.cierra(); // cerramos el formulario
@@ -0,0 +1,41 @@
+package mx.uam.ayd.proyecto.presentacion.agregarCartilla;
+
+import mx.uam.ayd.proyecto.negocio.ServicioCoberturaVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Control del tablero de cobertura de vacunación. Solo lee las tablas mantenidas, así que
+ * mostrar una especie no recorre las cartillas.
+ */
+@Component
+public class ControlCoberturaVacunacion {
+    private final ServicioCoberturaVacunacion servicioCobertura;
+    private final VentanaCoberturaVacunacion ventana;
+
+    @Autowired
+    public ControlCoberturaVacunacion(ServicioCoberturaVacunacion servicioCobertura,
+                                      VentanaCoberturaVacunacion ventana) {
+        this.servicioCobertura = servicioCobertura;
+        this.ventana = ventana;
+    }
+
+    public void inicia() {
+        ventana.muestra(this);
+        solicitaCobertura(Especie.PERRO);
+    }
+
+    public void solicitaCobertura(Especie especie) {
+        ventana.actualizaTabla(servicioCobertura.consultarPoblacion(especie),
+                servicioCobertura.consultarCobertura(especie));
+    }
+
+    /**
+     * Recuenta en el momento, sin esperar a la conciliación nocturna.
+     */
+    public void solicitaConciliar(Especie especie) {
+        servicioCobertura.conciliar();
+        solicitaCobertura(especie);
+    }
+}
@@ -1,16 +1,17 @@
 package mx.uam.ayd.proyecto.presentacion.agregarCartilla;
 
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
-import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.CartillaResumen;
 import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -22,22 +23,22 @@ public class VentanaAgregarCartilla {
 
     private Stage stage;
     private ControlAgregarCartilla control;
-    private ObservableList<Cartilla> cartillasData = FXCollections.observableArrayList();
+    private ObservableList<CartillaResumen> cartillasData = FXCollections.observableArrayList();
 
     @FXML
-    private TableView<Cartilla> tablaVacunas;
+    private TableView<CartillaResumen> tablaVacunas;
     @FXML
-    private TableColumn<Cartilla, String> colVacuna;
+    private TableColumn<CartillaResumen, String> colVacuna;
     @FXML
-    private TableColumn<Cartilla, LocalDate> colFechaAplicacion;
+    private TableColumn<CartillaResumen, LocalDate> colFechaAplicacion;
     @FXML
-    private TableColumn<Cartilla, LocalDate> colProximaDosis;
+    private TableColumn<CartillaResumen, LocalDate> colProximaDosis;
     @FXML
-    private TableColumn<Cartilla, String> colVeterinario;
+    private TableColumn<CartillaResumen, String> colVeterinario;
     @FXML
-    private TableColumn<Cartilla, Long> colLote;
+    private TableColumn<CartillaResumen, Long> colLote;
     @FXML
-    private TableColumn<Cartilla, String> colObservaciones;
+    private TableColumn<CartillaResumen, String> colObservaciones;
 
     @FXML
     private TextField txtMascotaId;
@@ -46,7 +47,7 @@ public class VentanaAgregarCartilla {
     @FXML
     private DatePicker dpFechaAplicacion;
     @FXML
-    private TextField txtVeterinario;
+    private ComboBox<Veterinario> cmbVeterinario;
     @FXML
     private TextField txtLote;
     @FXML
@@ -88,11 +89,11 @@ public class VentanaAgregarCartilla {
             VacunaEnum vacuna = cellData.getValue().getVacuna();
             return new javafx.beans.property.SimpleStringProperty(vacuna != null ? vacuna.name() : "");
         });
-        colFechaAplicacion.setCellValueFactory(new PropertyValueFactory<>("fechaAplicacion"));
-        colProximaDosis.setCellValueFactory(new PropertyValueFactory<>("proximaDosis"));
-        colVeterinario.setCellValueFactory(new PropertyValueFactory<>("veterinario"));
-        colLote.setCellValueFactory(new PropertyValueFactory<>("lote"));
-        colObservaciones.setCellValueFactory(new PropertyValueFactory<>("observaciones"));
+        colFechaAplicacion.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getFechaAplicacion()));
+        colProximaDosis.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getProximaDosis()));
+        colVeterinario.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getNombreVeterinario()));
+        colLote.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getLote()));
+        colObservaciones.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getObservaciones()));
 
         tablaVacunas.setItems(cartillasData);
     }
@@ -107,6 +108,10 @@ public class VentanaAgregarCartilla {
             if (vacunas != null) {
                 cmbVacuna.setItems(FXCollections.observableArrayList(vacunas));
             }
+            List<Veterinario> veterinarios = control.recuperarVeterinarios();
+            if (veterinarios != null) {
+                cmbVeterinario.setItems(FXCollections.observableArrayList(veterinarios));
+            }
         }
         dpFechaAplicacion.setValue(LocalDate.now());
     }
@@ -114,7 +119,7 @@ public class VentanaAgregarCartilla {
     /**
      * Actualiza la tabla con la lista de cartillas
      */
-    public void actualizaTabla(List<Cartilla> cartillas) {
+    public void actualizaTabla(List<CartillaResumen> cartillas) {
         if (!Platform.isFxApplicationThread()) {
             Platform.runLater(() -> this.actualizaTabla(cartillas));
             return;
@@ -149,8 +154,8 @@ public class VentanaAgregarCartilla {
             return;
         }
 
-        if (txtVeterinario.getText().trim().isEmpty()) {
-            muestraAlerta(Alert.AlertType.WARNING, "Veterinario requerido", "Por favor, ingrese el nombre del veterinario.");
+        if (cmbVeterinario.getValue() == null) {
+            muestraAlerta(Alert.AlertType.WARNING, "Veterinario requerido", "Por favor, seleccione el veterinario.");
             return;
         }
 
@@ -170,7 +175,7 @@ public class VentanaAgregarCartilla {
             control.solicitaRegistrarVacuna(
                     cmbVacuna.getValue(),
                     dpFechaAplicacion.getValue(),
-                    txtVeterinario.getText().trim(),
+                    cmbVeterinario.getValue(),
                     lote,
                     txtObservaciones.getText().trim(),
                     mascotaId
@@ -181,6 +186,11 @@ public class VentanaAgregarCartilla {
         }
     }
 
+    @FXML
+    private void handleVerCobertura() {
+        control.solicitaCobertura();
+    }
+
     @FXML
     private void handleLimpiarFormulario() {
         limpiarFormulario();
@@ -234,7 +244,7 @@ public class VentanaAgregarCartilla {
         Platform.runLater(() -> {
             cmbVacuna.setValue(null);
             dpFechaAplicacion.setValue(LocalDate.now());
-            txtVeterinario.clear();
+            cmbVeterinario.setValue(null);
             txtLote.clear();
             txtObservaciones.clear();
         });
@@ -0,0 +1,137 @@
+package mx.uam.ayd.proyecto.presentacion.agregarCartilla;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+import mx.uam.ayd.proyecto.negocio.modelo.CoberturaVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+@Component
+public class VentanaCoberturaVacunacion {
+
+    private Stage stage;
+    private ControlCoberturaVacunacion control;
+    private ObservableList<CoberturaVacunacion> coberturaData = FXCollections.observableArrayList();
+    private int poblacion;
+
+    @FXML
+    private ComboBox<Especie> cmbEspecie;
+    @FXML
+    private Label lblPoblacion;
+    @FXML
+    private TableView<CoberturaVacunacion> tablaCobertura;
+    @FXML
+    private TableColumn<CoberturaVacunacion, String> colVacuna;
+    @FXML
+    private TableColumn<CoberturaVacunacion, Integer> colVacunadas;
+    @FXML
+    private TableColumn<CoberturaVacunacion, Integer> colAlCorriente;
+    @FXML
+    private TableColumn<CoberturaVacunacion, String> colPorcentaje;
+    @FXML
+    private TableColumn<CoberturaVacunacion, LocalDate> colFechaCorte;
+
+    /**
+     * Muestra el tablero de cobertura
+     */
+    public void muestra(ControlCoberturaVacunacion control) {
+        this.control = control;
+
+        if (stage == null) {
+            try {
+                stage = new Stage();
+                stage.setTitle("Cobertura de Vacunación");
+
+                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/ventana-cobertura-vacunacion.fxml"));
+                loader.setController(this);
+                Scene scene = new Scene(loader.load(), 680, 480);
+                stage.setScene(scene);
+
+                configurarTabla();
+                cmbEspecie.setItems(FXCollections.observableArrayList(Especie.values()));
+                cmbEspecie.setValue(Especie.PERRO);
+
+            } catch (IOException e) {
+                e.printStackTrace();
+                muestraAlerta(Alert.AlertType.ERROR, "Error", "No se pudo cargar la interfaz: " + e.getMessage());
+            }
+        }
+
+        stage.show();
+    }
+
+    /**
+     * Configura las columnas de la tabla
+     */
+    private void configurarTabla() {
+        colVacuna.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getVacuna().name()));
+        colVacunadas.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getVacunadas()));
+        colAlCorriente.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getAlCorriente()));
+        colPorcentaje.setCellValueFactory(cellData -> new SimpleStringProperty(
+                String.format("%.1f %%", cellData.getValue().porcentajeAlCorriente(poblacion))));
+        colFechaCorte.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getFechaCorte()));
+
+        tablaCobertura.setItems(coberturaData);
+    }
+
+    /**
+     * Actualiza la tabla con la cobertura de una especie
+     */
+    public void actualizaTabla(int poblacion, List<CoberturaVacunacion> cobertura) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> this.actualizaTabla(poblacion, cobertura));
+            return;
+        }
+
+        this.poblacion = poblacion;
+        lblPoblacion.setText("Mascotas registradas: " + poblacion);
+        coberturaData.clear();
+        if (cobertura != null) {
+            coberturaData.addAll(cobertura);
+        }
+    }
+
+    @FXML
+    private void handleCambiarEspecie() {
+        if (control != null && cmbEspecie.getValue() != null) {
+            control.solicitaCobertura(cmbEspecie.getValue());
+        }
+    }
+
+    @FXML
+    private void handleConciliar() {
+        if (control != null && cmbEspecie.getValue() != null) {
+            control.solicitaConciliar(cmbEspecie.getValue());
+        }
+    }
+
+    @FXML
+    private void handleCerrar() {
+        if (stage != null) {
+            stage.close();
+        }
+    }
+
+    /**
+     * Muestra una alerta al usuario
+     */
+    public void muestraAlerta(Alert.AlertType type, String title, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
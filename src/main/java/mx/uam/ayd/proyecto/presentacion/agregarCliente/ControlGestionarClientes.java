@@ -5,6 +5,7 @@ import org.springframework.stereotype.Component;
 import javafx.scene.control.Alert;
 import mx.uam.ayd.proyecto.negocio.ServicioCliente;
 import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.ClienteResumen;
 import mx.uam.ayd.proyecto.presentacion.seleccionarMembresia.VentanaSeleccionarMembresia;
 import mx.uam.ayd.proyecto.presentacion.gestionarMascotas.ControlGestionarMascotas;
 import mx.uam.ayd.proyecto.presentacion.registroVentas.ControlRegistroVentas;
@@ -39,10 +40,10 @@ public class ControlGestionarClientes {
     }
 
     /**
-     * Pide al servicio los clientes y los manda a la ventana
+     * Pide al servicio las filas de la tabla de clientes y las manda a la ventana
      */
     public void actualizaListaClientes() {
-        List<Cliente> clientes = servicioCliente.recuperarCliente();
+        List<ClienteResumen> clientes = servicioCliente.recuperaResumenClientes();
         ventanaGestionar.actualizaTabla(clientes);
     }
 
@@ -73,7 +74,7 @@ public class ControlGestionarClientes {
     /**
      * Pide confirmación y elimina un cliente
      */
-    public void solicitaEliminarCliente(Cliente cliente) {
+    public void solicitaEliminarCliente(ClienteResumen cliente) {
         boolean confirmado = ventanaGestionar.muestraConfirmacion(
             "Confirmar Eliminación", 
             "¿Estás seguro de que deseas eliminar al cliente: " + cliente.getNombreCompleto() + "?"
@@ -90,19 +91,42 @@ public class ControlGestionarClientes {
         }
     }
 
-    public void asignarMembresia(Cliente cliente){
-        ventanaMembresia.initializeUI(this, cliente);
+    public void asignarMembresia(ClienteResumen cliente){
+        Cliente completo = recuperaCliente(cliente);
+        if (completo != null) {
+            ventanaMembresia.initializeUI(this, completo);
+        }
     }
 
     /**
      * Inicia el flujo para gestionar las mascotas del cliente seleccionado
      */
-    public void gestionarMascotas(Cliente cliente) {
-        controlGestionarMascotas.inicia(cliente);
+    public void gestionarMascotas(ClienteResumen cliente) {
+        Cliente completo = recuperaCliente(cliente);
+        if (completo != null) {
+            controlGestionarMascotas.inicia(completo);
+        }
+    }
+
+    public void registrarVenta(ClienteResumen cliente){
+        Cliente completo = recuperaCliente(cliente);
+        if (completo != null) {
+            controlRegistroVentas.inicia(completo);
+        }
     }
 
-    public void registrarVenta(Cliente cliente){
-        controlRegistroVentas.inicia(cliente);
+    /**
+     * La tabla solo tiene las columnas visibles; los flujos que modifican al cliente
+     * necesitan la entidad completa, que se carga aquí a partir de la fila seleccionada
+     */
+    private Cliente recuperaCliente(ClienteResumen cliente) {
+        try {
+            return servicioCliente.recuperaCliente(cliente.getIdCliente());
+        } catch (IllegalArgumentException ex) {
+            ventanaGestionar.muestraAlerta(Alert.AlertType.ERROR, "Error", ex.getMessage());
+            actualizaListaClientes();
+            return null;
+        }
     }
 
 }
\ No newline at end of file
@@ -12,13 +12,12 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 
 import org.springframework.stereotype.Component;
-import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.ClienteResumen;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
 
 
@@ -27,25 +26,25 @@ public class VentanaGestionarClientes {
     
     private Stage stage;
     private ControlGestionarClientes control;
-    private ObservableList<Cliente> clientesData = FXCollections.observableArrayList();
+    private ObservableList<ClienteResumen> clientesData = FXCollections.observableArrayList();
 
 
     @FXML
-    private TableView<Cliente> tableClientes;
+    private TableView<ClienteResumen> tableClientes;
     @FXML
-    private TableColumn<Cliente, Long> idColumn;
+    private TableColumn<ClienteResumen, Long> idColumn;
     @FXML
-    private TableColumn<Cliente, String> nombreColumn;
+    private TableColumn<ClienteResumen, String> nombreColumn;
     @FXML
-    private TableColumn<Cliente, String> telefonoColumn;
+    private TableColumn<ClienteResumen, String> telefonoColumn;
     @FXML
-    private TableColumn<Cliente, String> correoColumn;
+    private TableColumn<ClienteResumen, String> correoColumn;
     @FXML
-    private TableColumn<Cliente, String> direccionColumn;
+    private TableColumn<ClienteResumen, String> direccionColumn;
     @FXML
-    private TableColumn<Cliente, Double> montoAcumuladoColumn;
+    private TableColumn<ClienteResumen, Double> montoAcumuladoColumn;
     @FXML
-    private TableColumn<Cliente, TipoMembresia> membresiaColumn;
+    private TableColumn<ClienteResumen, TipoMembresia> membresiaColumn;
 
     /**
      * Muestra la ventana principal de gestión de clientes
@@ -63,20 +62,13 @@ public class VentanaGestionarClientes {
                 Scene scene = new Scene(loader.load(), 700, 500);
                 stage.setScene(scene);
 
-                idColumn.setCellValueFactory(new PropertyValueFactory<>("idCliente"));
-                nombreColumn.setCellValueFactory(new PropertyValueFactory<>("nombreCompleto"));
-                telefonoColumn.setCellValueFactory(new PropertyValueFactory<>("telefono"));
-                correoColumn.setCellValueFactory(new PropertyValueFactory<>("correoElectronico"));
-                direccionColumn.setCellValueFactory(new PropertyValueFactory<>("direccion"));
-                montoAcumuladoColumn.setCellValueFactory(new PropertyValueFactory<>("montoAcumulado"));
-                membresiaColumn.setCellValueFactory(cellData -> {
-                    Cliente cliente = cellData.getValue();
-                    TipoMembresia tipo = null;
-                    if (cliente.getMembresia() != null) {
-                        tipo = cliente.getMembresia().getTipo();
-                    }
-                    return new ReadOnlyObjectWrapper<>(tipo);
-                });
+                idColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getIdCliente()));
+                nombreColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getNombreCompleto()));
+                telefonoColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getTelefono()));
+                correoColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getCorreoElectronico()));
+                direccionColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getDireccion()));
+                montoAcumuladoColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getMontoAcumulado()));
+                membresiaColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getTipoMembresia()));
 
                 tableClientes.setItems(clientesData);
                 
@@ -92,7 +84,7 @@ public class VentanaGestionarClientes {
     /**
      * Actualiza la tabla con la lista de clientes
      */
-    public void actualizaTabla(List<Cliente> clientes) {
+    public void actualizaTabla(List<ClienteResumen> clientes) {
         if (!Platform.isFxApplicationThread()) {
             Platform.runLater(() -> this.actualizaTabla(clientes));
             return;
@@ -109,7 +101,7 @@ public class VentanaGestionarClientes {
 
     @FXML
     private void handleEliminarCliente() {
-        Cliente clienteSeleccionado = tableClientes.getSelectionModel().getSelectedItem();
+        ClienteResumen clienteSeleccionado = tableClientes.getSelectionModel().getSelectedItem();
         if (clienteSeleccionado == null) {
             muestraAlerta(Alert.AlertType.WARNING, "Ningún cliente seleccionado", "Por favor, selecciona un cliente de la tabla para eliminar.");
         } else {
@@ -124,7 +116,7 @@ public class VentanaGestionarClientes {
 
     @FXML
     private void handleSeleccionarMembresia(){
-        Cliente clienteSeleccionado = tableClientes.getSelectionModel().getSelectedItem();
+        ClienteResumen clienteSeleccionado = tableClientes.getSelectionModel().getSelectedItem();
         if (clienteSeleccionado == null) {
             muestraAlerta(Alert.AlertType.WARNING, "Ningún cliente seleccionado", "Por favor, selecciona un cliente de la tabla para asignar membresia.");
         } else {
@@ -134,7 +126,7 @@ public class VentanaGestionarClientes {
 
     @FXML
     private void handleMascotas() {
-        Cliente clienteSeleccionado = tableClientes.getSelectionModel().getSelectedItem();
+        ClienteResumen clienteSeleccionado = tableClientes.getSelectionModel().getSelectedItem();
         if (clienteSeleccionado == null) {
             muestraAlerta(Alert.AlertType.WARNING, "Ningún cliente seleccionado", "Por favor, selecciona un cliente para ver sus mascotas.");
         } else {
@@ -144,7 +136,7 @@ public class VentanaGestionarClientes {
 
     @FXML
     private void handleRegistrarVenta(){
-        Cliente clienteSeleccionado = tableClientes.getSelectionModel().getSelectedItem();
+        ClienteResumen clienteSeleccionado = tableClientes.getSelectionModel().getSelectedItem();
         if (clienteSeleccionado == null) {
             muestraAlerta(Alert.AlertType.WARNING, "Ningún cliente seleccionado", "Por favor, selecciona un cliente de la tabla para registrar una venta");
         } else {
@@ -10,6 +10,7 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import mx.uam.ayd.proyecto.negocio.validacion.ValidacionException;
 import org.springframework.stereotype.Component;
 import java.io.IOException;
 
@@ -73,7 +74,7 @@ public class VentanaRegistrarCliente {
             // Si tiene éxito, el control el mensaje y cerrara la ventana
             
         } catch (IllegalArgumentException ex) {
-            muestraAlerta(Alert.AlertType.ERROR, "Error de Validación", ex.getMessage());
+            muestraAlerta(Alert.AlertType.ERROR, "Error de Validación", ValidacionException.mensajeDe(ex));
         }
     }
 
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Component;
 
 import mx.uam.ayd.proyecto.negocio.ServicioProducto;
 import mx.uam.ayd.proyecto.presentacion.Inventario.Controlinventario;
+import mx.uam.ayd.proyecto.negocio.validacion.ValidacionException;
 
 /**
  * Controlador encargado de manejar la lógica de presentación
@@ -87,6 +88,7 @@ public class ControlAgregarProducto {
      * @param unidadProducto Unidad de medida (por ejemplo, pieza, litro, kilogramo, etc.).
      * @param fechaCaducidad Fecha de caducidad del producto (si aplica).
      * @param usoVeterinario Uso veterinario asociado al producto.
+     * @param codigoBarras   Código de barras o SKU (opcional).
      */
     public void agregarProducto(String nombre,
                                 TipoProducto tipoProducto,
@@ -95,17 +97,18 @@ public class ControlAgregarProducto {
                                 int cantidad,
                                 UnidadProducto unidadProducto,
                                 LocalDate fechaCaducidad,
-                                UsoVeterinario usoVeterinario) {
+                                UsoVeterinario usoVeterinario,
+                                String codigoBarras) {
         try {
             // Llama al servicio para registrar el producto
             servicioProducto.agregarProducto(nombre, tipoProducto, marcaProducto,
-                    precio, cantidad, unidadProducto, fechaCaducidad, usoVeterinario);
+                    precio, cantidad, unidadProducto, fechaCaducidad, usoVeterinario, codigoBarras);
 
             // Notifica al usuario que la operación fue exitosa
             ventana.muestraDialogoConMensaje("Producto agregado exitosamente.");
         } catch (Exception ex) {
             // Muestra el mensaje de error en caso de excepción
-            ventana.muestraDialogoConMensaje("Error al agregar producto: " + ex.getMessage());
+            ventana.muestraDialogoConMensaje("Error al agregar producto: " + ValidacionException.mensajeDe(ex));
         }
 
         // Finaliza el flujo cerrando la ventana y actualizando la vista
@@ -52,6 +52,7 @@ public class VentanaAgregarProducto {
     @FXML private TextField txtNombre;
     @FXML private TextField txtCantidad;
     @FXML private TextField txtPrecio;
+    @FXML private TextField txtCodigoBarras;
     @FXML private ComboBox<TipoProducto> cmbTipo;
     @FXML private ComboBox<UnidadProducto> cmbUnidad;
     @FXML private ComboBox<MarcaProducto> cmbMarca;
@@ -156,6 +157,7 @@ public class VentanaAgregarProducto {
         txtNombre.clear();
         txtCantidad.clear();
         txtPrecio.clear();
+        txtCodigoBarras.clear();
 
         // Cargar opciones
         cmbTipo.setItems(FXCollections.observableArrayList(TipoProducto.values()));
@@ -292,7 +294,8 @@ public class VentanaAgregarProducto {
                     Integer.parseInt(txtCantidad.getText()),
                     cmbUnidad.getValue(),
                     dtpFechaCaducidad.getValue(),
-                    cmbUsoVeterinario.getValue()
+                    cmbUsoVeterinario.getValue(),
+                    txtCodigoBarras.getText()
             );
         }
     }
@@ -1,14 +1,24 @@
 package mx.uam.ayd.proyecto.presentacion.citas;
 
+import mx.uam.ayd.proyecto.negocio.ServicioAsignacionVeterinario;
+import mx.uam.ayd.proyecto.negocio.ServicioAusenciaVeterinario;
 import mx.uam.ayd.proyecto.negocio.ServicioCita;
+import mx.uam.ayd.proyecto.negocio.ServicioListaEspera;
 import mx.uam.ayd.proyecto.negocio.ServicioVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.CandidatoVeterinario;
 import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.CitaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.OcurrenciaSerie;
+import mx.uam.ayd.proyecto.negocio.modelo.ReasignacionCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Recurrencia;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
 import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import mx.uam.ayd.proyecto.negocio.validacion.ValidacionException;
 import mx.uam.ayd.proyecto.util.UtilPDF;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,14 +33,24 @@ public class ControlCitas {
     private final ServicioCita servicioCita;
     private final VentanaCitas ventana;
     private final ServicioVeterinario servicioVeterinario;
+    private final ServicioAsignacionVeterinario servicioAsignacion;
+    private final ServicioAusenciaVeterinario servicioAusencia;
+    private final ServicioListaEspera servicioListaEspera;
 
     private final UtilPDF utilPDF = new UtilPDF();
 
+    private static final int MAXIMO_SUGERENCIAS = 12;
+
     @Autowired
-    public ControlCitas(ServicioCita servicioCita, VentanaCitas ventana, ServicioVeterinario servicioVeterinario) {
+    public ControlCitas(ServicioCita servicioCita, VentanaCitas ventana, ServicioVeterinario servicioVeterinario,
+                        ServicioAsignacionVeterinario servicioAsignacion, ServicioAusenciaVeterinario servicioAusencia,
+                        ServicioListaEspera servicioListaEspera) {
         this.servicioCita = servicioCita;
         this.ventana = ventana;
         this.servicioVeterinario = servicioVeterinario;
+        this.servicioAsignacion = servicioAsignacion;
+        this.servicioAusencia = servicioAusencia;
+        this.servicioListaEspera = servicioListaEspera;
         this.ventana.setControl(this);
     }
 
@@ -38,7 +58,7 @@ public class ControlCitas {
      * Inicia el caso de uso mostrando la ventana de gestión de citas.
      */
     public void inicia() {
-        List<Cita> citas = servicioCita.recuperarCitas();
+        List<CitaResumen> citas = servicioCita.recuperarResumenCitas();
         List<Veterinario> veterinarios = servicioVeterinario.recuperarVeterinarios();
         ventana.muestra(citas, veterinarios);
     }
@@ -47,7 +67,7 @@ public class ControlCitas {
      * Recupera y actualiza la lista de citas en la ventana.
      */
     public void actualizarListaCitas() {
-        List<Cita> citas = servicioCita.recuperarCitas();
+        List<CitaResumen> citas = servicioCita.recuperarResumenCitas();
         ventana.actualizarTabla(citas);
     }
 
@@ -59,14 +79,29 @@ public class ControlCitas {
         return servicioVeterinario.recuperarVeterinarios();
     }
 
+    /**
+     * Recupera la cita completa de una fila de la tabla, para el formulario de modificación.
+     * @param idCita ID de la cita.
+     * @return La cita, o null si ya no existe.
+     */
+    public Cita recuperarCita(Long idCita) {
+        try {
+            return servicioCita.recuperarCita(idCita);
+        } catch (IllegalArgumentException ex) {
+            ventana.muestraAlerta("Error", ex.getMessage(), "ERROR");
+            actualizarListaCitas();
+            return null;
+        }
+    }
+
     /**
      * Genera el comprobante PDF para una cita específica.
      * (HU-03)
-     * * @param cita La cita de la cual se generará el comprobante.
+     * * @param idCita ID de la cita de la cual se generará el comprobante.
      */
-    public void generarComprobante(Cita cita) {
+    public void generarComprobante(Long idCita) {
         try {
-            utilPDF.generarComprobanteCita(cita);
+            utilPDF.generarComprobanteCita(servicioCita.recuperarCita(idCita));
         } catch (Exception ex) {
             ventana.muestraAlerta("Error al generar PDF", ex.getMessage(), "ERROR");
         }
@@ -90,7 +125,42 @@ public class ControlCitas {
             ventana.muestraAlerta("Éxito", "Cita agendada correctamente.", "INFORMATION");
             actualizarListaCitas();
         } catch (IllegalArgumentException ex) {
-            ventana.muestraAlerta("Error de Validación", ex.getMessage(), "ERROR");
+            ventana.muestraAlerta("Error de Validación", ValidacionException.mensajeDe(ex), "ERROR");
+        }
+    }
+
+    /**
+     * Agenda una serie de citas. Si alguna choca con la agenda del veterinario,
+     * muestra los conflictos y pregunta si se agendan solo las libres.
+     * @param recurrencia Regla de repetición de la serie.
+     */
+    public void agendarSerie(LocalDateTime fechaHora, TipoCita tipo, String nombre, String contacto, boolean enviarCorreo,
+                             Veterinario veterinario, String motivo, String notas, Recurrencia recurrencia) {
+        try {
+            List<OcurrenciaSerie> ocurrencias = servicioCita.agendarSerie(fechaHora, tipo, nombre, contacto, enviarCorreo,
+                    veterinario, motivo, notas, null, recurrencia, false);
+            List<OcurrenciaSerie> conflictos = ocurrencias.stream().filter(OcurrenciaSerie::tieneConflicto).toList();
+            if (!conflictos.isEmpty()) {
+                StringBuilder detalle = new StringBuilder("Las siguientes citas no se pueden agendar:\n");
+                for (OcurrenciaSerie conflicto : conflictos) {
+                    detalle.append("\n- ").append(conflicto);
+                }
+                if (conflictos.size() == ocurrencias.size()) {
+                    ventana.muestraAlerta("Serie sin lugar", detalle.toString(), "WARNING");
+                    return;
+                }
+                detalle.append("\n\n¿Desea agendar solo las ").append(ocurrencias.size() - conflictos.size()).append(" citas libres?");
+                if (!ventana.mostrarConfirmacion("Conflictos en la serie", detalle.toString())) {
+                    return;
+                }
+                ocurrencias = servicioCita.agendarSerie(fechaHora, tipo, nombre, contacto, enviarCorreo,
+                        veterinario, motivo, notas, null, recurrencia, true);
+            }
+            long agendadas = ocurrencias.stream().filter(o -> o.getCita() != null).count();
+            ventana.muestraAlerta("Éxito", "Se agendaron " + agendadas + " citas de la serie.", "INFORMATION");
+            actualizarListaCitas();
+        } catch (IllegalArgumentException ex) {
+            ventana.muestraAlerta("Error de Validación", ValidacionException.mensajeDe(ex), "ERROR");
         }
     }
 
@@ -112,7 +182,90 @@ public class ControlCitas {
             ventana.muestraAlerta("Éxito", "Cita modificada correctamente.", "INFORMATION");
             actualizarListaCitas();
         } catch (IllegalArgumentException ex) {
-            ventana.muestraAlerta("Error de Modificación", ex.getMessage(), "ERROR");
+            ventana.muestraAlerta("Error de Modificación", ValidacionException.mensajeDe(ex), "ERROR");
+        }
+    }
+
+    /**
+     * Sugiere horarios libres del veterinario en un día para el tipo de cita.
+     * @param veterinario Veterinario de la cita.
+     * @param tipo Tipo de servicio, que determina la duración.
+     * @param dia Día a revisar.
+     * @param idCita Cita que se está modificando (null al agendar).
+     * @return Horarios sugeridos, o una lista vacía si falta algún dato.
+     */
+    public List<LocalDateTime> sugerirHorarios(Veterinario veterinario, TipoCita tipo, LocalDate dia, Long idCita) {
+        try {
+            return servicioCita.sugerirHorarios(veterinario, tipo, dia, idCita, MAXIMO_SUGERENCIAS);
+        } catch (IllegalArgumentException ex) {
+            ventana.muestraAlerta("Advertencia", ex.getMessage(), "WARNING");
+            return List.of();
+        }
+    }
+
+    /**
+     * Propone veterinarios para una cita, del mejor al peor, según su primer horario libre,
+     * su carga de trabajo y su especialidad.
+     * @param tipo Tipo de servicio.
+     * @param desde Inicio de la ventana.
+     * @param hasta Fin de la ventana.
+     * @return Candidatos ordenados, o una lista vacía si falta algún dato.
+     */
+    public List<CandidatoVeterinario> proponerVeterinarios(TipoCita tipo, LocalDateTime desde, LocalDateTime hasta) {
+        try {
+            return servicioAsignacion.proponer(tipo, desde, hasta);
+        } catch (IllegalArgumentException ex) {
+            ventana.muestraAlerta("Advertencia", ex.getMessage(), "WARNING");
+            return List.of();
+        }
+    }
+
+    /**
+     * Reprograma las citas del día de un veterinario ausente: muestra el plan y, si se
+     * confirma, lo aplica de una vez.
+     * @param ausente Veterinario que no atenderá.
+     * @param dia Día de la ausencia.
+     * @param notificar true para avisar por correo a los clientes.
+     */
+    public void reprogramarAusencia(Veterinario ausente, LocalDate dia, boolean notificar) {
+        try {
+            List<ReasignacionCita> plan = servicioAusencia.planear(ausente, dia);
+            if (plan.isEmpty()) {
+                ventana.muestraAlerta("Sin citas", "El veterinario no tiene citas pendientes ese día.", "INFORMATION");
+                return;
+            }
+            StringBuilder detalle = new StringBuilder();
+            for (ReasignacionCita reasignacion : plan) {
+                detalle.append("- ").append(reasignacion).append("\n");
+            }
+            detalle.append("\n¿Desea aplicar estos cambios?");
+            if (!ventana.mostrarConfirmacion("Reprogramar citas de " + ausente.getNombreCompleto(), detalle.toString())) {
+                return;
+            }
+            plan = servicioAusencia.reprogramar(ausente, dia, notificar);
+            long sinLugar = plan.stream().filter(r -> !r.tieneLugar()).count();
+            String mensaje = "Se reprogramaron " + (plan.size() - sinLugar) + " citas."
+                    + (sinLugar > 0 ? " " + sinLugar + " citas no tienen lugar y se quedaron como estaban." : "");
+            ventana.muestraAlerta("Éxito", mensaje, sinLugar > 0 ? "WARNING" : "INFORMATION");
+            actualizarListaCitas();
+        } catch (IllegalArgumentException ex) {
+            ventana.muestraAlerta("Error", ex.getMessage(), "ERROR");
+        }
+    }
+
+    /**
+     * Registra a alguien en la lista de espera. Cuando se cancele o mueva una cita que le
+     * deje lugar, se le agenda automáticamente.
+     * @param veterinario Veterinario preferido, o null si puede ser cualquiera.
+     */
+    public void registrarEnEspera(String nombre, String contacto, TipoCita tipo, Veterinario veterinario,
+                                  LocalDateTime desde, LocalDateTime hasta) {
+        try {
+            servicioListaEspera.registrar(nombre, contacto, tipo, veterinario, desde, hasta);
+            ventana.muestraAlerta("Éxito", "Se registró en la lista de espera. "
+                    + "Hay " + servicioListaEspera.recuperarPendientes().size() + " solicitudes esperando lugar.", "INFORMATION");
+        } catch (IllegalArgumentException ex) {
+            ventana.muestraAlerta("Error de Validación", ValidacionException.mensajeDe(ex), "ERROR");
         }
     }
 
@@ -1,6 +1,7 @@
 package mx.uam.ayd.proyecto.presentacion.citas;
 
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -9,9 +10,11 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ButtonBar;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Dialog;
@@ -20,14 +23,17 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import javafx.geometry.Insets;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import org.springframework.stereotype.Component;
 
+import mx.uam.ayd.proyecto.negocio.modelo.CandidatoVeterinario;
 import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.CitaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.Recurrencia;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
 import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
 import mx.uam.ayd.proyecto.util.ServicioVeterinarioConverter;
@@ -46,21 +52,23 @@ import java.util.List;
 @Component
 public class VentanaCitas {
 
+    private static final String NO_SE_REPITE = "No se repite";
+
     private Stage stage;
     private ControlCitas control;
-    private final ObservableList<Cita> citasData = FXCollections.observableArrayList();
+    private final ObservableList<CitaResumen> citasData = FXCollections.observableArrayList();
     private boolean initialized = false;
 
     private List<Veterinario> veterinariosDisponibles;
 
-    @FXML private TableView<Cita> tableCitas;
-    @FXML private TableColumn<Cita, Long> idColumn;
-    @FXML private TableColumn<Cita, String> fechaHoraColumn;
-    @FXML private TableColumn<Cita, TipoCita> tipoColumn;
-    @FXML private TableColumn<Cita, String> veterinarioColumn;
-    @FXML private TableColumn<Cita, String> nombreColumn;
-    @FXML private TableColumn<Cita, String> contactoColumn;
-    @FXML private TableColumn<Cita, String> estadoColumn;
+    @FXML private TableView<CitaResumen> tableCitas;
+    @FXML private TableColumn<CitaResumen, Long> idColumn;
+    @FXML private TableColumn<CitaResumen, String> fechaHoraColumn;
+    @FXML private TableColumn<CitaResumen, TipoCita> tipoColumn;
+    @FXML private TableColumn<CitaResumen, String> veterinarioColumn;
+    @FXML private TableColumn<CitaResumen, String> nombreColumn;
+    @FXML private TableColumn<CitaResumen, String> contactoColumn;
+    @FXML private TableColumn<CitaResumen, String> estadoColumn;
 
     public VentanaCitas() {
         // Constructor vacío
@@ -91,16 +99,16 @@ public class VentanaCitas {
             stage.setScene(scene);
 
             // Configurar columnas
-            idColumn.setCellValueFactory(new PropertyValueFactory<>("idCita"));
-            tipoColumn.setCellValueFactory(new PropertyValueFactory<>("tipo"));
-            nombreColumn.setCellValueFactory(new PropertyValueFactory<>("nombreSolicitante"));
-            contactoColumn.setCellValueFactory(new PropertyValueFactory<>("contacto"));
+            idColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getIdCita()));
+            tipoColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getTipo()));
+            nombreColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getNombreSolicitante()));
+            contactoColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getContacto()));
 
-            // Columna de Veterinario
+            // Columna de Veterinario (el nombre viene en la misma consulta)
             veterinarioColumn.setCellValueFactory(cellData ->
                     new SimpleStringProperty(
-                            cellData.getValue().getVeterinario() != null ?
-                                    cellData.getValue().getVeterinario().getNombreCompleto() : "N/A"
+                            cellData.getValue().getNombreVeterinario() != null ?
+                                    cellData.getValue().getNombreVeterinario() : "N/A"
                     )
             );
 
@@ -125,10 +133,10 @@ public class VentanaCitas {
 
     /**
      * Muestra la ventana con la lista de citas y veterinarios.
-     * * @param citas Lista de citas a mostrar.
+     * * @param citas Filas de citas a mostrar.
      * @param veterinarios Lista de veterinarios disponibles.
      */
-    public void muestra(List<Cita> citas, List<Veterinario> veterinarios) {
+    public void muestra(List<CitaResumen> citas, List<Veterinario> veterinarios) {
         if (!Platform.isFxApplicationThread()) {
             Platform.runLater(() -> this.muestra(citas, veterinarios));
             return;
@@ -143,9 +151,9 @@ public class VentanaCitas {
 
     /**
      * Actualiza la tabla de citas.
-     * * @param citas Nueva lista de citas.
+     * * @param citas Nuevas filas de citas.
      */
-    public void actualizarTabla(List<Cita> citas) {
+    public void actualizarTabla(List<CitaResumen> citas) {
         if (!Platform.isFxApplicationThread()) {
             Platform.runLater(() -> this.actualizarTabla(citas));
             return;
@@ -163,7 +171,7 @@ public class VentanaCitas {
 
     @FXML
     private void handleModificarCita() {
-        Cita citaSeleccionada = tableCitas.getSelectionModel().getSelectedItem();
+        CitaResumen citaSeleccionada = tableCitas.getSelectionModel().getSelectedItem();
         if (citaSeleccionada == null) {
             muestraAlerta("Advertencia", "Seleccione una cita para modificar.", "WARNING");
             return;
@@ -172,12 +180,16 @@ public class VentanaCitas {
             muestraAlerta("Advertencia", "No se puede modificar una cita que ya fue atendida.", "WARNING");
             return;
         }
-        mostrarFormulario(citaSeleccionada);
+        // La tabla solo tiene las columnas visibles; el formulario necesita la cita completa
+        Cita cita = control.recuperarCita(citaSeleccionada.getIdCita());
+        if (cita != null) {
+            mostrarFormulario(cita);
+        }
     }
 
     @FXML
     private void handleEliminarCita() {
-        Cita citaSeleccionada = tableCitas.getSelectionModel().getSelectedItem();
+        CitaResumen citaSeleccionada = tableCitas.getSelectionModel().getSelectedItem();
         if (citaSeleccionada == null) {
             muestraAlerta("Advertencia", "Seleccione una cita para cancelar.", "WARNING");
             return;
@@ -193,14 +205,101 @@ public class VentanaCitas {
      */
     @FXML
     private void handleGenerarComprobante() {
-        Cita citaSeleccionada = tableCitas.getSelectionModel().getSelectedItem();
+        CitaResumen citaSeleccionada = tableCitas.getSelectionModel().getSelectedItem();
 
         if (citaSeleccionada == null) {
             muestraAlerta("Advertencia", "Por favor, seleccione una cita de la tabla para generar su comprobante.", "WARNING");
             return;
         }
 
-        control.generarComprobante(citaSeleccionada);
+        control.generarComprobante(citaSeleccionada.getIdCita());
+    }
+
+    @FXML
+    private void handleAusenciaVeterinario() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Ausencia de Veterinario");
+        dialog.setHeaderText("Las citas pendientes del día pasarán a otros veterinarios u otros días.");
+        dialog.initModality(Modality.APPLICATION_MODAL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+        ComboBox<Veterinario> vetCombo = new ComboBox<>(FXCollections.observableArrayList(veterinariosDisponibles));
+        vetCombo.setConverter(new ServicioVeterinarioConverter(veterinariosDisponibles));
+        DatePicker datePicker = new DatePicker(LocalDate.now());
+        CheckBox notificarCheck = new CheckBox("Avisar por correo a los clientes");
+        notificarCheck.setSelected(true);
+        grid.add(new Label("Veterinario:"), 0, 0);
+        grid.add(vetCombo, 1, 0);
+        grid.add(new Label("Día:"), 0, 1);
+        grid.add(datePicker, 1, 1);
+        grid.add(notificarCheck, 1, 2);
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        dialog.showAndWait().filter(respuesta -> respuesta == ButtonType.OK).ifPresent(respuesta -> {
+            if (vetCombo.getValue() == null || datePicker.getValue() == null) {
+                muestraAlerta("Advertencia", "Seleccione el veterinario y el día.", "WARNING");
+                return;
+            }
+            control.reprogramarAusencia(vetCombo.getValue(), datePicker.getValue(), notificarCheck.isSelected());
+        });
+    }
+
+    @FXML
+    private void handleListaEspera() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Lista de Espera");
+        dialog.setHeaderText("Si se libera un lugar dentro de la ventana, la cita se agenda automáticamente.");
+        dialog.initModality(Modality.APPLICATION_MODAL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+        TextField nombreField = new TextField();
+        TextField contactoField = new TextField();
+        ComboBox<TipoCita> tipoCombo = new ComboBox<>(FXCollections.observableArrayList(TipoCita.values()));
+        tipoCombo.getSelectionModel().select(TipoCita.Consulta);
+        ComboBox<Veterinario> vetCombo = new ComboBox<>(FXCollections.observableArrayList(veterinariosDisponibles));
+        vetCombo.setConverter(new ServicioVeterinarioConverter(veterinariosDisponibles));
+        vetCombo.setPromptText("Cualquiera");
+        DatePicker datePicker = new DatePicker(LocalDate.now());
+        TextField desdeField = new TextField("09:00");
+        TextField hastaField = new TextField("18:00");
+        desdeField.setPrefColumnCount(5);
+        hastaField.setPrefColumnCount(5);
+        grid.add(new Label("Nombre:"), 0, 0);
+        grid.add(nombreField, 1, 0);
+        grid.add(new Label("Contacto (Correo/Teléfono):"), 0, 1);
+        grid.add(contactoField, 1, 1);
+        grid.add(new Label("Tipo de Servicio:"), 0, 2);
+        grid.add(tipoCombo, 1, 2);
+        grid.add(new Label("Veterinario preferido:"), 0, 3);
+        grid.add(vetCombo, 1, 3);
+        grid.add(new Label("Fecha:"), 0, 4);
+        grid.add(datePicker, 1, 4);
+        grid.add(new Label("Entre (HH:mm):"), 0, 5);
+        grid.add(new HBox(10, desdeField, new Label("y"), hastaField), 1, 5);
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        dialog.showAndWait().filter(respuesta -> respuesta == ButtonType.OK).ifPresent(respuesta -> {
+            LocalTime desde;
+            LocalTime hasta;
+            try {
+                desde = LocalTime.parse(desdeField.getText().trim());
+                hasta = LocalTime.parse(hastaField.getText().trim());
+            } catch (Exception e) {
+                muestraAlerta("Error de Formato", "Las horas deben tener el formato HH:mm.", "ERROR");
+                return;
+            }
+            LocalDate dia = datePicker.getValue();
+            control.registrarEnEspera(nombreField.getText(), contactoField.getText(), tipoCombo.getValue(), vetCombo.getValue(),
+                    dia != null ? dia.atTime(desde) : null, dia != null ? dia.atTime(hasta) : null);
+        });
     }
 
     @FXML
@@ -208,6 +307,64 @@ public class VentanaCitas {
         stage.close();
     }
 
+    /**
+     * Muestra los horarios libres del día para el veterinario y tipo elegidos,
+     * y coloca en el formulario el que escoja el usuario.
+     */
+    private void sugerirHorario(LocalDate dia, Veterinario veterinario, TipoCita tipo, Long idCita, TextField timeField) {
+        if (dia == null || veterinario == null || tipo == null) {
+            muestraAlerta("Advertencia", "Seleccione la fecha, el tipo de servicio y el veterinario.", "WARNING");
+            return;
+        }
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("HH:mm");
+        List<String> horarios = control.sugerirHorarios(veterinario, tipo, dia, idCita).stream()
+                .map(h -> h.toLocalTime().format(formato))
+                .toList();
+        if (horarios.isEmpty()) {
+            muestraAlerta("Sin horarios", "El veterinario no tiene espacio para este servicio en el día seleccionado.", "INFORMATION");
+            return;
+        }
+        ChoiceDialog<String> dialogo = new ChoiceDialog<>(horarios.get(0), horarios);
+        dialogo.setTitle("Horarios disponibles");
+        dialogo.setHeaderText("Horarios libres de " + veterinario.getNombreCompleto() + " para " + tipo);
+        dialogo.setContentText("Hora:");
+        dialogo.showAndWait().ifPresent(timeField::setText);
+    }
+
+    /**
+     * Propone veterinarios con lugar en el día elegido, a partir de la hora capturada,
+     * y coloca en el formulario el veterinario y el horario que escoja el usuario.
+     */
+    private void asignarVeterinario(LocalDate dia, TextField timeField, TipoCita tipo, ComboBox<Veterinario> vetCombo) {
+        if (dia == null || tipo == null) {
+            muestraAlerta("Advertencia", "Seleccione la fecha y el tipo de servicio.", "WARNING");
+            return;
+        }
+        LocalTime desde;
+        try {
+            desde = LocalTime.parse(timeField.getText());
+        } catch (Exception e) {
+            desde = LocalTime.of(9, 0);
+        }
+        List<CandidatoVeterinario> candidatos = control.proponerVeterinarios(tipo, dia.atTime(desde), dia.atTime(18, 0));
+        if (candidatos.isEmpty()) {
+            muestraAlerta("Sin veterinarios", "Ningún veterinario tiene espacio para este servicio en el día seleccionado.", "INFORMATION");
+            return;
+        }
+        ChoiceDialog<CandidatoVeterinario> dialogo = new ChoiceDialog<>(candidatos.get(0), candidatos);
+        dialogo.setTitle("Asignar veterinario");
+        dialogo.setHeaderText("Veterinarios con lugar para " + tipo + ", del más recomendado al menos");
+        dialogo.setContentText("Veterinario:");
+        dialogo.showAndWait().ifPresent(candidato -> {
+            Long id = candidato.getVeterinario().getIdVeterinario();
+            vetCombo.getItems().stream()
+                    .filter(v -> id.equals(v.getIdVeterinario()))
+                    .findFirst()
+                    .ifPresent(v -> vetCombo.getSelectionModel().select(v));
+            timeField.setText(candidato.getHorario().toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm")));
+        });
+    }
+
     private void mostrarFormulario(Cita cita) {
         Dialog<Cita> dialog = new Dialog<>();
         dialog.setTitle(cita == null ? "Agendar Nueva Cita" : "Modificar Cita ID: " + cita.getIdCita());
@@ -236,7 +393,10 @@ public class VentanaCitas {
         grid.add(new Label("Fecha:"), 0, 0);
         grid.add(datePicker, 1, 0);
         grid.add(new Label("Hora (HH:mm):"), 0, 1);
-        grid.add(timeField, 1, 1);
+        Button sugerirButton = new Button("Sugerir horario");
+        sugerirButton.setOnAction(e -> sugerirHorario(datePicker.getValue(), vetCombo.getValue(), tipoCombo.getValue(),
+                cita != null ? cita.getIdCita() : null, timeField));
+        grid.add(new HBox(10, timeField, sugerirButton), 1, 1);
         grid.add(new Label("Tipo de Servicio:"), 0, 2);
         grid.add(tipoCombo, 1, 2);
         grid.add(new Label("Nombre:"), 0, 3);
@@ -245,16 +405,25 @@ public class VentanaCitas {
         grid.add(contactoField, 1, 4);
 
         grid.add(new Label("Veterinario:"), 0, 5);
-        grid.add(vetCombo, 1, 5);
+        Button asignarButton = new Button("Asignar automáticamente");
+        asignarButton.setOnAction(e -> asignarVeterinario(datePicker.getValue(), timeField, tipoCombo.getValue(), vetCombo));
+        grid.add(new HBox(10, vetCombo, asignarButton), 1, 5);
         grid.add(new Label("Motivo:"), 0, 6);
         grid.add(motivoField, 1, 6);
         grid.add(new Label("Notas:"), 0, 7);
         grid.add(notasArea, 1, 7);
 
         CheckBox enviarCorreoCheck = null;
+        ComboBox<String> repetirCombo = new ComboBox<>(FXCollections.observableArrayList(
+                NO_SE_REPITE, "Cada día", "Cada semana", "Cada mes"));
+        repetirCombo.getSelectionModel().selectFirst();
+        TextField vecesField = new TextField("4");
+        vecesField.setPrefColumnCount(3);
         if (cita == null) {
             enviarCorreoCheck = new CheckBox("Enviar confirmación por correo (si el contacto es un email)");
             grid.add(enviarCorreoCheck, 1, 8);
+            grid.add(new Label("Repetir:"), 0, 9);
+            grid.add(new HBox(10, repetirCombo, new Label("Veces:"), vecesField), 1, 9);
         }
 
         dialog.getDialogPane().setContent(grid);
@@ -279,7 +448,15 @@ public class VentanaCitas {
                     String motivo = motivoField.getText();
                     String notas = notasArea.getText();
 
-                    if (cita == null) {
+                    if (cita == null && !NO_SE_REPITE.equals(repetirCombo.getValue())) {
+                        Recurrencia.Frecuencia frecuencia = switch (repetirCombo.getSelectionModel().getSelectedIndex()) {
+                            case 1 -> Recurrencia.Frecuencia.DIARIA;
+                            case 2 -> Recurrencia.Frecuencia.SEMANAL;
+                            default -> Recurrencia.Frecuencia.MENSUAL;
+                        };
+                        Recurrencia recurrencia = Recurrencia.veces(frecuencia, 1, Integer.parseInt(vecesField.getText().trim()));
+                        control.agendarSerie(fechaHora, tipo, nombre, contacto, enviar, veterinario, motivo, notas, recurrencia);
+                    } else if (cita == null) {
                         control.agendarCita(fechaHora, tipo, nombre, contacto, enviar, veterinario, motivo, notas);
                     } else {
                         control.modificarCita(cita.getIdCita(), fechaHora, tipo, nombre, contacto, veterinario, motivo, notas);
@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import jakarta.annotation.PostConstruct;
+import mx.uam.ayd.proyecto.negocio.modelo.DimensionVenta;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
 import mx.uam.ayd.proyecto.presentacion.registroVentas.VentanaRegistroVentas;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -78,9 +79,11 @@ public class ControlGenerarReporte {
      * @param tipoReporte Tipo de reporte seleccionado (por ejemplo, tabla o gráfica).
      * @param periodicidad Periodicidad del reporte (diaria, mensual, etc.).
      * @param tipoProducto Tipo de producto a incluir en el reporte.
+     * @param desglose Dimensión por la que se desglosa cada periodo (producto, marca, membresía o cliente).
      */
-    public void reporteGenerado(LocalDate desde, LocalDate hasta, String tipoReporte, String periodicidad, TipoProducto tipoProducto){
-        controlReporteGenerado.inicia(desde, hasta, tipoReporte, periodicidad, tipoProducto);
+    public void reporteGenerado(LocalDate desde, LocalDate hasta, String tipoReporte, String periodicidad,
+                                TipoProducto tipoProducto, DimensionVenta desglose){
+        controlReporteGenerado.inicia(desde, hasta, tipoReporte, periodicidad, tipoProducto, desglose);
     }
 
     /**
@@ -1,5 +1,6 @@
 package mx.uam.ayd.proyecto.presentacion.generarReporte;
 
+import mx.uam.ayd.proyecto.negocio.modelo.DimensionVenta;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.ReporteVentaDTO;
 import java.util.List;
@@ -56,12 +57,13 @@ public class ControlReporteGenerado {
      * @param tipoReporte tipo de reporte solicitado ("Grafica" o "Tabla")
      * @param periodicidad periodicidad de los datos ("Diario", "Mensual", etc.)
      * @param tipoProducto tipo de producto para filtrar el reporte
+     * @param desglose dimensión por la que se desglosa cada periodo
      */
     public void inicia(LocalDate desde, LocalDate hasta, String tipoReporte,
-                       String periodicidad, TipoProducto tipoProducto) {
+                       String periodicidad, TipoProducto tipoProducto, DimensionVenta desglose) {
         try {
             List<ReporteVentaDTO> ventas = servicioVenta.recuperarVenta(
-                    desde, hasta, tipoProducto, periodicidad);
+                    desde, hasta, tipoProducto, periodicidad, desglose);
 
             if (ventas.isEmpty()) {
                 ventana.muestraDialogoConMensaje("No hay ventas con estos filtros");
@@ -70,7 +72,7 @@ public class ControlReporteGenerado {
                     ventana.muestraDialogoConMensaje("Tipo de reporte inválido: " + tipoReporte);
                     return;
                 }
-                ventana.muestra(ventas, tipoReporte, periodicidad);
+                ventana.muestra(ventas, tipoReporte, periodicidad, desglose);
             }
         } catch (Exception e) {
             ventana.muestraDialogoConMensaje("Error al generar reporte: " + e.getMessage());
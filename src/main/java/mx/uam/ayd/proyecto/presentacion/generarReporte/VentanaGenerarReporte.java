@@ -41,6 +41,9 @@ public class VentanaGenerarReporte {
     @FXML
     private ComboBox<String> cmbPeriodicidad;
 
+    @FXML
+    private ComboBox<DimensionVenta> cmbDesglose;
+
     @FXML
     private DatePicker dtpDesde;
 
@@ -114,9 +117,13 @@ public class VentanaGenerarReporte {
         ObservableList<String> tipoReporte = FXCollections.observableArrayList("Tabla", "Grafica");
         cmbTipoReporte.setItems(tipoReporte);
 
-        ObservableList<String> periodicidad = FXCollections.observableArrayList("Diario", "Mensual");
+        ObservableList<String> periodicidad = FXCollections.observableArrayList("Diario", "Semanal", "Mensual", "Trimestral");
         cmbPeriodicidad.setItems(periodicidad);
 
+        cmbDesglose.setItems(FXCollections.observableArrayList(
+                DimensionVenta.PRODUCTO, DimensionVenta.MARCA, DimensionVenta.MEMBRESIA, DimensionVenta.CLIENTE));
+        cmbDesglose.getSelectionModel().select(DimensionVenta.PRODUCTO);
+
         // Controla habilitación de periodicidad según tipo de reporte
         cmbTipoReporte.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if ("Grafica".equals(newVal)) {
@@ -193,7 +200,8 @@ public class VentanaGenerarReporte {
                         dtpHasta.getValue(),
                         cmbTipoReporte.getValue(),
                         cmbPeriodicidad.getValue(),
-                        cmbTipoProducto.getValue());
+                        cmbTipoProducto.getValue(),
+                        cmbDesglose.getValue());
             }
         } else {
             control.reporteGenerado(
@@ -201,7 +209,8 @@ public class VentanaGenerarReporte {
                     dtpHasta.getValue(),
                     cmbTipoReporte.getValue(),
                     "Diario", // periodicidad por defecto para "Tabla"
-                    cmbTipoProducto.getValue());
+                    cmbTipoProducto.getValue(),
+                    cmbDesglose.getValue());
         }
     }
 
@@ -4,9 +4,14 @@ import javafx.scene.Parent;
 import javafx.scene.control.*;
 import mx.uam.ayd.proyecto.negocio.modelo.*;
 
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.XYChart;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.application.Platform;
@@ -17,6 +22,7 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
+import mx.uam.ayd.proyecto.negocio.MuestreoReporte;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -28,9 +34,25 @@ import java.time.LocalDate;
  * Muestra los datos de ventas ya procesados en forma de tabla o gráfica,
  * según la selección del usuario. Se asegura de operar sobre el hilo de JavaFX
  * para la manipulación de la interfaz gráfica.
+ *
+ * La gráfica se dibuja con un número acotado de barras (ver {@link MuestreoReporte})
+ * y, en reportes grandes, la tabla se llena por bloques conforme el usuario se desplaza.
  */
 @Component
 public class VentanaReporteGenerado {
+
+    /** Número máximo de series en la gráfica; el resto se agrupa en "Otros". */
+    private static final int MAX_SERIES = 8;
+
+    /** Número máximo aproximado de barras en la gráfica. */
+    private static final int MAX_PUNTOS = 240;
+
+    /** A partir de este número de filas la tabla se llena por bloques. */
+    private static final int UMBRAL_TABLA = 1000;
+
+    /** Filas que se agregan a la tabla en cada bloque. */
+    private static final int BLOQUE_TABLA = 250;
+
     private Stage stage;
     private ControlReporteGenerado control;
 
@@ -50,6 +72,8 @@ public class VentanaReporteGenerado {
     private TableColumn<ReporteVentaDTO, Double> columnTotal;
 
     private ObservableList<ReporteVentaDTO> ventas = FXCollections.observableArrayList();;
+    private final ObservableList<ReporteVentaDTO> filasTabla = FXCollections.observableArrayList();
+    private boolean scrollConfigurado = false;
     private boolean initialized = false;
     public VentanaReporteGenerado() {
         // Don't initialize JavaFX components in constructor
@@ -84,11 +108,12 @@ public class VentanaReporteGenerado {
 
             // Configura las columnas de la tabla con las propiedades del DTO
             columnFecha.setCellValueFactory(new PropertyValueFactory<>("fecha"));
-            columnProducto.setCellValueFactory(new PropertyValueFactory<>("nombreProducto"));
-            columnTipo.setCellValueFactory(cellData ->
-                    new javafx.beans.property.SimpleStringProperty(cellData.getValue().getTipoProducto().toString()));
+            columnProducto.setCellValueFactory(new PropertyValueFactory<>("etiqueta"));
+            columnTipo.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                    cellData.getValue().getTipoProducto() == null ? "" : cellData.getValue().getTipoProducto().toString()));
             columnVenta.setCellValueFactory(new PropertyValueFactory<>("cantidadVendida"));
             columnTotal.setCellValueFactory(new PropertyValueFactory<>("totalVenta"));
+            tblVentas.setItems(filasTabla);
 
             initialized = true;
         } catch (IOException e) {
@@ -114,14 +139,16 @@ public class VentanaReporteGenerado {
      * @param ventas lista con los datos de ventas para mostrar
      * @param tipoReporte tipo de reporte ("Grafica" o cualquier otro valor para tabla)
      * @param periodicidad periodicidad del reporte ("Diario", "Mensual", etc.)
+     * @param desglose dimensión por la que se desglosa cada periodo
      */
-    public void muestra(List<ReporteVentaDTO> ventas, String tipoReporte, String periodicidad) {
+    public void muestra(List<ReporteVentaDTO> ventas, String tipoReporte, String periodicidad, DimensionVenta desglose) {
         if (!Platform.isFxApplicationThread()) {
-            Platform.runLater(() -> this.muestra(ventas, tipoReporte, periodicidad));
+            Platform.runLater(() -> this.muestra(ventas, tipoReporte, periodicidad, desglose));
             return;
         }
 
         initializeUI();
+        columnProducto.setText(desglose != null ? desglose.getEtiqueta() : DimensionVenta.PRODUCTO.getEtiqueta());
 
         barChartVentas.getData().clear();
         barChartVentas.setVisible(false);
@@ -129,24 +156,86 @@ public class VentanaReporteGenerado {
         this.ventas = FXCollections.observableArrayList(ventas);
 
         if ("Grafica".equalsIgnoreCase(tipoReporte)) {
-            // Preparar y mostrar gráfica de barras
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName("Ventas");
+            muestraGrafica(ventas, DimensionVenta.dePeriodicidad(periodicidad));
+            stage.show();
+        } else {
+            // Reportes grandes: solo el primer bloque, el resto se agrega al desplazarse
+            int primeras = ventas.size() > UMBRAL_TABLA ? BLOQUE_TABLA : ventas.size();
+            filasTabla.setAll(ventas.subList(0, primeras));
+            tblVentas.scrollTo(0);
+            tblVentas.setVisible(true);
+            stage.show();
+            configuraScrollTabla();
+        }
+    }
+
+    /**
+     * Dibuja una serie por etiqueta (agrupación) y una categoría por periodo,
+     * con los puntos ya reducidos para no saturar la gráfica.
+     */
+    private void muestraGrafica(List<ReporteVentaDTO> ventas, DimensionVenta periodo) {
+        MuestreoReporte.Resultado resultado = MuestreoReporte.reducir(ventas, periodo, MAX_SERIES, MAX_PUNTOS);
+        DimensionVenta periodoGrafica = resultado.getPeriodo();
 
-            for (ReporteVentaDTO dto : ventas) {
-                String label = dto.getNombreProducto() + "  " + dto.getFecha().toString();
-                series.getData().add(new XYChart.Data<>(label, dto.getCantidadVendida()));
+        // Las categorías se fijan en orden cronológico para que no dependan del orden de las series
+        List<String> categorias = new ArrayList<>();
+        for (LocalDate fecha : resultado.getFechas()) {
+            categorias.add(MuestreoReporte.etiquetaPeriodo(fecha, periodoGrafica));
+        }
+        CategoryAxis eje = (CategoryAxis) barChartVentas.getXAxis();
+        eje.setAutoRanging(false);
+        eje.setCategories(FXCollections.observableArrayList(categorias));
+
+        List<XYChart.Series<String, Number>> series = new ArrayList<>();
+        for (Map.Entry<String, List<ReporteVentaDTO>> entrada : resultado.getSeries().entrySet()) {
+            XYChart.Series<String, Number> serie = new XYChart.Series<>();
+            serie.setName(entrada.getKey());
+            List<XYChart.Data<String, Number>> puntos = new ArrayList<>(entrada.getValue().size());
+            for (ReporteVentaDTO dto : entrada.getValue()) {
+                puntos.add(new XYChart.Data<>(MuestreoReporte.etiquetaPeriodo(dto.getFecha(), periodoGrafica),
+                        dto.getCantidadVendida()));
             }
+            serie.getData().setAll(puntos);
+            series.add(serie);
+        }
 
-            barChartVentas.getData().add(series);
-            barChartVentas.setVisible(true);
-        } else {
-            // Mostrar tabla con los datos
-            tblVentas.setItems(this.ventas);
-            tblVentas.setVisible(true);
+        barChartVentas.setAnimated(false);
+        barChartVentas.getData().setAll(series);
+        barChartVentas.setTitle(resultado.isReducido()
+                ? "Ventas (" + periodoGrafica.getEtiqueta().toLowerCase() + ", resumido)"
+                : "Ventas");
+        barChartVentas.setVisible(true);
+    }
+
+    /**
+     * Agrega el siguiente bloque de filas a la tabla cuando la barra de desplazamiento
+     * llega al final. Solo se configura una vez, cuando la tabla ya tiene skin.
+     */
+    private void configuraScrollTabla() {
+        if (scrollConfigurado) {
+            return;
+        }
+        tblVentas.applyCss();
+        tblVentas.layout();
+        for (Node nodo : tblVentas.lookupAll(".scroll-bar")) {
+            if (nodo instanceof ScrollBar && ((ScrollBar) nodo).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar barra = (ScrollBar) nodo;
+                barra.valueProperty().addListener((obs, anterior, actual) -> {
+                    if (actual.doubleValue() >= barra.getMax() * 0.95) {
+                        agregaBloqueTabla();
+                    }
+                });
+                scrollConfigurado = true;
+            }
         }
+    }
 
-        stage.show();
+    private void agregaBloqueTabla() {
+        int mostradas = filasTabla.size();
+        if (mostradas >= ventas.size()) {
+            return;
+        }
+        filasTabla.addAll(ventas.subList(mostradas, Math.min(mostradas + BLOQUE_TABLA, ventas.size())));
     }
 
     /**
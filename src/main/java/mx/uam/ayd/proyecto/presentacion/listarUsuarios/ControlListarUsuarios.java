@@ -9,7 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import mx.uam.ayd.proyecto.negocio.ServicioUsuario;
-import mx.uam.ayd.proyecto.negocio.modelo.Usuario;
+import mx.uam.ayd.proyecto.negocio.modelo.UsuarioResumen;
 
 @Component
 public class ControlListarUsuarios {
@@ -38,11 +38,9 @@ public class ControlListarUsuarios {
 	 * Inicia el caso de uso
 	 */
 	public void inicia() {
-		List<Usuario> usuarios = servicioUsuario.recuperaUsuarios();
+		List<UsuarioResumen> usuarios = servicioUsuario.recuperaResumenUsuarios();
 		
-		for(Usuario usuario : usuarios) {
-			log.info("usuario: " + usuario);
-		}
+		log.info("usuarios: " + usuarios.size());
 		
 		ventana.muestra(usuarios);
 	}
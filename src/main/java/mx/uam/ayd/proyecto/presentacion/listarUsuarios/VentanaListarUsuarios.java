@@ -3,6 +3,7 @@ package mx.uam.ayd.proyecto.presentacion.listarUsuarios;
 import java.util.List;
 
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -10,14 +11,13 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 
-import mx.uam.ayd.proyecto.negocio.modelo.Usuario;
+import mx.uam.ayd.proyecto.negocio.modelo.UsuarioResumen;
 
 /**
  * Ventana para listar usuarios usando JavaFX con FXML
@@ -28,19 +28,19 @@ public class VentanaListarUsuarios {
 	private Stage stage;
 	
 	@FXML
-	private TableView<Usuario> tableUsuarios;
+	private TableView<UsuarioResumen> tableUsuarios;
 	
 	@FXML
-	private TableColumn<Usuario, Long> idColumn;
+	private TableColumn<UsuarioResumen, Long> idColumn;
 	
 	@FXML
-	private TableColumn<Usuario, String> nombreColumn;
+	private TableColumn<UsuarioResumen, String> nombreColumn;
 	
 	@FXML
-	private TableColumn<Usuario, String> apellidoColumn;
+	private TableColumn<UsuarioResumen, String> apellidoColumn;
 	
 	@FXML
-	private TableColumn<Usuario, Integer> edadColumn;
+	private TableColumn<UsuarioResumen, Integer> edadColumn;
 	
 	private ControlListarUsuarios control;
 	private boolean initialized = false;
@@ -77,10 +77,10 @@ public class VentanaListarUsuarios {
 			stage.setScene(scene);
 			
 			// Configure columns after FXML is loaded
-			idColumn.setCellValueFactory(new PropertyValueFactory<>("idUsuario"));
-			nombreColumn.setCellValueFactory(new PropertyValueFactory<>("nombre"));
-			apellidoColumn.setCellValueFactory(new PropertyValueFactory<>("apellido"));
-			edadColumn.setCellValueFactory(new PropertyValueFactory<>("edad"));
+			idColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getIdUsuario()));
+			nombreColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getNombre()));
+			apellidoColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getApellido()));
+			edadColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getEdad()));
 			
 			initialized = true;
 		} catch (IOException e) {
@@ -102,7 +102,7 @@ public class VentanaListarUsuarios {
 	 * 
 	 * @param usuarios La lista de usuarios a mostrar
 	 */
-	public void muestra(List<Usuario> usuarios) {
+	public void muestra(List<UsuarioResumen> usuarios) {
 		if (!Platform.isFxApplicationThread()) {
 			Platform.runLater(() -> this.muestra(usuarios));
 			return;
@@ -110,7 +110,7 @@ public class VentanaListarUsuarios {
 		
 		initializeUI();
 		
-		ObservableList<Usuario> data = FXCollections.observableArrayList(usuarios);
+		ObservableList<UsuarioResumen> data = FXCollections.observableArrayList(usuarios);
 		tableUsuarios.setItems(data);
 		
 		stage.show();
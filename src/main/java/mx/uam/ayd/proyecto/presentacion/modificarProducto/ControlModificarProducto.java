@@ -14,6 +14,7 @@ import org.springframework.stereotype.Component;
 import mx.uam.ayd.proyecto.negocio.ServicioProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.Producto;
 import mx.uam.ayd.proyecto.presentacion.Inventario.Controlinventario;
+import mx.uam.ayd.proyecto.negocio.validacion.ValidacionException;
 
 /**
  * Controlador encargado de manejar la lógica de la vista {@link VentanaModificarProducto}.
@@ -96,20 +97,21 @@ public class ControlModificarProducto {
      * @param unidadProducto Unidad de medida del producto.
      * @param fechaCaducidad Nueva fecha de caducidad.
      * @param usoVeterinario Uso veterinario asociado al producto.
+     * @param codigoBarras Código de barras o SKU (vacío para quitarlo).
      */
     public void modificarProducto(Producto producto, String nombre, TipoProducto tipoProducto, MarcaProducto marcaProducto,
                                   double precio, int cantidad, UnidadProducto unidadProducto, LocalDate fechaCaducidad,
-                                  UsoVeterinario usoVeterinario) {
+                                  UsoVeterinario usoVeterinario, String codigoBarras) {
         try {
             // Llama al servicio para registrar los cambios del producto
             servicioProducto.modificarProducto(producto, nombre, tipoProducto, marcaProducto,
-                    precio, cantidad, unidadProducto, fechaCaducidad, usoVeterinario);
+                    precio, cantidad, unidadProducto, fechaCaducidad, usoVeterinario, codigoBarras);
 
             // Notifica al usuario que la operación fue exitosa
             ventana.muestraDialogoConMensaje("Producto modificado exitosamente.");
         } catch (Exception ex) {
             // Muestra el mensaje de error en caso de excepción
-            ventana.muestraDialogoConMensaje("Error al modificar producto: " + ex.getMessage());
+            ventana.muestraDialogoConMensaje("Error al modificar producto: " + ValidacionException.mensajeDe(ex));
         }
 
         // Cierra la ventana después de intentar modificar el producto
@@ -52,6 +52,7 @@ public class VentanaModificarProducto {
     @FXML private TextField txtNombre;
     @FXML private TextField txtCantidad;
     @FXML private TextField txtPrecio;
+    @FXML private TextField txtCodigoBarras;
     @FXML private ComboBox<TipoProducto> cmbTipo;
     @FXML private ComboBox<UnidadProducto> cmbUnidad;
     @FXML private ComboBox<MarcaProducto> cmbMarca;
@@ -156,6 +157,7 @@ public class VentanaModificarProducto {
         txtCantidad.setText(String.valueOf(producto.getCantidadStock()));
         txtPrecio.setText(String.valueOf(producto.getPrecio()));
         lblIdProducto.setText(String.valueOf(producto.getIdProducto()));
+        txtCodigoBarras.setText(producto.getCodigoBarras() != null ? producto.getCodigoBarras() : "");
 
         // Configurar ComboBox según tipo de producto
         String filtroTipo = producto.getTipoProducto().toString();
@@ -281,7 +283,8 @@ public class VentanaModificarProducto {
                 Integer.parseInt(txtCantidad.getText()),
                 cmbUnidad.getValue(),
                 dtpFechaCaducidad.getValue(),
-                cmbUsoVeterinario.getValue()
+                cmbUsoVeterinario.getValue(),
+                txtCodigoBarras.getText()
         );
     }
 
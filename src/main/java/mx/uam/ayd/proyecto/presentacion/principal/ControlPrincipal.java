@@ -169,4 +169,11 @@ public class ControlPrincipal {
 
     }
 
+    /**
+     * Método que arranca la ronda diaria de hospedaje (todos los huéspedes a la vez)
+     */
+    public void rondaDiariaHospedaje() {
+        controlRegistroDiarioHospedaje.iniciaRonda();
+    }
+
 }
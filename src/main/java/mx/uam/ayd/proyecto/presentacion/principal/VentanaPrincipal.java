@@ -173,6 +173,13 @@ public class VentanaPrincipal {
         control.registrarDiarioHospedaje();
     }
 
+    @FXML
+    private void handleRondaDiariaHospedaje() {
+        if (control != null) {
+            control.rondaDiariaHospedaje();
+        }
+    }
+
     /**
      * Muestra una alerta en pantalla con un mensaje.
      * @param mensaje Texto a mostrar en la ventana de alerta.
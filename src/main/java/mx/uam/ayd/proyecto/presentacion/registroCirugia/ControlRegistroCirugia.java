@@ -7,6 +7,7 @@ import mx.uam.ayd.proyecto.negocio.ServicioCliente;
 import mx.uam.ayd.proyecto.negocio.ServicioMascota;
 import mx.uam.ayd.proyecto.negocio.ServicioCirugia;
 import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.validacion.ValidacionException;
 import javafx.scene.control.Alert;
 import java.time.LocalDate;
 
@@ -92,7 +93,7 @@ public class ControlRegistroCirugia {
 
 		} catch (IllegalArgumentException e) {
 			// Captura errores de validación (datos vacíos, fechas inválidas, etc)
-			ventanaDatos.muestraAlerta(Alert.AlertType.ERROR, "Error de validación", e.getMessage());
+			ventanaDatos.muestraAlerta(Alert.AlertType.ERROR, "Error de validación", ValidacionException.mensajeDe(e));
 		} catch (Exception e) {
 			// Captura cualquier otro error inesperado
 			ventanaDatos.muestraAlerta(Alert.AlertType.ERROR, "Error", "Error al guardar: " + e.getMessage());
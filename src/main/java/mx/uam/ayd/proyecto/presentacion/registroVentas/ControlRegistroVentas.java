@@ -1,6 +1,9 @@
 package mx.uam.ayd.proyecto.presentacion.registroVentas;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +12,8 @@ import org.springframework.stereotype.Component;
 import mx.uam.ayd.proyecto.negocio.ServicioVenta;
 import mx.uam.ayd.proyecto.negocio.ServicioDetalleVenta;
 import mx.uam.ayd.proyecto.negocio.ServicioProducto;
-import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+import mx.uam.ayd.proyecto.negocio.ServicioSesionVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.CarritoVenta;
 import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
 import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
 import mx.uam.ayd.proyecto.negocio.modelo.Producto;
@@ -20,6 +24,8 @@ import mx.uam.ayd.proyecto.util.UtilPDF;
  *
  * Gestiona la interacción entre la interfaz gráfica VentanaRegistroVentas
  * y los servicios de negocio relacionados con ventas, detalles de ventas y productos.
+ * Los carritos viven en ServicioSesionVenta; el control solo recuerda qué sesión
+ * se está mostrando en la ventana.
  */
 @Component
 public class ControlRegistroVentas {
@@ -27,21 +33,26 @@ public class ControlRegistroVentas {
     private final ServicioVenta servicioVenta;
     private final ServicioDetalleVenta servicioDetalleVenta;
     private final ServicioProducto servicioProducto;
+    private final ServicioSesionVenta servicioSesionVenta;
     private final VentanaRegistroVentas ventana;
     private final UtilPDF utilPDF = new UtilPDF();
     
 
     /**
-     * Venta actual en proceso.
+     * Sesión de venta que se muestra en la ventana.
      */
-    private Venta venta;
-    private Cliente cliente;
+    private String idSesion;
+    /**
+     * Productos cargados en la ventana por ID, para resolver las lecturas del escáner sin recargar la lista.
+     */
+    private final Map<Long, Producto> productosPorId = new HashMap<>();
     /**
      * Constructor con inyección de dependencias.
      *
      * @param servicioVenta Servicio para manejo de ventas.
      * @param servicioDetalleVenta Servicio para manejo de detalles de venta.
      * @param servicioProducto Servicio para manejo de productos.
+     * @param servicioSesionVenta Registro de las ventas en captura.
      * @param ventana Vista asociada a registro de ventas.
      */
     @Autowired
@@ -49,10 +60,12 @@ public class ControlRegistroVentas {
             ServicioVenta servicioVenta,
             ServicioDetalleVenta servicioDetalleVenta,
             ServicioProducto servicioProducto,
+            ServicioSesionVenta servicioSesionVenta,
             VentanaRegistroVentas ventana) {
         this.servicioVenta = servicioVenta;
         this.servicioDetalleVenta = servicioDetalleVenta;
         this.servicioProducto = servicioProducto;
+        this.servicioSesionVenta = servicioSesionVenta;
         this.ventana = ventana;
     }
 
@@ -65,98 +78,197 @@ public class ControlRegistroVentas {
         ventana.setControlRegistroVentas(this);
     }
 
+    /**
+     * Inicia una venta a público general.
+     */
+    public void inicia() {
+        inicia(null);
+    }
+
     /**
      * Inicia el proceso de registro de ventas.
      *
-     * Recupera la lista de productos y crea una nueva venta.
-     * Luego muestra la ventana con los datos inicializados.
+     * Recupera la lista de productos y abre una nueva sesión de venta.
+     * Si la ventana tenía una venta con productos, se estaciona para no perderla.
      *
      * En caso de error al crear la venta, muestra mensaje al usuario.
+     *
+     * @param cliente cliente de la venta, o null para público general
      */
-    public void inicia() {
-        List<Producto> productos = servicioProducto.recuperaProductosConStock();
-        if (productos.isEmpty()) {
-            ventana.muestraDialogoConMensaje("No hay productos con stock disponible, por favor agregue manualmente productos primero");
-        } else {
-            try {
-                this.venta = servicioVenta.crearVenta();
-            } catch(Exception ex) {
-                ventana.muestraDialogoConMensaje("Ocurrió un error al crear la venta");
-            }
-
-            ventana.muestra(productos, venta);
-        }
-    }
-
     public void inicia(Cliente cliente) {
-        this.cliente = cliente;
         List<Producto> productos = servicioProducto.recuperaProductosConStock();
         if (productos.isEmpty()) {
             ventana.muestraDialogoConMensaje("No hay productos con stock disponible, por favor agregue manualmente productos primero");
-        } else {
-            try {
-                this.venta = servicioVenta.crearVenta();
-            } catch(Exception ex) {
-                ventana.muestraDialogoConMensaje("Ocurrió un error al crear la venta");
-            }
+            return;
+        }
 
-            ventana.muestra(productos, venta, cliente);
+        dejarSesionActual();
+        cargarProductos(productos);
+        try {
+            CarritoVenta carrito = servicioSesionVenta.abrirSesion(cliente);
+            this.idSesion = carrito.getIdSesion();
+            ventana.muestra(productos, carrito);
+        } catch(Exception ex) {
+            ventana.muestraDialogoConMensaje("Ocurrió un error al crear la venta");
         }
     }
 
     /**
-     * Crea un detalle de venta para un producto con cantidad dada.
+     * Agrega un producto con la cantidad dada a la venta que se muestra.
      *
      * Llama al servicioDetalleVenta y muestra mensajes según el resultado.
      *
      * @param producto Producto a agregar.
      * @param cantidad Cantidad vendida.
-     * @param detalleVentas Lista actual de detalles de venta para evitar duplicados.
-     * @return El detalle de venta creado.
-     * @throws Exception Si ocurre algún error al agregar el producto.
+     * @return El carrito actualizado.
      */
-    public DetalleVenta crearDetalleVenta(Producto producto, int cantidad, List<DetalleVenta> detalleVentas, Cliente cliente) {
+    public CarritoVenta agregarProducto(Producto producto, int cantidad) {
+        CarritoVenta carrito = carritoActual();
         try {
-            DetalleVenta detalleVenta = servicioDetalleVenta.newDetalleVenta(producto, cantidad, venta, detalleVentas, cliente);
+            servicioDetalleVenta.agregarProducto(carrito, producto, cantidad);
             ventana.muestraDialogoConMensaje("Producto agregado exitosamente");
-            return detalleVenta;
         } catch (Exception ex) {
             ventana.muestraDialogoConMensaje("Error al agregar el producto: " + ex.getMessage());
-            throw ex;
         }
+        return carrito;
+    }
+
+    /**
+     * Agrega una unidad del producto leído con el escáner a la venta que se muestra.
+     *
+     * El código se resuelve con el índice en memoria de ServicioProducto y el producto se toma
+     * de los que ya están cargados en la ventana; solo si no está cargado se consulta por su ID.
+     * Una lectura correcta no muestra diálogo para no frenar el escaneo.
+     *
+     * @param codigoBarras Código leído.
+     * @return El carrito actualizado.
+     */
+    public CarritoVenta escanearCodigo(String codigoBarras) {
+        CarritoVenta carrito = carritoActual();
+        Optional<Long> idProducto = servicioProducto.buscarIdPorCodigoBarras(codigoBarras);
+        if (idProducto.isEmpty()) {
+            ventana.muestraDialogoConMensaje("No hay ningún producto con el código " + codigoBarras);
+            return carrito;
+        }
+        try {
+            Producto producto = productosPorId.computeIfAbsent(idProducto.get(), servicioProducto::recuperaProducto);
+            servicioDetalleVenta.sumarUnidad(carrito, producto);
+        } catch (Exception ex) {
+            ventana.muestraDialogoConMensaje("Error al agregar el producto: " + ex.getMessage());
+        }
+        return carrito;
     }
 
     /**
-     * Actualiza el stock de los productos vendidos según los detalles de venta.
+     * Cambia la cantidad de un producto de la venta que se muestra; con 0 se elimina.
      *
-     * @param detallesVenta Lista con los detalles de la venta para actualizar stock.
+     * @param producto Producto a modificar.
+     * @param cantidad Nueva cantidad.
+     * @return El carrito actualizado.
+     */
+    public CarritoVenta modificarProducto(Producto producto, int cantidad) {
+        CarritoVenta carrito = carritoActual();
+        try {
+            servicioDetalleVenta.modificarCantidad(carrito, producto, cantidad);
+            ventana.muestraDialogoConMensaje(cantidad == 0 ? "Producto eliminado" : "Modificando correctamente");
+        } catch (Exception ex) {
+            ventana.muestraDialogoConMensaje("Error al modificar el producto: " + ex.getMessage());
+        }
+        return carrito;
+    }
+
+    /**
+     * Estaciona la venta que se muestra y abre una nueva para el siguiente cliente.
      */
-    public void actualizarStock(List<DetalleVenta> detallesVenta) {
-        for (DetalleVenta detalle : detallesVenta) {
-            servicioVenta.actualizarStock(detalle.getProducto(), detalle.getCantidadVendida());
+    public void estacionarVenta() {
+        CarritoVenta carrito = carritoActual();
+        if (carrito.isVacio()) {
+            ventana.muestraDialogoConMensaje("No hay productos en la venta para estacionar");
+            return;
         }
+        servicioSesionVenta.estacionar(idSesion);
+        idSesion = null;
+        ventana.muestraDialogoConMensaje("Venta estacionada");
+        inicia(null);
     }
 
     /**
-     * Guarda la venta con el monto total calculado a partir de los detalles.
+     * Ventas estacionadas que se pueden reanudar.
      *
-     * @param detallesVenta Lista de detalles de venta para calcular el total.
+     * @return carritos estacionados, del más antiguo al más reciente
+     */
+    public List<CarritoVenta> recuperarEstacionadas() {
+        return servicioSesionVenta.recuperarEstacionadas();
+    }
+
+    /**
+     * Reanuda una venta estacionada; la venta que se mostraba se estaciona si tiene productos.
+     *
+     * @param carrito Carrito estacionado a reanudar.
+     */
+    public void reanudarVenta(CarritoVenta carrito) {
+        if (carrito == null || carrito.getIdSesion().equals(idSesion)) {
+            return;
+        }
+        dejarSesionActual();
+        try {
+            CarritoVenta reanudado = servicioSesionVenta.reanudar(carrito.getIdSesion());
+            this.idSesion = reanudado.getIdSesion();
+            List<Producto> productos = servicioProducto.recuperaProductosConStock();
+            cargarProductos(productos);
+            ventana.muestra(productos, reanudado);
+            if (!servicioSesionVenta.renovarReservas(idSesion)) {
+                ventana.muestraDialogoConMensaje("Algunos productos de la venta ya no tienen stock suficiente; revise las cantidades");
+            }
+        } catch (IllegalArgumentException ex) {
+            ventana.muestraDialogoConMensaje("La venta ya no está disponible");
+        }
+    }
+
+    /**
+     * Finaliza la venta que se muestra: guarda la venta y sus detalles y actualiza el stock en
+     * una sola transacción, genera el documento y cierra la sesión. Sin productos, la venta se
+     * cancela; si falta stock no se guarda nada y la venta sigue abierta para corregirla.
      */
-    public void guardarVenta(List<DetalleVenta> detallesVenta) {
-        double montoTotal = 0;
-        for (DetalleVenta detalleVenta : detallesVenta) {
-            montoTotal += detalleVenta.getSubtotal();
+    public void finalizarVenta() {
+        CarritoVenta carrito = carritoActual();
+        if (carrito.isVacio()) {
+            cancelarVenta();
+            return;
+        }
+
+        List<DetalleVenta> detallesVenta = carrito.getDetalles();
+        try {
+            servicioVenta.finalizarVenta(carrito.getVenta(), detallesVenta, calcularTotal(detallesVenta),
+                    carrito.getCliente());
+        } catch (IllegalStateException ex) {
+            ventana.muestraDialogoConMensaje("No se pudo finalizar la venta: " + ex.getMessage());
+            return;
         }
-        servicioVenta.guardarVenta(venta, montoTotal, cliente);
+        crearDocumento(carrito);
+
+        servicioSesionVenta.cerrarSesion(idSesion);
+        idSesion = null;
+        termina("Se creó la venta exitosamente");
+    }
+
+    /**
+     * Cancela la venta que se muestra; no guarda nada en la base de datos.
+     */
+    public void cancelarVenta() {
+        servicioSesionVenta.cerrarSesion(idSesion);
+        idSesion = null;
+        termina("Venta cancelada");
     }
 
     /**
-     * Guarda los detalles asociados a la venta.
+     * Calcula el total de la venta a partir de los subtotales de los detalles.
      *
-     * @param detallesVenta Lista de detalles a guardar.
+     * @param detallesVenta Lista de detalles de venta.
+     * @return Total exacto de la venta.
      */
-    public void guardarDetallesVenta(List<DetalleVenta> detallesVenta) {
-        servicioVenta.agregarDetallesVenta(detallesVenta);
+    public double calcularTotal(List<DetalleVenta> detallesVenta) {
+        return servicioDetalleVenta.calcularTotal(detallesVenta);
     }
 
     /**
@@ -172,11 +284,41 @@ public class ControlRegistroVentas {
     /**
      * Genera un documento asociado a la venta con sus detalles.
      *
-     * @param detallesVenta Lista de detalles para incluir en el documento.
+     * @param carrito Carrito con la venta y los detalles para incluir en el documento.
+     */
+    public void crearDocumento(CarritoVenta carrito) {
+        utilPDF.crearDocumentoVenta(carrito.getDetalles(), carrito.getVenta());
+    }
+
+    private void cargarProductos(List<Producto> productos) {
+        productosPorId.clear();
+        for (Producto producto : productos) {
+            productosPorId.put(producto.getIdProducto(), producto);
+        }
+    }
+
+    private CarritoVenta carritoActual() {
+        return servicioSesionVenta.obtenerSesion(idSesion);
+    }
+
+    /**
+     * Deja la sesión que se mostraba antes de cambiar de venta: se estaciona si tiene
+     * productos y se cierra si está vacía.
      */
-    public void crearDocumento(List<DetalleVenta> detallesVenta) {
-        //servicioVenta.crearDocumentoVenta(detallesVenta, venta);
-        utilPDF.crearDocumentoVenta(detallesVenta, venta);
+    private void dejarSesionActual() {
+        if (idSesion == null) {
+            return;
+        }
+        try {
+            if (servicioSesionVenta.obtenerSesion(idSesion).isVacio()) {
+                servicioSesionVenta.cerrarSesion(idSesion);
+            } else {
+                servicioSesionVenta.estacionar(idSesion);
+            }
+        } catch (IllegalArgumentException ex) {
+            // La sesión ya se había cerrado
+        }
+        idSesion = null;
     }
     //Deberia agregar que dependiendo de si se vende por kilo pueda seleccionar si se vendo por gramos
     //o por kilo y deberia poder aceptar decimales si es por kilo
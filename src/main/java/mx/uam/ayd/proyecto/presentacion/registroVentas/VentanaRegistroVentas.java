@@ -12,6 +12,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.Button;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TableView;
@@ -23,13 +24,10 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Objects;
-import java.util.function.LongToDoubleFunction;
 
-import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+import mx.uam.ayd.proyecto.negocio.modelo.CarritoVenta;
 import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
 import mx.uam.ayd.proyecto.negocio.modelo.Producto;
-import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
 
 /**
  * Controla la ventana para registrar ventas.
@@ -42,12 +40,12 @@ public class VentanaRegistroVentas{
     private Stage stage;
     private ControlRegistroVentas control;
 
-    private Venta venta;
-    private Cliente cliente;
-
     @FXML
     private TextField txtCantidad;
 
+    @FXML
+    private TextField txtCodigoBarras;
+
     @FXML
     private ComboBox<Producto> cmbProductos;
 
@@ -95,7 +93,7 @@ public class VentanaRegistroVentas{
             // Load FXML
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/ventana-registro-ventas.fxml"));
             loader.setController(this);
-            Scene scene = new Scene(loader.load(), 500, 420);
+            Scene scene = new Scene(loader.load(), 600, 460);
             stage.setScene(scene);
 
             txtCantidad.textProperty().addListener((obs, oldValue, newValue) -> {
@@ -121,16 +119,13 @@ public class VentanaRegistroVentas{
                     new javafx.beans.property.SimpleStringProperty(cellData.getValue().getProducto().getMarcaProducto().toString()));
 
             columnPrecio.setCellValueFactory(cellData ->
-                    new javafx.beans.property.SimpleDoubleProperty(cellData.getValue().getProducto().getPrecio()).asObject());
+                    new javafx.beans.property.SimpleDoubleProperty(cellData.getValue().getPrecioUnitario()).asObject());
 
             columnCantidad.setCellValueFactory(cellData ->
                     new javafx.beans.property.SimpleIntegerProperty(cellData.getValue().getCantidadVendida()).asObject());
 
-            columnSubtotal.setCellValueFactory(cellData -> {
-                DetalleVenta detalle = cellData.getValue(); //Mover a un servicio
-                double subtotal = detalle.getCantidadVendida() * detalle.getProducto().getPrecio();
-                return new javafx.beans.property.SimpleDoubleProperty(subtotal).asObject();
-            });
+            columnSubtotal.setCellValueFactory(cellData ->
+                    new javafx.beans.property.SimpleDoubleProperty(cellData.getValue().getSubtotal()).asObject());
 
             initialized = true;
         } catch (IOException e) {
@@ -152,15 +147,15 @@ public class VentanaRegistroVentas{
      * Muestra la ventana para registrar ventas.
      *
      * Inicializa la interfaz si no está inicializada, limpia y carga la lista de productos
-     * disponibles, establece la venta actual y muestra la ventana.
+     * disponibles, muestra el carrito de la sesión y muestra la ventana.
      * Se asegura que la operación se ejecute en el hilo de JavaFX.
      *
      * @param productos lista de productos disponibles para la venta
-     * @param venta     instancia actual de la venta en curso
+     * @param carrito   carrito de la sesión de venta que se muestra
      */
-    public void muestra(List<Producto> productos, Venta venta) {
+    public void muestra(List<Producto> productos, CarritoVenta carrito) {
         if (!Platform.isFxApplicationThread()) {
-            Platform.runLater(() -> this.muestra(productos, venta));
+            Platform.runLater(() -> this.muestra(productos, carrito));
             return;
         }
 
@@ -180,37 +175,24 @@ public class VentanaRegistroVentas{
             cmbProductos.setValue(cmbProductos.getItems().get(0));
         }
 
-        this.venta = venta;
+        muestraCarrito(carrito);
 
         stage.show();
+        txtCodigoBarras.requestFocus();
     }
 
-        public void muestra(List<Producto> productos, Venta venta, Cliente cliente) {
-        if (!Platform.isFxApplicationThread()) {
-            Platform.runLater(() -> this.muestra(productos, venta, cliente));
-            return;
-        }
-
-        initializeUI();
-
-        // Limpia cantidad y lista previa
-        txtCantidad.setText("");
-        cmbProductos.getItems().clear();
-
-        // Agrega productos al ComboBox
-        for(Producto producto : productos) {
-            cmbProductos.getItems().add(producto);
-        }
-
-        // Selecciona el primer producto si la lista no está vacía
-        if(!cmbProductos.getItems().isEmpty()) {
-            cmbProductos.setValue(cmbProductos.getItems().get(0));
-        }
-
-        this.venta = venta;
-        this.cliente = cliente;
-
-        stage.show();
+    /**
+     * Muestra en la tabla los productos del carrito y su total.
+     *
+     * @param carrito carrito de la sesión de venta que se muestra
+     */
+    private void muestraCarrito(CarritoVenta carrito) {
+        detallesVenta.setAll(carrito.getDetalles());
+        tableVenta.refresh();
+        lblTotal.setText("Total: " + carrito.getTotal());
+        stage.setTitle(carrito.getCliente() != null
+                ? "Registro de ventas - " + carrito.getCliente().getNombreCompleto()
+                : "Registro de ventas");
     }
 
     /**
@@ -264,63 +246,46 @@ public class VentanaRegistroVentas{
     /**
      * Evento asociado al botón "Agregar", agrega los productos a la tabla
      *
-     * Valida que los campos necesarios no sean nulos y agrega un detalle de venta a la lista.
-     * Actualiza la tabla con los detalles y calcula el total acumulado.
+     * Valida que los campos necesarios no sean nulos y agrega el producto al carrito.
+     * Actualiza la tabla con los detalles y el total del carrito.
      */
     @FXML
     private void handleAgregar() {
-        if(cmbProductos == null || txtCantidad == null) {
+        if(cmbProductos.getValue() == null || txtCantidad.getText().isEmpty()) {
             muestraDialogoConMensaje("Llene todos los campos");
         } else {
-            double montoTotal = 0;
-
-            // Crea un detalle de venta y lo agrega a la lista
-            detallesVenta.add(control.crearDetalleVenta(
-                    cmbProductos.getValue(),
-                    Integer.parseInt(txtCantidad.getText()),
-                    detallesVenta,
-                    cliente));
-
-            // Actualiza la tabla de venta con la lista actualizada
-            tableVenta.setItems(detallesVenta);
-
-            // Suma el subtotal de cada detalle para obtener el monto total
-            for(DetalleVenta detalleVenta : detallesVenta){
-                montoTotal += detalleVenta.getSubtotal();
-            }
+            muestraCarrito(control.agregarProducto(cmbProductos.getValue(), Integer.parseInt(txtCantidad.getText())));
 
             // Limpia la cantidad para un nuevo ingreso
             txtCantidad.clear();
+        }
+    }
 
-            // Actualiza la etiqueta con el total acumulado
-            lblTotal.setText("Total: " + montoTotal);
+    /**
+     * Evento del campo de código de barras: el escáner escribe el código y envía Enter.
+     *
+     * Agrega una unidad del producto leído y deja el campo vacío y con el foco para la siguiente lectura.
+     */
+    @FXML
+    private void handleEscanear() {
+        String codigo = txtCodigoBarras.getText();
+        txtCodigoBarras.clear();
+        if (codigo == null || codigo.isBlank()) {
+            return;
         }
+        muestraCarrito(control.escanearCodigo(codigo));
+        txtCodigoBarras.requestFocus();
     }
 
     /**
      * Evento asociado al botón "Finalizar".
      *
-     * Si no hay detalles de venta, cancela la venta.
-     * Si hay detalles, guarda la venta, los detalles, actualiza stock,
+     * Si no hay productos, cancela la venta; si hay, la guarda, actualiza stock,
      * genera el documento y termina el proceso mostrando mensaje de éxito.
-     * Finalmente limpia la lista de detalles.
      */
     @FXML
     private void handleFinalizar() {
-        if(detallesVenta == null) {
-            String mensaje = "Venta cancelada";
-            control.termina(mensaje);
-            return;
-        }
-
-        control.guardarVenta(detallesVenta);
-        control.guardarDetallesVenta(detallesVenta);
-        control.actualizarStock(detallesVenta);
-        control.crearDocumento(detallesVenta);
-
-        String mensaje = "Se creó la venta exitosamente";
-        control.termina(mensaje);
-
+        control.finalizarVenta();
         detallesVenta.clear();
     }
 
@@ -331,50 +296,50 @@ public class VentanaRegistroVentas{
      */
     @FXML
     private void handleCancelar() {
-        String mensaje = "Venta cancelada";
         detallesVenta.clear();
-        control.termina(mensaje);
+        control.cancelarVenta();
     }
 
+    /**
+     * Evento asociado al botón "Modificar o eliminar", cambia la cantidad del producto
+     * seleccionado; con 0 lo quita de la venta.
+     */
     @FXML
     private void handleModificar() {
-        if(cmbProductos == null || txtCantidad == null) {
+        if(cmbProductos.getValue() == null || txtCantidad.getText().isEmpty()) {
             muestraDialogoConMensaje("Llene todos los campos, si selecciona 0 se eliminara el producto");
         } else {
-            if(cmbProductos.getValue().getCantidadStock() < Integer.parseInt(txtCantidad.getText())) {
-                muestraDialogoConMensaje("Stock no disponible");
-            }else{
-                double montoTotal = 0;
-                int posicion = -1;
-                int contador = 0;
-                DetalleVenta detalleVentaAux;
-                for(DetalleVenta detalleVenta : detallesVenta){
-                    if(Objects.equals(detalleVenta.getProducto().getIdProducto(), cmbProductos.getValue().getIdProducto())) {
-                        posicion = contador;
-                        if(Integer.parseInt(txtCantidad.getText()) == 0){
-                            detallesVenta.remove(detalleVenta);
-                        }
-                        detalleVentaAux = detalleVenta;
-                        detalleVentaAux.setCantidadVendida(Integer.parseInt(txtCantidad.getText()));
-                        detalleVenta.setSubtotal(Integer.parseInt(txtCantidad.getText()) * cmbProductos.getValue().getPrecio());
-                        detallesVenta.set(posicion, detalleVentaAux);
-                        muestraDialogoConMensaje("Modificando correctamente");
-                        break;
-                    }
-                    contador++;
-                }
-                System.out.println(detallesVenta);
-                // Actualiza la tabla de venta con la lista actualizada
-                tableVenta.setItems(detallesVenta);
-                // Suma el subtotal de cada detalle para obtener el monto total
-                for(DetalleVenta detalleVenta : detallesVenta){
-                    montoTotal += detalleVenta.getSubtotal();
-                }
-                // Limpia la cantidad para un nuevo ingreso
-                txtCantidad.clear();
+            muestraCarrito(control.modificarProducto(cmbProductos.getValue(), Integer.parseInt(txtCantidad.getText())));
 
-                lblTotal.setText("Total: " + montoTotal);
-            }
+            // Limpia la cantidad para un nuevo ingreso
+            txtCantidad.clear();
+        }
+    }
+
+    /**
+     * Evento asociado al botón "Estacionar", guarda la venta en espera y deja la
+     * ventana lista para el siguiente cliente.
+     */
+    @FXML
+    private void handleEstacionar() {
+        control.estacionarVenta();
+    }
+
+    /**
+     * Evento asociado al botón "Reanudar", permite elegir una venta estacionada y mostrarla.
+     */
+    @FXML
+    private void handleReanudar() {
+        List<CarritoVenta> estacionadas = control.recuperarEstacionadas();
+        if (estacionadas.isEmpty()) {
+            muestraDialogoConMensaje("No hay ventas estacionadas");
+            return;
         }
+
+        ChoiceDialog<CarritoVenta> dialogo = new ChoiceDialog<>(estacionadas.get(0), estacionadas);
+        dialogo.setTitle("Reanudar venta");
+        dialogo.setHeaderText(null);
+        dialogo.setContentText("Venta estacionada:");
+        dialogo.showAndWait().ifPresent(control::reanudarVenta);
     }
 }
\ No newline at end of file
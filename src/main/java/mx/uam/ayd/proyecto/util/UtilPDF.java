@@ -240,8 +240,8 @@ public class UtilPDF {
 
                 for (ReporteVentaDTO venta : ventas) {
                     table.addCell(String.valueOf(venta.getFecha()));
-                    table.addCell(venta.getNombreProducto());
-                    table.addCell(String.valueOf(venta.getTipoProducto()));
+                    table.addCell(venta.getEtiqueta());
+                    table.addCell(venta.getTipoProducto() == null ? "" : String.valueOf(venta.getTipoProducto()));
                     table.addCell(String.valueOf(venta.getCantidadVendida()));
                     table.addCell(String.valueOf(venta.getTotalVenta()));
                 }
@@ -0,0 +1,66 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioAsignacionVeterinario;
+import mx.uam.ayd.proyecto.negocio.ServicioCita;
+import mx.uam.ayd.proyecto.negocio.ServicioVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.CandidatoVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que la asignación automática lee especialidades y agendas de la base de datos.
+ */
+@ActiveProfiles("test")
+public class AsignacionVeterinarioIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ServicioAsignacionVeterinario servicioAsignacion;
+    @Autowired private ServicioVeterinario servicioVeterinario;
+    @Autowired private ServicioCita servicioCita;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Veterinario esteticista;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM cita WHERE veterinario_id = ?", esteticista.getIdVeterinario());
+    }
+
+    @Test
+    public void proponer_ubicaAlEspecialistaDespuesDeSuCita() {
+        esteticista = new Veterinario();
+        esteticista.setNombreCompleto("MVZ Estética " + System.nanoTime() % 100_000);
+        veterinarioRepository.save(esteticista);
+        servicioVeterinario.asignarEspecialidades(esteticista.getIdVeterinario(), EnumSet.of(TipoCita.Estetica));
+
+        LocalDate dia = LocalDate.now().plusWeeks(3).with(DayOfWeek.THURSDAY);
+        servicioCita.agendarCita(dia.atTime(9, 0), TipoCita.Estetica, "Solicitante", "5512345678", false,
+                esteticista, "", "");
+
+        List<CandidatoVeterinario> candidatos = servicioAsignacion.proponer(TipoCita.Estetica, dia.atTime(9, 0), dia.atTime(18, 0));
+
+        assertFalse(candidatos.isEmpty());
+        CandidatoVeterinario propio = candidatos.stream()
+                .filter(c -> c.getVeterinario().getIdVeterinario().equals(esteticista.getIdVeterinario()))
+                .findFirst().orElseThrow();
+        assertTrue(propio.isEspecialista());
+        assertEquals(dia.atTime(10, 0), propio.getHorario());
+    }
+}
@@ -0,0 +1,71 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioAusenciaVeterinario;
+import mx.uam.ayd.proyecto.negocio.ServicioCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.ReasignacionCita;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que la jornada de un veterinario ausente se reprograma contra las agendas
+ * guardadas y que los cambios quedan en la base de datos.
+ */
+@ActiveProfiles("test")
+public class AusenciaVeterinarioIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ServicioAusenciaVeterinario servicioAusencia;
+    @Autowired private ServicioCita servicioCita;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Veterinario ausente;
+    private LocalDate dia;
+
+    @BeforeEach
+    public void setUp() {
+        ausente = new Veterinario();
+        ausente.setNombreCompleto("Dr. Ausente " + System.nanoTime() % 100_000);
+        veterinarioRepository.save(ausente);
+        dia = LocalDate.now().plusWeeks(4).with(DayOfWeek.FRIDAY);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM cita WHERE contacto IN ('5598765431', '5598765432')");
+    }
+
+    @Test
+    public void reprogramar_dejaSinCitasAlAusente() {
+        Cita primera = servicioCita.agendarCita(dia.atTime(9, 0), TipoCita.Consulta, "Primera", "5598765431", false,
+                ausente, "", "");
+        Cita segunda = servicioCita.agendarCita(dia.atTime(9, 30), TipoCita.Vacunacion, "Segunda", "5598765432", false,
+                ausente, "", "");
+
+        List<ReasignacionCita> plan = servicioAusencia.reprogramar(ausente, dia, false);
+
+        assertEquals(2, plan.size());
+        assertTrue(plan.stream().allMatch(ReasignacionCita::tieneLugar));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cita WHERE veterinario_id = ? "
+                + "AND CAST(fecha_hora AS DATE) = ?", Integer.class, ausente.getIdVeterinario(), dia));
+        Cita movida = servicioCita.recuperarCita(primera.getIdCita());
+        assertEquals(plan.get(0).getVeterinario().getIdVeterinario(), movida.getVeterinario().getIdVeterinario());
+        assertEquals(plan.get(1).getFechaHora(), servicioCita.recuperarCita(segunda.getIdCita()).getFechaHora());
+    }
+}
@@ -0,0 +1,137 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.MigracionClienteCita;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCita;
+import mx.uam.ayd.proyecto.negocio.ServicioHistorialMascota;
+import mx.uam.ayd.proyecto.negocio.ServicioMascota;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoEventoHistorial;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que las citas quedan ligadas a su cliente y paciente, tanto las anteriores
+ * (por la migración) como las nuevas, y que se consultan por cliente o mascota.
+ */
+@ActiveProfiles("test")
+public class ClienteCitaIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private MigracionClienteCita migracion;
+    @Autowired private ServicioCita servicioCita;
+    @Autowired private ServicioMascota servicioMascota;
+    @Autowired private ServicioHistorialMascota servicioHistorial;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long base;
+    private Cliente unaMascota;
+    private Cliente dosMascotas;
+    private Mascota rocky;
+    private Mascota luna;
+    private Veterinario veterinario;
+
+    @BeforeEach
+    public void setUp() {
+        long sufijo = System.nanoTime() % 100_000;
+        base = 900_000_000L + sufijo * 10;
+
+        unaMascota = cliente("Cliente una mascota", String.format("74%08d", sufijo), "una" + sufijo + "@correo.com");
+        dosMascotas = cliente("Cliente dos mascotas", String.format("75%08d", sufijo), "dos" + sufijo + "@correo.com");
+        rocky = servicioMascota.registraMascota(unaMascota, "Rocky", "Mestizo", "Perro", 2, "Macho", true);
+        luna = servicioMascota.registraMascota(dosMascotas, "Luna", "Siamés", "Gato", 3, "Hembra", true);
+        servicioMascota.registraMascota(dosMascotas, "Kira", "Beagle", "Perro", 1, "Hembra", true);
+
+        veterinario = new Veterinario();
+        veterinario.setNombreCompleto("Dr. Citas " + sufijo);
+        veterinarioRepository.save(veterinario);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM cita WHERE id_cita BETWEEN ? AND ?", base, base + 9);
+    }
+
+    private Cliente cliente(String nombre, String telefono, String correo) {
+        Cliente cliente = new Cliente();
+        cliente.setNombreCompleto(nombre);
+        cliente.setTelefono(telefono);
+        cliente.setCorreoElectronico(correo);
+        cliente.setDireccion("Calle 7");
+        return clienteRepository.save(cliente);
+    }
+
+    private void insertar(long id, String contacto) {
+        jdbcTemplate.update("INSERT INTO cita (id_cita, fecha_hora, tipo, nombre_solicitante, contacto, atendida, motivo, notas) "
+                + "VALUES (?, TIMESTAMP '2024-03-04 10:00:00', 'Consulta', 'Solicitante', ?, FALSE, '', '')", id, contacto);
+    }
+
+    private Long columna(String columna, long id) {
+        return jdbcTemplate.queryForObject("SELECT " + columna + " FROM cita WHERE id_cita = ?", Long.class, id);
+    }
+
+    @Test
+    public void migrar_ligaPorTelefonoOCorreo() {
+        insertar(base, unaMascota.getTelefono());
+        insertar(base + 1, dosMascotas.getCorreoElectronico());
+        insertar(base + 2, "0000000000");
+
+        migracion.migrar();
+
+        // Con una sola mascota la cita queda también ligada al paciente
+        assertEquals(unaMascota.getIdCliente(), columna("cliente_id", base));
+        assertEquals(rocky.getIdMascota(), columna("mascota_id", base));
+        assertEquals(dosMascotas.getIdCliente(), columna("cliente_id", base + 1));
+        assertNull(columna("mascota_id", base + 1));
+        assertNull(columna("cliente_id", base + 2));
+
+        List<Long> delCliente = servicioCita.recuperarCitasPorCliente(unaMascota.getIdCliente()).stream()
+                .map(Cita::getIdCita)
+                .toList();
+        assertEquals(List.of(base), delCliente);
+        assertEquals(List.of(base), servicioCita.recuperarCitasPorMascota(rocky.getIdMascota()).stream()
+                .map(Cita::getIdCita)
+                .toList());
+    }
+
+    @Test
+    public void agendar_ligaAlPacienteYLoAgregaAlHistorial() {
+        LocalDateTime fechaHora = LocalDateTime.now().plusWeeks(1).with(DayOfWeek.MONDAY)
+                .withHour(11).withMinute(0).withSecond(0).withNano(0);
+
+        Cita cita = servicioCita.agendarCita(fechaHora, TipoCita.Vacunacion, "Solicitante", dosMascotas.getTelefono(),
+                false, veterinario, "Refuerzo", "", luna);
+
+        List<Cita> deLuna = servicioCita.recuperarCitasPorMascota(luna.getIdMascota());
+        assertEquals(1, deLuna.size());
+        assertEquals(cita.getIdCita(), deLuna.get(0).getIdCita());
+        assertEquals(dosMascotas.getIdCliente(), columna("cliente_id", cita.getIdCita()));
+        assertTrue(servicioHistorial.consultarHistorial(luna.getIdMascota(), 0, 10).stream()
+                .anyMatch(e -> e.getTipo() == TipoEventoHistorial.CITA && cita.getIdCita().equals(e.getIdOrigen())));
+
+        // Al eliminar la mascota la cita se conserva sin paciente
+        servicioMascota.eliminaMascota(luna.getIdMascota());
+        assertNull(columna("mascota_id", cita.getIdCita()));
+        servicioCita.eliminarCita(cita.getIdCita());
+    }
+}
@@ -0,0 +1,107 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCartilla;
+import mx.uam.ayd.proyecto.negocio.ServicioCliente;
+import mx.uam.ayd.proyecto.negocio.ServicioCoberturaVacunacion;
+import mx.uam.ayd.proyecto.negocio.ServicioMascota;
+import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.CoberturaVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que los registros de mascotas y cartillas mantienen la cobertura igual a la que
+ * da el recuento completo de la conciliación.
+ */
+@ActiveProfiles("test")
+public class CoberturaVacunacionIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ServicioCoberturaVacunacion servicioCobertura;
+    @Autowired private ServicioCartilla servicioCartilla;
+    @Autowired private ServicioMascota servicioMascota;
+    @Autowired private ServicioCliente servicioCliente;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+
+    private Cliente cliente;
+    private Veterinario veterinario;
+
+    @BeforeEach
+    public void setUp() {
+        long sufijo = System.nanoTime() % 100_000;
+        cliente = new Cliente();
+        cliente.setNombreCompleto("Cliente cobertura");
+        cliente.setTelefono(String.format("73%08d", sufijo));
+        cliente.setCorreoElectronico("cobertura" + sufijo + "@correo.com");
+        cliente.setDireccion("Calle 5");
+        clienteRepository.save(cliente);
+
+        veterinario = new Veterinario();
+        veterinario.setNombreCompleto("Dra Cobertura " + sufijo);
+        veterinarioRepository.save(veterinario);
+
+        // Parte de un conteo exacto aunque otras pruebas hayan escrito sin los servicios
+        servicioCobertura.conciliar();
+    }
+
+    private int[] rabiaEnPerros() {
+        CoberturaVacunacion cobertura = servicioCobertura.consultarCobertura(Especie.PERRO, VacunaEnum.RABIA).orElseThrow();
+        return new int[] { servicioCobertura.consultarPoblacion(Especie.PERRO), cobertura.getVacunadas(), cobertura.getAlCorriente() };
+    }
+
+    @Test
+    public void registros_mantienenLaCoberturaSinRecontar() {
+        int[] inicial = rabiaEnPerros();
+        LocalDate hoy = LocalDate.now();
+
+        Mascota perro = servicioMascota.registraMascota(cliente, "Rocky", "Mestizo", "Canino", 2, "Macho", false);
+        Cartilla dosis = servicioCartilla.registrarVacuna(VacunaEnum.RABIA, hoy.minusDays(1), veterinario, 1L, null, perro.getIdMascota());
+        assertEquals(inicial[0] + 1, rabiaEnPerros()[0]);
+        assertEquals(inicial[1] + 1, rabiaEnPerros()[1]);
+        assertEquals(inicial[2] + 1, rabiaEnPerros()[2]);
+
+        // La dosis pasa a una fecha cuyo refuerzo ya venció
+        servicioCartilla.actualizarRegistroVacuna(dosis.getId(), VacunaEnum.RABIA, hoy.minusYears(2), veterinario, 1L, null);
+        assertEquals(inicial[1] + 1, rabiaEnPerros()[1]);
+        assertEquals(inicial[2], rabiaEnPerros()[2]);
+
+        // Un segundo perro al corriente y el registro del primero eliminado
+        Mascota otro = servicioMascota.registraMascota(cliente, "Luna", "Beagle", "Perro", 3, "Hembra", true);
+        servicioCartilla.registrarVacuna(VacunaEnum.RABIA, hoy.minusMonths(2), veterinario, 2L, null, otro.getIdMascota());
+        servicioCartilla.eliminarRegistroVacuna(dosis.getId());
+        assertEquals(inicial[0] + 2, rabiaEnPerros()[0]);
+        assertEquals(inicial[1] + 1, rabiaEnPerros()[1]);
+        assertEquals(inicial[2] + 1, rabiaEnPerros()[2]);
+
+        // El recuento completo no encuentra nada que corregir
+        assertEquals(0, servicioCobertura.conciliar());
+    }
+
+    @Test
+    public void eliminaCliente_descuentaSusMascotas() {
+        int inicial = rabiaEnPerros()[0];
+        servicioMascota.registraMascota(cliente, "Toby", "Pug", "Perro", 4, "Macho", false);
+        servicioMascota.registraMascota(cliente, "Kira", "Husky", "Perro", 1, "Hembra", false);
+        assertEquals(inicial + 2, rabiaEnPerros()[0]);
+
+        servicioCliente.eliminaCliente(cliente.getIdCliente());
+
+        assertEquals(inicial, rabiaEnPerros()[0]);
+        assertEquals(0, servicioCobertura.conciliar());
+    }
+}
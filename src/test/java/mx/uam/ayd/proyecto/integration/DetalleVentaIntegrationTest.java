@@ -0,0 +1,147 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManagerFactory;
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.DetalleVentaRepository;
+import mx.uam.ayd.proyecto.datos.MigracionDetalleVenta;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.datos.VentaRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.TotalVentaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.UnidadProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+
+/**
+ * Verifica el precio y la fecha guardados en cada detalle de venta: la migración
+ * de detalles anteriores y la agregación de reportes sobre la tabla de detalles.
+ */
+@ActiveProfiles("test")
+public class DetalleVentaIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private MigracionDetalleVenta migracionDetalleVenta;
+    @Autowired private DetalleVentaRepository detalleVentaRepository;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private VentaRepository ventaRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private LocalDate fecha;
+    private Producto producto;
+    private Venta venta;
+
+    @BeforeEach
+    public void setUp() {
+        // Una fecha propia de cada prueba para no mezclarse con otras ventas
+        fecha = LocalDate.of(2040, 1, 1).plusDays(System.nanoTime() % 10_000);
+
+        producto = new Producto();
+        producto.setNombre("Detalle " + fecha);
+        producto.setTipoProducto(TipoProducto.Comida);
+        producto.setMarcaProducto(MarcaProducto.HILLS);
+        producto.setUnidadProducto(UnidadProducto.values()[0]);
+        producto.setPrecio(50.0);
+        producto.setCantidadStock(10);
+        productoRepository.save(producto);
+
+        venta = new Venta();
+        venta.setFecha(fecha);
+        ventaRepository.save(venta);
+    }
+
+    private long detalleAnterior(int cantidad, double subtotal) {
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setVenta(venta);
+        detalle.setProducto(producto);
+        detalle.setCantidadVendida(cantidad);
+        detalle.setSubtotal(subtotal);
+        detalleVentaRepository.save(detalle);
+        // Como lo dejaba la versión anterior: sin precio, descuento ni fecha
+        jdbcTemplate.update("UPDATE detalle_venta SET precio_unitario = NULL, descuento = NULL, fecha = NULL "
+                + "WHERE id_detalle_venta = ?", detalle.getIdDetalleVenta());
+        return detalle.getIdDetalleVenta();
+    }
+
+    private Map<String, Object> fila(long idDetalle) {
+        return jdbcTemplate.queryForMap(
+                "SELECT precio_unitario, descuento, fecha FROM detalle_venta WHERE id_detalle_venta = ?", idDetalle);
+    }
+
+    @Test
+    public void migrar_deducePrecioYDescuentoDelSubtotal() {
+        long sinDescuento = detalleAnterior(2, 100.0);
+        long platinum = detalleAnterior(2, 85.0);
+        long precioCambiado = detalleAnterior(4, 120.0);
+
+        migracionDetalleVenta.migrar();
+
+        // Los importes se guardan en centavos
+        assertEquals(5000L, ((Number) fila(sinDescuento).get("PRECIO_UNITARIO")).longValue());
+        assertEquals(0.0, ((Number) fila(sinDescuento).get("DESCUENTO")).doubleValue());
+        assertEquals(0.15, ((Number) fila(platinum).get("DESCUENTO")).doubleValue(), 1e-9);
+        assertEquals(3000L, ((Number) fila(precioCambiado).get("PRECIO_UNITARIO")).longValue());
+        assertEquals(fecha, ((java.sql.Date) fila(precioCambiado).get("FECHA")).toLocalDate());
+
+        // Un segundo arranque ya no encuentra detalles por completar
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM detalle_venta WHERE precio_unitario IS NULL OR fecha IS NULL", Integer.class));
+    }
+
+    @Test
+    public void migrar_conservaElPrecioYDescuentoYaGuardados() {
+        long idDetalle = detalleAnterior(2, 100.0);
+        jdbcTemplate.update("UPDATE detalle_venta SET precio_unitario = 5555, descuento = 0.1 WHERE id_detalle_venta = ?",
+                idDetalle);
+
+        migracionDetalleVenta.migrar();
+
+        assertEquals(5555L, ((Number) fila(idDetalle).get("PRECIO_UNITARIO")).longValue());
+        assertEquals(0.1, ((Number) fila(idDetalle).get("DESCUENTO")).doubleValue(), 1e-9);
+        assertEquals(fecha, ((java.sql.Date) fila(idDetalle).get("FECHA")).toLocalDate());
+    }
+
+    @Test
+    public void sumarPorFechaYProducto_usaLosImportesGuardadosSinJoin() {
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setVenta(venta);
+        detalle.setProducto(producto);
+        detalle.setCantidadVendida(3);
+        detalle.setPrecioUnitario(50.0);
+        detalle.setDescuento(0.10);
+        detalle.recalcularSubtotal();
+        detalleVentaRepository.save(detalle);
+
+        // Un cambio de precio posterior no altera lo vendido
+        producto.setPrecio(80.0);
+        productoRepository.save(producto);
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+        estadisticas.clear();
+        List<TotalVentaProducto> totales = detalleVentaRepository.sumarPorFechaYProducto(fecha, fecha);
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        estadisticas.setStatisticsEnabled(false);
+
+        assertEquals(1, totales.size());
+        assertEquals(fecha, totales.get(0).getFecha());
+        assertEquals(producto.getIdProducto(), totales.get(0).getIdProducto());
+        assertEquals(3L, totales.get(0).getCantidad());
+        assertEquals(13500L, totales.get(0).getTotalCentavos());
+    }
+}
@@ -0,0 +1,120 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.MigracionClienteCita;
+import mx.uam.ayd.proyecto.datos.MigracionDinero;
+import mx.uam.ayd.proyecto.negocio.ServicioDetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+
+/**
+ * Verifica que los importes se guardan en centavos y que la migración convierte
+ * las columnas en pesos de una base de datos anterior.
+ */
+@ActiveProfiles("test")
+public class DineroIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private MigracionDinero migracionDinero;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private ServicioDetalleVenta servicioDetalleVenta;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS importe_anterior");
+    }
+
+    @Test
+    public void importes_seGuardanEnCentavos() {
+        long sufijo = System.nanoTime() % 100_000;
+        Cliente cliente = new Cliente();
+        cliente.setNombreCompleto("Cliente centavos");
+        cliente.setTelefono(String.format("73%08d", sufijo));
+        cliente.setCorreoElectronico("centavos" + sufijo + "@correo.com");
+        cliente.setDireccion("Calle 3");
+        cliente.setMontoAcumulado(0.1 + 0.2);
+        clienteRepository.save(cliente);
+
+        Long columna = jdbcTemplate.queryForObject(
+                "SELECT monto_acumulado FROM cliente WHERE id_cliente = ?", Long.class, cliente.getIdCliente());
+        assertEquals(30L, columna);
+        assertEquals(0.3, clienteRepository.findById(cliente.getIdCliente()).orElseThrow().getMontoAcumulado());
+    }
+
+    @Test
+    public void calcularTotal_sumaExactaEnCentavos() {
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setSubtotal(0.1);
+        DetalleVenta otro = new DetalleVenta();
+        otro.setSubtotal(0.2);
+
+        assertEquals(0.3, servicioDetalleVenta.calcularTotal(List.of(detalle, otro)));
+    }
+
+    @Test
+    public void migrar_siNoPuedeConvertirDetieneElArranque() {
+        JdbcTemplate sinConexion = mock(JdbcTemplate.class, invocacion -> {
+            throw new DataAccessResourceFailureException("Sin conexión");
+        });
+
+        // Sin convertir, los pesos se leerían como centavos; una migración opcional solo avisa
+        assertThrows(IllegalStateException.class, () -> new MigracionDinero(sinConexion).migrar());
+        assertDoesNotThrow(() -> new MigracionClienteCita(sinConexion, null, null).migrar());
+    }
+
+    @Test
+    public void convertir_pasaColumnaEnPesosACentavosUnaSolaVez() {
+        jdbcTemplate.execute("CREATE TABLE importe_anterior (id BIGINT, monto DOUBLE PRECISION)");
+        jdbcTemplate.update("INSERT INTO importe_anterior VALUES (1, 19.99), (2, 0.3), (3, NULL)");
+
+        assertTrue(migracionDinero.convertir("importe_anterior", "monto"));
+
+        assertEquals(List.of(1999L, 30L), jdbcTemplate.queryForList(
+                "SELECT monto FROM importe_anterior WHERE monto IS NOT NULL ORDER BY id", Long.class));
+        assertEquals("BIGINT", jdbcTemplate.queryForObject(
+                "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_NAME = 'IMPORTE_ANTERIOR' AND COLUMN_NAME = 'MONTO'", String.class));
+        // Un segundo arranque no vuelve a multiplicar
+        assertFalse(migracionDinero.convertir("importe_anterior", "monto"));
+    }
+
+    @Test
+    public void convertir_retomaUnaConversionInterrumpidaSinMultiplicarDosVeces() {
+        jdbcTemplate.execute("CREATE TABLE importe_anterior (id BIGINT, monto DOUBLE PRECISION NOT NULL)");
+        jdbcTemplate.update("INSERT INTO importe_anterior VALUES (1, 19.99), (2, 0.3)");
+        // Arranque anterior detenido después de copiar a la columna nueva
+        jdbcTemplate.execute("ALTER TABLE importe_anterior ADD COLUMN monto_centavos BIGINT");
+        jdbcTemplate.update("UPDATE importe_anterior SET monto_centavos = CAST(ROUND(monto * 100, 0) AS BIGINT)");
+
+        assertTrue(migracionDinero.convertir("importe_anterior", "monto"));
+
+        assertEquals(List.of(1999L, 30L), jdbcTemplate.queryForList(
+                "SELECT monto FROM importe_anterior ORDER BY id", Long.class));
+        assertEquals("NO", jdbcTemplate.queryForObject(
+                "SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_NAME = 'IMPORTE_ANTERIOR' AND COLUMN_NAME = 'MONTO'", String.class));
+
+        // Arranque detenido después de borrar la columna en pesos: solo se renombra
+        jdbcTemplate.execute("ALTER TABLE importe_anterior ALTER COLUMN monto RENAME TO monto_centavos");
+        assertTrue(migracionDinero.convertir("importe_anterior", "monto"));
+        assertEquals(List.of(1999L, 30L), jdbcTemplate.queryForList(
+                "SELECT monto FROM importe_anterior ORDER BY id", Long.class));
+    }
+}
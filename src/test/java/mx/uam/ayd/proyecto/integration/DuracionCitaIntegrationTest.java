@@ -0,0 +1,87 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.MigracionDuracionCita;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCita;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que cada cita ocupa la duración de su tipo o de su veterinario, tanto al
+ * validar solapamientos como al sugerir horarios, y que las citas anteriores reciben
+ * su fin con la duración que tenían.
+ */
+@ActiveProfiles("test")
+public class DuracionCitaIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ServicioCita servicioCita;
+    @Autowired private MigracionDuracionCita migracion;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Veterinario veterinario;
+    private LocalDate dia;
+
+    @BeforeEach
+    public void setUp() {
+        veterinario = new Veterinario();
+        veterinario.setNombreCompleto("Dra. Duraciones " + System.nanoTime() % 100_000);
+        veterinarioRepository.save(veterinario);
+        dia = LocalDate.now().plusWeeks(2).with(DayOfWeek.TUESDAY);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM cita WHERE veterinario_id = ?", veterinario.getIdVeterinario());
+        jdbcTemplate.update("DELETE FROM duracion_cita_veterinario WHERE id_veterinario = ?", veterinario.getIdVeterinario());
+    }
+
+    @Test
+    public void cirugia_bloqueaSuDuracionCompleta() {
+        servicioCita.configurarDuracion(veterinario, TipoCita.Cirugia, 90);
+        servicioCita.agendarCita(dia.atTime(10, 0), TipoCita.Cirugia, "Solicitante", "5512345678", false,
+                veterinario, "Esterilización", "");
+
+        // 11:15 cae dentro de los 90 minutos de la cirugía; 11:30 ya no
+        assertThrows(IllegalArgumentException.class, () -> servicioCita.agendarCita(dia.atTime(11, 15), TipoCita.Consulta,
+                "Otro", "5512345679", false, veterinario, "", ""));
+        servicioCita.agendarCita(dia.atTime(11, 30), TipoCita.Consulta, "Otro", "5512345679", false, veterinario, "", "");
+
+        List<LocalDateTime> sugerencias = servicioCita.sugerirHorarios(veterinario, TipoCita.Vacunacion, dia, null, 50);
+        assertEquals(dia.atTime(9, 0), sugerencias.get(0));
+        assertEquals(dia.atTime(12, 0), sugerencias.get(sugerencias.indexOf(dia.atTime(9, 30)) + 1));
+        assertFalse(sugerencias.contains(dia.atTime(10, 45)));
+
+        assertEquals(dia.atTime(12, 0), servicioCita.primerHorarioDisponible(veterinario, TipoCita.Estetica,
+                dia.atTime(9, 50)).orElseThrow());
+    }
+
+    @Test
+    public void migrar_completaElFinDeLasCitasAnteriores() {
+        jdbcTemplate.update("INSERT INTO cita (id_cita, fecha_hora, tipo, nombre_solicitante, contacto, atendida, veterinario_id, motivo, notas) "
+                + "VALUES (?, ?, 'Consulta', 'Solicitante', '5512345678', FALSE, ?, '', '')",
+                950_000_000L + System.nanoTime() % 100_000, dia.atTime(9, 0), veterinario.getIdVeterinario());
+
+        migracion.migrar();
+
+        assertEquals(dia.atTime(9, 30), servicioCita.primerHorarioDisponible(veterinario, TipoCita.Consulta,
+                dia.atTime(9, 0)).orElseThrow());
+    }
+}
@@ -0,0 +1,89 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCliente;
+import mx.uam.ayd.proyecto.negocio.ServicioGastoCliente;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
+
+/**
+ * Verifica que el gasto acumulado no pierde incrementos cuando varias terminales
+ * cobran al mismo cliente y que el libro de movimientos coincide con la columna mantenida.
+ */
+@ActiveProfiles("test")
+public class GastoClienteIntegrationTest extends BaseIntegrationTest {
+
+    private static final int TERMINALES = 6;
+    private static final int VENTAS_POR_TERMINAL = 15;
+
+    @Autowired private ServicioGastoCliente servicioGastoCliente;
+    @Autowired private ServicioCliente servicioCliente;
+    @Autowired private ClienteRepository clienteRepository;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    public void setUp() {
+        long sufijo = System.nanoTime() % 100_000;
+        cliente = new Cliente();
+        cliente.setNombreCompleto("Cliente gasto");
+        cliente.setTelefono(String.format("74%08d", sufijo));
+        cliente.setCorreoElectronico("gasto" + sufijo + "@correo.com");
+        cliente.setDireccion("Calle 4");
+        cliente.setMontoAcumulado(100.0);
+        clienteRepository.save(cliente);
+    }
+
+    @Test
+    public void registrarGasto_concurrente_noPierdeIncrementos() throws Exception {
+        ExecutorService terminales = Executors.newFixedThreadPool(TERMINALES);
+        try {
+            List<Future<?>> ventas = new ArrayList<>();
+            for (int t = 0; t < TERMINALES; t++) {
+                ventas.add(terminales.submit(() -> {
+                    for (int i = 0; i < VENTAS_POR_TERMINAL; i++) {
+                        servicioGastoCliente.registrarGasto(cliente.getIdCliente(), null, 10.10);
+                    }
+                }));
+            }
+            for (Future<?> venta : ventas) {
+                venta.get();
+            }
+        } finally {
+            terminales.shutdown();
+        }
+
+        double esperado = 100.0 + TERMINALES * VENTAS_POR_TERMINAL * 10.10;
+        assertEquals(esperado, servicioGastoCliente.consultarGasto(cliente.getIdCliente()), 1e-9);
+        // 90 movimientos: apertura, un corte a los 50 y 40 movimientos posteriores
+        assertEquals(esperado, servicioGastoCliente.consultarGastoSegunLibro(cliente.getIdCliente()), 1e-9);
+    }
+
+    @Test
+    public void asignarMembresia_leeElSaldoMantenidoYNoLoPisa() {
+        Cliente copiaAtrasada = servicioCliente.recuperaCliente(cliente.getIdCliente());
+        servicioGastoCliente.registrarGasto(cliente.getIdCliente(), null, 450.0);
+
+        // La copia aún dice 100, pero el saldo mantenido ya es 550
+        servicioCliente.asignarMembresia(TipoMembresia.Standard, copiaAtrasada);
+
+        Cliente guardado = servicioCliente.recuperaCliente(cliente.getIdCliente());
+        assertNotNull(guardado.getMembresia());
+        assertEquals(550.0, guardado.getMontoAcumulado());
+    }
+}
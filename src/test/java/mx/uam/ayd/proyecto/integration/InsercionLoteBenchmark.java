@@ -0,0 +1,104 @@
+package mx.uam.ayd.proyecto.integration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import mx.uam.ayd.proyecto.ProyectoApplication;
+import mx.uam.ayd.proyecto.datos.DetalleVentaRepository;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.datos.VentaRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.UnidadProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+
+/**
+ * Benchmark manual del throughput de inserción masiva (importación de productos
+ * y detalles de venta) con y sin lotes JDBC.
+ *
+ * <p>Levanta el contexto con el perfil de pruebas (H2 en memoria) dos veces:
+ * con {@code hibernate.jdbc.batch_size=0}, que equivale a una sentencia por fila
+ * como ocurría con IDENTITY, y con lotes de 50. No forma parte de la suite de
+ * pruebas; se ejecuta a mano:</p>
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp "target/classes:target/test-classes:$(cat target/cp.txt)" \
+ *     mx.uam.ayd.proyecto.integration.InsercionLoteBenchmark
+ * </pre>
+ */
+public class InsercionLoteBenchmark {
+
+    private static final int PRODUCTOS = 5_000;
+    private static final int DETALLES = 20_000;
+    private static final int RONDAS = 3;
+
+    public static void main(String[] args) {
+        for (int lote : new int[] {0, 50}) {
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ProyectoApplication.class)
+                    .profiles("test")
+                    .web(WebApplicationType.NONE)
+                    .headless(true)
+                    .properties("spring.jpa.properties.hibernate.jdbc.batch_size=" + lote,
+                            "logging.level.root=WARN", "logging.level.mx.uam.ayd.proyecto=WARN")
+                    .run()) {
+                medir(contexto, lote);
+            }
+        }
+    }
+
+    private static void medir(ConfigurableApplicationContext contexto, int lote) {
+        TransactionTemplate transaccion = contexto.getBean(TransactionTemplate.class);
+        ProductoRepository productoRepository = contexto.getBean(ProductoRepository.class);
+        VentaRepository ventaRepository = contexto.getBean(VentaRepository.class);
+        DetalleVentaRepository detalleVentaRepository = contexto.getBean(DetalleVentaRepository.class);
+
+        for (int ronda = 1; ronda <= RONDAS; ronda++) {
+            List<Producto> productos = new ArrayList<>(PRODUCTOS);
+            for (int i = 0; i < PRODUCTOS; i++) {
+                productos.add(producto(i));
+            }
+            long inicio = System.nanoTime();
+            transaccion.executeWithoutResult(status -> productoRepository.saveAll(productos));
+            long productosNs = System.nanoTime() - inicio;
+
+            Venta venta = new Venta();
+            venta.setFecha(LocalDate.now());
+            ventaRepository.save(venta);
+            List<DetalleVenta> detalles = new ArrayList<>(DETALLES);
+            for (int i = 0; i < DETALLES; i++) {
+                DetalleVenta detalle = new DetalleVenta();
+                detalle.setVenta(venta);
+                detalle.setProducto(productos.get(i % PRODUCTOS));
+                detalle.setCantidadVendida(1);
+                detalle.setSubtotal(10.0);
+                detalles.add(detalle);
+            }
+            inicio = System.nanoTime();
+            transaccion.executeWithoutResult(status -> detalleVentaRepository.saveAll(detalles));
+            long detallesNs = System.nanoTime() - inicio;
+
+            System.out.printf("batch_size=%-3d ronda %d: productos %,8.0f filas/s, detalles %,8.0f filas/s%n",
+                    lote, ronda, PRODUCTOS / (productosNs / 1e9), DETALLES / (detallesNs / 1e9));
+        }
+    }
+
+    private static Producto producto(int i) {
+        Producto producto = new Producto();
+        producto.setNombre("Producto " + i);
+        producto.setTipoProducto(TipoProducto.Limpieza);
+        producto.setMarcaProducto(MarcaProducto.TROPICLEAN);
+        producto.setUnidadProducto(UnidadProducto.values()[0]);
+        producto.setPrecio(100.0);
+        producto.setCantidadStock(10);
+        return producto;
+    }
+}
@@ -0,0 +1,139 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioKardex;
+import mx.uam.ayd.proyecto.negocio.ServicioVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.MovimientoStock;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.UnidadProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+
+/**
+ * Verifica que el stock de cualquier momento se reconstruye a partir de los cortes y del
+ * kardex, que guardar un producto no cambia el saldo mantenido y que una venta sin stock
+ * suficiente se revierte completa.
+ */
+@ActiveProfiles("test")
+public class KardexIntegrationTest extends BaseIntegrationTest {
+
+    private static final int STOCK_INICIAL = 100;
+
+    @Autowired private ServicioKardex servicioKardex;
+    @Autowired private ServicioVenta servicioVenta;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Producto producto;
+
+    @BeforeEach
+    public void setUp() {
+        producto = new Producto();
+        producto.setNombre("Kardex " + System.nanoTime());
+        producto.setTipoProducto(TipoProducto.Limpieza);
+        producto.setMarcaProducto(MarcaProducto.HILLS);
+        producto.setUnidadProducto(UnidadProducto.values()[0]);
+        producto.setPrecio(10.0);
+        producto.setCantidadStock(STOCK_INICIAL);
+        productoRepository.save(producto);
+    }
+
+    @Test
+    public void consultarStockAl_coincideConLaSumaDelKardex() {
+        Long id = producto.getIdProducto();
+        for (int i = 0; i < ServicioKardex.MOVIMIENTOS_POR_CORTE + 20; i++) {
+            if (i % 10 == 0) {
+                servicioKardex.registrarEntrada(id, 3);
+            } else {
+                servicioKardex.registrarVenta(id, 1, null);
+            }
+        }
+
+        int cortes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM saldos_stock WHERE id_producto = ?", Integer.class, id);
+        assertTrue(cortes >= 2, "Debe haber apertura y al menos un corte");
+
+        List<MovimientoStock> movimientos = servicioKardex.recuperaMovimientos(id);
+        for (MovimientoStock movimiento : movimientos) {
+            int esperado = STOCK_INICIAL + movimientos.stream()
+                    .filter(m -> !m.getFecha().isAfter(movimiento.getFecha()))
+                    .mapToInt(MovimientoStock::getCantidad)
+                    .sum();
+            assertEquals(esperado, servicioKardex.consultarStockAl(id, movimiento.getFecha()));
+        }
+
+        int actual = servicioKardex.consultarStock(id);
+        assertEquals(STOCK_INICIAL + movimientos.stream().mapToInt(MovimientoStock::getCantidad).sum(), actual);
+        assertEquals(STOCK_INICIAL, servicioKardex.consultarStockAl(id, movimientos.get(0).getFecha().minusDays(1)));
+    }
+
+    @Test
+    public void guardarProducto_noCambiaElStockMantenido() {
+        Long id = producto.getIdProducto();
+        servicioKardex.registrarVenta(id, 4, null);
+
+        Producto copia = productoRepository.findById(id).orElseThrow();
+        copia.setCantidadStock(999);
+        copia.setPrecio(12.0);
+        productoRepository.save(copia);
+
+        Producto guardado = productoRepository.findById(id).orElseThrow();
+        assertEquals(STOCK_INICIAL - 4, guardado.getCantidadStock());
+        assertEquals(12.0, guardado.getPrecio());
+    }
+
+    @Test
+    public void finalizarVenta_sinStockDeUnProducto_noGuardaNada() {
+        Producto escaso = new Producto();
+        escaso.setNombre("Kardex escaso " + System.nanoTime());
+        escaso.setTipoProducto(TipoProducto.Limpieza);
+        escaso.setMarcaProducto(MarcaProducto.HILLS);
+        escaso.setUnidadProducto(UnidadProducto.values()[0]);
+        escaso.setPrecio(10.0);
+        escaso.setCantidadStock(1);
+        productoRepository.save(escaso);
+        int ventas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM venta", Integer.class);
+
+        Venta venta = servicioVenta.crearVenta();
+        List<DetalleVenta> detalles = List.of(detalle(venta, producto, 5), detalle(venta, escaso, 2));
+        assertThrows(IllegalStateException.class, () -> servicioVenta.finalizarVenta(venta, detalles, 70.0, null));
+
+        assertEquals(ventas, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM venta", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM detalle_venta WHERE producto_id IN (?, ?)",
+                Integer.class, producto.getIdProducto(), escaso.getIdProducto()));
+        assertEquals(STOCK_INICIAL, servicioKardex.consultarStock(producto.getIdProducto()));
+        assertTrue(servicioKardex.recuperaMovimientos(producto.getIdProducto()).isEmpty());
+
+        // Con la cantidad corregida la misma venta se finaliza
+        detalles.get(1).setCantidadVendida(1);
+        servicioVenta.finalizarVenta(venta, detalles, 60.0, null);
+        assertEquals(STOCK_INICIAL - 5, servicioKardex.consultarStock(producto.getIdProducto()));
+        assertEquals(0, servicioKardex.consultarStock(escaso.getIdProducto()));
+    }
+
+    private static DetalleVenta detalle(Venta venta, Producto producto, int cantidad) {
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setVenta(venta);
+        detalle.setProducto(producto);
+        detalle.setCantidadVendida(cantidad);
+        detalle.setPrecioUnitario(producto.getPrecio());
+        detalle.setDescuento(0.0);
+        detalle.recalcularSubtotal();
+        return detalle;
+    }
+}
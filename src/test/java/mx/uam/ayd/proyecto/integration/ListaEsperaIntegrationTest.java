@@ -0,0 +1,87 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.SolicitudEsperaRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCita;
+import mx.uam.ayd.proyecto.negocio.ServicioListaEspera;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.SolicitudEspera;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que al cancelar una cita el lugar se agenda a quien espera en la lista y que
+ * la lista se reconstruye desde la base de datos.
+ */
+@ActiveProfiles("test")
+public class ListaEsperaIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ServicioCita servicioCita;
+    @Autowired private ServicioListaEspera servicioListaEspera;
+    @Autowired private SolicitudEsperaRepository solicitudRepository;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Veterinario veterinario;
+    private LocalDate dia;
+
+    @BeforeEach
+    public void setUp() {
+        veterinario = new Veterinario();
+        veterinario.setNombreCompleto("Dra. Espera " + System.nanoTime() % 100_000);
+        veterinarioRepository.save(veterinario);
+        dia = LocalDate.now().plusWeeks(3).with(DayOfWeek.MONDAY);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (SolicitudEspera solicitud : servicioListaEspera.recuperarPendientes()) {
+            if (solicitud.getVeterinario() != null
+                    && solicitud.getVeterinario().getIdVeterinario().equals(veterinario.getIdVeterinario())) {
+                servicioListaEspera.cancelar(solicitud.getIdSolicitud());
+            }
+        }
+        jdbcTemplate.update("DELETE FROM solicitud_espera WHERE veterinario_id = ?", veterinario.getIdVeterinario());
+        jdbcTemplate.update("DELETE FROM cita WHERE veterinario_id = ?", veterinario.getIdVeterinario());
+    }
+
+    @Test
+    public void eliminarCita_agendaElLugarAQuienEspera() {
+        Cita ocupada = servicioCita.agendarCita(dia.atTime(10, 0), TipoCita.Consulta, "Titular", "5512345678", false,
+                veterinario, "", "");
+        SolicitudEspera solicitud = servicioListaEspera.registrar("En espera", "5512345679", TipoCita.Vacunacion,
+                veterinario, dia.atTime(9, 0), dia.atTime(12, 0));
+        // Se reconstruye la lista como al arrancar; la solicitud no debe duplicarse
+        servicioListaEspera.cargar();
+
+        servicioCita.eliminarCita(ocupada.getIdCita());
+
+        List<Cita> citas = jdbcTemplate.query("SELECT id_cita FROM cita WHERE veterinario_id = ?",
+                (rs, n) -> servicioCita.recuperarCita(rs.getLong(1)), veterinario.getIdVeterinario());
+        assertEquals(1, citas.size());
+        assertEquals("En espera", citas.get(0).getNombreSolicitante());
+        assertEquals(dia.atTime(10, 0), citas.get(0).getFechaHora());
+        assertEquals(dia.atTime(10, 20), citas.get(0).getFechaHoraFin());
+        Long ofrecida = solicitudRepository.findById(solicitud.getIdSolicitud()).orElseThrow().getIdCitaOfrecida();
+        assertNotNull(ofrecida);
+        assertEquals(citas.get(0).getIdCita(), ofrecida);
+        assertTrue(servicioListaEspera.recuperarPendientes().stream()
+                .noneMatch(s -> s.getIdSolicitud().equals(solicitud.getIdSolicitud())));
+    }
+}
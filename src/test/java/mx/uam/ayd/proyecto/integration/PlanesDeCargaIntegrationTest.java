@@ -0,0 +1,204 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManagerFactory;
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.DetalleVentaRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.datos.UmbralRepository;
+import mx.uam.ayd.proyecto.datos.VentaRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCliente;
+import mx.uam.ayd.proyecto.negocio.ServicioInventario;
+import mx.uam.ayd.proyecto.negocio.ServicioMascota;
+import mx.uam.ayd.proyecto.negocio.ServicioProducto;
+import mx.uam.ayd.proyecto.negocio.ServicioUmbrales;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.modelo.Membresia;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Umbral;
+import mx.uam.ayd.proyecto.negocio.modelo.UnidadProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+
+/**
+ * Verifica con las estadísticas de Hibernate cuántas sentencias SQL emite cada pantalla.
+ * Las consultas se hacen fuera de transacción, como desde la interfaz, por lo que
+ * además se comprueba que los datos que usa la pantalla ya vienen cargados.
+ * Si alguna relación vuelve a cargarse con un SELECT por fila, el conteo cambia.
+ */
+@ActiveProfiles("test")
+public class PlanesDeCargaIntegrationTest extends BaseIntegrationTest {
+
+    private static final int FILAS = 5;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private UmbralRepository umbralRepository;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private MascotaRepository mascotaRepository;
+    @Autowired private VentaRepository ventaRepository;
+    @Autowired private DetalleVentaRepository detalleVentaRepository;
+
+    @Autowired private ServicioInventario servicioInventario;
+    @Autowired private ServicioUmbrales servicioUmbrales;
+    @Autowired private ServicioProducto servicioProducto;
+    @Autowired private ServicioCliente servicioCliente;
+    @Autowired private ServicioMascota servicioMascota;
+
+    private Statistics estadisticas;
+    private Cliente dueno;
+    private LocalDate fechaVenta;
+    private long sufijo;
+
+    @BeforeEach
+    public void setUp() {
+        sufijo = System.nanoTime() % 100_000;
+        fechaVenta = LocalDate.of(2000, 1, 1).plusDays(sufijo);
+
+        Venta venta = new Venta();
+        venta.setFecha(fechaVenta);
+        ventaRepository.save(venta);
+
+        for (int i = 0; i < FILAS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Carga " + sufijo + " " + i);
+            producto.setTipoProducto(TipoProducto.Limpieza);
+            producto.setMarcaProducto(MarcaProducto.TROPICLEAN);
+            producto.setUnidadProducto(UnidadProducto.values()[0]);
+            producto.setPrecio(50.0);
+            producto.setCantidadStock(10);
+            productoRepository.save(producto);
+
+            Umbral umbral = new Umbral();
+            umbral.setValorMinimo(2);
+            umbral.setProducto(producto);
+            umbralRepository.save(umbral);
+
+            DetalleVenta detalle = new DetalleVenta();
+            detalle.setVenta(venta);
+            detalle.setProducto(producto);
+            detalle.setCantidadVendida(1);
+            detalle.setSubtotal(50.0);
+            detalleVentaRepository.save(detalle);
+
+            Cliente cliente = new Cliente();
+            cliente.setNombreCompleto("Cliente carga");
+            cliente.setTelefono(String.format("9%04d%05d", i, sufijo));
+            cliente.setCorreoElectronico("carga" + sufijo + "_" + i + "@correo.com");
+            cliente.setDireccion("Calle 1");
+            cliente.setMontoAcumulado(600.0);
+            Membresia membresia = new Membresia();
+            membresia.setTipo(TipoMembresia.Standard);
+            membresia.setPrecio(119.0);
+            membresia.setEstado(true);
+            cliente.setMembresia(membresia);
+            clienteRepository.save(cliente);
+            if (i == 0) {
+                dueno = cliente;
+            }
+        }
+
+        for (int i = 0; i < FILAS; i++) {
+            Mascota mascota = new Mascota();
+            mascota.setNombre("Mascota " + i);
+            mascota.setEspecie("Perro");
+            mascota.setCliente(dueno);
+            mascotaRepository.save(mascota);
+        }
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        estadisticas.setStatisticsEnabled(false);
+    }
+
+    private <T> T contarSentencias(int esperadas, Supplier<T> pantalla) {
+        estadisticas.clear();
+        T resultado = pantalla.get();
+        assertEquals(esperadas, estadisticas.getPrepareStatementCount(),
+                "Sentencias SQL: " + estadisticas.getPrepareStatementCount());
+        return resultado;
+    }
+
+    @Test
+    public void tablaInventario_unaSolaConsulta() {
+        List<Producto> productos = contarSentencias(1, servicioInventario::recuperaProducto);
+
+        assertFalse(productos.isEmpty());
+        productos.forEach(p -> { if (p.getUmbral() != null) { p.getUmbral().getValorMinimo(); } });
+    }
+
+    @Test
+    public void configuracionUmbrales_unaSolaConsulta() {
+        List<Producto> productos = contarSentencias(1, servicioUmbrales::recuperaConStockNoCero);
+
+        assertEquals(FILAS, productos.stream()
+                .filter(p -> p.getNombre().startsWith("Carga " + sufijo + " "))
+                .filter(p -> p.getUmbral() != null && p.getUmbral().getValorMinimo() == 2)
+                .count());
+    }
+
+    @Test
+    public void productosDeLaVenta_unaSolaConsulta() {
+        List<Producto> productos = contarSentencias(1, servicioProducto::recuperaProductosConStock);
+
+        assertFalse(productos.isEmpty());
+    }
+
+    @Test
+    public void tablaClientes_unaSolaConsultaConMembresia() {
+        List<Cliente> clientes = contarSentencias(1, servicioCliente::recuperarCliente);
+
+        assertEquals(TipoMembresia.Standard, clientes.stream()
+                .filter(c -> c.getIdCliente().equals(dueno.getIdCliente()))
+                .findFirst().orElseThrow().getMembresia().getTipo());
+    }
+
+    @Test
+    public void clienteDeLaVenta_unaSolaConsultaConMembresia() {
+        Cliente cliente = contarSentencias(1, () -> servicioCliente.findByTelefono(dueno.getTelefono()));
+
+        assertNotNull(cliente.getMembresia().getTipo());
+    }
+
+    @Test
+    public void seleccionPaciente_unaSolaConsultaConDueno() {
+        List<Mascota> mascotas = contarSentencias(1, () -> servicioMascota.recuperaMascotas(dueno));
+
+        assertEquals(FILAS, mascotas.size());
+        mascotas.forEach(m -> assertEquals("Cliente carga", m.getCliente().getNombreCompleto()));
+    }
+
+    @Test
+    public void ventasDelDia_unaSolaConsultaConDetallesYProductos() {
+        List<Venta> ventas = contarSentencias(1, () -> ventaRepository.findByFecha(fechaVenta));
+
+        assertEquals(1, ventas.size());
+        assertEquals(FILAS, ventas.get(0).getDetalleVentas().size());
+        ventas.get(0).getDetalleVentas().forEach(d -> assertNotNull(d.getProducto().getNombre()));
+    }
+}
@@ -0,0 +1,122 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.CartillaRepository;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.CalendarioVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que recalcular con un calendario numera las series de dosis de toda la tabla
+ * y deja la próxima dosis solo en la última de cada serie.
+ */
+@ActiveProfiles("test")
+public class ProximasDosisIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ServicioCartilla servicioCartilla;
+    @Autowired private CartillaRepository cartillaRepository;
+    @Autowired private MascotaRepository mascotaRepository;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+
+    private Mascota perro;
+    private Veterinario veterinario;
+
+    @BeforeEach
+    public void setUp() {
+        long sufijo = System.nanoTime() % 100_000;
+        Cliente cliente = new Cliente();
+        cliente.setNombreCompleto("Cliente vacunas");
+        cliente.setTelefono(String.format("74%08d", sufijo));
+        cliente.setCorreoElectronico("vacunas" + sufijo + "@correo.com");
+        cliente.setDireccion("Calle 4");
+        clienteRepository.save(cliente);
+
+        perro = new Mascota();
+        perro.setNombre("Firulais");
+        perro.setEspecie("Perro");
+        perro.setRaza("Mestizo");
+        perro.setSexo("Macho");
+        perro.setCliente(cliente);
+        mascotaRepository.save(perro);
+
+        veterinario = new Veterinario();
+        veterinario.setNombreCompleto("Ana Lopez " + sufijo);
+        veterinarioRepository.save(veterinario);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        servicioCartilla.cambiarCalendario(CalendarioVacunacion.predeterminado());
+    }
+
+    @Test
+    public void cambiarCalendario_reprogramaLasSeries() {
+        Long mascotaId = perro.getIdMascota();
+        LocalDate inicio = LocalDate.of(2024, 2, 1);
+        // Guardadas directo, con la próxima dosis provisional de cada una
+        cartillaRepository.save(new Cartilla(VacunaEnum.PARVOVIRUS, inicio, veterinario, 1L, null, mascotaId));
+        cartillaRepository.save(new Cartilla(VacunaEnum.PARVOVIRUS, inicio.plusWeeks(3), veterinario, 2L, null, mascotaId));
+        cartillaRepository.save(new Cartilla(VacunaEnum.RABIA, inicio, veterinario, 3L, null, mascotaId));
+
+        assertTrue(servicioCartilla.cambiarCalendario(CalendarioVacunacion.predeterminado()) >= 1);
+
+        List<Cartilla> parvo = cartillaRepository
+                .findByMascotaIdAndVacunaOrderByFechaAplicacionAscIdAsc(mascotaId, VacunaEnum.PARVOVIRUS);
+        assertEquals(1, parvo.get(0).getNumeroDosis());
+        assertNull(parvo.get(0).getProximaDosis());
+        assertEquals(2, parvo.get(1).getNumeroDosis());
+        assertEquals(inicio.plusWeeks(6), parvo.get(1).getProximaDosis());
+
+        // Un calendario con refuerzo de rabia cada tres años se aplica a las existentes
+        CalendarioVacunacion trianual = CalendarioVacunacion.nuevo()
+                .serie(VacunaEnum.RABIA, Especie.OTRA, Period.ofYears(3), Period.ofYears(1))
+                .serie(VacunaEnum.PARVOVIRUS, Especie.PERRO, Period.ofYears(1), Period.ofWeeks(4))
+                .construir();
+        servicioCartilla.cambiarCalendario(trianual);
+
+        parvo = cartillaRepository.findByMascotaIdAndVacunaOrderByFechaAplicacionAscIdAsc(mascotaId, VacunaEnum.PARVOVIRUS);
+        assertEquals(inicio.plusWeeks(3).plusYears(1), parvo.get(1).getProximaDosis());
+        assertEquals(List.of(inicio.plusYears(1)), cartillaRepository
+                .findByMascotaIdAndVacunaOrderByFechaAplicacionAscIdAsc(mascotaId, VacunaEnum.RABIA)
+                .stream().map(Cartilla::getProximaDosis).toList());
+    }
+
+    @Test
+    public void recordatorios_soloIncluyenLaUltimaDosis() {
+        Long mascotaId = perro.getIdMascota();
+        LocalDate hoy = LocalDate.now();
+        servicioCartilla.registrarVacuna(VacunaEnum.MOQUILLO, hoy.minusWeeks(4), veterinario, 1L, null, mascotaId);
+        Cartilla segunda = servicioCartilla.registrarVacuna(VacunaEnum.MOQUILLO, hoy.minusWeeks(1), veterinario, 2L, null, mascotaId);
+
+        List<Cartilla> pendientes = servicioCartilla.obtenerRecordatorios(hoy.minusWeeks(2), hoy.plusWeeks(3)).stream()
+                .filter(c -> mascotaId.equals(c.getMascotaId()))
+                .toList();
+
+        assertEquals(1, pendientes.size());
+        assertEquals(segunda.getId(), pendientes.get(0).getId());
+        assertEquals(hoy.plusWeeks(2), pendientes.get(0).getProximaDosis());
+    }
+}
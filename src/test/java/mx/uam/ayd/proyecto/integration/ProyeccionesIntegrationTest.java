@@ -0,0 +1,237 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManagerFactory;
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.CartillaRepository;
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.datos.UsuarioRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCartilla;
+import mx.uam.ayd.proyecto.negocio.ServicioCita;
+import mx.uam.ayd.proyecto.negocio.ServicioCliente;
+import mx.uam.ayd.proyecto.negocio.ServicioProducto;
+import mx.uam.ayd.proyecto.negocio.ServicioUsuario;
+import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.CartillaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.CitaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.ClienteResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Membresia;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.ProductoResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.UnidadProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Usuario;
+import mx.uam.ayd.proyecto.negocio.modelo.UsuarioResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que las tablas de las pantallas de listado se llenan con proyecciones:
+ * una sola consulta por pantalla, con las columnas visibles y sin cargar entidades.
+ */
+@ActiveProfiles("test")
+public class ProyeccionesIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private CitaRepository citaRepository;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private CartillaRepository cartillaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+
+    @Autowired private ServicioProducto servicioProducto;
+    @Autowired private ServicioCliente servicioCliente;
+    @Autowired private ServicioCita servicioCita;
+    @Autowired private ServicioCartilla servicioCartilla;
+    @Autowired private ServicioUsuario servicioUsuario;
+
+    private Statistics estadisticas;
+    private long sufijo;
+    private Producto producto;
+    private Cliente conMembresia;
+    private Cliente sinMembresia;
+    private Cita cita;
+    private Long mascotaId;
+    private Usuario usuario;
+
+    @BeforeEach
+    public void setUp() {
+        sufijo = System.nanoTime() % 100_000;
+
+        producto = new Producto();
+        producto.setNombre("Proyeccion " + sufijo);
+        producto.setTipoProducto(TipoProducto.Estetica);
+        producto.setMarcaProducto(MarcaProducto.TROPICLEAN);
+        producto.setUnidadProducto(UnidadProducto.values()[0]);
+        producto.setPrecio(75.5);
+        producto.setCantidadStock(4);
+        productoRepository.save(producto);
+
+        conMembresia = cliente("1", 800.0);
+        Membresia membresia = new Membresia();
+        membresia.setTipo(TipoMembresia.Platinum);
+        membresia.setPrecio(219.0);
+        membresia.setEstado(true);
+        conMembresia.setMembresia(membresia);
+        clienteRepository.save(conMembresia);
+        sinMembresia = clienteRepository.save(cliente("2", 0.0));
+
+        Veterinario veterinario = new Veterinario();
+        veterinario.setNombreCompleto("Dra Proyeccion " + sufijo);
+        veterinarioRepository.save(veterinario);
+        cita = new Cita();
+        cita.setFechaHora(LocalDateTime.of(2030, 1, 7, 10, 0).plusMinutes(sufijo));
+        cita.setTipo(TipoCita.Consulta);
+        cita.setNombreSolicitante("Solicitante " + sufijo);
+        cita.setContacto("5512345678");
+        cita.setVeterinario(veterinario);
+        cita.setMotivo("Revision");
+        citaRepository.save(cita);
+
+        mascotaId = 900_000L + sufijo;
+        cartillaRepository.save(new Cartilla(VacunaEnum.RABIA, LocalDate.of(2024, 5, 1), veterinario, 11L, "Sin reaccion", mascotaId));
+        cartillaRepository.save(new Cartilla(VacunaEnum.PARVOVIRUS, LocalDate.of(2024, 3, 1), veterinario, 12L, null, mascotaId));
+
+        usuario = new Usuario();
+        usuario.setNombre("Proyeccion");
+        usuario.setApellido("Apellido " + sufijo);
+        usuario.setEdad(30);
+        usuarioRepository.save(usuario);
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        estadisticas.setStatisticsEnabled(false);
+    }
+
+    private Cliente cliente(String prefijo, double monto) {
+        Cliente cliente = new Cliente();
+        cliente.setNombreCompleto("Cliente proyeccion");
+        cliente.setTelefono(String.format("8%s%08d", prefijo, sufijo));
+        cliente.setCorreoElectronico("proyeccion" + prefijo + "_" + sufijo + "@correo.com");
+        cliente.setDireccion("Calle 2");
+        cliente.setMontoAcumulado(monto);
+        return cliente;
+    }
+
+    /** Ejecuta la consulta de la pantalla y comprueba que fue una sola sentencia sin cargar entidades. */
+    private <T> T consultaProyectada(Supplier<T> pantalla) {
+        estadisticas.clear();
+        T resultado = pantalla.get();
+        assertEquals(1, estadisticas.getPrepareStatementCount(),
+                "Sentencias SQL: " + estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount(), "Entidades cargadas: " + estadisticas.getEntityLoadCount());
+        return resultado;
+    }
+
+    @Test
+    public void tablaInventario_proyectaColumnasVisibles() {
+        List<ProductoResumen> filas = consultaProyectada(() -> servicioProducto.recuperaResumenPorTipo(TipoProducto.Estetica));
+
+        ProductoResumen fila = filas.stream()
+                .filter(p -> p.getIdProducto().equals(producto.getIdProducto()))
+                .findFirst().orElseThrow();
+        assertEquals("Proyeccion " + sufijo, fila.getNombre());
+        assertEquals(TipoProducto.Estetica, fila.getTipoProducto());
+        assertEquals(75.5, fila.getPrecio());
+        assertEquals(4, fila.getCantidadStock());
+        assertNull(fila.getUsoVeterinario());
+        assertTrue(filas.stream().allMatch(p -> p.getTipoProducto() == TipoProducto.Estetica));
+    }
+
+    @Test
+    public void modificarProducto_cargaLaEntidadPorId() {
+        assertEquals("Proyeccion " + sufijo, servicioProducto.recuperaProducto(producto.getIdProducto()).getNombre());
+        assertThrows(IllegalArgumentException.class, () -> servicioProducto.recuperaProducto(-1L));
+    }
+
+    @Test
+    public void tablaClientes_incluyeTipoDeMembresia() {
+        List<ClienteResumen> filas = consultaProyectada(servicioCliente::recuperaResumenClientes);
+
+        ClienteResumen platinum = filas.stream()
+                .filter(c -> c.getIdCliente().equals(conMembresia.getIdCliente())).findFirst().orElseThrow();
+        ClienteResumen sinTipo = filas.stream()
+                .filter(c -> c.getIdCliente().equals(sinMembresia.getIdCliente())).findFirst().orElseThrow();
+        assertEquals(TipoMembresia.Platinum, platinum.getTipoMembresia());
+        assertEquals(800.0, platinum.getMontoAcumulado());
+        assertEquals(conMembresia.getTelefono(), platinum.getTelefono());
+        assertNull(sinTipo.getTipoMembresia());
+    }
+
+    @Test
+    public void accionSobreCliente_cargaLaEntidadConMembresia() {
+        Cliente cliente = servicioCliente.recuperaCliente(conMembresia.getIdCliente());
+
+        assertEquals(TipoMembresia.Platinum, cliente.getMembresia().getTipo());
+    }
+
+    @Test
+    public void tablaCitas_incluyeNombreDelVeterinario() {
+        List<CitaResumen> filas = consultaProyectada(servicioCita::recuperarResumenCitas);
+
+        CitaResumen fila = filas.stream()
+                .filter(c -> c.getIdCita().equals(cita.getIdCita())).findFirst().orElseThrow();
+        assertEquals("Dra Proyeccion " + sufijo, fila.getNombreVeterinario());
+        assertEquals(TipoCita.Consulta, fila.getTipo());
+        assertEquals(cita.getFechaHora(), fila.getFechaHora());
+        assertFalse(fila.isAtendida());
+        for (int i = 1; i < filas.size(); i++) {
+            assertFalse(filas.get(i).getFechaHora().isBefore(filas.get(i - 1).getFechaHora()));
+        }
+    }
+
+    @Test
+    public void tablaCartilla_porMascotaOrdenadaPorFecha() {
+        List<CartillaResumen> filas = consultaProyectada(() -> servicioCartilla.obtenerResumenPorMascota(mascotaId));
+
+        assertEquals(2, filas.size());
+        assertEquals(VacunaEnum.PARVOVIRUS, filas.get(0).getVacuna());
+        assertEquals(VacunaEnum.RABIA, filas.get(1).getVacuna());
+        assertEquals(11L, filas.get(1).getLote());
+        assertEquals(LocalDate.of(2025, 5, 1), filas.get(1).getProximaDosis());
+        assertEquals("Dra Proyeccion " + sufijo, filas.get(1).getNombreVeterinario());
+
+        assertTrue(consultaProyectada(servicioCartilla::obtenerResumenCartillas).size() >= 2);
+    }
+
+    @Test
+    public void listaUsuarios_proyectaColumnasVisibles() {
+        List<UsuarioResumen> filas = consultaProyectada(servicioUsuario::recuperaResumenUsuarios);
+
+        UsuarioResumen fila = filas.stream()
+                .filter(u -> u.getIdUsuario() == usuario.getIdUsuario()).findFirst().orElseThrow();
+        assertEquals("Apellido " + sufijo, fila.getApellido());
+        assertEquals(30, fila.getEdad());
+    }
+}
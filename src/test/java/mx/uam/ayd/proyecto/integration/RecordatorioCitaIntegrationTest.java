@@ -0,0 +1,106 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que el barrido de recordatorios solo recupera las citas pendientes, con correo
+ * propio o de su cliente y sin recordatorio que empiezan dentro del tramo pedido, y que
+ * marcarlas solo toca las citas indicadas.
+ */
+@ActiveProfiles("test")
+public class RecordatorioCitaIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private CitaRepository citaRepository;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Veterinario veterinario;
+    private Cliente cliente;
+    private LocalDateTime ahora;
+    private long siguienteId;
+
+    @BeforeEach
+    public void setUp() {
+        veterinario = new Veterinario();
+        veterinario.setNombreCompleto("Dr. Recordatorios " + System.nanoTime() % 100_000);
+        veterinarioRepository.save(veterinario);
+        ahora = LocalDateTime.now().withNano(0);
+        siguienteId = 960_000_000L + (System.nanoTime() % 100_000) * 10;
+        long sufijo = System.nanoTime() % 100_000_000;
+        cliente = new Cliente();
+        cliente.setNombreCompleto("Cliente Recordatorios");
+        cliente.setTelefono(String.format("76%08d", sufijo));
+        cliente.setCorreoElectronico("registrado" + sufijo + "@correo.com");
+        cliente.setDireccion("Calle 7");
+        clienteRepository.save(cliente);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM cita WHERE veterinario_id = ?", veterinario.getIdVeterinario());
+        clienteRepository.deleteById(cliente.getIdCliente());
+    }
+
+    private long insertarCita(LocalDateTime fechaHora, String contacto, boolean atendida, LocalDateTime recordatorio) {
+        long id = siguienteId++;
+        jdbcTemplate.update("INSERT INTO cita (id_cita, fecha_hora, fecha_hora_fin, tipo, nombre_solicitante, contacto, "
+                        + "atendida, veterinario_id, motivo, notas, recordatorio_enviado) "
+                        + "VALUES (?, ?, ?, 'Consulta', 'Solicitante', ?, ?, ?, '', '', ?)",
+                id, fechaHora, fechaHora.plusMinutes(30), contacto, atendida, veterinario.getIdVeterinario(), recordatorio);
+        return id;
+    }
+
+    @Test
+    public void findRecordatoriosPendientes_soloElTramoSinRecordatorio() {
+        long segunda = insertarCita(ahora.plusHours(5), "segunda@correo.com", false, null);
+        long primera = insertarCita(ahora.plusHours(2), "primera@correo.com", false, null);
+        insertarCita(ahora.plusHours(3), "5512345678", false, null);              // sin correo
+        long registrada = insertarCita(ahora.plusHours(7), "5512345678", false, null);
+        jdbcTemplate.update("UPDATE cita SET cliente_id = ? WHERE id_cita = ?", cliente.getIdCliente(), registrada);
+        insertarCita(ahora.plusHours(4), "enviada@correo.com", false, ahora);    // ya tiene recordatorio
+        insertarCita(ahora.plusHours(6), "atendida@correo.com", true, null);     // ya se atendió
+        insertarCita(ahora.plusHours(30), "lejana@correo.com", false, null);     // fuera del tramo
+
+        List<Cita> pendientes = citaRepository.findRecordatoriosPendientes(ahora, ahora.plusHours(24), PageRequest.of(0, 50))
+                .stream()
+                .filter(c -> c.getVeterinario().getIdVeterinario().equals(veterinario.getIdVeterinario()))
+                .toList();
+
+        assertEquals(List.of(primera, segunda, registrada), pendientes.stream().map(Cita::getIdCita).toList());
+        // El cliente ya viene cargado: se puede leer su correo fuera de la transacción
+        assertEquals(cliente.getCorreoElectronico(), pendientes.get(2).getCliente().getCorreoElectronico());
+    }
+
+    @Test
+    public void marcarRecordatorioEnviado_soloLasCitasIndicadas() {
+        long enviada = insertarCita(ahora.plusHours(2), "enviada@correo.com", false, null);
+        long fallida = insertarCita(ahora.plusHours(3), "fallida@correo.com", false, null);
+
+        assertEquals(1, citaRepository.marcarRecordatorioEnviado(List.of(enviada), ahora));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cita WHERE id_cita = ? AND recordatorio_enviado IS NOT NULL", Integer.class, enviada));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cita WHERE id_cita = ? AND recordatorio_enviado IS NULL", Integer.class, fallida));
+    }
+}
@@ -0,0 +1,100 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioReservaStock;
+import mx.uam.ayd.proyecto.negocio.ServicioVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.UnidadProducto;
+
+/**
+ * Verifica que las reservas de los carritos se respaldan en la tabla (una fila por sesión
+ * y producto) y que ni reservar ni descontar stock al finalizar dependen de la copia del carrito.
+ */
+@ActiveProfiles("test")
+public class ReservaStockIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ServicioReservaStock servicioReservaStock;
+    @Autowired private ServicioVenta servicioVenta;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Producto producto;
+
+    @BeforeEach
+    public void setUp() {
+        producto = new Producto();
+        producto.setNombre("Reserva " + System.nanoTime());
+        producto.setTipoProducto(TipoProducto.Limpieza);
+        producto.setMarcaProducto(MarcaProducto.HILLS);
+        producto.setUnidadProducto(UnidadProducto.values()[0]);
+        producto.setPrecio(25.0);
+        producto.setCantidadStock(6);
+        productoRepository.save(producto);
+    }
+
+    private int filas(String idSesion) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(cantidad), 0) FROM reservas_stock WHERE id_sesion = ? AND id_producto = ?",
+                Integer.class, idSesion, producto.getIdProducto());
+    }
+
+    @Test
+    public void reservar_actualizaLaMismaFilaYLiberarLaBorra() {
+        String sesion = UUID.randomUUID().toString();
+
+        servicioReservaStock.reservar(sesion, producto, 2);
+        servicioReservaStock.reservar(sesion, producto, 5);
+
+        assertEquals(5, filas(sesion));
+        assertEquals(1, servicioReservaStock.disponible(producto));
+
+        servicioReservaStock.liberar(sesion);
+
+        assertEquals(0, filas(sesion));
+        assertEquals(6, servicioReservaStock.disponible(producto));
+    }
+
+    @Test
+    public void reservar_conCopiaAtrasada_noApartaLoYaVendido() {
+        Producto copia = productoRepository.findById(producto.getIdProducto()).orElseThrow();
+        String vendedora = UUID.randomUUID().toString();
+        String otra = UUID.randomUUID().toString();
+        servicioReservaStock.reservar(vendedora, producto, 4);
+
+        // La venta de la otra sesión se confirma y suelta su reserva
+        servicioVenta.actualizarStock(producto, 4);
+        servicioReservaStock.liberar(vendedora);
+
+        // La copia aún cree que hay 6
+        assertThrows(IllegalStateException.class, () -> servicioReservaStock.reservar(otra, copia, 3));
+        assertEquals(2, servicioReservaStock.disponiblePara(otra, copia));
+        servicioReservaStock.liberar(otra);
+    }
+
+    @Test
+    public void actualizarStock_conCopiaAtrasada_noPisaOtraVenta() {
+        Producto copiaA = productoRepository.findById(producto.getIdProducto()).orElseThrow();
+        Producto copiaB = productoRepository.findById(producto.getIdProducto()).orElseThrow();
+
+        servicioVenta.actualizarStock(copiaA, 4);
+        // La copia B aún cree que hay 6
+        assertThrows(IllegalStateException.class, () -> servicioVenta.actualizarStock(copiaB, 3));
+        servicioVenta.actualizarStock(copiaB, 2);
+
+        assertEquals(0, productoRepository.findById(producto.getIdProducto()).orElseThrow().getCantidadStock());
+    }
+}
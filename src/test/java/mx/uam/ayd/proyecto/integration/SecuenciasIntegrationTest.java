@@ -0,0 +1,85 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.GrupoRepository;
+import mx.uam.ayd.proyecto.datos.MigracionSecuencias;
+import mx.uam.ayd.proyecto.negocio.modelo.Grupo;
+
+@ActiveProfiles("test")
+public class SecuenciasIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MigracionSecuencias migracionSecuencias;
+
+    @Autowired
+    private GrupoRepository grupoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void migrar_conservaIdsExistentesYNoLosRepite() {
+        jdbcTemplate.update("INSERT INTO grupo (id_grupo, nombre) VALUES (?, ?)", 5000L, "Grupo previo");
+
+        migracionSecuencias.migrar();
+
+        assertTrue(grupoRepository.findById(5000L).isPresent());
+        // El siguiente bloque que reserve Hibernate queda completo por encima del ID existente
+        Long siguiente = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR grupo_seq", Long.class);
+        assertTrue(siguiente - MigracionSecuencias.TAMANO_BLOQUE >= 5000L, "Siguiente valor: " + siguiente);
+
+        // Un segundo arranque no vuelve a mover la secuencia
+        Long antes = valorBase();
+        migracionSecuencias.migrar();
+        assertEquals(antes, valorBase());
+    }
+
+    private Long valorBase() {
+        return jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'GRUPO_SEQ'", Long.class);
+    }
+
+    @Test
+    public void saveAll_agrupaLosInsertEnLotes() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.setStatisticsEnabled(true);
+        estadisticas.clear();
+
+        List<Grupo> grupos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Grupo grupo = new Grupo();
+            grupo.setNombre("Lote " + i);
+            grupos.add(grupo);
+        }
+        transactionTemplate.executeWithoutResult(status -> grupoRepository.saveAll(grupos));
+
+        assertEquals(120, estadisticas.getEntityInsertCount());
+        // Sin lotes serían 120 sentencias; con lotes de 50 son 3 más las consultas a la secuencia
+        assertTrue(estadisticas.getPrepareStatementCount() < 10,
+                "Sentencias preparadas: " + estadisticas.getPrepareStatementCount());
+        assertFalse(grupos.stream().anyMatch(g -> g.getIdGrupo() == 0));
+        estadisticas.setStatisticsEnabled(false);
+    }
+}
@@ -0,0 +1,77 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.OcurrenciaSerie;
+import mx.uam.ayd.proyecto.negocio.modelo.Recurrencia;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que una serie de citas se revisa contra la agenda guardada y que solo se
+ * agenda completa o, si se pide, sin las citas que chocan.
+ */
+@ActiveProfiles("test")
+public class SerieCitasIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private ServicioCita servicioCita;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Veterinario veterinario;
+    private LocalDateTime inicio;
+
+    @BeforeEach
+    public void setUp() {
+        veterinario = new Veterinario();
+        veterinario.setNombreCompleto("Dr. Series " + System.nanoTime() % 100_000);
+        veterinarioRepository.save(veterinario);
+        inicio = LocalDate.now().plusWeeks(2).with(DayOfWeek.WEDNESDAY).atTime(10, 0);
+        servicioCita.agendarCita(inicio.plusWeeks(1).plusMinutes(10), TipoCita.Consulta, "Otro", "5512345679", false,
+                veterinario, "", "");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM cita WHERE veterinario_id = ?", veterinario.getIdVeterinario());
+    }
+
+    @Test
+    public void agendarSerie_soloGuardaLasLibresSiSePide() {
+        Recurrencia semanal = Recurrencia.veces(Recurrencia.Frecuencia.SEMANAL, 1, 3);
+
+        List<OcurrenciaSerie> revision = servicioCita.agendarSerie(inicio, TipoCita.Revision, "Solicitante", "5512345678",
+                false, veterinario, "Curación", "", null, semanal, false);
+        assertTrue(revision.get(1).tieneConflicto());
+        assertEquals(1, contarCitas());
+
+        List<OcurrenciaSerie> agendadas = servicioCita.agendarSerie(inicio, TipoCita.Revision, "Solicitante", "5512345678",
+                false, veterinario, "Curación", "", null, semanal, true);
+        assertEquals(3, contarCitas());
+
+        List<Cita> serie = servicioCita.recuperarSerie(agendadas.get(0).getCita().getIdSerie());
+        assertEquals(List.of(inicio, inicio.plusWeeks(2)), serie.stream().map(Cita::getFechaHora).toList());
+    }
+
+    private int contarCitas() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cita WHERE veterinario_id = ?", Integer.class,
+                veterinario.getIdVeterinario());
+    }
+}
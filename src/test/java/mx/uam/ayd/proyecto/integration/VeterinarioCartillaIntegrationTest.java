@@ -0,0 +1,99 @@
+package mx.uam.ayd.proyecto.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import mx.uam.ayd.proyecto.BaseIntegrationTest;
+import mx.uam.ayd.proyecto.datos.MigracionVeterinarioCartilla;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.ServicioCartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+
+/**
+ * Verifica que la migración liga las cartillas capturadas con el nombre del veterinario
+ * al veterinario registrado más parecido y después borra la columna de texto.
+ */
+@ActiveProfiles("test")
+public class VeterinarioCartillaIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired private MigracionVeterinarioCartilla migracion;
+    @Autowired private ServicioCartilla servicioCartilla;
+    @Autowired private VeterinarioRepository veterinarioRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long base;
+    private Veterinario cirujano;
+    private Veterinario general;
+
+    @BeforeEach
+    public void setUp() {
+        base = 800_000_000L + (System.nanoTime() % 100_000) * 10;
+
+        cirujano = new Veterinario();
+        cirujano.setNombreCompleto("Dr. Eusebio Tlacuache (Cirugía)");
+        veterinarioRepository.save(cirujano);
+        general = new Veterinario();
+        general.setNombreCompleto("Dra. Rigoberta Xochimilco");
+        veterinarioRepository.save(general);
+
+        // Esquema anterior: el veterinario era texto libre
+        jdbcTemplate.execute("ALTER TABLE cartillas ADD COLUMN veterinario VARCHAR(255)");
+        insertar(base, "eusebio tlacuache");
+        insertar(base + 1, "MVZ E. Tlacuache");
+        insertar(base + 2, "Dra Rigoberta Xochimilko");
+        insertar(base + 3, "Dr. Bartolo Quetzalcoatl");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("ALTER TABLE cartillas DROP COLUMN IF EXISTS veterinario");
+        jdbcTemplate.update("DELETE FROM cartillas WHERE id BETWEEN ? AND ?", base, base + 3);
+    }
+
+    private void insertar(long id, String veterinario) {
+        jdbcTemplate.update("INSERT INTO cartillas (id, vacuna, fecha_aplicacion, lote, mascota_id, numero_dosis, veterinario) "
+                + "VALUES (?, 'RABIA', DATE '2024-01-01', 1, ?, 1, ?)", id, id, veterinario);
+    }
+
+    private Long veterinarioDe(long id) {
+        return jdbcTemplate.queryForObject("SELECT veterinario_id FROM cartillas WHERE id = ?", Long.class, id);
+    }
+
+    @Test
+    public void migrar_ligaPorParecidoYBorraLaColumna() {
+        migracion.migrar();
+
+        assertEquals(cirujano.getIdVeterinario(), veterinarioDe(base));
+        assertEquals(cirujano.getIdVeterinario(), veterinarioDe(base + 1));
+        assertEquals(general.getIdVeterinario(), veterinarioDe(base + 2));
+
+        // Sin parecido suficiente se registra un veterinario con el nombre capturado
+        Long nuevo = veterinarioDe(base + 3);
+        assertNotNull(nuevo);
+        assertNotEquals(cirujano.getIdVeterinario(), nuevo);
+        assertNotEquals(general.getIdVeterinario(), nuevo);
+        assertEquals("Dr. Bartolo Quetzalcoatl", veterinarioRepository.findById(nuevo).orElseThrow().getNombreCompleto());
+
+        assertTrue(jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'CARTILLAS' AND COLUMN_NAME = 'VETERINARIO'")
+                .isEmpty());
+
+        List<Long> delCirujano = servicioCartilla.obtenerCartillaPorVeterinario(cirujano.getIdVeterinario()).stream()
+                .map(Cartilla::getId)
+                .sorted()
+                .toList();
+        assertEquals(List.of(base, base + 1), delCirujano);
+    }
+}
@@ -0,0 +1,73 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCita;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgendaVeterinarioTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 6, 2);
+    private static final LocalTime APERTURA = LocalTime.of(9, 0);
+    private static final LocalTime CIERRE = LocalTime.of(18, 0);
+
+    private static IntervaloCita ocupado(long id, LocalDateTime inicio, LocalDateTime fin) {
+        return new IntervaloCita() {
+            public Long getIdCita() { return id; }
+            public LocalDateTime getInicio() { return inicio; }
+            public LocalDateTime getFin() { return fin; }
+        };
+    }
+
+    private static LocalDateTime hora(LocalDate dia, int hora, int minuto) {
+        return dia.atTime(hora, minuto);
+    }
+
+    @Test
+    void huecos_descuentaCitasTraslapadasYDeOtrosDias() {
+        List<IntervaloCita> ocupados = List.of(
+                ocupado(1, hora(DIA.minusDays(1), 17, 0), hora(DIA.minusDays(1), 18, 0)),
+                ocupado(2, hora(DIA, 9, 0), hora(DIA, 9, 20)),
+                ocupado(3, hora(DIA, 10, 0), hora(DIA, 12, 0)),
+                ocupado(4, hora(DIA, 11, 0), hora(DIA, 11, 30)),
+                ocupado(5, hora(DIA.plusDays(1), 9, 0), hora(DIA.plusDays(1), 18, 0)));
+
+        List<AgendaVeterinario.Hueco> huecos = new AgendaVeterinario(APERTURA, CIERRE, ocupados, null).huecos(DIA, null);
+
+        assertEquals(2, huecos.size());
+        assertEquals(hora(DIA, 9, 20), huecos.get(0).getInicio());
+        assertEquals(hora(DIA, 10, 0), huecos.get(0).getFin());
+        assertEquals(hora(DIA, 12, 0), huecos.get(1).getInicio());
+        assertEquals(hora(DIA, 18, 0), huecos.get(1).getFin());
+        assertTrue(huecos.get(0).cabe(40));
+        assertFalse(huecos.get(0).cabe(41));
+    }
+
+    @Test
+    void huecos_ignoraLaCitaQueSeMueveYRespetaElInicio() {
+        List<IntervaloCita> ocupados = List.of(
+                ocupado(1, hora(DIA, 9, 0), hora(DIA, 10, 0)),
+                ocupado(2, hora(DIA, 14, 0), hora(DIA, 15, 0)));
+
+        List<AgendaVeterinario.Hueco> huecos = new AgendaVeterinario(APERTURA, CIERRE, ocupados, 2L)
+                .huecos(DIA, hora(DIA, 12, 10));
+
+        assertEquals(1, huecos.size());
+        assertEquals(hora(DIA, 12, 10), huecos.get(0).getInicio());
+        assertEquals(hora(DIA, 18, 0), huecos.get(0).getFin());
+    }
+
+    @Test
+    void huecos_citaSinFinCuentaConLaDuracionAnterior() {
+        List<IntervaloCita> ocupados = List.of(ocupado(1, hora(DIA, 9, 0), null));
+
+        List<AgendaVeterinario.Hueco> huecos = new AgendaVeterinario(APERTURA, CIERRE, ocupados, null).huecos(DIA, null);
+
+        assertEquals(hora(DIA, 9, 30), huecos.get(0).getInicio());
+    }
+}
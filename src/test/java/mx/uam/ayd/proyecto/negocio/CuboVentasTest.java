@@ -0,0 +1,139 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.negocio.modelo.DimensionVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.FiltroVentas;
+import mx.uam.ayd.proyecto.negocio.modelo.HechoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.ReporteVentaDTO;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CuboVentasTest {
+
+    private CuboVentas cubo;
+
+    private static HechoVenta hecho(long id, LocalDate fecha, long idProducto, String producto, MarcaProducto marca,
+                                    Long idCliente, String cliente, TipoMembresia membresia, int cantidad, double total) {
+        return new HechoVenta(id, fecha, idProducto, producto, TipoProducto.Comida, marca,
+                idCliente, cliente, membresia, membresia != null, cantidad, total);
+    }
+
+    @BeforeEach
+    void setUp() {
+        cubo = new CuboVentas(List.of(
+                hecho(1, LocalDate.of(2025, 1, 6), 1, "Croquetas", MarcaProducto.HILLS, null, null, null, 2, 200),
+                hecho(2, LocalDate.of(2025, 1, 8), 2, "Latas", MarcaProducto.Catchow, 10L, "Ana", TipoMembresia.Platinum, 1, 50),
+                hecho(3, LocalDate.of(2025, 1, 8), 1, "Croquetas", MarcaProducto.HILLS, 10L, "Ana", TipoMembresia.Platinum, 1, 90),
+                hecho(4, LocalDate.of(2025, 4, 2), 1, "Croquetas", MarcaProducto.HILLS, 11L, "Luis", null, 3, 300)));
+    }
+
+    @Test
+    void consultar_porSemanaYProducto_agrupaEnLunes() {
+        List<ReporteVentaDTO> filas = cubo.consultar(null, DimensionVenta.SEMANA, DimensionVenta.PRODUCTO);
+
+        assertEquals(3, filas.size());
+        ReporteVentaDTO primera = filas.get(0);
+        assertEquals(LocalDate.of(2025, 1, 6), primera.getFecha());
+        assertEquals("Croquetas", primera.getNombreProducto());
+        assertEquals(TipoProducto.Comida, primera.getTipoProducto());
+        assertEquals(3L, primera.getCantidadVendida());
+        assertEquals(290.0, primera.getTotalVenta());
+    }
+
+    @Test
+    void consultar_porTrimestreYMembresia() {
+        List<ReporteVentaDTO> filas = cubo.consultar(null, DimensionVenta.TRIMESTRE, DimensionVenta.MEMBRESIA);
+
+        assertEquals(3, filas.size());
+        assertEquals(LocalDate.of(2025, 1, 1), filas.get(0).getFecha());
+        assertEquals("Platinum", filas.get(0).getAgrupacion());
+        assertEquals(140.0, filas.get(0).getTotalVenta());
+        assertEquals("Sin membresía", filas.get(1).getAgrupacion());
+        assertEquals(LocalDate.of(2025, 4, 1), filas.get(2).getFecha());
+    }
+
+    @Test
+    void consultar_conFiltros_soloCuentaLasVentasQueCumplen() {
+        FiltroVentas filtro = new FiltroVentas();
+        filtro.setDesde(LocalDate.of(2025, 1, 7));
+        filtro.setHasta(LocalDate.of(2025, 3, 31));
+        filtro.setMarcaProducto(MarcaProducto.HILLS);
+
+        List<ReporteVentaDTO> filas = cubo.consultar(filtro, DimensionVenta.CLIENTE);
+
+        assertEquals(1, filas.size());
+        assertEquals("Ana", filas.get(0).getAgrupacion());
+        assertEquals(90.0, filas.get(0).getTotalVenta());
+    }
+
+    @Test
+    void consultar_clienteDesconocido_regresaVacio() {
+        FiltroVentas filtro = new FiltroVentas();
+        filtro.setIdCliente(99L);
+
+        assertTrue(cubo.consultar(filtro, DimensionVenta.MES).isEmpty());
+    }
+
+    @Test
+    void consultar_ventasSinCliente_seAgrupanComoPublicoGeneral() {
+        List<ReporteVentaDTO> filas = cubo.consultar(null, DimensionVenta.CLIENTE);
+
+        assertEquals(List.of("Ana", "Luis", "Público general"),
+                filas.stream().map(ReporteVentaDTO::getAgrupacion).toList());
+    }
+
+    @Test
+    void agregar_ignoraDetallesDeLaCargaInicial() {
+        assertFalse(cubo.agregar(hecho(3, LocalDate.of(2025, 1, 8), 1, "Croquetas", MarcaProducto.HILLS, null, null, null, 1, 90)));
+        assertTrue(cubo.agregar(hecho(5, LocalDate.of(2025, 4, 3), 3, "Collar", MarcaProducto.KONG, null, null, null, 1, 120)));
+
+        assertEquals(5, cubo.tamano());
+        List<ReporteVentaDTO> filas = cubo.consultar(null, DimensionVenta.MARCA);
+        assertEquals(List.of("Catchow", "HILLS", "KONG"), filas.stream().map(ReporteVentaDTO::getAgrupacion).toList());
+    }
+
+    @Test
+    void consultar_fechasFueraDeOrden_recorreTodoElCubo() {
+        cubo.agregar(hecho(5, LocalDate.of(2025, 1, 1), 1, "Croquetas", MarcaProducto.HILLS, null, null, null, 1, 100));
+        FiltroVentas filtro = new FiltroVentas();
+        filtro.setHasta(LocalDate.of(2025, 1, 2));
+
+        List<ReporteVentaDTO> filas = cubo.consultar(filtro, DimensionVenta.DIA);
+
+        assertEquals(1, filas.size());
+        assertEquals(100.0, filas.get(0).getTotalVenta());
+    }
+
+    @Test
+    void consultar_dimensionesInvalidas_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> cubo.consultar(null));
+        assertThrows(IllegalArgumentException.class, () -> cubo.consultar(null, DimensionVenta.DIA, DimensionVenta.MES));
+        assertThrows(IllegalArgumentException.class, () -> cubo.consultar(null, DimensionVenta.CLIENTE, DimensionVenta.CLIENTE));
+    }
+
+    @Test
+    void consultar_muchasVentas_seMantieneRapido() {
+        List<HechoVenta> hechos = new ArrayList<>();
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 200_000; i++) {
+            hechos.add(hecho(i + 1, inicio.plusDays(i / 600), i % 300, "P" + (i % 300), MarcaProducto.values()[i % 12],
+                    (long) (i % 500), "C" + (i % 500), i % 3 == 0 ? null : TipoMembresia.Standard, 1, 10));
+        }
+        CuboVentas grande = new CuboVentas(hechos);
+
+        long antes = System.nanoTime();
+        List<ReporteVentaDTO> filas = grande.consultar(null, DimensionVenta.TRIMESTRE, DimensionVenta.MEMBRESIA);
+        long milisegundos = (System.nanoTime() - antes) / 1_000_000;
+
+        assertEquals(200_000L, filas.stream().mapToLong(ReporteVentaDTO::getCantidadVendida).sum());
+        assertTrue(milisegundos < 2_000, "La consulta tardó " + milisegundos + " ms");
+    }
+}
@@ -0,0 +1,100 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.negocio.modelo.SolicitudEspera;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListaEsperaTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 6, 2);
+    private static final ToIntFunction<SolicitudEspera> DURACION = s -> s.getTipo().getDuracionMinutos();
+
+    private static SolicitudEspera solicitud(long id, Long idVeterinario, TipoCita tipo, int desde, int hasta) {
+        SolicitudEspera solicitud = new SolicitudEspera();
+        solicitud.setIdSolicitud(id);
+        solicitud.setTipo(tipo);
+        solicitud.setDesde(DIA.atTime(desde, 0));
+        solicitud.setHasta(DIA.atTime(hasta, 0));
+        solicitud.setFechaRegistro(DIA.minusDays(1).atTime(8, 0).plusMinutes(id));
+        if (idVeterinario != null) {
+            Veterinario veterinario = new Veterinario();
+            veterinario.setIdVeterinario(idVeterinario);
+            solicitud.setVeterinario(veterinario);
+        }
+        return solicitud;
+    }
+
+    private static LocalDateTime hora(int hora, int minuto) {
+        return DIA.atTime(hora, minuto);
+    }
+
+    @Test
+    void buscar_prefiereLaVentanaQueTerminaAntesYQueCabe() {
+        ListaEspera lista = new ListaEspera();
+        lista.agregar(solicitud(1, null, TipoCita.Consulta, 9, 18));
+        lista.agregar(solicitud(2, null, TipoCita.Consulta, 9, 12));
+        lista.agregar(solicitud(3, null, TipoCita.Cirugia, 9, 11));   // no cabe en 30 minutos
+        lista.agregar(solicitud(4, null, TipoCita.Consulta, 9, 10));  // su ventana ya cerró
+        lista.agregar(solicitud(5, null, TipoCita.Consulta, 12, 18)); // empieza después del hueco
+
+        Optional<SolicitudEspera> elegida = lista.buscar(7L, hora(10, 0), hora(10, 30), DURACION);
+
+        assertEquals(2L, elegida.orElseThrow().getIdSolicitud());
+        assertEquals(5, lista.tamano());
+    }
+
+    @Test
+    void buscar_saltaLasSolicitudesOmitidas() {
+        ListaEspera lista = new ListaEspera();
+        lista.agregar(solicitud(1, null, TipoCita.Consulta, 9, 11));
+        lista.agregar(solicitud(2, null, TipoCita.Consulta, 9, 12));
+
+        assertEquals(2L, lista.buscar(7L, hora(10, 0), hora(10, 30), DURACION, Set.of(1L)).orElseThrow().getIdSolicitud());
+        assertEquals(2, lista.tamano());
+    }
+
+    @Test
+    void buscar_respetaAlVeterinarioPreferido() {
+        ListaEspera lista = new ListaEspera();
+        lista.agregar(solicitud(1, 8L, TipoCita.Revision, 9, 11));
+        lista.agregar(solicitud(2, null, TipoCita.Revision, 9, 12));
+
+        assertEquals(2L, lista.buscar(7L, hora(10, 0), hora(10, 30), DURACION).orElseThrow().getIdSolicitud());
+        assertEquals(1L, lista.buscar(8L, hora(10, 0), hora(10, 30), DURACION).orElseThrow().getIdSolicitud());
+    }
+
+    @Test
+    void buscar_acomodaDentroDelHuecoDesdeElInicioDeLaVentana() {
+        ListaEspera lista = new ListaEspera();
+        SolicitudEspera tarde = solicitud(1, null, TipoCita.Vacunacion, 11, 13);
+        lista.agregar(tarde);
+
+        assertTrue(lista.buscar(7L, hora(10, 0), hora(11, 15), DURACION).isEmpty());
+        assertEquals(tarde, lista.buscar(7L, hora(10, 0), hora(11, 20), DURACION).orElseThrow());
+        assertEquals(hora(11, 0), ListaEspera.inicioEnHueco(tarde, hora(10, 0)));
+    }
+
+    @Test
+    void quitarYPurgar_sacanSolicitudesDeLaLista() {
+        ListaEspera lista = new ListaEspera();
+        SolicitudEspera manana = solicitud(1, 7L, TipoCita.Consulta, 9, 12);
+        lista.agregar(manana);
+        lista.agregar(solicitud(2, null, TipoCita.Consulta, 9, 12));
+        lista.agregar(solicitud(3, null, TipoCita.Consulta, 12, 18));
+
+        lista.quitar(manana);
+        lista.purgar(hora(13, 0));
+
+        assertEquals(1, lista.tamano());
+        assertEquals(3L, lista.buscar(7L, hora(14, 0), hora(15, 0), DURACION).orElseThrow().getIdSolicitud());
+    }
+}
@@ -0,0 +1,112 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.negocio.modelo.DimensionVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.ReporteVentaDTO;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MuestreoReporteTest {
+
+    private static ReporteVentaDTO fila(LocalDate fecha, String producto, long cantidad) {
+        return new ReporteVentaDTO(fecha, producto, TipoProducto.Comida, cantidad, cantidad * 10.0);
+    }
+
+    @Test
+    void reducir_pocasFilas_noCambiaNada() {
+        List<ReporteVentaDTO> filas = List.of(
+                fila(LocalDate.of(2025, 1, 1), "Croquetas", 2),
+                fila(LocalDate.of(2025, 1, 2), "Croquetas", 3));
+
+        MuestreoReporte.Resultado resultado = MuestreoReporte.reducir(filas, DimensionVenta.DIA, 8, 240);
+
+        assertFalse(resultado.isReducido());
+        assertEquals(DimensionVenta.DIA, resultado.getPeriodo());
+        assertEquals(2, resultado.getSeries().get("Croquetas").size());
+    }
+
+    @Test
+    void reducir_muchosProductos_agrupaElRestoEnOtros() {
+        List<ReporteVentaDTO> filas = new ArrayList<>();
+        LocalDate dia = LocalDate.of(2025, 1, 1);
+        for (int i = 1; i <= 10; i++) {
+            filas.add(fila(dia, "P" + i, i));
+        }
+
+        MuestreoReporte.Resultado resultado = MuestreoReporte.reducir(filas, DimensionVenta.DIA, 3, 30);
+
+        assertEquals(List.of("P10", "P9", MuestreoReporte.OTROS), new ArrayList<>(resultado.getSeries().keySet()));
+        ReporteVentaDTO otros = resultado.getSeries().get(MuestreoReporte.OTROS).get(0);
+        assertEquals(36L, otros.getCantidadVendida());
+        assertEquals(360.0, otros.getTotalVenta());
+        assertNull(otros.getTipoProducto());
+        assertTrue(resultado.isReducido());
+    }
+
+    @Test
+    void reducir_unAnioDiario_ensanchaElPeriodoYConservaTotales() {
+        List<ReporteVentaDTO> filas = new ArrayList<>();
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        for (int d = 0; d < 365; d++) {
+            filas.add(fila(inicio.plusDays(d), "A", 1));
+            filas.add(fila(inicio.plusDays(d), "B", 2));
+        }
+
+        MuestreoReporte.Resultado resultado = MuestreoReporte.reducir(filas, DimensionVenta.DIA, 8, 40);
+
+        assertEquals(DimensionVenta.MES, resultado.getPeriodo());
+        assertEquals(12, resultado.getSeries().get("A").size());
+        assertEquals(365L, resultado.getSeries().get("A").stream().mapToLong(ReporteVentaDTO::getCantidadVendida).sum());
+        assertEquals(LocalDate.of(2025, 2, 1), resultado.getSeries().get("B").get(1).getFecha());
+        assertTrue(resultado.getPuntos() <= 40);
+    }
+
+    @Test
+    void reducir_variosAniosTrimestrales_aplicaLttb() {
+        List<ReporteVentaDTO> filas = new ArrayList<>();
+        LocalDate inicio = LocalDate.of(2000, 1, 1);
+        for (int t = 0; t < 100; t++) {
+            filas.add(fila(inicio.plusMonths(3L * t), "A", t % 7));
+        }
+
+        MuestreoReporte.Resultado resultado = MuestreoReporte.reducir(filas, DimensionVenta.TRIMESTRE, 1, 20);
+
+        List<ReporteVentaDTO> serie = resultado.getSeries().get("A");
+        assertEquals(20, serie.size());
+        assertEquals(inicio, serie.get(0).getFecha());
+        assertEquals(inicio.plusMonths(297), serie.get(19).getFecha());
+    }
+
+    @Test
+    void lttb_conservaElPicoDeLaSerie() {
+        List<ReporteVentaDTO> serie = new ArrayList<>();
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        for (int d = 0; d < 100; d++) {
+            serie.add(fila(inicio.plusDays(d), "A", d == 37 ? 500 : 1));
+        }
+
+        List<ReporteVentaDTO> muestreo = MuestreoReporte.lttb(serie, 10);
+
+        assertEquals(10, muestreo.size());
+        assertTrue(muestreo.stream().anyMatch(f -> f.getCantidadVendida() == 500L));
+    }
+
+    @Test
+    void etiquetaPeriodo_formateaSegunElPeriodo() {
+        LocalDate fecha = LocalDate.of(2025, 5, 1);
+        assertEquals("2025-05", MuestreoReporte.etiquetaPeriodo(fecha, DimensionVenta.MES));
+        assertEquals("2025 T2", MuestreoReporte.etiquetaPeriodo(fecha, DimensionVenta.TRIMESTRE));
+        assertEquals(LocalDate.of(2025, 4, 1), MuestreoReporte.inicioPeriodo(fecha, DimensionVenta.TRIMESTRE));
+    }
+
+    @Test
+    void reducir_limitesInvalidos_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> MuestreoReporte.reducir(List.of(), DimensionVenta.DIA, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> MuestreoReporte.reducir(List.of(), DimensionVenta.DIA, 5, 10));
+    }
+}
@@ -0,0 +1,108 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.DuracionCitaVeterinarioRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CandidatoVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.DuracionCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioAsignacionVeterinarioTest {
+
+    @Mock
+    private VeterinarioRepository veterinarioRepository;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private DuracionCitaVeterinarioRepository duracionRepository;
+
+    @InjectMocks
+    private ServicioAsignacionVeterinario servicioAsignacion;
+
+    private final LocalDate dia = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+
+    private Veterinario veterinario(long id) {
+        Veterinario veterinario = new Veterinario();
+        veterinario.setIdVeterinario(id);
+        veterinario.setNombreCompleto("Vet " + id);
+        return veterinario;
+    }
+
+    private IntervaloCitaVeterinario ocupado(long idVeterinario, int horaInicio, int horaFin) {
+        LocalDateTime inicio = dia.atTime(horaInicio, 0);
+        LocalDateTime fin = dia.atTime(horaFin, 0);
+        return new IntervaloCitaVeterinario() {
+            public Long getIdVeterinario() { return idVeterinario; }
+            public Long getIdCita() { return idVeterinario * 100 + horaInicio; }
+            public LocalDateTime getInicio() { return inicio; }
+            public LocalDateTime getFin() { return fin; }
+        };
+    }
+
+    @Test
+    void proponer_prefiereAlEspecialistaYDescartaAQuienNoTieneLugar() {
+        List<Object[]> especialidades = new ArrayList<>();
+        especialidades.add(new Object[] { 1L, TipoCita.Cirugia });
+        especialidades.add(new Object[] { 2L, TipoCita.Consulta });
+        when(veterinarioRepository.findEspecialidades()).thenReturn(especialidades);
+        when(veterinarioRepository.findAll()).thenReturn(List.of(veterinario(1), veterinario(2), veterinario(3)));
+        when(citaRepository.findIntervalosOcupadosDeTodos(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(ocupado(1, 9, 12), ocupado(3, 9, 17)));
+
+        List<CandidatoVeterinario> candidatos = servicioAsignacion.proponer(TipoCita.Cirugia, dia.atTime(9, 0), dia.atTime(18, 0));
+
+        // El especialista atiende hasta las 12:00, pero su especialidad pesa más que la espera
+        assertEquals(2, candidatos.size());
+        assertEquals(1L, candidatos.get(0).getVeterinario().getIdVeterinario());
+        assertEquals(dia.atTime(12, 0), candidatos.get(0).getHorario());
+        assertTrue(candidatos.get(0).isEspecialista());
+        assertEquals(2L, candidatos.get(1).getVeterinario().getIdVeterinario());
+        assertEquals(dia.atTime(9, 0), candidatos.get(1).getHorario());
+    }
+
+    @Test
+    void proponer_sinEspecialistasRepartePorCargaYUsaLaDuracionPropia() {
+        when(veterinarioRepository.findEspecialidades()).thenReturn(List.of());
+        DuracionCitaVeterinario larga = new DuracionCitaVeterinario();
+        larga.setIdVeterinario(1L);
+        larga.setTipo(TipoCita.Consulta);
+        larga.setMinutos(90);
+        when(duracionRepository.findByTipo(TipoCita.Consulta)).thenReturn(List.of(larga));
+        when(veterinarioRepository.findAll()).thenReturn(List.of(veterinario(1), veterinario(2), veterinario(3)));
+        when(citaRepository.findIntervalosOcupadosDeTodos(any(), any()))
+                .thenReturn(List.of(ocupado(2, 13, 17), ocupado(3, 12, 13)));
+
+        List<CandidatoVeterinario> candidatos = servicioAsignacion.proponer(TipoCita.Consulta, dia.atTime(9, 0), dia.atTime(10, 0));
+
+        // El 1 no cabe con 90 minutos; entre 2 y 3, ambos libres a las 9:00, gana el menos cargado
+        assertEquals(List.of(3L, 2L), candidatos.stream().map(c -> c.getVeterinario().getIdVeterinario()).toList());
+        assertTrue(candidatos.get(0).getCarga() < candidatos.get(1).getCarga());
+    }
+
+    @Test
+    void proponer_ventanaInvertida_falla() {
+        assertThrows(IllegalArgumentException.class,
+                () -> servicioAsignacion.proponer(TipoCita.Consulta, dia.atTime(12, 0), dia.atTime(10, 0)));
+        verifyNoInteractions(citaRepository);
+    }
+}
@@ -0,0 +1,170 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.DuracionCitaVeterinarioRepository;
+import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.ReasignacionCita;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioAusenciaVeterinarioTest {
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private VeterinarioRepository veterinarioRepository;
+
+    @Mock
+    private DuracionCitaVeterinarioRepository duracionRepository;
+
+    @Mock
+    private ServicioCorreo servicioCorreo;
+
+    @Mock
+    private ServicioRecordatorioCita recordatorios;
+
+    @InjectMocks
+    private ServicioAusenciaVeterinario servicioAusencia;
+
+    private final LocalDate dia = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+    private final Veterinario ausente = veterinario(1);
+    private Cita consulta;
+    private Cita revision;
+    private Cita cirugia;
+
+    private static Veterinario veterinario(long id) {
+        Veterinario veterinario = new Veterinario();
+        veterinario.setIdVeterinario(id);
+        veterinario.setNombreCompleto("Vet " + id);
+        return veterinario;
+    }
+
+    private Cita cita(long id, int hora, TipoCita tipo, String contacto) {
+        Cita cita = new Cita();
+        cita.setIdCita(id);
+        cita.setFechaHora(dia.atTime(hora, 0));
+        cita.setFechaHoraFin(dia.atTime(hora, 0).plusMinutes(tipo.getDuracionMinutos()));
+        cita.setTipo(tipo);
+        cita.setNombreSolicitante("Cliente " + id);
+        cita.setContacto(contacto);
+        cita.setVeterinario(ausente);
+        return cita;
+    }
+
+    private IntervaloCitaVeterinario ocupado(long idVeterinario, LocalDateTime inicio, LocalDateTime fin) {
+        return new IntervaloCitaVeterinario() {
+            public Long getIdVeterinario() { return idVeterinario; }
+            public Long getIdCita() { return idVeterinario * 1000 + inicio.getHour(); }
+            public LocalDateTime getInicio() { return inicio; }
+            public LocalDateTime getFin() { return fin; }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        consulta = cita(10, 10, TipoCita.Consulta, "cliente@correo.com");
+        revision = cita(11, 10, TipoCita.Revision, "5512345678");
+        revision.setFechaHora(dia.atTime(10, 30));
+        revision.setFechaHoraFin(dia.atTime(10, 50));
+        cirugia = cita(12, 16, TipoCita.Cirugia, "5512345679");
+    }
+
+    private void stubAgendas() {
+        when(citaRepository.findPendientesDeVeterinario(1L, dia.atStartOfDay(), dia.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(consulta, revision, cirugia));
+        when(veterinarioRepository.findEspecialidades()).thenReturn(List.of());
+        when(duracionRepository.findAll()).thenReturn(List.of());
+        when(veterinarioRepository.findAll()).thenReturn(List.of(ausente, veterinario(2), veterinario(3)));
+        // El 2 tiene libre la mañana; el 3 no tiene lugar en todo el día
+        List<IntervaloCitaVeterinario> ocupados = List.of(
+                ocupado(1, dia.atTime(10, 0), dia.atTime(10, 30)),
+                ocupado(1, dia.atTime(10, 30), dia.atTime(10, 50)),
+                ocupado(3, dia.atTime(9, 0), dia.atTime(18, 0)),
+                ocupado(2, dia.atTime(15, 0), dia.atTime(18, 0)),
+                ocupado(1, dia.atTime(16, 0), dia.atTime(18, 0)));
+        when(citaRepository.findIntervalosOcupadosDeTodos(dia.atStartOfDay(),
+                dia.plusDays(ServicioAusenciaVeterinario.DIAS_REPROGRAMACION + 1).atStartOfDay())).thenReturn(ocupados);
+    }
+
+    @Test
+    void planear_pasaAOtroVeterinarioOAlDiaSiguienteSinChocarConsigoMismo() {
+        stubAgendas();
+
+        List<ReasignacionCita> plan = servicioAusencia.planear(ausente, dia);
+
+        assertEquals(3, plan.size());
+        assertEquals(2L, plan.get(0).getVeterinario().getIdVeterinario());
+        assertTrue(plan.get(0).conservaHorario());
+        // La revisión también va con el 2, después de la consulta que se le acaba de apartar
+        assertEquals(2L, plan.get(1).getVeterinario().getIdVeterinario());
+        assertEquals(dia.atTime(10, 30), plan.get(1).getFechaHora());
+        // Nadie tiene dos horas libres desde las 16:00: la cirugía pasa al martes a primera hora
+        assertEquals(dia.plusDays(1).atTime(9, 0), plan.get(2).getFechaHora());
+        assertEquals(dia.plusDays(1).atTime(11, 0), plan.get(2).getFechaHoraFin());
+        verify(citaRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reprogramar_guardaTodoEnUnLoteYAvisaSoloALosCorreos() {
+        stubAgendas();
+
+        servicioAusencia.reprogramar(ausente, dia, true);
+
+        verify(citaRepository, times(1)).saveAll(List.of(consulta, revision, cirugia));
+        verify(citaRepository, never()).save(any());
+        assertEquals(2L, consulta.getVeterinario().getIdVeterinario());
+        assertEquals(dia.plusDays(1).atTime(9, 0), cirugia.getFechaHora());
+        ArgumentCaptor<List<SimpleMailMessage>> avisos = ArgumentCaptor.forClass(List.class);
+        verify(servicioCorreo).enviarCorreos(avisos.capture());
+        assertEquals(1, avisos.getValue().size());
+        assertArrayEquals(new String[] { "cliente@correo.com" }, avisos.getValue().get(0).getTo());
+        assertTrue(avisos.getValue().get(0).getText().contains("Vet 1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reprogramar_avisaAlCorreoDelClienteLigado() {
+        Cliente cliente = new Cliente();
+        cliente.setCorreoElectronico("registrado@correo.com");
+        revision.setCliente(cliente);
+        stubAgendas();
+
+        servicioAusencia.reprogramar(ausente, dia, true);
+
+        ArgumentCaptor<List<SimpleMailMessage>> avisos = ArgumentCaptor.forClass(List.class);
+        verify(servicioCorreo).enviarCorreos(avisos.capture());
+        assertEquals(2, avisos.getValue().size());
+        assertArrayEquals(new String[] { "registrado@correo.com" }, avisos.getValue().get(1).getTo());
+    }
+
+    @Test
+    void planear_sinCitasNoCargaAgendas() {
+        when(citaRepository.findPendientesDeVeterinario(any(), any(), any())).thenReturn(List.of());
+
+        assertTrue(servicioAusencia.planear(ausente, dia).isEmpty());
+        verifyNoInteractions(veterinarioRepository, duracionRepository);
+    }
+}
@@ -1,8 +1,15 @@
 package mx.uam.ayd.proyecto.negocio;
 
 import mx.uam.ayd.proyecto.datos.CartillaRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
+import mx.uam.ayd.proyecto.datos.MigracionProximasDosis;
+import mx.uam.ayd.proyecto.negocio.modelo.CalendarioVacunacion;
 import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.EstadoVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
 import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,6 +31,10 @@ class ServicioCartillaTest {
     @InjectMocks
     private ServicioCartilla servicioCartilla;
 
+    private MascotaRepository mascotaRepository;
+    private MigracionProximasDosis migracionProximasDosis;
+    private ServicioCoberturaVacunacion servicioCobertura;
+
     @BeforeEach
     void setUp() {
         // Given: Configuración inicial del mock del repositorio
@@ -35,11 +46,37 @@ class ServicioCartillaTest {
             var field = ServicioCartilla.class.getDeclaredField("repositorioCartilla");
             field.setAccessible(true);
             field.set(servicioCartilla, repositorioCartilla);
+
+            var historial = ServicioCartilla.class.getDeclaredField("servicioHistorialMascota");
+            historial.setAccessible(true);
+            historial.set(servicioCartilla, mock(ServicioHistorialMascota.class));
+
+            mascotaRepository = mock(MascotaRepository.class);
+            var mascotas = ServicioCartilla.class.getDeclaredField("mascotaRepository");
+            mascotas.setAccessible(true);
+            mascotas.set(servicioCartilla, mascotaRepository);
+
+            migracionProximasDosis = mock(MigracionProximasDosis.class);
+            var migracion = ServicioCartilla.class.getDeclaredField("migracionProximasDosis");
+            migracion.setAccessible(true);
+            migracion.set(servicioCartilla, migracionProximasDosis);
+
+            servicioCobertura = mock(ServicioCoberturaVacunacion.class);
+            var cobertura = ServicioCartilla.class.getDeclaredField("servicioCobertura");
+            cobertura.setAccessible(true);
+            cobertura.set(servicioCartilla, servicioCobertura);
         } catch (Exception e) {
             fail("No se pudo inyectar el repositorio mock: " + e.getMessage());
         }
     }
 
+    private Veterinario veterinario(Long id, String nombre) {
+        Veterinario veterinario = new Veterinario();
+        veterinario.setIdVeterinario(id);
+        veterinario.setNombreCompleto(nombre);
+        return veterinario;
+    }
+
     // -------------------------------------------------------------------------
     // TEST: Registrar vacuna exitosamente
     // -------------------------------------------------------------------------
@@ -48,7 +85,7 @@ class ServicioCartillaTest {
         // Given: Datos de prueba válidos
         VacunaEnum vacuna = VacunaEnum.RABIA;
         LocalDate fecha = LocalDate.now().minusDays(2);
-        String veterinario = "Doctor Juan Pérez García";  // Nombre válido: solo letras y espacios
+        Veterinario veterinario = veterinario(3L, "Doctor Juan Pérez García");
         Long lote = 123L;
         String observaciones = "Sin complicaciones";
         Long mascotaId = 10L;
@@ -92,12 +129,12 @@ class ServicioCartillaTest {
     }
 
     // -------------------------------------------------------------------------
-    // TEST: Falla si veterinario es demasiado largo
+    // TEST: Falla si el veterinario no está registrado
     // -------------------------------------------------------------------------
     @Test
-    void testRegistrarVacuna_FallaVeterinarioMuyLargo() {
-        // Given: Nombre de veterinario con más de 100 caracteres
-        String nombreLargo = "Dr. " + "X".repeat(150);
+    void testRegistrarVacuna_FallaVeterinarioNoRegistrado() {
+        // Given: Veterinario sin id, capturado a mano y no elegido del catálogo
+        Veterinario noRegistrado = veterinario(null, "Dr. Juan");
 
         // When & Then: Se espera excepción con mensaje específico
         IllegalArgumentException exception = assertThrows(
@@ -105,7 +142,7 @@ class ServicioCartillaTest {
                 () -> servicioCartilla.registrarVacuna(
                         VacunaEnum.RABIA,
                         LocalDate.now().minusDays(1),  // Fecha pasada
-                        nombreLargo,
+                        noRegistrado,
                         1L,
                         "",
                         1L
@@ -113,10 +150,7 @@ class ServicioCartillaTest {
         );
 
         // Then: Verificar mensaje de error
-        assertEquals(
-                "El nombre del veterinario solo debe contener letras y espacios (max 100 caracteres)",
-                exception.getMessage()
-        );
+        assertEquals("El veterinario no está registrado", exception.getMessage());
 
         // Then: Verificar que no se llamó al repositorio
         verify(repositorioCartilla, never()).existsByVacunaAndMascotaIdAndFechaAplicacion(
@@ -124,34 +158,6 @@ class ServicioCartillaTest {
         verify(repositorioCartilla, never()).save(any());
     }
 
-    // -------------------------------------------------------------------------
-    // TEST: Falla si veterinario contiene caracteres inválidos
-    // -------------------------------------------------------------------------
-    @Test
-    void testRegistrarVacuna_FallaVeterinarioCaracteresInvalidos() {
-        // Given: Nombre de veterinario con números
-        String veterinarioInvalido = "Dr. Juan123";
-
-        // When & Then: Se espera excepción
-        IllegalArgumentException exception = assertThrows(
-                IllegalArgumentException.class,
-                () -> servicioCartilla.registrarVacuna(
-                        VacunaEnum.RABIA,
-                        LocalDate.now().minusDays(1),
-                        veterinarioInvalido,
-                        1L,
-                        "",
-                        1L
-                )
-        );
-
-        // Then: Verificar mensaje de error
-        assertEquals(
-                "El nombre del veterinario solo debe contener letras y espacios (max 100 caracteres)",
-                exception.getMessage()
-        );
-    }
-
     // -------------------------------------------------------------------------
     // TEST: Falla si la vacuna es nula
     // -------------------------------------------------------------------------
@@ -164,7 +170,7 @@ class ServicioCartillaTest {
                 () -> servicioCartilla.registrarVacuna(
                         null,
                         LocalDate.now().minusDays(1),
-                        "Doctor Juan Pérez",
+                        veterinario(1L, "Doctor Juan Pérez"),
                         1L,
                         "",
                         1L
@@ -181,12 +187,12 @@ class ServicioCartillaTest {
     }
 
     // -------------------------------------------------------------------------
-    // TEST: Falla si veterinario vacío
+    // TEST: Falla si no se eligió veterinario
     // -------------------------------------------------------------------------
     @Test
     void testRegistrarVacuna_FallaVeterinarioVacio() {
-        // Given: Nombre de veterinario vacío
-        String veterinarioVacio = "   ";
+        // Given: Sin veterinario
+        Veterinario veterinarioVacio = null;
 
         // When & Then: Se espera excepción
         IllegalArgumentException exception = assertThrows(
@@ -202,7 +208,7 @@ class ServicioCartillaTest {
         );
 
         // Then: Verificar mensaje de error
-        assertEquals("El nombre del veterinario es obligatorio", exception.getMessage());
+        assertEquals("El veterinario es obligatorio", exception.getMessage());
 
         // Then: Verificar que no se llamó al repositorio
         verify(repositorioCartilla, never()).existsByVacunaAndMascotaIdAndFechaAplicacion(
@@ -217,7 +223,7 @@ class ServicioCartillaTest {
     void testRegistrarVacuna_FallaFechaFutura() {
         // Given: Fecha futura y veterinario válido
         LocalDate fechaFutura = LocalDate.now().plusDays(1);
-        String veterinarioValido = "Doctor Juan Pérez García";
+        Veterinario veterinarioValido = veterinario(1L, "Doctor Juan Pérez García");
 
         // When & Then: Se espera excepción
         IllegalArgumentException exception = assertThrows(
@@ -250,7 +256,7 @@ class ServicioCartillaTest {
         LocalDate fecha = LocalDate.now().minusDays(1);  // Fecha pasada
         VacunaEnum vacuna = VacunaEnum.RABIA;
         Long mascotaId = 1L;
-        String veterinarioValido = "Doctor Ana María López";
+        Veterinario veterinarioValido = veterinario(2L, "Doctor Ana María López");
 
         when(repositorioCartilla.existsByVacunaAndMascotaIdAndFechaAplicacion(
                 eq(vacuna), eq(mascotaId), eq(fecha))).thenReturn(true);
@@ -307,7 +313,7 @@ class ServicioCartillaTest {
         Cartilla cartillaExistente = new Cartilla(
                 VacunaEnum.RABIA,
                 LocalDate.now().minusDays(10),
-                "Doctor Original García",  // Nombre válido
+                veterinario(1L, "Doctor Original García"),
                 1L,
                 "Observaciones originales",
                 1L
@@ -320,7 +326,7 @@ class ServicioCartillaTest {
         // Given: Datos de actualización válidos
         VacunaEnum nuevaVacuna = VacunaEnum.PARVOVIRUS;
         LocalDate nuevaFecha = LocalDate.now().minusDays(1);
-        String nuevoVeterinario = "Doctor Gómez Hernández";  // Nombre válido
+        Veterinario nuevoVeterinario = veterinario(2L, "Doctor Gómez Hernández");
         Long nuevoLote = 2L;
         String nuevasObservaciones = "Reaplicación";
 
@@ -393,7 +399,7 @@ class ServicioCartillaTest {
         cartillaExistente.setId(idVacuna);
         cartillaExistente.setVacuna(VacunaEnum.RABIA);
         cartillaExistente.setFechaAplicacion(LocalDate.now().minusDays(10));
-        cartillaExistente.setVeterinario("Dr Juan");
+        cartillaExistente.setVeterinario(veterinario(1L, "Dr Juan"));
         cartillaExistente.setLote(123L);
         cartillaExistente.setObservaciones("Nada");
         cartillaExistente.setMascotaId(5L);
@@ -408,7 +414,7 @@ class ServicioCartillaTest {
         // Datos inválidos
         VacunaEnum nuevaVacuna = VacunaEnum.PARVOVIRUS;
         LocalDate nuevaFecha = LocalDate.now().minusDays(5);
-        String veterinarioInvalido = "123 Veterinario";
+        Veterinario veterinarioInvalido = veterinario(null, "123 Veterinario");
         Long nuevoLote = 456L;
         String obs = "Test";
 
@@ -428,4 +434,102 @@ class ServicioCartillaTest {
         verify(repositorioCartilla, times(1)).save(any());
 
     }
-}
\ No newline at end of file
+
+    // -------------------------------------------------------------------------
+    // TEST: La segunda dosis de cachorro se programa con la regla de la especie
+    // -------------------------------------------------------------------------
+    @Test
+    void testRegistrarVacuna_SegundaDosis_ReprogramaLaSerie() {
+        // Given: Un perro con una dosis previa de parvovirus
+        Long mascotaId = 10L;
+        LocalDate primera = LocalDate.now().minusWeeks(3);
+        LocalDate segunda = LocalDate.now().minusDays(1);
+        Cartilla dosisPrevia = new Cartilla(VacunaEnum.PARVOVIRUS, primera, veterinario(1L, "Ana Lopez"), 1L, null, mascotaId);
+        dosisPrevia.setId(1L);
+        Mascota perro = new Mascota();
+        perro.setEspecie("Perro");
+
+        Cartilla[] guardada = new Cartilla[1];
+        when(repositorioCartilla.save(any(Cartilla.class))).thenAnswer(invocation -> {
+            guardada[0] = invocation.getArgument(0);
+            guardada[0].setId(2L);
+            return guardada[0];
+        });
+        when(repositorioCartilla.findByMascotaIdAndVacunaOrderByFechaAplicacionAscIdAsc(mascotaId, VacunaEnum.PARVOVIRUS))
+                .thenAnswer(invocation -> List.of(dosisPrevia, guardada[0]));
+        when(mascotaRepository.findById(mascotaId)).thenReturn(Optional.of(perro));
+
+        // When: Se registra la segunda dosis
+        Cartilla resultado = servicioCartilla.registrarVacuna(
+                VacunaEnum.PARVOVIRUS, segunda, dosisPrevia.getVeterinario(), 2L, null, mascotaId);
+
+        // Then: La dosis previa ya no tiene pendiente y la nueva toca en tres semanas
+        assertEquals(2, resultado.getNumeroDosis());
+        assertEquals(segunda.plusWeeks(3), resultado.getProximaDosis());
+        assertEquals(1, dosisPrevia.getNumeroDosis());
+        assertNull(dosisPrevia.getProximaDosis());
+        verify(repositorioCartilla).saveAll(List.of(dosisPrevia, resultado));
+    }
+
+    // -------------------------------------------------------------------------
+    // TEST: Registrar la primera dosis cuenta a la mascota en la cobertura
+    // -------------------------------------------------------------------------
+    @Test
+    void testRegistrarVacuna_PrimeraDosis_ActualizaCobertura() {
+        // Given: Un gato registrado sin dosis de rabia
+        Long mascotaId = 20L;
+        Mascota gato = new Mascota();
+        gato.setEspecie("Gato");
+        when(mascotaRepository.findById(mascotaId)).thenReturn(Optional.of(gato));
+        when(repositorioCartilla.save(any(Cartilla.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repositorioCartilla.findByMascotaIdAndVacunaOrderByFechaAplicacionAscIdAsc(mascotaId, VacunaEnum.RABIA))
+                .thenAnswer(invocation -> List.of(new Cartilla(VacunaEnum.RABIA, LocalDate.now().minusDays(1),
+                        veterinario(1L, "Ana Lopez"), 1L, null, mascotaId)));
+
+        // When: Se registra la dosis
+        servicioCartilla.registrarVacuna(VacunaEnum.RABIA, LocalDate.now().minusDays(1),
+                veterinario(1L, "Ana Lopez"), 1L, null, mascotaId);
+
+        // Then: Pasa de no tener dosis a estar al corriente
+        verify(servicioCobertura).registrarCambio(Especie.GATO, VacunaEnum.RABIA,
+                EstadoVacunacion.SIN_DOSIS, EstadoVacunacion.AL_CORRIENTE);
+    }
+
+    // -------------------------------------------------------------------------
+    // TEST: Eliminar la única dosis descuenta a la mascota de la cobertura
+    // -------------------------------------------------------------------------
+    @Test
+    void testEliminarRegistroVacuna_UnicaDosis_ActualizaCobertura() {
+        // Given: Un perro con una dosis vencida de moquillo
+        Long mascotaId = 21L;
+        Cartilla vencida = new Cartilla(VacunaEnum.MOQUILLO, LocalDate.now().minusYears(2),
+                veterinario(1L, "Ana Lopez"), 1L, null, mascotaId);
+        vencida.setId(9L);
+        Mascota perro = new Mascota();
+        perro.setEspecie("Perro");
+        when(repositorioCartilla.findById(9L)).thenReturn(Optional.of(vencida));
+        when(repositorioCartilla.findFirstByMascotaIdAndVacunaOrderByFechaAplicacionDescIdDesc(mascotaId, VacunaEnum.MOQUILLO))
+                .thenReturn(Optional.of(vencida));
+        when(mascotaRepository.findById(mascotaId)).thenReturn(Optional.of(perro));
+
+        // When: Se elimina la dosis
+        servicioCartilla.eliminarRegistroVacuna(9L);
+
+        // Then: Deja de contar como vacunada
+        verify(servicioCobertura).registrarCambio(Especie.PERRO, VacunaEnum.MOQUILLO,
+                EstadoVacunacion.VENCIDA, EstadoVacunacion.SIN_DOSIS);
+    }
+
+    // -------------------------------------------------------------------------
+    // TEST: Cambiar el calendario recalcula todas las cartillas
+    // -------------------------------------------------------------------------
+    @Test
+    void testCambiarCalendario_RecalculaEnLote() {
+        CalendarioVacunacion nuevo = CalendarioVacunacion.nuevo().construir();
+        when(migracionProximasDosis.recalcular(nuevo)).thenReturn(7);
+
+        assertEquals(7, servicioCartilla.cambiarCalendario(nuevo));
+        assertSame(nuevo, servicioCartilla.getCalendario());
+        assertThrows(IllegalArgumentException.class, () -> servicioCartilla.cambiarCalendario(null));
+    }
+}
@@ -22,6 +22,9 @@ class ServicioCirugiaTest {
     @Mock
     private CirugiaRepository cirugiaRepository;
 
+    @Mock
+    private ServicioHistorialMascota servicioHistorialMascota;
+
     @InjectMocks
     private ServicioCirugia servicioCirugia;
 
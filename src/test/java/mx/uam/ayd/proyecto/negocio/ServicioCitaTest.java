@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
@@ -18,8 +19,18 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.DuracionCitaVeterinarioRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
 import mx.uam.ayd.proyecto.datos.VeterinarioRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.DuracionCitaVeterinario;
+import mx.uam.ayd.proyecto.negocio.modelo.IntervaloCita;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.modelo.OcurrenciaSerie;
+import mx.uam.ayd.proyecto.negocio.modelo.Recurrencia;
+import mx.uam.ayd.proyecto.negocio.modelo.SolicitudEspera;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
 import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
 
@@ -39,6 +50,24 @@ class ServicioCitaTest {
     @Mock
     private VeterinarioRepository veterinarioRepository; // MOCK DE REPOSITORIO PARA CONSTRUCTOR
 
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private MascotaRepository mascotaRepository;
+
+    @Mock
+    private ServicioHistorialMascota servicioHistorial;
+
+    @Mock
+    private DuracionCitaVeterinarioRepository duracionRepository;
+
+    @Mock
+    private ServicioListaEspera listaEspera;
+
+    @Mock
+    private ServicioRecordatorioCita recordatorios;
+
     @InjectMocks
     private ServicioCita servicioCita;
 
@@ -294,6 +323,184 @@ class ServicioCitaTest {
         }, "La cita se solapa con otra cita.");
     }
 
+    // Pruebas de CLIENTE Y MASCOTA
+
+    private Cliente getCliente(Long id) {
+        Cliente cliente = new Cliente();
+        cliente.setIdCliente(id);
+        return cliente;
+    }
+
+    private Mascota getMascota(Long id, Cliente cliente) {
+        Mascota mascota = new Mascota();
+        mascota.setIdMascota(id);
+        mascota.setCliente(cliente);
+        return mascota;
+    }
+
+    @Test
+    void agendarCita_LigaAlClienteDelContactoYASuUnicaMascota() {
+        Cliente cliente = getCliente(3L);
+        Mascota mascota = getMascota(4L, cliente);
+        when(clienteRepository.findByContacto("5512345678")).thenReturn(cliente);
+        when(mascotaRepository.findByCliente(cliente)).thenReturn(List.of(mascota));
+        when(citaRepository.findCitasOverlap(any(), any(), eq(12L))).thenReturn(Collections.emptyList());
+        when(citaRepository.save(any(Cita.class))).thenAnswer(i -> i.getArgument(0));
+
+        Cita resultado = servicioCita.agendarCita(getHoraHabil(), TipoCita.Consulta, "Juan", "5512345678", false,
+                getVeterinarioMock(12L), "", "");
+
+        assertSame(cliente, resultado.getCliente());
+        assertSame(mascota, resultado.getMascota());
+        verify(servicioHistorial).registrarCita(resultado);
+    }
+
+    @Test
+    void agendarCita_FallaMascotaDeOtroCliente() {
+        when(clienteRepository.findByContacto("5512345678")).thenReturn(getCliente(3L));
+        Mascota ajena = getMascota(4L, getCliente(5L));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            servicioCita.agendarCita(getHoraHabil(), TipoCita.Consulta, "Juan", "5512345678", false,
+                    getVeterinarioMock(13L), "", "", ajena);
+        }, "La mascota debe ser del cliente del contacto.");
+        verify(citaRepository, never()).save(any());
+    }
+
+    @Test
+    void agendarCita_ContactoSinClienteQuedaSinLigar() {
+        when(citaRepository.findCitasOverlap(any(), any(), eq(14L))).thenReturn(Collections.emptyList());
+        when(citaRepository.save(any(Cita.class))).thenAnswer(i -> i.getArgument(0));
+
+        Cita resultado = servicioCita.agendarCita(getHoraHabil(), TipoCita.Consulta, "Juan", "otro@correo.com", false,
+                getVeterinarioMock(14L), "", "");
+
+        assertNull(resultado.getCliente());
+        assertNull(resultado.getMascota());
+        verifyNoInteractions(mascotaRepository);
+    }
+
+    // Pruebas de DURACIÓN Y HORARIOS
+
+    private IntervaloCita getIntervalo(long id, LocalDateTime inicio, LocalDateTime fin) {
+        IntervaloCita intervalo = mock(IntervaloCita.class);
+        when(intervalo.getIdCita()).thenReturn(id);
+        when(intervalo.getInicio()).thenReturn(inicio);
+        when(intervalo.getFin()).thenReturn(fin);
+        return intervalo;
+    }
+
+    @Test
+    void agendarCita_OcupaLaDuracionDelTipo() {
+        LocalDateTime fechaHora = getHoraHabil();
+        when(citaRepository.findCitasOverlap(any(), any(), eq(20L))).thenReturn(Collections.emptyList());
+        when(citaRepository.save(any(Cita.class))).thenAnswer(i -> i.getArgument(0));
+
+        Cita resultado = servicioCita.agendarCita(fechaHora, TipoCita.Cirugia, "Juan", "5512345678", false,
+                getVeterinarioMock(20L), "", "");
+
+        assertEquals(fechaHora.plusMinutes(TipoCita.Cirugia.getDuracionMinutos()), resultado.getFechaHoraFin());
+        verify(citaRepository).findCitasOverlap(fechaHora, resultado.getFechaHoraFin(), 20L);
+    }
+
+    @Test
+    void agendarCita_FallaSiTerminaDespuesDelCierre() {
+        LocalDateTime fechaHora = getHoraHabil().with(LocalTime.of(17, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            servicioCita.agendarCita(fechaHora, TipoCita.Cirugia, "Juan", "5512345678", false,
+                    getVeterinarioMock(21L), "", "");
+        }, "Una cirugía de dos horas no cabe a las 17:00.");
+    }
+
+    @Test
+    void duracionDe_PrefiereLaDelVeterinario() {
+        DuracionCitaVeterinario propia = new DuracionCitaVeterinario();
+        propia.setMinutos(90);
+        when(duracionRepository.findById(new DuracionCitaVeterinario.Llave(22L, TipoCita.Cirugia)))
+                .thenReturn(Optional.of(propia));
+
+        assertEquals(90, servicioCita.duracionDe(TipoCita.Cirugia, getVeterinarioMock(22L)));
+        assertEquals(TipoCita.Estetica.getDuracionMinutos(), servicioCita.duracionDe(TipoCita.Estetica, getVeterinarioMock(22L)));
+    }
+
+    @Test
+    void sugerirHorarios_EmpiezaPegadoALaCitaAnteriorYUsaUnaConsulta() {
+        LocalDate dia = getHoraHabil().toLocalDate().plusWeeks(1);
+        List<IntervaloCita> ocupados = List.of(
+                getIntervalo(1, dia.atTime(9, 0), dia.atTime(9, 20)),
+                getIntervalo(2, dia.atTime(10, 0), dia.atTime(17, 0)));
+        when(citaRepository.findIntervalosOcupados(23L, dia.atStartOfDay(), dia.plusDays(1).atStartOfDay())).thenReturn(ocupados);
+
+        List<LocalDateTime> sugerencias = servicioCita.sugerirHorarios(getVeterinarioMock(23L), TipoCita.Consulta, dia, null, 10);
+
+        assertEquals(List.of(dia.atTime(9, 20), dia.atTime(9, 30), dia.atTime(17, 0), dia.atTime(17, 15), dia.atTime(17, 30)),
+                sugerencias);
+        verify(citaRepository, never()).findCitasOverlap(any(), any(), any());
+    }
+
+    @Test
+    void primerHorarioDisponible_SaltaLosDiasLlenos() {
+        LocalDateTime lunes = getHoraHabil().plusWeeks(1).with(LocalTime.of(9, 0));
+        LocalDate dia = lunes.toLocalDate();
+        List<IntervaloCita> ocupados = List.of(
+                getIntervalo(1, dia.atTime(9, 0), dia.atTime(17, 30)),
+                getIntervalo(2, dia.plusDays(1).atTime(9, 0), dia.plusDays(1).atTime(9, 45)));
+        when(citaRepository.findIntervalosOcupados(eq(24L), eq(dia.atStartOfDay()), any())).thenReturn(ocupados);
+
+        Optional<LocalDateTime> primero = servicioCita.primerHorarioDisponible(getVeterinarioMock(24L), TipoCita.Estetica, lunes);
+
+        assertEquals(Optional.of(dia.plusDays(1).atTime(9, 45)), primero);
+    }
+
+    // Pruebas de SERIES DE CITAS
+
+    @Test
+    void agendarSerie_ConConflictoNoGuardaNada() {
+        LocalDateTime lunes = getHoraHabil().plusWeeks(1);
+        List<IntervaloCita> ocupados = List.of(getIntervalo(1, lunes.plusWeeks(2).minusMinutes(15), lunes.plusWeeks(2).plusMinutes(15)));
+        when(citaRepository.findIntervalosOcupados(eq(30L), eq(lunes.toLocalDate().atStartOfDay()), any())).thenReturn(ocupados);
+
+        List<OcurrenciaSerie> ocurrencias = servicioCita.agendarSerie(lunes, TipoCita.Revision, "Juan", "5512345678", false,
+                getVeterinarioMock(30L), "Control", "", null, Recurrencia.veces(Recurrencia.Frecuencia.SEMANAL, 1, 4), false);
+
+        assertEquals(4, ocurrencias.size());
+        assertTrue(ocurrencias.get(2).tieneConflicto());
+        assertEquals(1, ocurrencias.stream().filter(OcurrenciaSerie::tieneConflicto).count());
+        verify(citaRepository, times(1)).findIntervalosOcupados(any(), any(), any());
+        verify(citaRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void agendarSerie_OmitiendoConflictosGuardaLasLibresEnUnLote() {
+        LocalDateTime lunes = getHoraHabil().plusWeeks(1);
+        List<IntervaloCita> ocupados = List.of(getIntervalo(1, lunes.plusWeeks(1), lunes.plusWeeks(1).plusMinutes(30)));
+        when(citaRepository.findIntervalosOcupados(eq(31L), any(), any())).thenReturn(ocupados);
+
+        List<OcurrenciaSerie> ocurrencias = servicioCita.agendarSerie(lunes, TipoCita.Revision, "Juan", "5512345678", false,
+                getVeterinarioMock(31L), "Control", "", null, Recurrencia.veces(Recurrencia.Frecuencia.SEMANAL, 1, 3), true);
+
+        assertNull(ocurrencias.get(1).getCita());
+        Cita primera = ocurrencias.get(0).getCita();
+        Cita tercera = ocurrencias.get(2).getCita();
+        assertEquals(lunes.plusWeeks(2), tercera.getFechaHora());
+        assertEquals(lunes.plusWeeks(2).plusMinutes(TipoCita.Revision.getDuracionMinutos()), tercera.getFechaHoraFin());
+        assertNotNull(primera.getIdSerie());
+        assertEquals(primera.getIdSerie(), tercera.getIdSerie());
+        verify(citaRepository, times(1)).saveAll(List.of(primera, tercera));
+        verify(citaRepository, never()).save(any());
+    }
+
+    @Test
+    void agendarSerie_FechaFinalAnteriorALaPrimeraCitaSeRechaza() {
+        LocalDateTime lunes = getHoraHabil().plusWeeks(1);
+        Recurrencia recurrencia = Recurrencia.hasta(Recurrencia.Frecuencia.SEMANAL, 1, lunes.minusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> servicioCita.agendarSerie(lunes, TipoCita.Revision, "Juan",
+                "5512345678", false, getVeterinarioMock(32L), "Control", "", null, recurrencia, true));
+        verify(citaRepository, never()).saveAll(any());
+    }
+
     // Pruebas de ELIMINAR CITA
 
     @Test
@@ -309,6 +516,89 @@ class ServicioCitaTest {
         verify(citaRepository, times(1)).delete(citaExistente);
     }
 
+    @Test
+    void eliminarCita_AgendaALaListaDeEsperaEnElLugarLiberado() {
+        LocalDateTime inicio = getHoraHabil().plusWeeks(1);
+        Veterinario vet = getVeterinarioMock(40L);
+        Cita cirugia = new Cita();
+        cirugia.setIdCita(1L);
+        cirugia.setFechaHora(inicio);
+        cirugia.setFechaHoraFin(inicio.plusHours(2));
+        cirugia.setVeterinario(vet);
+        SolicitudEspera enEspera = new SolicitudEspera();
+        enEspera.setNombreSolicitante("En espera");
+        enEspera.setContacto("5512345678");
+        enEspera.setTipo(TipoCita.Consulta);
+        enEspera.setDesde(inicio.plusMinutes(30));
+        enEspera.setHasta(inicio.plusHours(4));
+
+        when(citaRepository.findById(1L)).thenReturn(Optional.of(cirugia));
+        when(listaEspera.candidato(eq(40L), eq(inicio), eq(inicio.plusHours(2)), any(), any())).thenReturn(Optional.of(enEspera));
+        when(citaRepository.save(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        servicioCita.eliminarCita(1L);
+
+        verify(citaRepository).delete(cirugia);
+        verify(listaEspera).ofrecida(eq(enEspera), argThat(c -> c.getFechaHora().equals(inicio.plusMinutes(30))
+                && c.getFechaHoraFin().equals(inicio.plusMinutes(60)) && c.getVeterinario() == vet));
+        // Lo que sobra del lugar se vuelve a ofrecer
+        verify(listaEspera).candidato(eq(40L), eq(inicio.plusMinutes(60)), eq(inicio.plusHours(2)), any(), any());
+    }
+
+    @Test
+    void eliminarCita_NoAgendaEnUnLugarQueYaSeVolvioAOcupar() {
+        LocalDateTime inicio = getHoraHabil().plusWeeks(1);
+        Veterinario vet = getVeterinarioMock(42L);
+        Cita revision = new Cita();
+        revision.setIdCita(1L);
+        revision.setFechaHora(inicio);
+        revision.setFechaHoraFin(inicio.plusMinutes(60));
+        revision.setVeterinario(vet);
+        Cita ocupante = new Cita();
+        ocupante.setIdCita(2L);
+        ocupante.setFechaHora(inicio);
+        ocupante.setFechaHoraFin(inicio.plusMinutes(40));
+        SolicitudEspera enEspera = new SolicitudEspera();
+        enEspera.setIdSolicitud(7L);
+        enEspera.setNombreSolicitante("En espera");
+        enEspera.setContacto("5512345678");
+        enEspera.setTipo(TipoCita.Vacunacion);
+        enEspera.setDesde(inicio);
+        enEspera.setHasta(inicio.plusHours(4));
+
+        when(citaRepository.findById(1L)).thenReturn(Optional.of(revision));
+        when(listaEspera.candidato(eq(42L), any(), eq(inicio.plusMinutes(60)), any(), any())).thenReturn(Optional.of(enEspera));
+        when(citaRepository.findCitasOverlap(inicio, inicio.plusMinutes(20), 42L)).thenReturn(List.of(ocupante));
+        when(citaRepository.save(any(Cita.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        servicioCita.eliminarCita(1L);
+
+        // Solo se agenda después de la cita que ya ocupa el lugar
+        verify(listaEspera).ofrecida(eq(enEspera), argThat(c -> c.getFechaHora().equals(inicio.plusMinutes(40))));
+        verify(citaRepository, times(1)).save(any(Cita.class));
+    }
+
+    @Test
+    void modificarCita_OfreceSoloLaParteQueDejaLibre() {
+        LocalDateTime inicio = getHoraHabil().plusWeeks(1);
+        Veterinario vet = getVeterinarioMock(41L);
+        Cita consulta = new Cita();
+        consulta.setIdCita(1L);
+        consulta.setFechaHora(inicio);
+        consulta.setFechaHoraFin(inicio.plusMinutes(60));
+        consulta.setVeterinario(vet);
+
+        when(citaRepository.findById(1L)).thenReturn(Optional.of(consulta));
+        when(citaRepository.findCitasOverlap(any(), any(), eq(41L))).thenReturn(Collections.emptyList());
+        when(citaRepository.save(any(Cita.class))).thenReturn(consulta);
+
+        servicioCita.modificarCita(1L, inicio.plusMinutes(20), TipoCita.Revision, "Juan", "5512345678", vet, "", "");
+
+        verify(listaEspera).candidato(eq(41L), eq(inicio), eq(inicio.plusMinutes(20)), any(), any());
+        verify(listaEspera).candidato(eq(41L), eq(inicio.plusMinutes(40)), eq(inicio.plusMinutes(60)), any(), any());
+        verifyNoMoreInteractions(listaEspera);
+    }
+
     @Test
     void eliminarCita_FallaCitaAtendida() {
         Cita citaExistente = new Cita();
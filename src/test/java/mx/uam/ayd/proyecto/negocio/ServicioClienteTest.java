@@ -13,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
 
@@ -22,6 +23,15 @@ class ServicioClienteTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private MascotaRepository mascotaRepository;
+
+    @Mock
+    private ServicioCoberturaVacunacion servicioCobertura;
+
+    @Mock
+    private ServicioCuboVentas servicioCuboVentas;
+
     @InjectMocks
     private ServicioCliente servicioCliente;
 
@@ -121,8 +131,11 @@ class ServicioClienteTest {
 
         // Caso cliente existe
         when(clienteRepository.existsById(idCliente)).thenReturn(true);
+        when(mascotaRepository.findEspeciesByIdCliente(idCliente)).thenReturn(List.of("Perro", "Gato"));
         servicioCliente.eliminaCliente(idCliente);
         verify(clienteRepository).deleteById(idCliente);
+        // Sus mascotas se borran en cascada y se descuentan de la población
+        verify(servicioCobertura).mascotasEliminadas(List.of("Perro", "Gato"));
 
         // Caso cliente no existe
         when(clienteRepository.existsById(idCliente)).thenReturn(false);
@@ -143,6 +156,7 @@ class ServicioClienteTest {
         assertNotNull(cliente.getMembresia());
         assertEquals(TipoMembresia.Platinum, cliente.getMembresia().getTipo());
         assertTrue(cliente.getMembresia().isEstado());
+        verify(servicioCuboVentas).membresiaCambiada();
     }
 
     @Test
@@ -0,0 +1,166 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CartillaRepository;
+import mx.uam.ayd.proyecto.datos.CoberturaVacunacionRepository;
+import mx.uam.ayd.proyecto.datos.MascotaRepository;
+import mx.uam.ayd.proyecto.datos.PoblacionEspecieRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CoberturaVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.Especie;
+import mx.uam.ayd.proyecto.negocio.modelo.EstadoVacunacion;
+import mx.uam.ayd.proyecto.negocio.modelo.PoblacionEspecie;
+import mx.uam.ayd.proyecto.negocio.modelo.SerieVacunaResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioCoberturaVacunacionTest {
+
+    @Mock
+    private CoberturaVacunacionRepository coberturaRepository;
+
+    @Mock
+    private PoblacionEspecieRepository poblacionRepository;
+
+    @Mock
+    private CartillaRepository cartillaRepository;
+
+    @Mock
+    private MascotaRepository mascotaRepository;
+
+    @InjectMocks
+    private ServicioCoberturaVacunacion servicioCobertura;
+
+    private SerieVacunaResumen serie(String especie, VacunaEnum vacuna, LocalDate vigenteHasta) {
+        SerieVacunaResumen serie = mock(SerieVacunaResumen.class);
+        when(serie.getEspecie()).thenReturn(especie);
+        when(serie.getVacuna()).thenReturn(vacuna);
+        when(serie.getVigenteHasta()).thenReturn(vigenteHasta);
+        return serie;
+    }
+
+    @Test
+    void registrarCambio_aplicaLaDiferenciaConUnUpdate() {
+        when(coberturaRepository.incrementar(Especie.PERRO, VacunaEnum.RABIA, 0, 1)).thenReturn(1);
+
+        servicioCobertura.registrarCambio(Especie.PERRO, VacunaEnum.RABIA, EstadoVacunacion.VENCIDA, EstadoVacunacion.AL_CORRIENTE);
+
+        verify(coberturaRepository).incrementar(Especie.PERRO, VacunaEnum.RABIA, 0, 1);
+        verify(coberturaRepository, never()).save(any());
+    }
+
+    @Test
+    void registrarCambio_sinCambioDeSituacion_noEscribe() {
+        servicioCobertura.registrarCambio(Especie.GATO, VacunaEnum.LEUCEMIA, EstadoVacunacion.AL_CORRIENTE, EstadoVacunacion.AL_CORRIENTE);
+
+        verifyNoInteractions(coberturaRepository);
+    }
+
+    @Test
+    void mascotaRegistrada_sinFila_laCrea() {
+        when(poblacionRepository.incrementar(Especie.GATO, 1)).thenReturn(0);
+
+        servicioCobertura.mascotaRegistrada("Felino");
+
+        ArgumentCaptor<PoblacionEspecie> captor = ArgumentCaptor.forClass(PoblacionEspecie.class);
+        verify(poblacionRepository).save(captor.capture());
+        assertEquals(Especie.GATO, captor.getValue().getEspecie());
+        assertEquals(1, captor.getValue().getMascotas());
+    }
+
+    @Test
+    void mascotasEliminadas_descuentaUnaVezPorEspecie() {
+        when(poblacionRepository.incrementar(any(), anyInt())).thenReturn(1);
+
+        servicioCobertura.mascotasEliminadas(List.of("Perro", "canino", "Gato"));
+
+        verify(poblacionRepository).incrementar(Especie.PERRO, -2);
+        verify(poblacionRepository).incrementar(Especie.GATO, -1);
+        verifyNoMoreInteractions(poblacionRepository);
+    }
+
+    @Test
+    void iniciar_recuentaSiElCorteEsDeUnDiaAnterior() {
+        when(coberturaRepository.findFechaCorteMasAntigua())
+                .thenReturn(Optional.of(LocalDate.now()), Optional.of(LocalDate.now().minusDays(1)));
+
+        servicioCobertura.iniciar();
+        verify(cartillaRepository, never()).findSeriesVacunacion();
+
+        servicioCobertura.iniciar();
+        verify(cartillaRepository).findSeriesVacunacion();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void conciliar_recuentaConLaFechaDeHoyYCuentaLasFilasCorregidas() {
+        LocalDate hoy = LocalDate.now();
+        List<SerieVacunaResumen> series = List.of(
+                serie("Perro", VacunaEnum.RABIA, hoy.plusMonths(3)),
+                serie("canino", VacunaEnum.RABIA, hoy.minusDays(1)),
+                serie("Gato", VacunaEnum.RABIA, null));
+        when(cartillaRepository.findSeriesVacunacion()).thenReturn(series);
+        CoberturaVacunacion desfasada = new CoberturaVacunacion();
+        desfasada.setEspecie(Especie.PERRO);
+        desfasada.setVacuna(VacunaEnum.RABIA);
+        desfasada.setVacunadas(2);
+        desfasada.setAlCorriente(2);
+        when(coberturaRepository.findAll()).thenReturn(List.of(desfasada));
+        List<Object[]> mascotas = new ArrayList<>();
+        mascotas.add(new Object[] { "Perro", 3L });
+        mascotas.add(new Object[] { "Canino", 1L });
+        when(mascotaRepository.contarPorEspecie()).thenReturn(mascotas);
+
+        assertEquals(1, servicioCobertura.conciliar());
+
+        ArgumentCaptor<Iterable<CoberturaVacunacion>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(coberturaRepository).saveAll(captor.capture());
+        List<CoberturaVacunacion> filas = new ArrayList<>();
+        captor.getValue().forEach(filas::add);
+        assertEquals(Especie.values().length * VacunaEnum.values().length, filas.size());
+        assertEquals(2, desfasada.getVacunadas());
+        assertEquals(1, desfasada.getAlCorriente());
+        assertEquals(hoy, desfasada.getFechaCorte());
+        CoberturaVacunacion gatos = filas.stream()
+                .filter(f -> f.getEspecie() == Especie.GATO && f.getVacuna() == VacunaEnum.RABIA)
+                .findFirst().orElseThrow();
+        assertEquals(1, gatos.getAlCorriente());
+
+        ArgumentCaptor<Iterable<PoblacionEspecie>> poblaciones = ArgumentCaptor.forClass(Iterable.class);
+        verify(poblacionRepository).saveAll(poblaciones.capture());
+        for (PoblacionEspecie poblacion : poblaciones.getValue()) {
+            if (poblacion.getEspecie() == Especie.PERRO) {
+                assertEquals(4, poblacion.getMascotas());
+            }
+        }
+    }
+
+    @Test
+    void porcentajeAlCorriente_leeDosFilas() {
+        CoberturaVacunacion cobertura = new CoberturaVacunacion();
+        cobertura.setAlCorriente(3);
+        PoblacionEspecie poblacion = new PoblacionEspecie();
+        poblacion.setMascotas(4);
+        when(poblacionRepository.findById(Especie.PERRO)).thenReturn(Optional.of(poblacion));
+        when(coberturaRepository.findById(new CoberturaVacunacion.Llave(Especie.PERRO, VacunaEnum.RABIA)))
+                .thenReturn(Optional.of(cobertura));
+
+        assertEquals(75.0, servicioCobertura.porcentajeAlCorriente(Especie.PERRO, VacunaEnum.RABIA));
+        verify(coberturaRepository, never()).incrementar(any(), any(), anyInt(), anyInt());
+        verifyNoInteractions(cartillaRepository, mascotaRepository);
+    }
+}
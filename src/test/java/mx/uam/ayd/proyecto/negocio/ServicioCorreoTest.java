@@ -3,9 +3,13 @@ package mx.uam.ayd.proyecto.negocio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -58,4 +62,37 @@ public class ServicioCorreoTest {
         assertEquals(asunto, enviado.getSubject());
         assertEquals(mensaje, enviado.getText());
     }
-}
\ No newline at end of file
+
+    /**
+     * @brief Verifica que enviarCorreos() mande todo el lote en una sola llamada
+     *        a send(), es decir, por la misma conexion.
+     */
+    @Test
+    void testEnviarCorreosEnUnLote() {
+        SimpleMailMessage primero = new SimpleMailMessage();
+        primero.setTo("uno@gmail.com");
+        SimpleMailMessage segundo = new SimpleMailMessage();
+        segundo.setTo("dos@gmail.com");
+
+        servicioCorreo.enviarCorreos(List.of(primero, segundo));
+        servicioCorreo.enviarCorreos(List.of());
+
+        verify(mailSender, times(1)).send(primero, segundo);
+        verifyNoMoreInteractions(mailSender);
+    }
+
+    /**
+     * @brief Verifica que enviarAhora() regrese solo los correos que el servidor rechazo.
+     */
+    @Test
+    void testEnviarAhoraRegresaLosFallidos() {
+        SimpleMailMessage primero = new SimpleMailMessage();
+        primero.setTo("uno@gmail.com");
+        SimpleMailMessage segundo = new SimpleMailMessage();
+        segundo.setTo("dos@gmail.com");
+        doThrow(new MailSendException(Map.of(segundo, new Exception("rechazado"))))
+                .when(mailSender).send(primero, segundo);
+
+        assertEquals(List.of(segundo), servicioCorreo.enviarAhora(List.of(primero, segundo)));
+    }
+}
@@ -0,0 +1,182 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.DetalleVentaRepository;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.DimensionVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.FiltroVentas;
+import mx.uam.ayd.proyecto.negocio.modelo.HechoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Membresia;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.ProductoResumen;
+import mx.uam.ayd.proyecto.negocio.modelo.ReporteVentaDTO;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMembresia;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.TotalVentaProducto;
+import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioCuboVentasTest {
+
+    @Mock
+    private DetalleVentaRepository detalleVentaRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @InjectMocks
+    private ServicioCuboVentas servicioCuboVentas;
+
+    private DetalleVenta detalle(long id, Cliente cliente) {
+        Producto producto = new Producto();
+        producto.setIdProducto(1L);
+        producto.setNombre("Croquetas");
+        producto.setTipoProducto(TipoProducto.Comida);
+        producto.setMarcaProducto(MarcaProducto.HILLS);
+
+        Venta venta = new Venta();
+        venta.setFecha(LocalDate.of(2025, 2, 3));
+        venta.setCliente(cliente);
+
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setIdDetalleVenta(id);
+        detalle.setProducto(producto);
+        detalle.setVenta(venta);
+        detalle.setCantidadVendida(2);
+        detalle.setSubtotal(180);
+        return detalle;
+    }
+
+    @Test
+    void consultar_cargaElCuboUnaSolaVez() {
+        when(detalleVentaRepository.findHechosVenta()).thenReturn(List.of());
+
+        servicioCuboVentas.consultar(null, DimensionVenta.DIA);
+        servicioCuboVentas.consultar(null, DimensionVenta.MES);
+
+        verify(detalleVentaRepository, times(1)).findHechosVenta();
+    }
+
+    private static TotalVentaProducto total(LocalDate fecha, long idProducto, long cantidad, long centavos) {
+        TotalVentaProducto total = mock(TotalVentaProducto.class);
+        lenient().when(total.getFecha()).thenReturn(fecha);
+        lenient().when(total.getIdProducto()).thenReturn(idProducto);
+        lenient().when(total.getCantidad()).thenReturn(cantidad);
+        lenient().when(total.getTotalCentavos()).thenReturn(centavos);
+        return total;
+    }
+
+    private static ProductoResumen resumen(long idProducto, String nombre, TipoProducto tipo) {
+        ProductoResumen producto = mock(ProductoResumen.class);
+        lenient().when(producto.getIdProducto()).thenReturn(idProducto);
+        lenient().when(producto.getNombre()).thenReturn(nombre);
+        lenient().when(producto.getTipoProducto()).thenReturn(tipo);
+        return producto;
+    }
+
+    @Test
+    void consultar_periodoYProductoSinCubo_agregaSobreLosDetalles() {
+        FiltroVentas filtro = new FiltroVentas();
+        filtro.setTipoProducto(TipoProducto.Comida);
+        List<TotalVentaProducto> totales = List.of(
+                total(LocalDate.of(2025, 2, 3), 1L, 2, 18000),
+                total(LocalDate.of(2025, 2, 20), 1L, 1, 9000),
+                total(LocalDate.of(2025, 2, 20), 2L, 4, 6000));
+        List<ProductoResumen> productos = List.of(
+                resumen(1L, "Croquetas", TipoProducto.Comida),
+                resumen(2L, "Shampoo", TipoProducto.Estetica));
+        when(detalleVentaRepository.sumarPorFechaYProducto(null, null)).thenReturn(totales);
+        when(productoRepository.findResumenByIdProductoIn(List.of(1L, 2L))).thenReturn(productos);
+
+        List<ReporteVentaDTO> filas = servicioCuboVentas.consultar(filtro, DimensionVenta.MES, DimensionVenta.PRODUCTO);
+
+        assertEquals(1, filas.size());
+        assertEquals(LocalDate.of(2025, 2, 1), filas.get(0).getFecha());
+        assertEquals("Croquetas", filas.get(0).getEtiqueta());
+        assertEquals(3L, filas.get(0).getCantidadVendida());
+        assertEquals(270.0, filas.get(0).getTotalVenta());
+        verify(detalleVentaRepository, never()).findHechosVenta();
+    }
+
+    @Test
+    void registrarDetalles_cuboSinCargar_noConsultaLaBaseDeDatos() {
+        servicioCuboVentas.registrarDetalles(List.of(detalle(1, null)));
+
+        verifyNoInteractions(detalleVentaRepository);
+    }
+
+    @Test
+    void registrarDetalles_agregaLaVentaConClienteYMembresia() {
+        when(detalleVentaRepository.findHechosVenta()).thenReturn(List.of(
+                new HechoVenta(1L, LocalDate.of(2025, 2, 1), 1L, "Croquetas", TipoProducto.Comida, MarcaProducto.HILLS,
+                        null, null, null, null, 1, 90.0)));
+        servicioCuboVentas.consultar(null, DimensionVenta.DIA);
+
+        Membresia membresia = new Membresia();
+        membresia.setTipo(TipoMembresia.Standard);
+        membresia.setEstado(true);
+        Cliente cliente = new Cliente();
+        cliente.setIdCliente(5L);
+        cliente.setNombreCompleto("Ana Torres");
+        cliente.setMembresia(membresia);
+
+        servicioCuboVentas.registrarDetalles(List.of(detalle(2, cliente)));
+
+        List<ReporteVentaDTO> filas = servicioCuboVentas.consultar(null, DimensionVenta.MES, DimensionVenta.MEMBRESIA);
+        assertEquals(2, filas.size());
+        assertEquals("Sin membresía", filas.get(0).getAgrupacion());
+        assertEquals("Standard", filas.get(1).getAgrupacion());
+        assertEquals(180.0, filas.get(1).getTotalVenta());
+    }
+
+    @Test
+    void membresiaCambiada_recargaElCuboConLaMembresiaVigente() {
+        when(detalleVentaRepository.findHechosVenta()).thenReturn(
+                List.of(new HechoVenta(1L, LocalDate.of(2025, 2, 1), 1L, "Croquetas", TipoProducto.Comida,
+                        MarcaProducto.HILLS, 5L, "Ana Torres", null, null, 1, 90.0)),
+                List.of(new HechoVenta(1L, LocalDate.of(2025, 2, 1), 1L, "Croquetas", TipoProducto.Comida,
+                        MarcaProducto.HILLS, 5L, "Ana Torres", TipoMembresia.Platinum, true, 1, 90.0)));
+        assertEquals("Sin membresía",
+                servicioCuboVentas.consultar(null, DimensionVenta.MEMBRESIA).get(0).getAgrupacion());
+
+        servicioCuboVentas.membresiaCambiada();
+
+        // La venta anterior toma la membresía nueva, igual que al reiniciar
+        assertEquals("Platinum", servicioCuboVentas.consultar(null, DimensionVenta.MEMBRESIA).get(0).getAgrupacion());
+        verify(detalleVentaRepository, times(2)).findHechosVenta();
+    }
+
+    @Test
+    void registrarDetalles_enTransaccion_agregaSoloAlConfirmar() {
+        when(detalleVentaRepository.findHechosVenta()).thenReturn(List.of());
+        servicioCuboVentas.consultar(null, DimensionVenta.DIA);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            servicioCuboVentas.registrarDetalles(List.of(detalle(1, null)));
+            assertTrue(servicioCuboVentas.consultar(null, DimensionVenta.DIA).isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, servicioCuboVentas.consultar(null, DimensionVenta.DIA).size());
+        verify(detalleVentaRepository, times(1)).findHechosVenta();
+    }
+}
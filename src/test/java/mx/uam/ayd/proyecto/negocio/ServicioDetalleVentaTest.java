@@ -3,9 +3,6 @@ package mx.uam.ayd.proyecto.negocio;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -24,6 +21,9 @@ class ServicioDetalleVentaTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private ServicioReservaStock servicioReservaStock;
+
     @InjectMocks
     private ServicioDetalleVenta servicioDetalleVenta;
 
@@ -43,11 +43,9 @@ class ServicioDetalleVentaTest {
         producto.setUnidadProducto(UnidadProducto.Kg);
 
         Venta venta = new Venta();
-
-        List<DetalleVenta> detallesVenta = new ArrayList<>();
         Cliente cliente = null;
 
-        DetalleVenta detalle = servicioDetalleVenta.newDetalleVenta(producto, 5, venta, detallesVenta, cliente);
+        DetalleVenta detalle = servicioDetalleVenta.newDetalleVenta(producto, 5, venta, cliente);
 
         assertNotNull(detalle);
         assertEquals(producto, detalle.getProducto());
@@ -57,34 +55,122 @@ class ServicioDetalleVentaTest {
     }
 
     @Test
-    void newDetalleVenta_lanzaException_siProductoDuplicado() {
+    void newDetalleVenta_guardaPrecioYDescuentoDelMomento() {
         Producto producto = new Producto();
         producto.setCantidadStock(10);
-        producto.setPrecio(20.0);
+        producto.setPrecio(40.0);
 
-        Venta venta = new Venta();
+        Membresia membresia = new Membresia();
+        membresia.setTipo(TipoMembresia.Standard);
+        Cliente cliente = new Cliente();
+        cliente.setMembresia(membresia);
 
-        List<DetalleVenta> detallesVenta = new ArrayList<>();
-        DetalleVenta detalleExistente = new DetalleVenta();
-        detalleExistente.setProducto(producto);
-        detallesVenta.add(detalleExistente);
+        DetalleVenta detalle = servicioDetalleVenta.newDetalleVenta(producto, 2, new Venta(), cliente);
+        producto.setPrecio(55.0);
+        detalle.setCantidadVendida(3);
+        detalle.recalcularSubtotal();
 
-        Cliente cliente = null;
+        assertEquals(40.0, detalle.getPrecioUnitario());
+        assertEquals(0.10, detalle.getDescuento());
+        assertEquals(108.0, detalle.getSubtotal(), 1e-9);
+    }
+
+    @Test
+    void agregarProducto_lanzaException_siProductoDuplicado() {
+        Producto producto = new Producto();
+        producto.setIdProducto(1L);
+        producto.setCantidadStock(10);
+        producto.setPrecio(20.0);
+
+        CarritoVenta carrito = new CarritoVenta("sesion", new Venta(), null);
+        servicioDetalleVenta.agregarProducto(carrito, producto, 1);
 
         IllegalStateException ex = assertThrows(IllegalStateException.class, () -> {
-            servicioDetalleVenta.newDetalleVenta(producto, 1, venta, detallesVenta, cliente);
+            servicioDetalleVenta.agregarProducto(carrito, producto, 1);
         });
         assertEquals("El producto ya esta en la tabla", ex.getMessage());
+        assertEquals(1, carrito.tamano());
+        verify(servicioReservaStock, times(1)).reservar("sesion", producto, 1);
+    }
+
+    @Test
+    void agregarProducto_sinStockLibre_noLoAgregaAlCarrito() {
+        Producto producto = new Producto();
+        producto.setIdProducto(4L);
+        producto.setCantidadStock(10);
+        producto.setPrecio(20.0);
+        CarritoVenta carrito = new CarritoVenta("sesion", new Venta(), null);
+        doThrow(new IllegalStateException("Solo hay 1 unidades disponibles de Croquetas"))
+                .when(servicioReservaStock).reservar("sesion", producto, 3);
+
+        assertThrows(IllegalStateException.class, () -> servicioDetalleVenta.agregarProducto(carrito, producto, 3));
+
+        assertTrue(carrito.isVacio());
+    }
+
+    @Test
+    void agregarYModificar_mantienenElTotalDelCarrito() {
+        Producto croquetas = new Producto();
+        croquetas.setIdProducto(1L);
+        croquetas.setCantidadStock(10);
+        croquetas.setPrecio(19.99);
+        Producto collar = new Producto();
+        collar.setIdProducto(2L);
+        collar.setCantidadStock(10);
+        collar.setPrecio(0.10);
+
+        CarritoVenta carrito = new CarritoVenta("sesion", new Venta(), null);
+        servicioDetalleVenta.agregarProducto(carrito, croquetas, 3);
+        servicioDetalleVenta.agregarProducto(carrito, collar, 3);
+        assertEquals(6027L, carrito.getTotalCentavos());
+
+        servicioDetalleVenta.modificarCantidad(carrito, croquetas, 1);
+        assertEquals(2029L, carrito.getTotalCentavos());
+
+        assertNull(servicioDetalleVenta.modificarCantidad(carrito, croquetas, 0));
+        assertFalse(carrito.contiene(1L));
+        assertEquals(0.30, carrito.getTotal());
+        assertEquals(carrito.getTotal(), servicioDetalleVenta.calcularTotal(carrito.getDetalles()));
+    }
+
+    @Test
+    void sumarUnidad_agregaElProductoYLuegoIncrementaSuCantidad() {
+        Producto producto = new Producto();
+        producto.setIdProducto(3L);
+        producto.setCantidadStock(2);
+        producto.setPrecio(15.50);
+
+        CarritoVenta carrito = new CarritoVenta("sesion", new Venta(), null);
+        servicioDetalleVenta.sumarUnidad(carrito, producto);
+        DetalleVenta detalle = servicioDetalleVenta.sumarUnidad(carrito, producto);
+
+        assertEquals(1, carrito.tamano());
+        assertEquals(2, detalle.getCantidadVendida());
+        assertEquals(3100L, carrito.getTotalCentavos());
+        assertThrows(IllegalStateException.class, () -> servicioDetalleVenta.sumarUnidad(carrito, producto));
+    }
+
+    @Test
+    void modificarCantidad_lanzaException_siProductoNoEstaEnElCarrito() {
+        Producto producto = new Producto();
+        producto.setIdProducto(7L);
+        producto.setCantidadStock(10);
+
+        CarritoVenta carrito = new CarritoVenta("sesion", new Venta(), null);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+            servicioDetalleVenta.modificarCantidad(carrito, producto, 2);
+        });
+        assertEquals("El producto no esta en la venta", ex.getMessage());
     }
 
     @Test
     void newDetalleVenta_lanzaException_siProductoNulo() {
         Venta venta = new Venta();
-        List<DetalleVenta> detallesVenta = new ArrayList<>();
              Cliente cliente = null;
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
-            servicioDetalleVenta.newDetalleVenta(null, 1, venta, detallesVenta, cliente);
+            servicioDetalleVenta.newDetalleVenta(null, 1, venta, cliente);
         });
         assertEquals("El producto no puede ser nulo", ex.getMessage());
     }
@@ -96,16 +182,15 @@ class ServicioDetalleVentaTest {
         producto.setPrecio(20.0);
 
         Venta venta = new Venta();
-        List<DetalleVenta> detallesVenta = new ArrayList<>();
         Cliente cliente = null;
 
         IllegalArgumentException ex1 = assertThrows(IllegalArgumentException.class, () -> {
-            servicioDetalleVenta.newDetalleVenta(producto, 0, venta, detallesVenta, cliente);
+            servicioDetalleVenta.newDetalleVenta(producto, 0, venta, cliente);
         });
         assertEquals("La cantidad no puede ser menor o igual a 0", ex1.getMessage());
 
         IllegalArgumentException ex2 = assertThrows(IllegalArgumentException.class, () -> {
-            servicioDetalleVenta.newDetalleVenta(producto, -5, venta, detallesVenta, cliente);
+            servicioDetalleVenta.newDetalleVenta(producto, -5, venta, cliente);
         });
         assertEquals("La cantidad no puede ser menor o igual a 0", ex2.getMessage());
     }
@@ -117,11 +202,10 @@ class ServicioDetalleVentaTest {
         producto.setPrecio(20.0);
 
         Venta venta = new Venta();
-        List<DetalleVenta> detallesVenta = new ArrayList<>();
         Cliente cliente = null;
 
         IllegalStateException ex = assertThrows(IllegalStateException.class, () -> {
-            servicioDetalleVenta.newDetalleVenta(producto, 5, venta, detallesVenta, cliente);
+            servicioDetalleVenta.newDetalleVenta(producto, 5, venta, cliente);
         });
         assertEquals("La cantidad vendida no puede ser mayor al stock", ex.getMessage());
     }
@@ -132,11 +216,10 @@ class ServicioDetalleVentaTest {
         producto.setCantidadStock(5);
         producto.setPrecio(20.0);
 
-        List<DetalleVenta> detallesVenta = new ArrayList<>();
         Cliente cliente = null;
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
-            servicioDetalleVenta.newDetalleVenta(producto, 1, null, detallesVenta, cliente);
+            servicioDetalleVenta.newDetalleVenta(producto, 1, null, cliente);
         });
         assertEquals("La venta no puede ser nulo", ex.getMessage());
     }
@@ -0,0 +1,104 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.ClienteRepository;
+import mx.uam.ayd.proyecto.datos.MovimientoGastoRepository;
+import mx.uam.ayd.proyecto.datos.SaldoGastoRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.MovimientoGasto;
+import mx.uam.ayd.proyecto.negocio.modelo.SaldoGasto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioGastoClienteTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private MovimientoGastoRepository movimientoGastoRepository;
+
+    @Mock
+    private SaldoGastoRepository saldoGastoRepository;
+
+    @InjectMocks
+    private ServicioGastoCliente servicioGastoCliente;
+
+    private SaldoGasto corte(long hasta, double saldo) {
+        SaldoGasto corte = new SaldoGasto();
+        corte.setIdCliente(1L);
+        corte.setIdMovimientoHasta(hasta);
+        corte.setSaldo(saldo);
+        return corte;
+    }
+
+    @Test
+    void registrarGasto_incrementaEnCentavosYAnotaElMovimiento() {
+        when(saldoGastoRepository.findFirstByIdClienteOrderByIdMovimientoHastaDesc(1L)).thenReturn(Optional.of(corte(0L, 0.0)));
+        when(clienteRepository.incrementarMontoAcumulado(1L, 1999L)).thenReturn(1);
+
+        servicioGastoCliente.registrarGasto(1L, 7L, 19.99);
+
+        ArgumentCaptor<MovimientoGasto> captor = ArgumentCaptor.forClass(MovimientoGasto.class);
+        verify(movimientoGastoRepository).save(captor.capture());
+        assertEquals(7L, captor.getValue().getIdVenta());
+        assertEquals(19.99, captor.getValue().getMonto());
+        verify(clienteRepository, never()).save(any());
+        verify(saldoGastoRepository, never()).save(any());
+    }
+
+    @Test
+    void registrarGasto_primerMovimiento_guardaSaldoDeApertura() {
+        when(saldoGastoRepository.findFirstByIdClienteOrderByIdMovimientoHastaDesc(1L)).thenReturn(Optional.empty());
+        when(clienteRepository.findMontoAcumuladoByIdCliente(1L)).thenReturn(Optional.of(350.0));
+        when(saldoGastoRepository.save(any(SaldoGasto.class))).thenAnswer(i -> i.getArgument(0));
+        when(clienteRepository.incrementarMontoAcumulado(1L, 5000L)).thenReturn(1);
+
+        servicioGastoCliente.registrarGasto(1L, null, 50.0);
+
+        ArgumentCaptor<SaldoGasto> captor = ArgumentCaptor.forClass(SaldoGasto.class);
+        verify(saldoGastoRepository).save(captor.capture());
+        assertEquals(0L, captor.getValue().getIdMovimientoHasta());
+        assertEquals(300.0, captor.getValue().getSaldo());
+    }
+
+    @Test
+    void registrarGasto_alLlegarAlLimite_guardaUnCorte() {
+        when(saldoGastoRepository.findFirstByIdClienteOrderByIdMovimientoHastaDesc(1L)).thenReturn(Optional.of(corte(10L, 100.0)));
+        when(clienteRepository.incrementarMontoAcumulado(1L, 1000L)).thenReturn(1);
+        when(movimientoGastoRepository.save(any(MovimientoGasto.class))).thenAnswer(i -> {
+            MovimientoGasto movimiento = i.getArgument(0);
+            movimiento.setIdMovimiento(60L);
+            return movimiento;
+        });
+        when(movimientoGastoRepository.countByIdClienteAndIdMovimientoGreaterThan(1L, 10L))
+                .thenReturn((long) ServicioGastoCliente.MOVIMIENTOS_POR_CORTE);
+        when(movimientoGastoRepository.sumarCentavos(1L, 10L, 60L)).thenReturn(50_000L);
+
+        servicioGastoCliente.registrarGasto(1L, 2L, 10.0);
+
+        ArgumentCaptor<SaldoGasto> captor = ArgumentCaptor.forClass(SaldoGasto.class);
+        verify(saldoGastoRepository).save(captor.capture());
+        assertEquals(60L, captor.getValue().getIdMovimientoHasta());
+        assertEquals(600.0, captor.getValue().getSaldo());
+    }
+
+    @Test
+    void registrarGasto_clienteInexistente_lanzaExcepcion() {
+        when(clienteRepository.incrementarMontoAcumulado(1L, 100L)).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> servicioGastoCliente.registrarGasto(1L, null, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> servicioGastoCliente.registrarGasto(null, null, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> servicioGastoCliente.registrarGasto(1L, null, -1.0));
+        verifyNoInteractions(movimientoGastoRepository);
+    }
+}
@@ -0,0 +1,200 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CartillaRepository;
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.datos.CirugiaRepository;
+import mx.uam.ayd.proyecto.datos.EventoHistorialRepository;
+import mx.uam.ayd.proyecto.datos.HospedajeRepository;
+import mx.uam.ayd.proyecto.datos.MigracionAplicadaRepository;
+import mx.uam.ayd.proyecto.datos.RegistroHospedajeRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cartilla;
+import mx.uam.ayd.proyecto.negocio.modelo.Cirugia;
+import mx.uam.ayd.proyecto.negocio.modelo.EventoHistorial;
+import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
+import mx.uam.ayd.proyecto.negocio.modelo.Mascota;
+import mx.uam.ayd.proyecto.negocio.modelo.MigracionAplicada;
+import mx.uam.ayd.proyecto.negocio.modelo.RegistroHospedaje;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoEventoHistorial;
+import mx.uam.ayd.proyecto.negocio.modelo.VacunaEnum;
+import mx.uam.ayd.proyecto.negocio.modelo.Veterinario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioHistorialMascotaTest {
+
+    @Mock
+    private EventoHistorialRepository eventoHistorialRepository;
+
+    @Mock
+    private CirugiaRepository cirugiaRepository;
+
+    @Mock
+    private CartillaRepository cartillaRepository;
+
+    @Mock
+    private HospedajeRepository hospedajeRepository;
+
+    @Mock
+    private RegistroHospedajeRepository registroHospedajeRepository;
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private MigracionAplicadaRepository migracionAplicadaRepository;
+
+    @InjectMocks
+    private ServicioHistorialMascota servicioHistorial;
+
+    private Mascota mascota(long id) {
+        Mascota mascota = new Mascota();
+        mascota.setIdMascota(id);
+        mascota.setNombre("Firulais");
+        return mascota;
+    }
+
+    @Test
+    void registrarCirugia_agregaEventoConFechaDeLaCirugia() {
+        Cirugia cirugia = new Cirugia();
+        cirugia.setIdCirugia(7L);
+        cirugia.setMascota(mascota(1L));
+        cirugia.setFecha(LocalDate.of(2025, 3, 10));
+        cirugia.setTipoCirugia("Esterilización");
+
+        servicioHistorial.registrarCirugia(cirugia);
+
+        ArgumentCaptor<EventoHistorial> captor = ArgumentCaptor.forClass(EventoHistorial.class);
+        verify(eventoHistorialRepository).save(captor.capture());
+        EventoHistorial evento = captor.getValue();
+        assertEquals(1L, evento.getIdMascota());
+        assertEquals(TipoEventoHistorial.CIRUGIA, evento.getTipo());
+        assertEquals(7L, evento.getIdOrigen());
+        assertEquals(LocalDate.of(2025, 3, 10).atStartOfDay(), evento.getFecha());
+    }
+
+    @Test
+    void registrarEvento_sinMascota_noGuarda() {
+        assertNull(servicioHistorial.registrarEvento(null, TipoEventoHistorial.CITA, 1L, LocalDateTime.now(), "x"));
+        verifyNoInteractions(eventoHistorialRepository);
+    }
+
+    @Test
+    void registrarRegistrosHospedaje_guardaEnUnSoloLote() {
+        Hospedaje hospedaje = new Hospedaje();
+        hospedaje.setMascota(mascota(3L));
+
+        RegistroHospedaje r1 = new RegistroHospedaje();
+        r1.setHospedaje(hospedaje);
+        r1.setFechaRegistro(LocalDateTime.of(2025, 1, 2, 20, 0));
+        RegistroHospedaje r2 = new RegistroHospedaje();
+        r2.setHospedaje(hospedaje);
+        r2.setFechaRegistro(LocalDateTime.of(2025, 1, 3, 20, 0));
+
+        servicioHistorial.registrarRegistrosHospedaje(List.of(r1, r2));
+
+        verify(eventoHistorialRepository, times(1)).saveAll(argThat(eventos -> {
+            int n = 0;
+            for (EventoHistorial e : eventos) {
+                n++;
+            }
+            return n == 2;
+        }));
+        verify(eventoHistorialRepository, never()).save(any());
+    }
+
+    @Test
+    void consultarHistorial_usaUnaSolaConsultaYNoEscribe() {
+        when(eventoHistorialRepository.findByIdMascotaOrderByFechaDescIdEventoDesc(1L, PageRequest.of(0, 20)))
+                .thenReturn(List.of(new EventoHistorial()));
+
+        List<EventoHistorial> pagina = servicioHistorial.consultarHistorial(1L, 0, 20);
+
+        assertEquals(1, pagina.size());
+        verify(eventoHistorialRepository, never()).save(any());
+        verify(eventoHistorialRepository, never()).saveAll(any());
+        verifyNoInteractions(cirugiaRepository, cartillaRepository, hospedajeRepository, registroHospedajeRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconstruir_agregaSoloLosRegistrosSinEventoEnUnLote() {
+        Veterinario veterinario = new Veterinario();
+        veterinario.setIdVeterinario(1L);
+        veterinario.setNombreCompleto("Ana Lopez");
+        Cartilla cartilla = new Cartilla(VacunaEnum.RABIA, LocalDate.of(2024, 5, 1), veterinario, 1L, null, 1L);
+        Hospedaje hospedaje = new Hospedaje();
+        hospedaje.setIdHospedaje(4L);
+        hospedaje.setMascota(mascota(2L));
+        RegistroHospedaje registro = new RegistroHospedaje();
+        registro.setIdRegistro(9L);
+        registro.setHospedaje(hospedaje);
+        registro.setFechaRegistro(LocalDateTime.of(2024, 6, 2, 20, 0));
+        when(cartillaRepository.findSinEventoHistorial()).thenReturn(List.of(cartilla));
+        when(registroHospedajeRepository.findSinEventoHistorial()).thenReturn(List.of(registro));
+
+        assertEquals(2, servicioHistorial.reconstruir());
+
+        ArgumentCaptor<Iterable<EventoHistorial>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(eventoHistorialRepository, times(1)).saveAll(captor.capture());
+        List<EventoHistorial> eventos = new ArrayList<>();
+        captor.getValue().forEach(eventos::add);
+        assertEquals(TipoEventoHistorial.VACUNA, eventos.get(0).getTipo());
+        assertEquals(1L, eventos.get(0).getIdMascota());
+        assertEquals(LocalDate.of(2024, 5, 1).atStartOfDay(), eventos.get(0).getFecha());
+        assertEquals(TipoEventoHistorial.REGISTRO_HOSPEDAJE, eventos.get(1).getTipo());
+        assertEquals(2L, eventos.get(1).getIdMascota());
+        assertEquals(9L, eventos.get(1).getIdOrigen());
+    }
+
+    @Test
+    void reconstruir_sinPendientes_noGuarda() {
+        assertEquals(0, servicioHistorial.reconstruir());
+        verify(eventoHistorialRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void iniciar_completaElHistorialUnaSolaVez() {
+        servicioHistorial.iniciar();
+
+        ArgumentCaptor<MigracionAplicada> captor = ArgumentCaptor.forClass(MigracionAplicada.class);
+        verify(migracionAplicadaRepository).save(captor.capture());
+        assertEquals(ServicioHistorialMascota.HISTORIAL_COMPLETADO, captor.getValue().getNombre());
+
+        when(migracionAplicadaRepository.existsById(ServicioHistorialMascota.HISTORIAL_COMPLETADO)).thenReturn(true);
+        servicioHistorial.iniciar();
+
+        verify(citaRepository, times(1)).findSinEventoHistorial();
+        verify(migracionAplicadaRepository, times(1)).save(any());
+    }
+
+    @Test
+    void iniciar_siFallaDetieneElArranqueSinAnotarlo() {
+        when(cartillaRepository.findSinEventoHistorial()).thenThrow(new DataAccessResourceFailureException("sin conexión"));
+
+        assertThrows(IllegalStateException.class, () -> servicioHistorial.iniciar());
+        verify(migracionAplicadaRepository, never()).save(any());
+    }
+
+    @Test
+    void consultarHistorial_parametrosInvalidos_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> servicioHistorial.consultarHistorial(null, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> servicioHistorial.consultarHistorial(1L, -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> servicioHistorial.consultarHistorial(1L, 0, 0));
+    }
+}
@@ -27,6 +27,9 @@ class ServicioHospedajeTest {
     @Mock
     private ServicioCorreo servicioCorreo;
 
+    @Mock
+    private ServicioHistorialMascota servicioHistorialMascota;
+
     @InjectMocks
     private ServicioHospedaje servicioHospedaje;
 
@@ -10,6 +10,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import mx.uam.ayd.proyecto.datos.HospedajeRepository;
 import mx.uam.ayd.proyecto.datos.RegistroHospedajeRepository;
 import mx.uam.ayd.proyecto.negocio.modelo.Hospedaje;
 import mx.uam.ayd.proyecto.negocio.modelo.RegistroHospedaje;
@@ -24,6 +25,8 @@ public class ServicioImplRegistroHospedajeTest {
 
     /* Dependencia simulada (mock) */
     private RegistroHospedajeRepository registroRepo;
+    private HospedajeRepository hospedajeRepo;
+    private ServicioHistorialMascota servicioHistorial;
 
     /* Servicio a probar */
     private ServicioImplRegistroHospedaje servicio;
@@ -34,7 +37,9 @@ public class ServicioImplRegistroHospedajeTest {
     @BeforeEach
     public void setUp() {
         registroRepo = Mockito.mock(RegistroHospedajeRepository.class);
-        servicio = new ServicioImplRegistroHospedaje(registroRepo);
+        hospedajeRepo = Mockito.mock(HospedajeRepository.class);
+        servicioHistorial = Mockito.mock(ServicioHistorialMascota.class);
+        servicio = new ServicioImplRegistroHospedaje(registroRepo, hospedajeRepo, servicioHistorial);
     }
 
     /**
@@ -162,4 +167,113 @@ public class ServicioImplRegistroHospedajeTest {
         Assertions.assertEquals(1, resultado.size());
     }
 
+    private Hospedaje hospedaje(long id) {
+        Hospedaje hospedaje = new Hospedaje();
+        hospedaje.setIdHospedaje(id);
+        hospedaje.setFechaEntrada(LocalDate.of(2025, 1, 1));
+        hospedaje.setFechaSalida(LocalDate.of(2025, 1, 5));
+        return hospedaje;
+    }
+
+    private RegistroHospedaje registro(Hospedaje hospedaje) {
+        RegistroHospedaje registro = new RegistroHospedaje();
+        registro.setHospedaje(hospedaje);
+        registro.setAlimentacion("Buena");
+        return registro;
+    }
+
+    /**
+     * Dados tres hospedajes activos, uno de ellos ya registrado
+     * Cuando se listan los pendientes de la ronda
+     * Entonces solo se devuelven los dos sin registro, con una sola consulta de verificación.
+     */
+    @Test
+    public void dadoHospedajesActivos_cuandoListarPendientesRonda_entoncesExcluyeRegistrados() {
+        // DADO
+        LocalDate fecha = LocalDate.of(2025, 1, 3);
+        Hospedaje h1 = hospedaje(1L);
+        Hospedaje h2 = hospedaje(2L);
+        Hospedaje h3 = hospedaje(3L);
+
+        Mockito.when(hospedajeRepo.findActivosEnFecha(fecha)).thenReturn(List.of(h1, h2, h3));
+        Mockito.when(registroRepo.findIdsHospedajeConRegistroEntre(
+                Mockito.anyCollection(),
+                Mockito.eq(fecha.atStartOfDay()),
+                Mockito.eq(fecha.atTime(LocalTime.MAX))
+        )).thenReturn(List.of(2L));
+
+        // CUANDO
+        List<Hospedaje> pendientes = servicio.listarPendientesRonda(fecha);
+
+        // ENTONCES
+        Assertions.assertEquals(List.of(h1, h3), pendientes);
+        Mockito.verify(registroRepo, Mockito.times(1))
+                .findIdsHospedajeConRegistroEntre(Mockito.anyCollection(), Mockito.any(), Mockito.any());
+        Mockito.verify(registroRepo, Mockito.never())
+                .existsByHospedajeAndFechaRegistroBetween(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Dada una ronda válida
+     * Cuando se registra
+     * Entonces todos los registros se guardan en un solo lote con la fecha de la ronda.
+     */
+    @Test
+    public void dadaRondaValida_cuandoRegistrarRonda_entoncesGuardaEnLote() {
+        // DADO
+        LocalDate fecha = LocalDate.of(2025, 1, 3);
+        List<RegistroHospedaje> ronda = List.of(registro(hospedaje(1L)), registro(hospedaje(2L)));
+
+        Mockito.when(registroRepo.findIdsHospedajeConRegistroEntre(
+                Mockito.anyCollection(), Mockito.any(), Mockito.any())).thenReturn(List.of());
+        Mockito.when(registroRepo.saveAll(ronda)).thenReturn(ronda);
+
+        // CUANDO
+        List<RegistroHospedaje> guardados = servicio.registrarRonda(fecha, ronda);
+
+        // ENTONCES
+        Assertions.assertEquals(2, guardados.size());
+        for (RegistroHospedaje r : guardados) {
+            Assertions.assertEquals(fecha, r.getFechaRegistro().toLocalDate());
+        }
+        Mockito.verify(registroRepo, Mockito.times(1)).saveAll(ronda);
+        Mockito.verify(registroRepo, Mockito.never()).save(Mockito.any());
+    }
+
+    /**
+     * Dada una ronda donde un hospedaje ya tiene registro ese día
+     * Cuando se registra
+     * Entonces lanza IllegalArgumentException y no guarda nada.
+     */
+    @Test
+    public void dadaRondaConRegistroExistente_cuandoRegistrarRonda_entoncesNoGuardaNada() {
+        // DADO
+        LocalDate fecha = LocalDate.of(2025, 1, 3);
+        List<RegistroHospedaje> ronda = List.of(registro(hospedaje(1L)), registro(hospedaje(2L)));
+
+        Mockito.when(registroRepo.findIdsHospedajeConRegistroEntre(
+                Mockito.anyCollection(), Mockito.any(), Mockito.any())).thenReturn(List.of(2L));
+
+        // CUANDO + ENTONCES
+        Assertions.assertThrows(IllegalArgumentException.class, () -> servicio.registrarRonda(fecha, ronda));
+        Mockito.verify(registroRepo, Mockito.never()).saveAll(Mockito.any());
+    }
+
+    /**
+     * Dada una ronda con el mismo hospedaje repetido
+     * Cuando se registra
+     * Entonces lanza IllegalArgumentException.
+     */
+    @Test
+    public void dadaRondaConHospedajeRepetido_cuandoRegistrarRonda_entoncesLanzaExcepcion() {
+        // DADO
+        Hospedaje h1 = hospedaje(1L);
+        List<RegistroHospedaje> ronda = List.of(registro(h1), registro(h1));
+
+        // CUANDO + ENTONCES
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> servicio.registrarRonda(LocalDate.of(2025, 1, 3), ronda));
+        Mockito.verify(registroRepo, Mockito.never()).saveAll(Mockito.any());
+    }
+
 }
@@ -0,0 +1,145 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.MovimientoStockRepository;
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.datos.SaldoStockRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.MovimientoStock;
+import mx.uam.ayd.proyecto.negocio.modelo.SaldoStock;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoMovimientoStock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioKardexTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private MovimientoStockRepository movimientoStockRepository;
+
+    @Mock
+    private SaldoStockRepository saldoStockRepository;
+
+    @InjectMocks
+    private ServicioKardex servicioKardex;
+
+    private SaldoStock corte(long hasta, int saldo) {
+        SaldoStock corte = new SaldoStock();
+        corte.setIdProducto(1L);
+        corte.setIdMovimientoHasta(hasta);
+        corte.setSaldo(saldo);
+        return corte;
+    }
+
+    @Test
+    void registrarVenta_descuentaYAnotaLaSalida() {
+        when(productoRepository.sumarStock(1L, -3)).thenReturn(1);
+        when(saldoStockRepository.findFirstByIdProductoOrderByIdMovimientoHastaDesc(1L)).thenReturn(Optional.of(corte(0L, 10)));
+
+        servicioKardex.registrarVenta(1L, 3, 7L);
+
+        ArgumentCaptor<MovimientoStock> captor = ArgumentCaptor.forClass(MovimientoStock.class);
+        verify(movimientoStockRepository).save(captor.capture());
+        assertEquals(TipoMovimientoStock.VENTA, captor.getValue().getTipo());
+        assertEquals(-3, captor.getValue().getCantidad());
+        assertEquals(7L, captor.getValue().getIdVenta());
+        verify(productoRepository, never()).save(any());
+        verify(saldoStockRepository, never()).save(any());
+    }
+
+    @Test
+    void registrarVenta_sinStock_noAnotaNada() {
+        when(productoRepository.sumarStock(1L, -3)).thenReturn(0);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> servicioKardex.registrarVenta(1L, 3, null));
+
+        assertEquals("La cantidad vendida no puede ser mayor al stock", ex.getMessage());
+        verify(movimientoStockRepository, never()).save(any());
+    }
+
+    @Test
+    void registrarMovimiento_primerMovimiento_guardaSaldoDeApertura() {
+        when(productoRepository.sumarStock(1L, 5)).thenReturn(1);
+        when(saldoStockRepository.findFirstByIdProductoOrderByIdMovimientoHastaDesc(1L)).thenReturn(Optional.empty());
+        when(productoRepository.findCantidadStockByIdProducto(1L)).thenReturn(Optional.of(12));
+        when(saldoStockRepository.save(any(SaldoStock.class))).thenAnswer(i -> i.getArgument(0));
+
+        servicioKardex.registrarEntrada(1L, 5);
+
+        ArgumentCaptor<SaldoStock> captor = ArgumentCaptor.forClass(SaldoStock.class);
+        verify(saldoStockRepository).save(captor.capture());
+        assertEquals(0L, captor.getValue().getIdMovimientoHasta());
+        assertEquals(7, captor.getValue().getSaldo());
+    }
+
+    @Test
+    void registrarMovimiento_alLlegarAlLimite_guardaUnCorte() {
+        when(productoRepository.sumarStock(1L, 2)).thenReturn(1);
+        when(saldoStockRepository.findFirstByIdProductoOrderByIdMovimientoHastaDesc(1L)).thenReturn(Optional.of(corte(10L, 40)));
+        when(movimientoStockRepository.save(any(MovimientoStock.class))).thenAnswer(i -> {
+            MovimientoStock movimiento = i.getArgument(0);
+            movimiento.setIdMovimiento(60L);
+            return movimiento;
+        });
+        when(movimientoStockRepository.countByIdProductoAndIdMovimientoGreaterThan(1L, 10L))
+                .thenReturn((long) ServicioKardex.MOVIMIENTOS_POR_CORTE);
+        when(productoRepository.findCantidadStockByIdProducto(1L)).thenReturn(Optional.of(25));
+
+        servicioKardex.registrarDevolucion(1L, 2, 4L);
+
+        ArgumentCaptor<SaldoStock> captor = ArgumentCaptor.forClass(SaldoStock.class);
+        verify(saldoStockRepository).save(captor.capture());
+        assertEquals(60L, captor.getValue().getIdMovimientoHasta());
+        assertEquals(25, captor.getValue().getSaldo());
+    }
+
+    @Test
+    void ajustar_anotaSoloElCambioDelUsuario() {
+        when(productoRepository.sumarStock(1L, -4)).thenReturn(1);
+        when(saldoStockRepository.findFirstByIdProductoOrderByIdMovimientoHastaDesc(1L)).thenReturn(Optional.of(corte(0L, 9)));
+
+        // El usuario vio 9 y capturó 5; si otra terminal vendió mientras tanto, esa venta se respeta
+        Optional<MovimientoStock> ajuste = servicioKardex.ajustar(1L, 9, 5);
+        Optional<MovimientoStock> sinCambio = servicioKardex.ajustar(1L, 9, 9);
+
+        assertEquals(TipoMovimientoStock.AJUSTE, ajuste.orElseThrow().getTipo());
+        assertEquals(-4, ajuste.get().getCantidad());
+        assertTrue(sinCambio.isEmpty());
+        verify(productoRepository, times(1)).sumarStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void consultarStockAl_sumaLosMovimientosPosterioresAlCorte() {
+        LocalDateTime momento = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(saldoStockRepository.findFirstByIdProductoAndFechaLessThanEqualOrderByFechaDescIdMovimientoHastaDesc(1L, momento))
+                .thenReturn(Optional.of(corte(100L, 30)));
+        when(movimientoStockRepository.sumarCantidades(1L, 100L, momento)).thenReturn(-8);
+
+        assertEquals(22, servicioKardex.consultarStockAl(1L, momento));
+    }
+
+    @Test
+    void consultarStockAl_antesDeLaApertura_devuelveElSaldoDeApertura() {
+        LocalDateTime momento = LocalDateTime.of(2020, 1, 1, 0, 0);
+        when(saldoStockRepository.findFirstByIdProductoAndFechaLessThanEqualOrderByFechaDescIdMovimientoHastaDesc(1L, momento))
+                .thenReturn(Optional.empty());
+        when(saldoStockRepository.findFirstByIdProductoOrderByIdMovimientoHastaAsc(1L)).thenReturn(Optional.of(corte(0L, 6)));
+
+        assertEquals(6, servicioKardex.consultarStockAl(1L, momento));
+        verify(movimientoStockRepository, never()).sumarCantidades(anyLong(), anyLong(), any());
+    }
+}
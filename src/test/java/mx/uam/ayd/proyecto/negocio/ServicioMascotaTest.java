@@ -11,6 +11,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +25,9 @@ class ServicioMascotaTest {
     @Mock
     private MascotaRepository mascotaRepository;
 
+    @Mock
+    private ServicioCoberturaVacunacion servicioCobertura;
+
     @InjectMocks
     private ServicioMascota servicioMascota;
 
@@ -47,6 +51,7 @@ class ServicioMascotaTest {
 
         assertNotNull(resultado);
         verify(mascotaRepository, times(1)).save(any(Mascota.class));
+        verify(servicioCobertura).mascotaRegistrada("Perro");
     }
 
     @Test
@@ -115,19 +120,22 @@ class ServicioMascotaTest {
     void testEliminaMascota_Exito() {
         Long idMascota = 1L;
         
-        when(mascotaRepository.existsById(idMascota)).thenReturn(true);
+        Mascota mascota = new Mascota();
+        mascota.setEspecie("Gato");
+        when(mascotaRepository.findById(idMascota)).thenReturn(Optional.of(mascota));
         doNothing().when(mascotaRepository).deleteById(idMascota);
         
         assertDoesNotThrow(() -> servicioMascota.eliminaMascota(idMascota));
         
         verify(mascotaRepository, times(1)).deleteById(idMascota);
+        verify(servicioCobertura).mascotaEliminada("Gato");
     }
     
     @Test
     void testEliminaMascota_NoExiste() {
         Long idMascota = 99L;
         
-        when(mascotaRepository.existsById(idMascota)).thenReturn(false);
+        when(mascotaRepository.findById(idMascota)).thenReturn(Optional.empty());
         
         Exception ex = assertThrows(IllegalArgumentException.class, () ->
                 servicioMascota.eliminaMascota(idMascota));
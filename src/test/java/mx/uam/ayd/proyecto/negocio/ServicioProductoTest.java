@@ -12,11 +12,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 
 import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CodigoBarrasProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.Producto;
 import mx.uam.ayd.proyecto.negocio.modelo.UnidadProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.MarcaProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.TipoProducto;
 import mx.uam.ayd.proyecto.negocio.modelo.UsoVeterinario;
+import mx.uam.ayd.proyecto.negocio.validacion.ValidacionException;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,13 +26,15 @@ public class ServicioProductoTest {
 
     @Mock
     private ProductoRepository productoRepository;
+    @Mock
+    private ServicioKardex servicioKardex;
     @InjectMocks
     private ServicioProducto servicioProducto;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        servicioProducto = new ServicioProducto(productoRepository);
+        servicioProducto = new ServicioProducto(productoRepository, servicioKardex);
     }
     @Test
     public void agregarProducto_medicamento_guardaProducto() {
@@ -180,6 +184,33 @@ public class ServicioProductoTest {
         });
         assertEquals("La fecha de caducidad no puede ser nula en medicamentos o comida", ex.getMessage());
     }
+
+    @Test
+    public void agregarProducto_variosDatosInvalidos_reportaTodasLasViolaciones() {
+        ValidacionException ex = assertThrows(ValidacionException.class, () -> {
+            servicioProducto.agregarProducto(" ", TipoProducto.Medicamento, MarcaProducto.MSD, 0, 10, UnidadProducto.Inyeccion, null, null);
+        });
+        assertEquals(List.of(
+                "El nombre del producto no puede ser nulo o vacío",
+                "El precio debe ser mayor a cero",
+                "El uso veterinario no puede ser nulo para medicamentos",
+                "La fecha de caducidad no puede ser nula en medicamentos o comida"), ex.getViolaciones());
+        verify(productoRepository, never()).save(any());
+    }
+
+    @Test
+    public void modificarProducto_datosInvalidos_noAlteraElProducto() {
+        Producto producto = new Producto();
+        producto.setNombre("Sobre de gato");
+        producto.setPrecio(12);
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            servicioProducto.modificarProducto(producto, "Sobre de perro", TipoProducto.Comida, MarcaProducto.HILLS, -1, 10, UnidadProducto.Pieza, null, null);
+        });
+        assertEquals("Sobre de gato", producto.getNombre());
+        assertEquals(12, producto.getPrecio());
+        verify(productoRepository, never()).save(any());
+    }
     // Pruebas para recuperaProductos
 
     @Test
@@ -233,7 +264,117 @@ public class ServicioProductoTest {
         assertTrue(productos.contains(p1));
         assertTrue(productos.contains(p2));
     }
-}
 
+    private CodigoBarrasProducto codigo(long idProducto, String codigoBarras) {
+        return new CodigoBarrasProducto() {
+            public Long getIdProducto() { return idProducto; }
+            public String getCodigoBarras() { return codigoBarras; }
+        };
+    }
 
+    @Test
+    public void buscarIdPorCodigoBarras_cargaElIndiceUnaSolaVez() {
+        List<CodigoBarrasProducto> codigos = List.of(codigo(1L, "7501001"), codigo(2L, "7501002"));
+        when(productoRepository.findCodigoByCodigoBarrasIsNotNull()).thenReturn(codigos);
+
+        assertEquals(Optional.of(2L), servicioProducto.buscarIdPorCodigoBarras("7501002"));
+        assertEquals(Optional.of(1L), servicioProducto.buscarIdPorCodigoBarras(" 7501001\n"));
+        assertEquals(Optional.empty(), servicioProducto.buscarIdPorCodigoBarras("0000"));
+        assertEquals(Optional.empty(), servicioProducto.buscarIdPorCodigoBarras(""));
+
+        verify(productoRepository, times(1)).findCodigoByCodigoBarrasIsNotNull();
+    }
 
+    @Test
+    public void agregarProducto_conCodigo_loAgregaAlIndice() {
+        when(productoRepository.findCodigoByCodigoBarrasIsNotNull()).thenReturn(List.of());
+        when(productoRepository.findByNombreAndTipoProductoAndMarcaProducto(any(), any(), any())).thenReturn(Optional.empty());
+        when(productoRepository.save(any())).thenAnswer(invocation -> {
+            Producto guardado = invocation.getArgument(0);
+            guardado.setIdProducto(9L);
+            return guardado;
+        });
+        assertEquals(Optional.empty(), servicioProducto.buscarIdPorCodigoBarras("7509999"));
+
+        Producto producto = servicioProducto.agregarProducto("Collar", TipoProducto.Limpieza, MarcaProducto.HILLS,
+                80.0, 4, UnidadProducto.Pieza, null, null, "7509999");
+
+        assertEquals("7509999", producto.getCodigoBarras());
+        assertEquals(Optional.of(9L), servicioProducto.buscarIdPorCodigoBarras("7509999"));
+    }
+
+    @Test
+    public void agregarProducto_codigoRepetido_lanzaExcepcion() {
+        List<CodigoBarrasProducto> codigos = List.of(codigo(1L, "7501001"));
+        when(productoRepository.findCodigoByCodigoBarrasIsNotNull()).thenReturn(codigos);
+        when(productoRepository.findByNombreAndTipoProductoAndMarcaProducto(any(), any(), any())).thenReturn(Optional.empty());
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () ->
+                servicioProducto.agregarProducto("Collar", TipoProducto.Limpieza, MarcaProducto.HILLS,
+                        80.0, 4, UnidadProducto.Pieza, null, null, "7501001"));
+
+        assertEquals("El código de barras 7501001 ya está asignado a otro producto", ex.getMessage());
+        verify(productoRepository, never()).save(any());
+    }
+
+    @Test
+    public void modificarYEliminarProducto_actualizanElIndice() {
+        List<CodigoBarrasProducto> codigos = List.of(codigo(1L, "7501001"));
+        when(productoRepository.findCodigoByCodigoBarrasIsNotNull()).thenReturn(codigos);
+        when(productoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Producto producto = new Producto();
+        producto.setIdProducto(1L);
+        producto.setCodigoBarras("7501001");
+
+        // Conservar su propio código no es un duplicado
+        servicioProducto.modificarProducto(producto, "Collar", TipoProducto.Limpieza, MarcaProducto.HILLS,
+                80.0, 4, UnidadProducto.Pieza, null, null);
+        assertEquals(Optional.of(1L), servicioProducto.buscarIdPorCodigoBarras("7501001"));
+
+        servicioProducto.modificarProducto(producto, "Collar", TipoProducto.Limpieza, MarcaProducto.HILLS,
+                80.0, 4, UnidadProducto.Pieza, null, null, "7501777");
+        assertEquals(Optional.empty(), servicioProducto.buscarIdPorCodigoBarras("7501001"));
+        assertEquals(Optional.of(1L), servicioProducto.buscarIdPorCodigoBarras("7501777"));
+
+        servicioProducto.eliminarProducto(1L);
+        assertEquals(Optional.empty(), servicioProducto.buscarIdPorCodigoBarras("7501777"));
+    }
+
+    @Test
+    public void agregarProducto_registraElStockInicialComoEntrada() {
+        when(productoRepository.findByNombreAndTipoProductoAndMarcaProducto(any(), any(), any())).thenReturn(Optional.empty());
+        when(productoRepository.save(any())).thenAnswer(invocation -> {
+            Producto guardado = invocation.getArgument(0);
+            // Se inserta sin stock
+            assertEquals(0, guardado.getCantidadStock());
+            guardado.setIdProducto(9L);
+            return guardado;
+        });
+
+        Producto producto = servicioProducto.agregarProducto("Collar", TipoProducto.Limpieza, MarcaProducto.HILLS,
+                80.0, 4, UnidadProducto.Pieza, null, null);
+
+        assertEquals(4, producto.getCantidadStock());
+        verify(servicioKardex).registrarEntrada(9L, 4);
+    }
+
+    @Test
+    public void modificarProducto_ajustaSoloElCambioDelStock() {
+        when(productoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        // Otra terminal vendió 2 desde que se abrió el formulario con 10
+        when(servicioKardex.consultarStock(3L)).thenReturn(8, 6);
+        Producto producto = new Producto();
+        producto.setIdProducto(3L);
+        producto.setCantidadStock(10);
+
+        Producto soloPrecio = servicioProducto.modificarProducto(producto, "Collar", TipoProducto.Limpieza,
+                MarcaProducto.HILLS, 95.0, 10, UnidadProducto.Pieza, null, null);
+        assertEquals(8, soloPrecio.getCantidadStock());
+        verify(servicioKardex).ajustar(3L, 10, 10);
+
+        servicioProducto.modificarProducto(producto, "Collar", TipoProducto.Limpieza, MarcaProducto.HILLS,
+                95.0, 6, UnidadProducto.Pieza, null, null);
+        verify(servicioKardex).ajustar(3L, 8, 6);
+    }
+}
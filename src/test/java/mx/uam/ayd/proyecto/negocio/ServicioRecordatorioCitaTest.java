@@ -0,0 +1,169 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.CitaRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.Cita;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.TipoCita;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioRecordatorioCitaTest {
+
+    @Mock
+    private CitaRepository citaRepository;
+
+    @Mock
+    private ServicioCorreo servicioCorreo;
+
+    @InjectMocks
+    private ServicioRecordatorioCita servicioRecordatorio;
+
+    private static Cita cita(long id, LocalDateTime fechaHora) {
+        Cita cita = new Cita();
+        cita.setIdCita(id);
+        cita.setFechaHora(fechaHora);
+        cita.setTipo(TipoCita.Consulta);
+        cita.setNombreSolicitante("Cliente " + id);
+        cita.setContacto("cliente" + id + "@correo.com");
+        return cita;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void barrer_enviaUnLoteYLaSiguientePasadaEmpiezaDondeTermino() {
+        LocalDateTime manana = LocalDateTime.now().plusHours(20);
+        List<Cita> citas = List.of(cita(1, manana), cita(2, manana.plusMinutes(30)));
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> hasta = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(citaRepository.findRecordatoriosPendientes(desde.capture(), hasta.capture(), any(Pageable.class)))
+                .thenReturn(citas, List.of());
+
+        assertEquals(2, servicioRecordatorio.barrer());
+        assertEquals(0, servicioRecordatorio.barrer());
+
+        verify(citaRepository, times(1)).marcarRecordatorioEnviado(eq(List.of(1L, 2L)), any());
+        verify(citaRepository, never()).saveAll(any());
+        ArgumentCaptor<List<SimpleMailMessage>> lote = ArgumentCaptor.forClass(List.class);
+        verify(servicioCorreo, times(1)).enviarAhora(lote.capture());
+        assertEquals(2, lote.getValue().size());
+        assertEquals("cliente2@correo.com", lote.getValue().get(1).getTo()[0]);
+        // La segunda pasada solo lee el tramo nuevo
+        assertEquals(hasta.getAllValues().get(0), desde.getAllValues().get(1));
+    }
+
+    @Test
+    void barrer_conElLoteLlenoSeQuedaEnLaUltimaCitaEnviada() {
+        LocalDateTime inicio = LocalDateTime.now().plusHours(2);
+        List<Cita> llenas = new ArrayList<>();
+        for (int i = 0; i < ServicioRecordatorioCita.LOTE_MAXIMO; i++) {
+            llenas.add(cita(i, inicio.plusMinutes(i)));
+        }
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(citaRepository.findRecordatoriosPendientes(desde.capture(), any(), any(Pageable.class)))
+                .thenReturn(llenas, List.of());
+
+        servicioRecordatorio.barrer();
+        servicioRecordatorio.barrer();
+
+        assertEquals(inicio.plusMinutes(ServicioRecordatorioCita.LOTE_MAXIMO - 1), desde.getAllValues().get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void barrer_siUnEnvioFallaNoMarcaEsaCitaYLaReintenta() {
+        LocalDateTime inicio = LocalDateTime.now().plusHours(2);
+        List<Cita> citas = List.of(cita(1, inicio), cita(2, inicio.plusMinutes(30)), cita(3, inicio.plusMinutes(60)));
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(citaRepository.findRecordatoriosPendientes(desde.capture(), any(), any(Pageable.class)))
+                .thenReturn(citas, List.of());
+        when(servicioCorreo.enviarAhora(any())).thenAnswer(invocacion ->
+                List.of(((List<SimpleMailMessage>) invocacion.getArgument(0)).get(1)));
+
+        assertEquals(2, servicioRecordatorio.barrer());
+        servicioRecordatorio.barrer();
+
+        verify(citaRepository).marcarRecordatorioEnviado(eq(List.of(1L, 3L)), any());
+        assertEquals(inicio.plusMinutes(30), desde.getAllValues().get(1));
+    }
+
+    @Test
+    void barrer_siNingunEnvioSaleNoMarcaNada() {
+        LocalDateTime inicio = LocalDateTime.now().plusHours(2);
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(citaRepository.findRecordatoriosPendientes(desde.capture(), any(), any(Pageable.class)))
+                .thenReturn(List.of(cita(1, inicio)), List.of());
+        when(servicioCorreo.enviarAhora(any())).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        assertEquals(0, servicioRecordatorio.barrer());
+        servicioRecordatorio.barrer();
+
+        verify(citaRepository, never()).marcarRecordatorioEnviado(any(), any());
+        assertEquals(inicio, desde.getAllValues().get(1));
+    }
+
+    @Test
+    void barrer_direccionesQueNuncaAceptanCorreoNoDetienenLaMarca() {
+        LocalDateTime inicio = LocalDateTime.now().plusHours(2);
+        List<Cita> llenas = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ServicioRecordatorioCita.LOTE_MAXIMO; i++) {
+            llenas.add(cita(i, inicio.plusMinutes(i)));
+            ids.add((long) i);
+        }
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(citaRepository.findRecordatoriosPendientes(desde.capture(), any(), any(Pageable.class))).thenReturn(llenas);
+        when(servicioCorreo.enviarAhora(any())).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        for (int intento = 0; intento < ServicioRecordatorioCita.INTENTOS_MAXIMOS; intento++) {
+            assertEquals(0, servicioRecordatorio.barrer());
+        }
+        servicioRecordatorio.barrer();
+
+        verify(citaRepository, times(1)).marcarRecordatorioEnviado(eq(ids), any());
+        assertEquals(inicio, desde.getAllValues().get(ServicioRecordatorioCita.INTENTOS_MAXIMOS - 1));
+        assertEquals(inicio.plusMinutes(ServicioRecordatorioCita.LOTE_MAXIMO - 1),
+                desde.getAllValues().get(ServicioRecordatorioCita.INTENTOS_MAXIMOS));
+    }
+
+    @Test
+    void destinatario_prefiereElCorreoDelCliente() {
+        Cita cita = cita(1, LocalDateTime.now());
+        cita.setContacto("5512345678");
+        assertEquals("5512345678", ServicioRecordatorioCita.destinatario(cita));
+
+        Cliente cliente = new Cliente();
+        cliente.setCorreoElectronico("registrado@correo.com");
+        cita.setCliente(cliente);
+        assertEquals("registrado@correo.com", ServicioRecordatorioCita.destinatario(cita));
+    }
+
+    @Test
+    void reabrir_regresaLaMarcaParaUnaCitaNuevaEnElTramoBarrido() {
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(citaRepository.findRecordatoriosPendientes(desde.capture(), any(), any(Pageable.class))).thenReturn(List.of());
+        servicioRecordatorio.barrer();
+        LocalDateTime nueva = LocalDateTime.now().plusHours(3);
+
+        servicioRecordatorio.reabrir(nueva);
+        servicioRecordatorio.barrer();
+
+        assertEquals(nueva, desde.getAllValues().get(1));
+        verifyNoInteractions(servicioCorreo);
+    }
+}
@@ -0,0 +1,140 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.datos.ProductoRepository;
+import mx.uam.ayd.proyecto.datos.ReservaStockRepository;
+import mx.uam.ayd.proyecto.negocio.modelo.CarritoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.DetalleVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.Producto;
+import mx.uam.ayd.proyecto.negocio.modelo.ReservaStock;
+import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioReservaStockTest {
+
+    @Mock
+    private ReservaStockRepository reservaStockRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @InjectMocks
+    private ServicioReservaStock servicioReservaStock;
+
+    private Producto producto(long id, int stock) {
+        Producto producto = new Producto();
+        producto.setIdProducto(id);
+        producto.setNombre("Croquetas");
+        producto.setCantidadStock(stock);
+        lenient().when(productoRepository.findCantidadStockByIdProducto(id)).thenReturn(Optional.of(stock));
+        return producto;
+    }
+
+    @Test
+    void reservar_otraSesionSoloVeLoQueNoEstaReservado() {
+        Producto croquetas = producto(1L, 5);
+
+        servicioReservaStock.reservar("A", croquetas, 3);
+
+        assertEquals(2, servicioReservaStock.disponiblePara("B", croquetas));
+        assertEquals(5, servicioReservaStock.disponiblePara("A", croquetas));
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> servicioReservaStock.reservar("B", croquetas, 3));
+        assertEquals("Solo hay 2 unidades disponibles de Croquetas", ex.getMessage());
+
+        // La propia reserva no cuenta contra la sesión: puede subir hasta el stock libre
+        servicioReservaStock.reservar("A", croquetas, 4);
+        assertEquals(1, servicioReservaStock.disponible(croquetas));
+        verify(reservaStockRepository, times(2)).save(any(ReservaStock.class));
+    }
+
+    @Test
+    void reservar_conCantidadCero_liberaElProducto() {
+        Producto croquetas = producto(1L, 5);
+        servicioReservaStock.reservar("A", croquetas, 5);
+
+        servicioReservaStock.reservar("A", croquetas, 0);
+
+        assertEquals(5, servicioReservaStock.disponible(croquetas));
+        verify(reservaStockRepository).deleteById(new ReservaStock.Llave("A", 1L));
+    }
+
+    @Test
+    void reservaVencida_dejaDeContar() {
+        Producto croquetas = producto(1L, 5);
+        servicioReservaStock.setVigencia(Duration.ZERO);
+        servicioReservaStock.reservar("A", croquetas, 5);
+        servicioReservaStock.setVigencia(ServicioReservaStock.VIGENCIA);
+
+        servicioReservaStock.reservar("B", croquetas, 5);
+
+        assertEquals(0, servicioReservaStock.disponiblePara("A", croquetas));
+    }
+
+    @Test
+    void liberar_devuelveElStockDeTodaLaSesion() {
+        Producto croquetas = producto(1L, 5);
+        Producto collar = producto(2L, 2);
+        servicioReservaStock.reservar("A", croquetas, 5);
+        servicioReservaStock.reservar("A", collar, 2);
+
+        servicioReservaStock.liberar("A");
+
+        assertEquals(5, servicioReservaStock.disponible(croquetas));
+        assertEquals(2, servicioReservaStock.disponible(collar));
+        verify(reservaStockRepository).borrarPorSesion("A");
+    }
+
+    @Test
+    void renovar_indicaSiAlgunProductoYaNoAlcanza() {
+        Producto croquetas = producto(1L, 5);
+        Producto collar = producto(2L, 2);
+        CarritoVenta carrito = new CarritoVenta("A", new Venta(), null);
+        carrito.agregar(detalle(croquetas, 2));
+        carrito.agregar(detalle(collar, 2));
+        servicioReservaStock.reservar("B", collar, 1);
+
+        assertFalse(servicioReservaStock.renovar(carrito));
+        assertEquals(3, servicioReservaStock.disponiblePara("B", croquetas));
+    }
+
+    @Test
+    void reservar_usaElStockGuardadoAunqueLaCopiaEsteAtrasada() {
+        Producto croquetas = producto(1L, 5);
+        // Otra terminal vendió 3 después de que este carrito cargó el producto
+        when(productoRepository.findCantidadStockByIdProducto(1L)).thenReturn(Optional.of(2));
+
+        assertEquals(2, servicioReservaStock.disponiblePara("A", croquetas));
+        assertThrows(IllegalStateException.class, () -> servicioReservaStock.reservar("A", croquetas, 3));
+    }
+
+    @Test
+    void limpiar_borraLasReservasDeSesionesAnteriores() {
+        when(reservaStockRepository.count()).thenReturn(2L, 0L);
+
+        servicioReservaStock.limpiar();
+        servicioReservaStock.limpiar();
+
+        verify(reservaStockRepository, times(1)).deleteAll();
+        assertEquals(5, servicioReservaStock.disponible(producto(1L, 5)));
+    }
+
+    private DetalleVenta detalle(Producto producto, int cantidad) {
+        DetalleVenta detalle = new DetalleVenta();
+        detalle.setProducto(producto);
+        detalle.setCantidadVendida(cantidad);
+        detalle.setSubtotal(0.0);
+        return detalle;
+    }
+}
@@ -0,0 +1,84 @@
+package mx.uam.ayd.proyecto.negocio;
+
+import mx.uam.ayd.proyecto.negocio.modelo.CarritoVenta;
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import mx.uam.ayd.proyecto.negocio.modelo.Venta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServicioSesionVentaTest {
+
+    @Mock
+    private ServicioVenta servicioVenta;
+
+    @Mock
+    private ServicioReservaStock servicioReservaStock;
+
+    @InjectMocks
+    private ServicioSesionVenta servicioSesionVenta;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(servicioVenta.crearVenta()).thenAnswer(invocation -> new Venta());
+    }
+
+    @Test
+    void abrirSesion_creaCarritosIndependientes() {
+        Cliente cliente = new Cliente();
+        cliente.setNombreCompleto("Ana");
+
+        CarritoVenta primero = servicioSesionVenta.abrirSesion(cliente);
+        CarritoVenta segundo = servicioSesionVenta.abrirSesion(null);
+
+        assertNotEquals(primero.getIdSesion(), segundo.getIdSesion());
+        assertNotSame(primero.getVenta(), segundo.getVenta());
+        assertSame(cliente, primero.getCliente());
+        assertSame(primero, servicioSesionVenta.obtenerSesion(primero.getIdSesion()));
+        verify(servicioVenta, times(2)).crearVenta();
+    }
+
+    @Test
+    void estacionarYReanudar_conservanElCarrito() {
+        CarritoVenta primero = servicioSesionVenta.abrirSesion(null);
+        CarritoVenta segundo = servicioSesionVenta.abrirSesion(null);
+        servicioSesionVenta.abrirSesion(null);
+
+        servicioSesionVenta.estacionar(segundo.getIdSesion());
+        servicioSesionVenta.estacionar(primero.getIdSesion());
+
+        List<CarritoVenta> estacionadas = servicioSesionVenta.recuperarEstacionadas();
+        assertEquals(2, estacionadas.size());
+        assertFalse(estacionadas.get(0).getInicio().isAfter(estacionadas.get(1).getInicio()));
+
+        assertSame(segundo, servicioSesionVenta.reanudar(segundo.getIdSesion()));
+        assertEquals(List.of(primero), servicioSesionVenta.recuperarEstacionadas());
+    }
+
+    @Test
+    void cerrarSesion_quitaElCarrito() {
+        CarritoVenta carrito = servicioSesionVenta.abrirSesion(null);
+
+        servicioSesionVenta.cerrarSesion(carrito.getIdSesion());
+
+        verify(servicioReservaStock).liberar(carrito.getIdSesion());
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> servicioSesionVenta.obtenerSesion(carrito.getIdSesion()));
+        assertEquals("La sesión de venta " + carrito.getIdSesion() + " no existe", ex.getMessage());
+    }
+
+    @Test
+    void obtenerSesion_sinId_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> servicioSesionVenta.obtenerSesion(null));
+        assertThrows(IllegalArgumentException.class, () -> servicioSesionVenta.reanudar("no-existe"));
+    }
+}
@@ -25,6 +25,15 @@ class ServicioVentaTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private ServicioCuboVentas servicioCuboVentas;
+
+    @Mock
+    private ServicioGastoCliente servicioGastoCliente;
+
+    @Mock
+    private ServicioKardex servicioKardex;
+
     @InjectMocks
     private ServicioVenta servicioVenta;
 
@@ -41,6 +50,33 @@ class ServicioVentaTest {
         assertEquals(0, venta.getDetalleVentas().size());
     }
 
+    @Test
+    void actualizarStock_registraLaSalidaEnElKardex() {
+        Producto producto = new Producto();
+        producto.setIdProducto(5L);
+        producto.setCantidadStock(8);
+
+        servicioVenta.actualizarStock(producto, 3, 11L);
+
+        assertEquals(5, producto.getCantidadStock());
+        verify(servicioKardex).registrarVenta(5L, 3, 11L);
+        verify(productoRepository, never()).save(any());
+    }
+
+    @Test
+    void actualizarStock_sinStockSuficiente_lanzaExcepcion() {
+        Producto producto = new Producto();
+        producto.setIdProducto(5L);
+        producto.setCantidadStock(8);
+        when(servicioKardex.registrarVenta(5L, 3, null))
+                .thenThrow(new IllegalStateException("La cantidad vendida no puede ser mayor al stock"));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> servicioVenta.actualizarStock(producto, 3));
+
+        assertEquals("La cantidad vendida no puede ser mayor al stock", ex.getMessage());
+        assertEquals(8, producto.getCantidadStock());
+    }
+
     @Test
     void guardarVenta_ventaNoDebeSerNull() {
         Venta venta = null;
@@ -76,6 +112,20 @@ class ServicioVentaTest {
         verify(ventaRepository, times(1)).save(venta);
     }
 
+    @Test
+    void guardarVenta_conCliente_sumaElGastoDeFormaAtomica() {
+        Venta venta = new Venta();
+        venta.setIdVenta(9L);
+        Cliente cliente = new Cliente();
+        cliente.setIdCliente(4L);
+        cliente.setMontoAcumulado(100.0);
+
+        servicioVenta.guardarVenta(venta, 50.25, cliente);
+
+        verify(servicioGastoCliente).registrarGasto(4L, 9L, 50.25);
+        assertEquals(150.25, cliente.getMontoAcumulado());
+    }
+
     @Test
     void agregarDetallesVenta_detallesVentaNoDebeEstarVacio(){
         List<DetalleVenta> lista = new ArrayList<>();
@@ -123,4 +173,41 @@ class ServicioVentaTest {
         });
         assertEquals("La lista de detalles contiene productos duplicados", ex.getMessage());
     }
+
+    @Test
+    void finalizarVenta_sinStockDeUnProducto_dejaLaVentaComoNueva() {
+        Cliente cliente = new Cliente();
+        cliente.setIdCliente(4L);
+        cliente.setMontoAcumulado(100.0);
+        Venta venta = new Venta();
+        Producto croquetas = new Producto();
+        croquetas.setIdProducto(1L);
+        croquetas.setCantidadStock(10);
+        Producto shampoo = new Producto();
+        shampoo.setIdProducto(2L);
+        shampoo.setCantidadStock(1);
+        DetalleVenta primero = new DetalleVenta();
+        primero.setProducto(croquetas);
+        primero.setCantidadVendida(2);
+        primero.setVenta(venta);
+        DetalleVenta segundo = new DetalleVenta();
+        segundo.setProducto(shampoo);
+        segundo.setCantidadVendida(3);
+        segundo.setVenta(venta);
+        when(ventaRepository.save(venta)).thenAnswer(inv -> {
+            venta.setIdVenta(9L);
+            return venta;
+        });
+        when(servicioKardex.registrarVenta(2L, 3, 9L))
+                .thenThrow(new IllegalStateException("La cantidad vendida no puede ser mayor al stock"));
+
+        assertThrows(IllegalStateException.class,
+                () -> servicioVenta.finalizarVenta(venta, List.of(primero, segundo), 50.0, cliente));
+
+        verify(servicioKardex).registrarVenta(1L, 2, 9L);
+        assertNull(venta.getIdVenta());
+        assertEquals(100.0, cliente.getMontoAcumulado());
+        assertEquals(10, croquetas.getCantidadStock());
+        assertEquals(1, shampoo.getCantidadStock());
+    }
 }
\ No newline at end of file
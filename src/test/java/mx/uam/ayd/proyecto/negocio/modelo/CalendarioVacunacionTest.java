@@ -0,0 +1,59 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CalendarioVacunacionTest {
+
+	private final CalendarioVacunacion calendario = CalendarioVacunacion.predeterminado();
+
+	@Test
+	@DisplayName("La serie de cachorro espacia las dosis tres semanas y luego pasa a refuerzo anual")
+	void testSerieDeCachorro() {
+		LocalDate fecha = LocalDate.of(2025, 1, 10);
+
+		assertEquals(fecha.plusWeeks(3), calendario.proximaDosis(VacunaEnum.PARVOVIRUS, Especie.PERRO, 1, fecha));
+		assertEquals(fecha.plusWeeks(3), calendario.proximaDosis(VacunaEnum.PARVOVIRUS, Especie.PERRO, 2, fecha));
+		assertEquals(fecha.plusMonths(12), calendario.proximaDosis(VacunaEnum.PARVOVIRUS, Especie.PERRO, 3, fecha));
+		assertEquals(fecha.plusMonths(12), calendario.proximaDosis(VacunaEnum.PARVOVIRUS, Especie.PERRO, 7, fecha));
+	}
+
+	@Test
+	@DisplayName("Sin regla para la especie se usa la general y, si no hay, el refuerzo anual")
+	void testReglasDeRespaldo() {
+		LocalDate fecha = LocalDate.of(2025, 1, 10);
+
+		assertEquals(fecha.plusMonths(12), calendario.proximaDosis(VacunaEnum.RABIA, Especie.GATO, 1, fecha));
+		assertEquals(fecha.plusMonths(12), calendario.proximaDosis(VacunaEnum.PARVOVIRUS, Especie.GATO, 1, fecha));
+		assertNull(calendario.proximaDosis(VacunaEnum.RABIA, Especie.PERRO, 1, null));
+	}
+
+	@Test
+	@DisplayName("Una serie sin refuerzo termina con la última dosis")
+	void testSerieSinRefuerzo() {
+		CalendarioVacunacion propio = CalendarioVacunacion.nuevo()
+				.serie(VacunaEnum.LEPTOSPIROSIS, Especie.PERRO, null, Period.ofWeeks(4))
+				.construir();
+
+		assertEquals(Optional.of(Period.ofWeeks(4)), propio.intervaloTras(VacunaEnum.LEPTOSPIROSIS, Especie.PERRO, 1));
+		assertEquals(Optional.empty(), propio.intervaloTras(VacunaEnum.LEPTOSPIROSIS, Especie.PERRO, 2));
+		assertThrows(IllegalArgumentException.class, () -> propio.intervaloTras(VacunaEnum.LEPTOSPIROSIS, Especie.PERRO, 0));
+	}
+
+	@Test
+	@DisplayName("La especie se reconoce sin importar mayúsculas ni acentos")
+	void testEspecieDesdeTexto() {
+		assertEquals(Especie.PERRO, Especie.de(" Perro "));
+		assertEquals(Especie.PERRO, Especie.de("Canino"));
+		assertEquals(Especie.GATO, Especie.de("GATA"));
+		assertEquals(Especie.GATO, Especie.de("felino"));
+		assertEquals(Especie.OTRA, Especie.de("Conejo"));
+		assertEquals(Especie.OTRA, Especie.de(null));
+	}
+}
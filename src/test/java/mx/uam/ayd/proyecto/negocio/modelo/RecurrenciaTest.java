@@ -0,0 +1,41 @@
+package mx.uam.ayd.proyecto.negocio.modelo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RecurrenciaTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 31, 10, 0);
+
+    @Test
+    void expandir_mensualSeCalculaDesdeLaPrimeraCita() {
+        List<LocalDateTime> fechas = Recurrencia.veces(Recurrencia.Frecuencia.MENSUAL, 1, 3).expandir(INICIO);
+
+        assertEquals(List.of(INICIO, LocalDateTime.of(2025, 2, 28, 10, 0), LocalDateTime.of(2025, 3, 31, 10, 0)), fechas);
+    }
+
+    @Test
+    void expandir_hastaIncluyeLaFechaFinal() {
+        List<LocalDateTime> fechas = Recurrencia.hasta(Recurrencia.Frecuencia.SEMANAL, 2, INICIO.plusWeeks(4)).expandir(INICIO);
+
+        assertEquals(List.of(INICIO, INICIO.plusWeeks(2), INICIO.plusWeeks(4)), fechas);
+    }
+
+    @Test
+    void expandir_rechazaFechaFinalAnteriorALaPrimeraCita() {
+        Recurrencia recurrencia = Recurrencia.hasta(Recurrencia.Frecuencia.SEMANAL, 1, INICIO.minusDays(1));
+
+        assertThrows(IllegalArgumentException.class, () -> recurrencia.expandir(INICIO));
+    }
+
+    @Test
+    void expandir_rechazaSeriesDemasiadoLargas() {
+        assertThrows(IllegalArgumentException.class, () -> Recurrencia.veces(Recurrencia.Frecuencia.DIARIA, 1, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> Recurrencia.hasta(Recurrencia.Frecuencia.DIARIA, 1, INICIO.plusYears(1)).expandir(INICIO));
+    }
+}
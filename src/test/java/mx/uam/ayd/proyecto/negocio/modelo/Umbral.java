@@ -17,7 +17,8 @@ public class Umbral{
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "umbral_seq")
+    @SequenceGenerator(name = "umbral_seq", sequenceName = "umbral_seq", allocationSize = 50)
     private Long idUmbral;
 
     private int valorMinimo;
@@ -0,0 +1,79 @@
+package mx.uam.ayd.proyecto.negocio.validacion;
+
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReglasValidacionTest {
+
+    private static final ReglasValidacion<Cliente> REGLAS = ReglasValidacion.<Cliente>nuevas()
+            .obligatorio(Cliente::getNombreCompleto, "Nombre obligatorio")
+            .obligatorio(Cliente::getDireccion, "Campos obligatorios")
+            .obligatorio(Cliente::getCorreoElectronico, "Campos obligatorios")
+            .formato(Cliente::getTelefono, Patrones.TELEFONO, "Telefono invalido")
+            .longitudMaxima(Cliente::getNombreCompleto, 10, "Nombre muy largo")
+            .cumple(c -> c.getMontoAcumulado() == null || c.getMontoAcumulado() >= 0, "Monto negativo")
+            .construir();
+
+    private Cliente cliente(String nombre, String telefono, String correo, String direccion) {
+        Cliente cliente = new Cliente();
+        cliente.setNombreCompleto(nombre);
+        cliente.setTelefono(telefono);
+        cliente.setCorreoElectronico(correo);
+        cliente.setDireccion(direccion);
+        return cliente;
+    }
+
+    @Test
+    void validar_objetoValido_regresaListaVacia() {
+        List<String> violaciones = REGLAS.validar(cliente("Ana", "5512345678", "ana@mail.com", "Calle 1"));
+
+        assertTrue(violaciones.isEmpty());
+        assertDoesNotThrow(() -> REGLAS.verificar(cliente("Ana", "5512345678", "ana@mail.com", "Calle 1")));
+    }
+
+    @Test
+    void validar_reportaTodasLasViolacionesEnOrden() {
+        Cliente cliente = cliente("Nombre demasiado largo", "123", "ana@mail.com", "Calle 1");
+        cliente.setMontoAcumulado(-1.0);
+
+        assertEquals(List.of("Telefono invalido", "Nombre muy largo", "Monto negativo"), REGLAS.validar(cliente));
+    }
+
+    @Test
+    void validar_mensajeRepetido_seReportaUnaVez() {
+        List<String> violaciones = REGLAS.validar(cliente("Ana", "5512345678", null, "  "));
+
+        assertEquals(List.of("Campos obligatorios"), violaciones);
+    }
+
+    @Test
+    void formato_valorNuloOEnBlanco_seIgnora() {
+        assertEquals(List.of(), REGLAS.validar(cliente("Ana", null, "ana@mail.com", "Calle 1")));
+        assertEquals(List.of(), REGLAS.validar(cliente("Ana", "  ", "ana@mail.com", "Calle 1")));
+    }
+
+    @Test
+    void verificar_conViolaciones_lanzaExcepcionConTodasLasViolaciones() {
+        ValidacionException ex = assertThrows(ValidacionException.class,
+                () -> REGLAS.verificar(cliente(null, "abc", "ana@mail.com", "Calle 1")));
+
+        assertEquals(List.of("Nombre obligatorio", "Telefono invalido"), ex.getViolaciones());
+        assertEquals("Nombre obligatorio", ex.getMessage());
+        assertEquals("Nombre obligatorio\nTelefono invalido", ValidacionException.mensajeDe(ex));
+        assertInstanceOf(IllegalArgumentException.class, ex);
+    }
+
+    @Test
+    void patron_reutilizaElMismoPatronEntreLlamadas() {
+        assertTrue(Patrones.CORREO.coincide("ana@mail.com"));
+        assertFalse(Patrones.CORREO.coincide("ana@"));
+        assertTrue(Patrones.CORREO.coincide("luis@uam.mx"));
+        assertFalse(Patrones.TELEFONO.coincide(null));
+        assertTrue(Patrones.TEXTO_CLINICO.coincide("Esterilización, sin complicaciones."));
+        assertFalse(Patrones.TEXTO_CLINICO.coincide("Cirugía #1"));
+    }
+}
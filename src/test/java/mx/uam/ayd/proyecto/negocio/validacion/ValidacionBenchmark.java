@@ -0,0 +1,101 @@
+package mx.uam.ayd.proyecto.negocio.validacion;
+
+import mx.uam.ayd.proyecto.negocio.modelo.Cliente;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Microbenchmark manual del costo por llamada de la validación de clientes,
+ * simulando una importación masiva.
+ *
+ * <p>Compara la validación anterior ({@code Pattern.matches} con la expresión como texto,
+ * que la compila en cada llamada) contra {@link ReglasValidacion} con patrones precompilados.
+ * No forma parte de la suite de pruebas; se ejecuta a mano:</p>
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp "target/classes:target/test-classes:$(cat target/cp.txt)" \
+ *     mx.uam.ayd.proyecto.negocio.validacion.ValidacionBenchmark
+ * </pre>
+ */
+public class ValidacionBenchmark {
+
+    private static final String REGEX_NOMBRE = "^[a-zA-ZáéíóúÁÉÍÓÚñÑ\\s]{1,100}$";
+    private static final String REGEX_TELEFONO = "^\\d{10}$";
+    private static final String REGEX_CORREO = "^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$";
+
+    private static final ReglasValidacion<Cliente> REGLAS = ReglasValidacion.<Cliente>nuevas()
+            .obligatorio(Cliente::getNombreCompleto, "Todos los campos son obligatorios")
+            .obligatorio(Cliente::getTelefono, "Todos los campos son obligatorios")
+            .obligatorio(Cliente::getCorreoElectronico, "Todos los campos son obligatorios")
+            .obligatorio(Cliente::getDireccion, "Todos los campos son obligatorios")
+            .formato(Cliente::getNombreCompleto, Patrones.NOMBRE_PERSONA, "Nombre invalido")
+            .formato(Cliente::getTelefono, Patrones.TELEFONO, "Telefono invalido")
+            .formato(Cliente::getCorreoElectronico, Patrones.CORREO, "Correo invalido")
+            .construir();
+
+    private static final int CLIENTES = 100_000;
+    private static final int RONDAS = 5;
+
+    public static void main(String[] args) {
+        List<Cliente> lote = generarLote();
+
+        // Calentamiento del JIT
+        for (int i = 0; i < 3; i++) {
+            validarAnterior(lote);
+            validarConReglas(lote);
+        }
+
+        for (int ronda = 1; ronda <= RONDAS; ronda++) {
+            long inicio = System.nanoTime();
+            int invalidosAnterior = validarAnterior(lote);
+            long anterior = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            int invalidosReglas = validarConReglas(lote);
+            long reglas = System.nanoTime() - inicio;
+
+            System.out.printf("Ronda %d: Pattern.matches %.0f ns/cliente, ReglasValidacion %.0f ns/cliente (%.1fx) "
+                            + "[invalidos %d/%d]%n",
+                    ronda, (double) anterior / CLIENTES, (double) reglas / CLIENTES,
+                    (double) anterior / reglas, invalidosAnterior, invalidosReglas);
+        }
+    }
+
+    private static List<Cliente> generarLote() {
+        List<Cliente> lote = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombreCompleto(i % 50 == 0 ? "Cliente " + i : "Cliente Numero");
+            cliente.setTelefono(String.format("55%08d", i));
+            cliente.setCorreoElectronico("cliente" + i + "@correo.com");
+            cliente.setDireccion("Calle " + i);
+            lote.add(cliente);
+        }
+        return lote;
+    }
+
+    private static int validarAnterior(List<Cliente> lote) {
+        int invalidos = 0;
+        for (Cliente c : lote) {
+            if (!Pattern.matches(REGEX_NOMBRE, c.getNombreCompleto())
+                    || !Pattern.matches(REGEX_TELEFONO, c.getTelefono())
+                    || !Pattern.matches(REGEX_CORREO, c.getCorreoElectronico())) {
+                invalidos++;
+            }
+        }
+        return invalidos;
+    }
+
+    private static int validarConReglas(List<Cliente> lote) {
+        int invalidos = 0;
+        for (Cliente c : lote) {
+            if (!REGLAS.validar(c).isEmpty()) {
+                invalidos++;
+            }
+        }
+        return invalidos;
+    }
+}